@@ -0,0 +1,139 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.xml.bind.api.AccessorException;
+import com.sun.xml.bind.v2.runtime.reflect.Accessor;
+import com.sun.xml.bind.v2.runtime.reflect.opt.MethodHandleAccessorFactory;
+import com.sun.xml.bind.v2.runtime.reflect.opt.OptimizedAccessorFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link Accessor} backends on a private int field and a private reference field.
+ *
+ * <ul>
+ *  <li>{@code reflection}: {@link Accessor.FieldReflection}, what we use when nothing else works.
+ *  <li>{@code methodHandle}: {@link MethodHandleAccessorFactory}.
+ *  <li>{@code optimized}: whatever {@link OptimizedAccessorFactory} picks on this VM
+ *      (an injected class for non-private fields where the VM allows it).
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+
+    public static class Bean {
+        private int i;
+        private String s = "value";
+        int packageInt;
+        String packageString = "value";
+    }
+
+    @Param({"reflection", "methodHandle", "optimized"})
+    public String backend;
+
+    @Param({"private", "package"})
+    public String visibility;
+
+    private Accessor<Bean,Object> intAccessor;
+    private Accessor<Bean,Object> refAccessor;
+    private final Bean bean = new Bean();
+    private int counter;
+
+    @Setup
+    public void setup() throws Exception {
+        boolean priv = visibility.equals("private");
+        intAccessor = create(Bean.class.getDeclaredField(priv ? "i" : "packageInt"));
+        refAccessor = create(Bean.class.getDeclaredField(priv ? "s" : "packageString"));
+    }
+
+    private Accessor<Bean,Object> create(Field f) {
+        Accessor<Bean,Object> reflection = new Accessor.FieldReflection<Bean,Object>(f);
+        Accessor<Bean,Object> acc;
+        if (backend.equals("methodHandle"))
+            acc = MethodHandleAccessorFactory.get(f);
+        else if (backend.equals("optimized"))
+            acc = OptimizedAccessorFactory.get(f);
+        else
+            acc = reflection;
+        if (acc == null)
+            throw new IllegalStateException(backend + " accessor is not available for " + f);
+        return acc;
+    }
+
+    @Benchmark
+    public Object getInt() throws AccessorException {
+        return intAccessor.get(bean);
+    }
+
+    @Benchmark
+    public void setInt() throws AccessorException {
+        intAccessor.set(bean, counter++);
+    }
+
+    @Benchmark
+    public Object getRef() throws AccessorException {
+        return refAccessor.get(bean);
+    }
+
+    @Benchmark
+    public void setRef() throws AccessorException {
+        refAccessor.set(bean, "value");
+    }
+}
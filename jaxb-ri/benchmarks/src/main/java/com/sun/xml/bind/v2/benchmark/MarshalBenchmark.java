@@ -0,0 +1,176 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.activation.DataHandler;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.attachment.AttachmentMarshaller;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.sun.xml.bind.api.JAXBRIContext;
+import com.sun.xml.bind.v2.runtime.output.C14nXmlOutput;
+import com.sun.xml.bind.v2.runtime.output.IndentingUTF8XmlOutput;
+import com.sun.xml.bind.v2.runtime.output.UTF8XmlOutput;
+import com.sun.xml.bind.v2.runtime.output.XMLStreamWriterOutput;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Marshals each of the {@link Models} through each of the outputs.
+ *
+ * <ul>
+ *  <li>{@code utf8}: {@link UTF8XmlOutput}, what {@code marshal(Object,OutputStream)} uses.
+ *  <li>{@code indenting}: {@link IndentingUTF8XmlOutput}, with {@link Marshaller#JAXB_FORMATTED_OUTPUT}.
+ *  <li>{@code c14n}: {@link C14nXmlOutput}, with canonicalization turned on.
+ *  <li>{@code xmlStreamWriter}: {@link XMLStreamWriterOutput} on top of the JDK's StAX writer.
+ * </ul>
+ *
+ * The marshaller is reused across invocations, and the bytes are discarded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshalBenchmark {
+
+    @Param({"flat", "deep", "wide", "attributes", "base64", "mtom", "polymorphic", "idref"})
+    public String model;
+
+    @Param({"utf8", "indenting", "c14n", "xmlStreamWriter"})
+    public String output;
+
+    private Object bean;
+    private Marshaller marshaller;
+    private XMLOutputFactory xof;
+    private final NullOutputStream out = new NullOutputStream();
+
+    @Setup
+    public void setup() throws JAXBException {
+        JAXBContext context = JAXBRIContext.newInstance(Models.CLASSES, null, null, false);
+        bean = Models.create(model);
+        marshaller = context.createMarshaller();
+        if (output.equals("indenting"))
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        if (output.equals("c14n"))
+            marshaller.setProperty(JAXBRIContext.CANONICALIZATION_SUPPORT, true);
+        if (output.equals("xmlStreamWriter"))
+            xof = XMLOutputFactory.newInstance();
+        if (model.equals("mtom"))
+            marshaller.setAttachmentMarshaller(new DiscardingAttachmentMarshaller());
+    }
+
+    @Benchmark
+    public long marshal() throws JAXBException, XMLStreamException {
+        out.count = 0;
+        if (xof != null) {
+            XMLStreamWriter w = xof.createXMLStreamWriter(out, "UTF-8");
+            marshaller.marshal(bean, w);
+            w.close();
+        } else {
+            marshaller.marshal(bean, out);
+        }
+        return out.count;
+    }
+
+    /**
+     * Counts and discards the bytes.
+     */
+    static final class NullOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) throws IOException {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            count += len;
+        }
+    }
+
+    /**
+     * Turns binary data into XOP attachments and throws them away.
+     */
+    static final class DiscardingAttachmentMarshaller extends AttachmentMarshaller {
+        private int id;
+
+        @Override
+        public boolean isXOPPackage() {
+            return true;
+        }
+
+        @Override
+        public String addMtomAttachment(DataHandler data, String elementNamespace, String elementLocalName) {
+            return "cid:" + (id++);
+        }
+
+        @Override
+        public String addMtomAttachment(byte[] data, int offset, int length, String mimeType, String elementNamespace, String elementLocalName) {
+            return "cid:" + (id++);
+        }
+
+        @Override
+        public String addSwaRefAttachment(DataHandler data) {
+            return "cid:" + (id++);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlID;
+import javax.xml.bind.annotation.XmlIDREF;
+import javax.xml.bind.annotation.XmlList;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSeeAlso;
+
+/**
+ * Representative object models the marshal/unmarshal benchmarks run on.
+ *
+ * <ul>
+ *  <li>{@code flat}: one element with simple-typed children of every common kind.
+ *  <li>{@code deep}: a chain of nested elements.
+ *  <li>{@code wide}: a long list of small {@code flat}-like records.
+ *  <li>{@code attributes}: records that carry everything in attributes.
+ *  <li>{@code base64}, {@code mtom}: a large {@code byte[]}, inlined or sent as an attachment.
+ *  <li>{@code polymorphic}: a list of subtypes written with {@code xsi:type}.
+ *  <li>{@code idref}: a graph held together with {@code ID}/{@code IDREF}s.
+ * </ul>
+ */
+public final class Models {
+    private Models() {}
+
+    /**
+     * All the classes the models need, for creating the {@code JAXBContext}.
+     */
+    public static final Class<?>[] CLASSES = {
+        Flat.class, Deep.class, Wide.class, Attributes.class, Binary.class, Shapes.class, Graph.class
+    };
+
+    /**
+     * Creates the model of the given name.
+     */
+    public static Object create(String model) {
+        if (model.equals("flat"))
+            return flat(0);
+        if (model.equals("deep"))
+            return deep(100);
+        if (model.equals("wide"))
+            return wide(1000);
+        if (model.equals("attributes"))
+            return attributes(1000);
+        if (model.equals("base64") || model.equals("mtom"))
+            return binary(64*1024);
+        if (model.equals("polymorphic"))
+            return shapes(1000);
+        if (model.equals("idref"))
+            return graph(1000);
+        throw new IllegalArgumentException(model);
+    }
+
+    @XmlRootElement
+    public static class Flat {
+        public String name;
+        public String description;
+        public int count;
+        public long id;
+        public double price;
+        public float ratio;
+        public short code;
+        public boolean active;
+    }
+
+    private static Flat flat(int i) {
+        Flat f = new Flat();
+        f.name = "name" + i;
+        f.description = "A description of record #" + i + " with <markup> & escaping";
+        f.count = i;
+        f.id = 10000000000L + i;
+        f.price = i * 1.25;
+        f.ratio = i / 3f;
+        f.code = (short) i;
+        f.active = (i & 1) == 0;
+        return f;
+    }
+
+    @XmlRootElement
+    public static class Deep {
+        public String name;
+        public Deep child;
+    }
+
+    private static Deep deep(int depth) {
+        Deep root = null;
+        for (int i = 0; i < depth; i++) {
+            Deep d = new Deep();
+            d.name = "level" + i;
+            d.child = root;
+            root = d;
+        }
+        return root;
+    }
+
+    @XmlRootElement
+    public static class Wide {
+        @XmlElement(name = "record")
+        public List<Flat> records = new ArrayList<Flat>();
+    }
+
+    private static Wide wide(int n) {
+        Wide w = new Wide();
+        for (int i = 0; i < n; i++)
+            w.records.add(flat(i));
+        return w;
+    }
+
+    @XmlRootElement
+    public static class Attributes {
+        @XmlElement(name = "entry")
+        public List<Entry> entries = new ArrayList<Entry>();
+    }
+
+    public static class Entry {
+        @XmlAttribute public String key;
+        @XmlAttribute public String value;
+        @XmlAttribute public String type;
+        @XmlAttribute public int index;
+        @XmlAttribute public long timestamp;
+        @XmlAttribute public double weight;
+        @XmlAttribute public boolean enabled;
+    }
+
+    private static Attributes attributes(int n) {
+        Attributes a = new Attributes();
+        for (int i = 0; i < n; i++) {
+            Entry e = new Entry();
+            e.key = "key" + i;
+            e.value = "value \"" + i + "\"";
+            e.type = "string";
+            e.index = i;
+            e.timestamp = 1500000000000L + i;
+            e.weight = i * 0.5;
+            e.enabled = (i & 1) == 0;
+            a.entries.add(e);
+        }
+        return a;
+    }
+
+    @XmlRootElement
+    public static class Binary {
+        public String name;
+        public byte[] data;
+    }
+
+    private static Binary binary(int size) {
+        Binary b = new Binary();
+        b.name = "blob";
+        b.data = new byte[size];
+        for (int i = 0; i < size; i++)
+            b.data[i] = (byte) (i * 31);
+        return b;
+    }
+
+    @XmlRootElement
+    public static class Shapes {
+        @XmlElement(name = "shape")
+        public List<Shape> shapes = new ArrayList<Shape>();
+    }
+
+    @XmlSeeAlso({Circle.class, Rectangle.class, Polygon.class})
+    public static abstract class Shape {
+        public String color;
+    }
+
+    public static class Circle extends Shape {
+        public double radius;
+    }
+
+    public static class Rectangle extends Shape {
+        public double width;
+        public double height;
+    }
+
+    public static class Polygon extends Shape {
+        @XmlList
+        public int[] points;
+    }
+
+    private static Shapes shapes(int n) {
+        Shapes s = new Shapes();
+        for (int i = 0; i < n; i++) {
+            Shape shape;
+            switch (i % 3) {
+            case 0:
+                Circle c = new Circle();
+                c.radius = i;
+                shape = c;
+                break;
+            case 1:
+                Rectangle r = new Rectangle();
+                r.width = i;
+                r.height = i * 2;
+                shape = r;
+                break;
+            default:
+                Polygon p = new Polygon();
+                p.points = new int[] {0, 0, i, 0, i, i};
+                shape = p;
+            }
+            shape.color = "#" + Integer.toHexString(i);
+            s.shapes.add(shape);
+        }
+        return s;
+    }
+
+    @XmlRootElement
+    public static class Graph {
+        @XmlElement(name = "node")
+        public List<Node> nodes = new ArrayList<Node>();
+    }
+
+    public static class Node {
+        @XmlID @XmlAttribute
+        public String id;
+        @XmlIDREF @XmlAttribute
+        public Node next;
+        @XmlIDREF @XmlList
+        public List<Node> links = new ArrayList<Node>();
+    }
+
+    private static Graph graph(int n) {
+        Graph g = new Graph();
+        for (int i = 0; i < n; i++) {
+            Node node = new Node();
+            node.id = "n" + i;
+            g.nodes.add(node);
+        }
+        for (int i = 0; i < n; i++) {
+            Node node = g.nodes.get(i);
+            // forward references resolve at the end of the document, backward ones right away
+            node.next = g.nodes.get((i + 1) % n);
+            for (int j = 1; j <= 4; j++)
+                node.links.add(g.nodes.get((i * 7 + j * 13) % n));
+        }
+        return g;
+    }
+}
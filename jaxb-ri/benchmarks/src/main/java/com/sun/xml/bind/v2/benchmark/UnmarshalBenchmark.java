@@ -0,0 +1,199 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.activation.DataHandler;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.attachment.AttachmentMarshaller;
+import javax.xml.bind.attachment.AttachmentUnmarshaller;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import com.sun.istack.ByteArrayDataSource;
+import com.sun.xml.bind.api.JAXBRIContext;
+import com.sun.xml.bind.unmarshaller.DOMScanner;
+import com.sun.xml.bind.v2.runtime.unmarshaller.SAXConnector;
+import com.sun.xml.bind.v2.runtime.unmarshaller.UnmarshallerImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+/**
+ * Unmarshals each of the {@link Models} through each of the connectors.
+ *
+ * <ul>
+ *  <li>{@code sax}: {@link SAXConnector} over the JDK's SAX parser, what {@code unmarshal(InputStream)} uses.
+ *  <li>{@code utf8Scanner}: the built-in UTF-8 scanner, enabled by {@link UnmarshallerImpl#UTF8_SCANNER}.
+ *  <li>{@code stax}: {@code StAXStreamConnector} over the JDK's {@link XMLStreamReader}.
+ *  <li>{@code dom}: {@link DOMScanner} over a document parsed upfront, so only the binding is measured.
+ * </ul>
+ *
+ * The document is produced by marshalling the model once, and the unmarshaller is reused across invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnmarshalBenchmark {
+
+    @Param({"flat", "deep", "wide", "attributes", "base64", "mtom", "polymorphic", "idref"})
+    public String model;
+
+    @Param({"sax", "utf8Scanner", "stax", "dom"})
+    public String connector;
+
+    private byte[] xml;
+    private Document dom;
+    private Unmarshaller unmarshaller;
+    private XMLInputFactory xif;
+
+    @Setup
+    public void setup() throws Exception {
+        JAXBContext context = JAXBRIContext.newInstance(Models.CLASSES, null, null, false);
+
+        Marshaller m = context.createMarshaller();
+        MapAttachments attachments = new MapAttachments();
+        if (model.equals("mtom"))
+            m.setAttachmentMarshaller(attachments);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        m.marshal(Models.create(model), baos);
+        xml = baos.toByteArray();
+
+        unmarshaller = context.createUnmarshaller();
+        if (model.equals("mtom"))
+            unmarshaller.setAttachmentUnmarshaller(attachments.unmarshaller());
+        if (connector.equals("utf8Scanner"))
+            unmarshaller.setProperty(UnmarshallerImpl.UTF8_SCANNER, true);
+        if (connector.equals("stax"))
+            xif = XMLInputFactory.newInstance();
+        if (connector.equals("dom")) {
+            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+            dbf.setNamespaceAware(true);
+            dom = dbf.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+        }
+    }
+
+    @Benchmark
+    public Object unmarshal() throws Exception {
+        if (dom != null)
+            return unmarshaller.unmarshal(dom);
+        if (xif != null) {
+            XMLStreamReader r = xif.createXMLStreamReader(new ByteArrayInputStream(xml));
+            try {
+                return unmarshaller.unmarshal(r);
+            } finally {
+                r.close();
+            }
+        }
+        return unmarshaller.unmarshal(new ByteArrayInputStream(xml));
+    }
+
+    /**
+     * Keeps the attachments produced while marshalling, so that they can be handed back when unmarshalling.
+     */
+    static final class MapAttachments extends AttachmentMarshaller {
+        private final Map<String,byte[]> parts = new HashMap<String,byte[]>();
+
+        @Override
+        public boolean isXOPPackage() {
+            return true;
+        }
+
+        @Override
+        public String addMtomAttachment(DataHandler data, String elementNamespace, String elementLocalName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String addMtomAttachment(byte[] data, int offset, int length, String mimeType, String elementNamespace, String elementLocalName) {
+            String cid = "cid:" + parts.size();
+            byte[] part = new byte[length];
+            System.arraycopy(data, offset, part, 0, length);
+            parts.put(cid, part);
+            return cid;
+        }
+
+        @Override
+        public String addSwaRefAttachment(DataHandler data) {
+            throw new UnsupportedOperationException();
+        }
+
+        AttachmentUnmarshaller unmarshaller() {
+            return new AttachmentUnmarshaller() {
+                @Override
+                public boolean isXOPPackage() {
+                    return true;
+                }
+
+                @Override
+                public byte[] getAttachmentAsByteArray(String cid) {
+                    return parts.get(cid);
+                }
+
+                @Override
+                public DataHandler getAttachmentAsDataHandler(String cid) {
+                    return new DataHandler(new ByteArrayDataSource(parts.get(cid), "application/octet-stream"));
+                }
+            };
+        }
+    }
+}
@@ -44,11 +44,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.ref.WeakReference;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -73,63 +70,60 @@ public final class ClassFactory {
     /**
      * Cache from a class to its default constructor.
      *
-     * To avoid synchronization among threads, we use {@link ThreadLocal}.
+     * <p>
+     * This is shared by all the threads, so that thread-per-request deployments
+     * don't end up with a copy of the cache (and a cold lookup) for every thread.
+     * The constructor is kept with the class itself, so caching it here doesn't
+     * prevent the class from being unloaded.
      */
-    private static final ThreadLocal<Map<Class, WeakReference<Constructor>>> tls = new ThreadLocal<Map<Class,WeakReference<Constructor>>>() {
+    private static final ClassValue<Constructor> constructors = new ClassValue<Constructor>() {
         @Override
-        public Map<Class,WeakReference<Constructor>> initialValue() {
-            return new WeakHashMap<Class,WeakReference<Constructor>>();
+        protected Constructor computeValue(Class<?> clazz) {
+            return getConstructor(clazz);
         }
     };
 
+    /**
+     * Used to discard the constructors cached for the current thread.
+     * The cache is now shared by all the threads, so there's nothing to clean.
+     */
     public static void cleanCache() {
-        if (tls != null) {
-            try {
-                tls.remove();
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Unable to clean Thread Local cache of classes used in Unmarshaller: {0}", e.getLocalizedMessage());
-            }
-        }
     }
 
     /**
      * Creates a new instance of the class but throw exceptions without catching it.
      */
     public static <T> T create0( final Class<T> clazz ) throws IllegalAccessException, InvocationTargetException, InstantiationException {
-        Map<Class,WeakReference<Constructor>> m = tls.get();
-        Constructor<T> cons = null;
-        WeakReference<Constructor> consRef = m.get(clazz);
-        if(consRef!=null)
-            cons = consRef.get();
-        if(cons==null) {
-            if (System.getSecurityManager() == null) {
-                cons = tryGetDeclaredConstructor(clazz);
-            } else {
-                cons = AccessController.doPrivileged(new PrivilegedAction<Constructor<T>>() {
-                    @Override
-                    public Constructor<T> run() {
-                        return tryGetDeclaredConstructor(clazz);
-                    }
-                });
-            }
-
-            int classMod = clazz.getModifiers();
+        Constructor<T> cons = constructors.get(clazz);
+        return cons.newInstance(emptyObject);
+    }
 
-            if(!Modifier.isPublic(classMod) || !Modifier.isPublic(cons.getModifiers())) {
-                // attempt to make it work even if the constructor is not accessible
-                try {
-                    cons.setAccessible(true);
-                } catch(SecurityException e) {
-                    // but if we don't have a permission to do so, work gracefully.
-                    logger.log(Level.FINE,"Unable to make the constructor of "+clazz+" accessible",e);
-                    throw e;
+    private static <T> Constructor<T> getConstructor( final Class<T> clazz ) {
+        Constructor<T> cons;
+        if (System.getSecurityManager() == null) {
+            cons = tryGetDeclaredConstructor(clazz);
+        } else {
+            cons = AccessController.doPrivileged(new PrivilegedAction<Constructor<T>>() {
+                @Override
+                public Constructor<T> run() {
+                    return tryGetDeclaredConstructor(clazz);
                 }
-            }
-
-            m.put(clazz,new WeakReference<Constructor>(cons));
+            });
         }
 
-        return cons.newInstance(emptyObject);
+        int classMod = clazz.getModifiers();
+
+        if(!Modifier.isPublic(classMod) || !Modifier.isPublic(cons.getModifiers())) {
+            // attempt to make it work even if the constructor is not accessible
+            try {
+                cons.setAccessible(true);
+            } catch(SecurityException e) {
+                // but if we don't have a permission to do so, work gracefully.
+                logger.log(Level.FINE,"Unable to make the constructor of "+clazz+" accessible",e);
+                throw e;
+            }
+        }
+        return cons;
     }
 
     private static <T> Constructor<T> tryGetDeclaredConstructor(Class<T> clazz) {
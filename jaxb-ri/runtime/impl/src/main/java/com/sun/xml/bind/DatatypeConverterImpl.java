@@ -40,16 +40,20 @@
 
 package com.sun.xml.bind;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Map;
 import java.util.TimeZone;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import javax.xml.bind.DatatypeConverter;
 import javax.xml.bind.DatatypeConverterInterface;
@@ -106,12 +110,19 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
      * </ol>
      */
     public static int _parseInt(CharSequence s) {
-        int len = s.length();
+        return _parseInt(s, 0, s.length());
+    }
+
+    /**
+     * {@link #_parseInt(CharSequence)} for the characters between {@code start} and {@code end},
+     * so that a token in a list can be parsed without cutting it out first.
+     */
+    public static int _parseInt(CharSequence s, int start, int end) {
         int sign = 1;
 
         int r = 0;
 
-        for (int i = 0; i < len; i++) {
+        for (int i = start; i < end; i++) {
             char ch = s.charAt(i);
             if (WhiteSpaceProcessor.isWhiteSpace(ch)) {
                 // skip whitespace
@@ -122,7 +133,7 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
             } else if (ch == '+') {
                 // noop
             } else {
-                throw new NumberFormatException("Not a number: " + s);
+                throw new NumberFormatException("Not a number: " + s.subSequence(start, end));
             }
         }
 
@@ -133,6 +144,37 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
         return Long.parseLong(removeOptionalPlus(WhiteSpaceProcessor.trim(s)).toString());
     }
 
+    /**
+     * Parses the xs:long token between {@code start} and {@code end}
+     * without going through {@link String}.
+     */
+    public static long _parseLong(CharSequence s, int start, int end) {
+        int i = start;
+        boolean minus = false;
+        if (i < end) {
+            char ch = s.charAt(i);
+            if (ch == '-' || ch == '+') {
+                minus = (ch == '-');
+                i++;
+            }
+        }
+        if (i == end) {
+            throw new NumberFormatException("Not a number: " + s.subSequence(start, end));
+        }
+
+        // accumulate negatively so that Long.MIN_VALUE fits
+        long limit = minus ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long r = 0;
+        for (; i < end; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9 || r < limit / 10 || r * 10 < limit + d) {
+                throw new NumberFormatException("Not a number: " + s.subSequence(start, end));
+            }
+            r = r * 10 - d;
+        }
+        return minus ? r : -r;
+    }
+
     public static short _parseShort(CharSequence s) {
         return (short) _parseInt(s);
     }
@@ -237,6 +279,104 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
         return Double.parseDouble(val);
     }
 
+    /**
+     * Parses the xs:double token between {@code start} and {@code end}.
+     *
+     * <p>
+     * Numbers with up to 15 significant digits and a small exponent, which is what
+     * most documents carry, are computed from the digits directly.
+     * Dividing or multiplying two exactly representable doubles rounds correctly,
+     * so the result is the same as {@link Double#parseDouble(String)}.
+     * Everything else goes to {@link #_parseDouble(CharSequence)}.
+     */
+    public static double _parseDouble(CharSequence s, int start, int end) {
+        int i = start;
+        boolean minus = false;
+        if (i < end) {
+            char ch = s.charAt(i);
+            if (ch == '-' || ch == '+') {
+                minus = (ch == '-');
+                i++;
+            }
+        }
+
+        long m = 0;         // significand
+        int digits = 0;     // significant digits in m
+        int scale = 0;      // the value is m*10^scale
+        boolean seenDigit = false;
+        boolean seenPeriod = false;
+        for (; i < end; i++) {
+            char ch = s.charAt(i);
+            if ('0' <= ch && ch <= '9') {
+                seenDigit = true;
+                if (m != 0 || ch != '0') {
+                    if (++digits > 15) {
+                        return _parseDouble(s.subSequence(start, end));
+                    }
+                    m = m * 10 + (ch - '0');
+                }
+                if (seenPeriod) {
+                    scale--;
+                }
+            } else if (ch == '.' && !seenPeriod) {
+                seenPeriod = true;
+            } else {
+                break;
+            }
+        }
+        if (!seenDigit) {
+            return _parseDouble(s.subSequence(start, end));
+        }
+
+        if (i < end) {
+            char ch = s.charAt(i);
+            if ((ch != 'e' && ch != 'E') || ++i == end) {
+                return _parseDouble(s.subSequence(start, end));
+            }
+            boolean expMinus = false;
+            ch = s.charAt(i);
+            if (ch == '-' || ch == '+') {
+                expMinus = (ch == '-');
+                if (++i == end) {
+                    return _parseDouble(s.subSequence(start, end));
+                }
+            }
+            int exp = 0;
+            for (; i < end; i++) {
+                ch = s.charAt(i);
+                if (ch < '0' || ch > '9' || exp > 1000) {
+                    return _parseDouble(s.subSequence(start, end));
+                }
+                exp = exp * 10 + (ch - '0');
+            }
+            scale += expMinus ? -exp : exp;
+        }
+
+        double r;
+        if (m == 0) {
+            r = 0;
+        } else if (scale < 0 && scale >= -22) {
+            r = m / POWERS_OF_TEN[-scale];
+        } else if (scale >= 0 && scale <= 22) {
+            r = m * POWERS_OF_TEN[scale];
+        } else {
+            return _parseDouble(s.subSequence(start, end));
+        }
+        return minus ? -r : r;
+    }
+
+    /**
+     * Powers of ten that are exactly representable as double.
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
     public static Boolean _parseBoolean(CharSequence literal) {
         if (literal == null) {
             return null;
@@ -375,16 +515,44 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
     }
 
     public static GregorianCalendar _parseDateTime(CharSequence s) {
-        String val = WhiteSpaceProcessor.trim(s).toString();
-        return getDatatypeFactory().newXMLGregorianCalendar(val).toGregorianCalendar();
+        CharSequence val = WhiteSpaceProcessor.trim(s);
+        GregorianCalendar cal = CalendarParser.parse(val);
+        if (cal == null) {
+            cal = getDatatypeFactory().newXMLGregorianCalendar(val.toString()).toGregorianCalendar();
+        }
+        return cal;
     }
 
     public static String _printDateTime(Calendar val) {
-        return CalendarFormatter.doFormat("%Y-%M-%DT%h:%m:%s%z", val);
+        char[] buf = new char[CALENDAR_BUFFER_SIZE];
+        return new String(buf, 0, _printDateTime(val, buf));
     }
 
     public static String _printDate(Calendar val) {
-        return CalendarFormatter.doFormat((new StringBuilder("%Y-%M-%D").append("%z")).toString(),val);
+        char[] buf = new char[CALENDAR_BUFFER_SIZE];
+        return new String(buf, 0, _printDate(val, buf));
+    }
+
+    /**
+     * Prints the calendar as xs:dateTime into the given buffer, which needs to be
+     * at least {@link #CALENDAR_BUFFER_SIZE} long.
+     *
+     * @return
+     *      the number of characters written.
+     */
+    public static int _printDateTime(Calendar val, char[] buf) {
+        return CalendarFormatter.format(val, true, true, buf);
+    }
+
+    /**
+     * Prints the calendar as xs:date into the given buffer, which needs to be
+     * at least {@link #CALENDAR_BUFFER_SIZE} long.
+     *
+     * @return
+     *      the number of characters written.
+     */
+    public static int _printDate(Calendar val, char[] buf) {
+        return CalendarFormatter.format(val, true, false, buf);
     }
 
     public static String _printInt(int val) {
@@ -412,6 +580,105 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
         return String.valueOf(v);
     }
 
+    /**
+     * Prints the double into the given buffer, which needs to be
+     * at least {@link #DOUBLE_BUFFER_SIZE} long.
+     *
+     * <p>
+     * Numbers between 0.001 and 10^7, where {@link Double#toString(double)} uses
+     * the plain notation, are printed with the fewest fraction digits that
+     * read back to the same double, without creating a {@link String}.
+     * The rest are printed as {@link #_printDouble(double)} does.
+     *
+     * @return
+     *      the number of characters written.
+     */
+    public static int _printDouble(double v, char[] buf) {
+        double a = Math.abs(v);
+        if (a >= 1e-3 && a < 1e7) {
+            for (int k = 0; k < POWERS_OF_TEN.length; k++) {
+                double scaled = a * POWERS_OF_TEN[k];
+                if (scaled >= 0x1p53) {
+                    break;
+                }
+                long m = Math.round(scaled);
+                if (m / POWERS_OF_TEN[k] == a) {
+                    return printDecimal(v < 0, m, k, buf);
+                }
+            }
+        }
+
+        String s = _printDouble(v);
+        s.getChars(0, s.length(), buf, 0);
+        return s.length();
+    }
+
+    /**
+     * {@link #_printDouble(double, char[])} for float.
+     */
+    public static int _printFloat(float v, char[] buf) {
+        float a = Math.abs(v);
+        if (a >= 1e-3f && a < 1e7f) {
+            for (int k = 0; k < POWERS_OF_TEN.length; k++) {
+                double scaled = a * POWERS_OF_TEN[k];
+                if (scaled >= 1e9) {
+                    // 9 digits always tell two floats apart
+                    break;
+                }
+                long m = Math.round(scaled);
+                if ((float) (m / POWERS_OF_TEN[k]) == a) {
+                    return printDecimal(v < 0, m, k, buf);
+                }
+            }
+        }
+
+        String s = _printFloat(v);
+        s.getChars(0, s.length(), buf, 0);
+        return s.length();
+    }
+
+    /**
+     * Prints the long into the given buffer, which needs to be
+     * at least {@link #LONG_BUFFER_SIZE} long.
+     *
+     * @return
+     *      the number of characters written.
+     */
+    public static int _printLong(long v, char[] buf) {
+        return printDecimal(v < 0, v, -1, buf);
+    }
+
+    /**
+     * Prints m*10^-k as "[-]iii.fff" with at least one digit on both sides of the period,
+     * or just as an integer if k is -1.
+     * A negative m is printed as its absolute value.
+     */
+    private static int printDecimal(boolean minus, long m, int k, char[] buf) {
+        // write the digits backward from the end of the buffer, then move them to the front
+        int p = buf.length;
+        if (k == 0) {
+            buf[--p] = '0';
+        }
+        for (int i = 0; i < k; i++) {
+            buf[--p] = (char) ('0' + m % 10);
+            m /= 10;
+        }
+        if (k >= 0) {
+            buf[--p] = '.';
+        }
+        do {
+            buf[--p] = (char) ('0' + Math.abs(m % 10));
+            m /= 10;
+        } while (m != 0);
+        if (minus) {
+            buf[--p] = '-';
+        }
+
+        int len = buf.length - p;
+        System.arraycopy(buf, p, buf, 0, len);
+        return len;
+    }
+
     public static String _printQName(QName val, NamespaceContext nsc) {
         // Double-check
         String qname;
@@ -555,6 +822,179 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
         System.arraycopy(out, 0, nb, 0, o);
         return nb;
     }
+
+    /**
+     * Decodes base64 text that arrives in chunks, such as the {@code characters}
+     * events of a parser, so that the text doesn't need to be buffered as a whole.
+     *
+     * <p>
+     * The decoding rules are the same as {@link #_parseBase64Binary(String)}:
+     * characters outside the base64 alphabet, like whitespace, are skipped.
+     * Non-ASCII characters are skipped too.
+     *
+     * <p>
+     * The decoded bytes go into a buffer that grows as needed. {@link #reset()}
+     * lets go of that buffer, so that whoever obtained it by {@link #getData()}
+     * can keep it. With {@link #setThreshold(long)}, a derived class can have
+     * the bytes of a large text written out to a stream instead.
+     */
+    public static class Base64Decoder {
+        private byte[] data;
+        private int dataLen;
+
+        private final byte[] quadruplet = new byte[4];
+        private int q;
+
+        private long threshold = Long.MAX_VALUE;
+
+        /**
+         * Where the decoded bytes go instead of the buffer, if {@link #overflow()} returned one.
+         */
+        private OutputStream out;
+
+        /**
+         * True once {@link #overflow()} has been called for the current text.
+         */
+        private boolean overflowChecked;
+
+        /**
+         * Sets the number of bytes beyond which {@link #overflow()} is consulted,
+         * instead of growing the buffer further.
+         */
+        public void setThreshold(long threshold) {
+            this.threshold = threshold;
+        }
+
+        /**
+         * Called when the bytes decoded from the current text are about to exceed the threshold.
+         *
+         * @return
+         *      the stream to write all the bytes of the current text to, including those
+         *      decoded so far, or null to keep them in memory. The default implementation
+         *      returns null.
+         */
+        protected OutputStream overflow() throws IOException {
+            return null;
+        }
+
+        public void decode(char[] text, int start, int len) throws IOException {
+            ensureCapacity(len / 4 * 3 + 3);
+            final int end = start + len;
+            for (int i = start; i < end; i++) {
+                char ch = text[i];
+                if (ch < 128) {
+                    add(decodeMap[ch]);
+                }
+            }
+        }
+
+        public void decode(CharSequence text) throws IOException {
+            final int len = text.length();
+            ensureCapacity(len / 4 * 3 + 3);
+            for (int i = 0; i < len; i++) {
+                char ch = text.charAt(i);
+                if (ch < 128) {
+                    add(decodeMap[ch]);
+                }
+            }
+        }
+
+        private void add(byte v) {
+            if (v == -1) {
+                return;
+            }
+            quadruplet[q++] = v;
+            if (q == 4) {
+                // quadruplet is now filled.
+                data[dataLen++] = (byte) ((quadruplet[0] << 2) | (quadruplet[1] >> 4));
+                if (quadruplet[2] != PADDING) {
+                    data[dataLen++] = (byte) ((quadruplet[1] << 4) | (quadruplet[2] >> 2));
+                }
+                if (quadruplet[3] != PADDING) {
+                    data[dataLen++] = (byte) ((quadruplet[2] << 6) | (quadruplet[3]));
+                }
+                q = 0;
+            }
+        }
+
+        /**
+         * Makes room for {@code n} more bytes.
+         */
+        private void ensureCapacity(int n) throws IOException {
+            if (out == null && !overflowChecked && (long) dataLen + n > threshold) {
+                overflowChecked = true;
+                out = overflow();
+            }
+            if (out != null && data != null && data.length - dataLen < n) {
+                // the buffer is reused once its contents are written out
+                out.write(data, 0, dataLen);
+                dataLen = 0;
+            }
+
+            if (data == null) {
+                data = new byte[Math.max(n, 256)];
+            } else if (data.length - dataLen < n) {
+                byte[] nb = new byte[Math.max(dataLen + n, data.length * 2)];
+                System.arraycopy(data, 0, nb, 0, dataLen);
+                data = nb;
+            }
+        }
+
+        /**
+         * Completes the current text.
+         *
+         * @return
+         *      true if the bytes went to the stream returned by {@link #overflow()},
+         *      which is now closed. false if they are in {@link #getData()}.
+         */
+        public boolean finish() throws IOException {
+            if (out == null) {
+                return false;
+            }
+            try {
+                out.write(data, 0, dataLen);
+            } finally {
+                out.close();
+                out = null;
+            }
+            dataLen = 0;
+            return true;
+        }
+
+        /**
+         * Gets the buffer that holds the decoded bytes, which is valid
+         * up to {@link #getDataLen()}. Never null.
+         */
+        public byte[] getData() {
+            if (data == null) {
+                data = new byte[0];
+            }
+            return data;
+        }
+
+        public int getDataLen() {
+            return dataLen;
+        }
+
+        /**
+         * Discards the state, including the buffer, to start decoding another text.
+         */
+        public void reset() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // the bytes are being thrown away anyway
+                }
+                out = null;
+            }
+            overflowChecked = false;
+            data = null;
+            dataLen = 0;
+            q = 0;
+        }
+    }
+
     private static final char[] encodeMap = initEncodeMap();
 
     private static char[] initEncodeMap() {
@@ -768,150 +1208,299 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
         return df;
     }
 
-    private static final class CalendarFormatter {
-
-        public static String doFormat(String format, Calendar cal) throws IllegalArgumentException {
-            int fidx = 0;
-            int flen = format.length();
-            StringBuilder buf = new StringBuilder();
-
-            while (fidx < flen) {
-                char fch = format.charAt(fidx++);
-
-                if (fch != '%') {  // not a meta character
-                    buf.append(fch);
-                    continue;
-                }
+    /**
+     * Size of the buffer that {@link #_printDateTime(Calendar, char[])} and
+     * {@link #_printDate(Calendar, char[])} need.
+     *
+     * This is "YYYYYYYYY-MM-DDThh:mm:ss.SSS+hh:mm" with the longest year
+     * {@link GregorianCalendar} can have.
+     */
+    public static final int CALENDAR_BUFFER_SIZE = 35;
 
-                // seen meta character. we don't do error check against the format
-                switch (format.charAt(fidx++)) {
-                    case 'Y': // year
-                        formatYear(cal, buf);
-                        break;
+    /**
+     * Size of the buffer that {@link #_printDouble(double, char[])} and
+     * {@link #_printFloat(float, char[])} need,
+     * which is as long as "-2.2250738585072014E-308".
+     */
+    public static final int DOUBLE_BUFFER_SIZE = 24;
 
-                    case 'M': // month
-                        formatMonth(cal, buf);
-                        break;
+    /**
+     * Size of the buffer that {@link #_printLong(long, char[])} needs,
+     * which is as long as "-9223372036854775808".
+     */
+    public static final int LONG_BUFFER_SIZE = 20;
 
-                    case 'D': // days
-                        formatDays(cal, buf);
-                        break;
+    private static final class CalendarFormatter {
 
-                    case 'h': // hours
-                        formatHours(cal, buf);
-                        break;
+        /**
+         * Formats the date part ({@code date}), the time part ({@code time}) or both
+         * of the calendar followed by its time zone into {@code buf}.
+         *
+         * @return
+         *      the number of characters written.
+         */
+        public static int format(Calendar cal, boolean date, boolean time, char[] buf) {
+            int idx = 0;
+
+            if (date) {
+                idx = formatYear(cal.get(Calendar.YEAR), buf, idx);
+                buf[idx++] = '-';
+                idx = formatTwoDigits(cal.get(Calendar.MONTH) + 1, buf, idx);
+                buf[idx++] = '-';
+                idx = formatTwoDigits(cal.get(Calendar.DAY_OF_MONTH), buf, idx);
+                if (time) {
+                    buf[idx++] = 'T';
+                }
+            }
 
-                    case 'm': // minutes
-                        formatMinutes(cal, buf);
-                        break;
+            if (time) {
+                idx = formatTwoDigits(cal.get(Calendar.HOUR_OF_DAY), buf, idx);
+                buf[idx++] = ':';
+                idx = formatTwoDigits(cal.get(Calendar.MINUTE), buf, idx);
+                buf[idx++] = ':';
+                idx = formatTwoDigits(cal.get(Calendar.SECOND), buf, idx);
+                int n = cal.get(Calendar.MILLISECOND);
+                if (n != 0) {
+                    buf[idx++] = '.';
+                    buf[idx++] = (char) ('0' + n / 100);
+                    buf[idx++] = (char) ('0' + n / 10 % 10);
+                    buf[idx++] = (char) ('0' + n % 10);
+                }
+            }
 
-                    case 's': // parse seconds.
-                        formatSeconds(cal, buf);
-                        break;
+            return formatTimeZone(cal, buf, idx);
+        }
 
-                    case 'z': // time zone
-                        formatTimeZone(cal, buf);
-                        break;
+        private static int formatYear(int year, char[] buf, int idx) {
+            if (year <= 0) { // negative value
+                buf[idx++] = '-';
+                year = 1 - year;
+            }
 
-                    default:
-                        // illegal meta character. impossible.
-                        throw new InternalError();
-                }
+            int digits = 4;
+            for (int y = year / 10000; y > 0; y /= 10) {
+                digits++;
             }
 
-            return buf.toString();
+            for (int i = idx + digits - 1; i >= idx; i--) {
+                buf[i] = (char) ('0' + year % 10);
+                year /= 10;
+            }
+            return idx + digits;
         }
 
-        private static void formatYear(Calendar cal, StringBuilder buf) {
-            int year = cal.get(Calendar.YEAR);
-
-            String s;
-            if (year <= 0) // negative value
-            {
-                s = Integer.toString(1 - year);
-            } else // positive value
-            {
-                s = Integer.toString(year);
+        /** formats time zone specifier. */
+        private static int formatTimeZone(Calendar cal, char[] buf, int idx) {
+            if (cal.getTimeZone() == null) {
+                return idx;
             }
 
-            while (s.length() < 4) {
-                s = '0' + s;
+            // the fields are already computed at this point, and they add up
+            // to what TimeZone.getOffset(long) reports for this instant.
+            int offset = cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET);
+
+            if (offset == 0) {
+                buf[idx++] = 'Z';
+                return idx;
             }
-            if (year <= 0) {
-                s = '-' + s;
+
+            if (offset >= 0) {
+                buf[idx++] = '+';
+            } else {
+                buf[idx++] = '-';
+                offset *= -1;
             }
 
-            buf.append(s);
-        }
+            offset /= 60 * 1000; // offset is in milli-seconds
 
-        private static void formatMonth(Calendar cal, StringBuilder buf) {
-            formatTwoDigits(cal.get(Calendar.MONTH) + 1, buf);
+            idx = formatTwoDigits(offset / 60, buf, idx);
+            buf[idx++] = ':';
+            return formatTwoDigits(offset % 60, buf, idx);
         }
 
-        private static void formatDays(Calendar cal, StringBuilder buf) {
-            formatTwoDigits(cal.get(Calendar.DAY_OF_MONTH), buf);
+        /** formats Integer into two-character-wide string. */
+        private static int formatTwoDigits(int n, char[] buf, int idx) {
+            // n is always non-negative and below 100.
+            buf[idx++] = (char) ('0' + n / 10);
+            buf[idx++] = (char) ('0' + n % 10);
+            return idx;
         }
+    }
 
-        private static void formatHours(Calendar cal, StringBuilder buf) {
-            formatTwoDigits(cal.get(Calendar.HOUR_OF_DAY), buf);
-        }
+    /**
+     * Parses xs:dateTime, xs:date and xs:time straight into a {@link GregorianCalendar},
+     * setting it up the same way {@code XMLGregorianCalendar.toGregorianCalendar()} does.
+     *
+     * <p>
+     * Only the common shape of those is handled here: a 4-digit year of the current era,
+     * and fields and time zones within their usual ranges. Everything else, including
+     * malformed input, is left to {@link DatatypeFactory}, which knows the corner cases
+     * and how to report errors.
+     */
+    private static final class CalendarParser {
 
-        private static void formatMinutes(Calendar cal, StringBuilder buf) {
-            formatTwoDigits(cal.get(Calendar.MINUTE), buf);
-        }
+        /**
+         * Time zones keyed by their offset in minutes from -14:00, created on demand.
+         * They are mutable, so the callers get clones.
+         */
+        private static final AtomicReferenceArray<TimeZone> ZONES = new AtomicReferenceArray<TimeZone>(28 * 60 + 1);
 
-        private static void formatSeconds(Calendar cal, StringBuilder buf) {
-            formatTwoDigits(cal.get(Calendar.SECOND), buf);
-            if (cal.isSet(Calendar.MILLISECOND)) { // milliseconds
-                int n = cal.get(Calendar.MILLISECOND);
-                if (n != 0) {
-                    String ms = Integer.toString(n);
-                    while (ms.length() < 3) {
-                        ms = '0' + ms; // left 0 paddings.
-                    }
-                    buf.append('.');
-                    buf.append(ms);
-                }
-            }
-        }
+        private static final Date PURE_GREGORIAN_CHANGE = new Date(Long.MIN_VALUE);
 
-        /** formats time zone specifier. */
-        private static void formatTimeZone(Calendar cal, StringBuilder buf) {
-            TimeZone tz = cal.getTimeZone();
+        private static final int UNDEFINED = Integer.MIN_VALUE;
 
-            if (tz == null) {
-                return;
+        /**
+         * @return
+         *      null if the text isn't in the shape this class handles.
+         */
+        public static GregorianCalendar parse(CharSequence s) {
+            final int len = s.length();
+            int idx = 0;
+            int year = UNDEFINED, month = UNDEFINED, day = UNDEFINED;
+            int hour = UNDEFINED, minute = UNDEFINED, second = UNDEFINED, millis = UNDEFINED;
+            int zone = UNDEFINED;
+
+            boolean hasTime = len > 2 && s.charAt(2) == ':';
+            if (!hasTime) {
+                // YYYY-MM-DD
+                if (len < 10 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+                    return null;
+                }
+                year = parseDigits(s, 0, 4);
+                month = parseDigits(s, 5, 2);
+                day = parseDigits(s, 8, 2);
+                if (year < 1 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+                    return null;
+                }
+                idx = 10;
+                if (idx < len && s.charAt(idx) == 'T') {
+                    idx++;
+                    hasTime = true;
+                }
             }
 
-            // otherwise print out normally.
-            int offset = tz.getOffset(cal.getTime().getTime());
-
-            if (offset == 0) {
-                buf.append('Z');
-                return;
+            if (hasTime) {
+                // hh:mm:ss(.s+)?
+                if (len < idx + 8 || s.charAt(idx + 2) != ':' || s.charAt(idx + 5) != ':') {
+                    return null;
+                }
+                hour = parseDigits(s, idx, 2);
+                minute = parseDigits(s, idx + 3, 2);
+                second = parseDigits(s, idx + 6, 2);
+                if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                    return null;
+                }
+                idx += 8;
+                if (idx < len && s.charAt(idx) == '.') {
+                    int start = ++idx;
+                    millis = 0;
+                    while (idx < len && isDigit(s.charAt(idx))) {
+                        if (idx - start < 3) {
+                            millis = millis * 10 + (s.charAt(idx) - '0');
+                        }
+                        idx++;
+                    }
+                    if (idx == start) {
+                        return null;
+                    }
+                    // the digits beyond milliseconds are truncated
+                    for (int i = idx - start; i < 3; i++) {
+                        millis *= 10;
+                    }
+                }
             }
 
-            if (offset >= 0) {
-                buf.append('+');
-            } else {
-                buf.append('-');
-                offset *= -1;
+            if (idx < len) {
+                char ch = s.charAt(idx);
+                if (ch == 'Z' && idx + 1 == len) {
+                    zone = 0;
+                } else if ((ch == '+' || ch == '-') && idx + 6 == len && s.charAt(idx + 3) == ':') {
+                    int h = parseDigits(s, idx + 1, 2);
+                    int m = parseDigits(s, idx + 4, 2);
+                    if (h < 0 || m < 0 || m > 59 || h * 60 + m > 14 * 60) {
+                        return null;
+                    }
+                    zone = (ch == '-') ? -(h * 60 + m) : h * 60 + m;
+                } else {
+                    return null;
+                }
             }
 
-            offset /= 60 * 1000; // offset is in milli-seconds
+            GregorianCalendar cal = new GregorianCalendar(zone == UNDEFINED ? TimeZone.getDefault() : getTimeZone(zone));
+            cal.clear();
+            cal.setGregorianChange(PURE_GREGORIAN_CHANGE);
+            if (year != UNDEFINED) {
+                cal.set(Calendar.ERA, GregorianCalendar.AD);
+                cal.set(Calendar.YEAR, year);
+                cal.set(Calendar.MONTH, month - 1);
+                cal.set(Calendar.DAY_OF_MONTH, day);
+            }
+            if (hour != UNDEFINED) {
+                cal.set(Calendar.HOUR_OF_DAY, hour);
+                cal.set(Calendar.MINUTE, minute);
+                cal.set(Calendar.SECOND, second);
+                if (millis != UNDEFINED) {
+                    cal.set(Calendar.MILLISECOND, millis);
+                }
+            }
+            return cal;
+        }
 
-            formatTwoDigits(offset / 60, buf);
-            buf.append(':');
-            formatTwoDigits(offset % 60, buf);
+        /**
+         * Gets the time zone for the given offset in minutes,
+         * under the same custom ID the JAXP RI would use.
+         */
+        private static TimeZone getTimeZone(int offset) {
+            int i = offset + 14 * 60;
+            TimeZone tz = ZONES.get(i);
+            if (tz == null) {
+                char sign = offset < 0 ? '-' : '+';
+                offset = Math.abs(offset);
+                StringBuilder id = new StringBuilder(9).append("GMT").append(sign).append(offset / 60);
+                if (offset % 60 != 0) {
+                    if (offset % 60 < 10) {
+                        id.append('0');
+                    }
+                    id.append(offset % 60);
+                }
+                tz = TimeZone.getTimeZone(id.toString());
+                ZONES.set(i, tz);
+            }
+            return (TimeZone) tz.clone();
+        }
+
+        private static int daysInMonth(int year, int month) {
+            switch (month) {
+                case 2:
+                    return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+                case 4:
+                case 6:
+                case 9:
+                case 11:
+                    return 30;
+                default:
+                    return 31;
+            }
         }
 
-        /** formats Integer into two-character-wide string. */
-        private static void formatTwoDigits(int n, StringBuilder buf) {
-            // n is always non-negative.
-            if (n < 10) {
-                buf.append('0');
+        /**
+         * @return
+         *      -1 if any of the characters isn't a digit.
+         */
+        private static int parseDigits(CharSequence s, int start, int len) {
+            int r = 0;
+            for (int i = start; i < start + len; i++) {
+                char ch = s.charAt(i);
+                if (!isDigit(ch)) {
+                    return -1;
+                }
+                r = r * 10 + (ch - '0');
             }
-            buf.append(n);
+            return r;
+        }
+
+        private static boolean isDigit(char ch) {
+            return '0' <= ch && ch <= '9';
         }
     }
 
@@ -1081,17 +1670,18 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
 
     @Deprecated
     public Calendar parseTime(String lexicalXSDTime) {
-        return getDatatypeFactory().newXMLGregorianCalendar(lexicalXSDTime).toGregorianCalendar();
+        return _parseDateTime(lexicalXSDTime);
     }
 
     @Deprecated
     public String printTime(Calendar val) {
-        return CalendarFormatter.doFormat("%h:%m:%s%z", val);
+        char[] buf = new char[CALENDAR_BUFFER_SIZE];
+        return new String(buf, 0, CalendarFormatter.format(val, false, true, buf));
     }
 
     @Deprecated
     public Calendar parseDate(String lexicalXSDDate) {
-        return getDatatypeFactory().newXMLGregorianCalendar(lexicalXSDDate).toGregorianCalendar();
+        return _parseDateTime(lexicalXSDDate);
     }
 
     @Deprecated
@@ -0,0 +1,111 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.api;
+
+import java.util.Collection;
+
+import javax.xml.bind.Unmarshaller;
+
+import com.sun.istack.NotNull;
+import com.sun.istack.Nullable;
+
+/**
+ * Supplies the objects that the unmarshaller fills in, so that they
+ * can come from a pool instead of being created for every document.
+ *
+ * <p>
+ * <b>THIS INTERFACE IS SUBJECT TO CHANGE WITHOUT NOTICE.</b>
+ *
+ * <p>
+ * An {@link InstanceAllocator} instance can be specified on {@link Unmarshaller} via
+ * {@link Unmarshaller#setProperty(String, Object)} as follows:
+ *
+ * <pre>
+ * unmarshaller.setProperty( InstanceAllocator.class.getName(), new MyAllocatorImpl() );
+ * </pre>
+ *
+ * <p>
+ * The unmarshaller asks {@link #allocate(Class)} for every bean it needs, and
+ * {@link #allocateCollection(Class)} for every collection it has to create because
+ * the property didn't have one. The objects are used as they are, so they need to be
+ * in the state a new instance would be in.
+ *
+ * <p>
+ * Once the application is done with an unmarshalled object, it can hand it back with
+ * {@link JAXBRIContext#releaseGraph(Object, InstanceAllocator)}. That resets the object
+ * and the beans it contains, and passes each of them to {@link #release(Object)}.
+ * A reset doesn't run field initializers again; see there.
+ * Collections stay with the bean that owns them, emptied, so they are reused along with it.
+ *
+ * <p>
+ * Like the unmarshaller itself, an allocator is called from one thread at a time
+ * for each unmarshaller. Share one between unmarshallers only if it is thread-safe.
+ *
+ * @since 2.3.0
+ */
+public abstract class InstanceAllocator {
+    /**
+     * Gets an instance of a bound class for the unmarshaller to fill in.
+     *
+     * @return
+     *      null to let the unmarshaller create a new instance as usual.
+     */
+    public abstract @Nullable <T> T allocate(@NotNull Class<T> type);
+
+    /**
+     * Gets an empty collection for a property that doesn't have one.
+     *
+     * @param type
+     *      the class of the collection the unmarshaller would create,
+     *      like {@code ArrayList}.
+     * @return
+     *      null to let the unmarshaller create a new collection as usual.
+     */
+    public @Nullable <T extends Collection> T allocateCollection(@NotNull Class<T> type) {
+        return null;
+    }
+
+    /**
+     * Receives an object that the application no longer uses.
+     * Its properties are already reset.
+     */
+    public abstract void release(@NotNull Object bean);
+}
@@ -356,6 +356,33 @@ public abstract class JAXBRIContext extends JAXBContext {
      */
     public abstract RuntimeTypeInfoSet getRuntimeTypeInfoSet();
 
+    /**
+     * Hands an object that the application is done with back to an {@link InstanceAllocator}.
+     *
+     * <p>
+     * The object is walked through the element and reference properties of its class, and
+     * each bean found there is released the same way before the object that contains it.
+     * Every bean is reset before it's passed to {@link InstanceAllocator#release(Object)}:
+     * its properties are set to null, or zero for primitives, and collections are emptied
+     * but stay with the bean that owns them. Field initializers and constructors aren't
+     * run again, so a class that sets other initial values has to restore them in
+     * {@link InstanceAllocator#release(Object)}, or not be handed to the allocator at all.
+     *
+     * <p>
+     * Objects that the application still refers to must not be released, and a bean
+     * must not be contained in more than one place, as an unmarshalled object never is.
+     *
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param root
+     *      a bean or a {@link javax.xml.bind.JAXBElement}. Objects of classes that
+     *      aren't known to this context are ignored.
+     * @since 2.3.0
+     */
+    public void releaseGraph(@NotNull Object root, @NotNull InstanceAllocator allocator) throws JAXBException {
+    }
+
     /**
      * Computes a Java identifier from a local name.
      *
@@ -558,4 +585,34 @@ public abstract class JAXBRIContext extends JAXBContext {
      */
     public static final String BACKUP_WITH_PARENT_NAMESPACE = "com.sun.xml.bind.backupWithParentNamespace";
 
+    /**
+     * If true, the annotations of the classes to be bound are read and the optimized
+     * accessors of their properties are generated on a fork/join pool before
+     * the {@link JAXBContext} is put together. The resulting context is the same
+     * as the one created without this property; only the creation gets faster
+     * when a large number of classes are involved.
+     *
+     * The default value is false.
+     *
+     * Boolean
+     */
+    public static final String PARALLEL_MODEL_BUILD = "com.sun.xml.bind.parallelModelBuild";
+
+    /**
+     * If true, the unmarshallers and the optimized accessors of a bound class
+     * are only built when an instance of that class is marshalled or unmarshalled
+     * for the first time, instead of when the {@link JAXBContext} is created.
+     *
+     * <p>
+     * This speeds up the creation of contexts that know a lot of classes
+     * of which only a few are ever used, and saves the memory of the rest.
+     * On the other hand, the model the context is built from is kept
+     * until every bound class has been used once.
+     *
+     * The default value is false.
+     *
+     * Boolean
+     */
+    public static final String LAZY_BEAN_INFO_LINKING = "com.sun.xml.bind.lazyBeanInfoLinking";
+
 }
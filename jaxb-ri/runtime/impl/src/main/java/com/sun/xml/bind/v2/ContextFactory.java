@@ -129,6 +129,14 @@ public class ContextFactory {
 
         Boolean backupWithParentNamespace = getPropertyValue(properties, JAXBRIContext.BACKUP_WITH_PARENT_NAMESPACE, Boolean.class);
 
+        Boolean parallelModelBuild = getPropertyValue(properties, JAXBRIContext.PARALLEL_MODEL_BUILD, Boolean.class);
+        if(parallelModelBuild==null)
+            parallelModelBuild = false;
+
+        Boolean lazyBeanInfoLinking = getPropertyValue(properties, JAXBRIContext.LAZY_BEAN_INFO_LINKING, Boolean.class);
+        if(lazyBeanInfoLinking==null)
+            lazyBeanInfoLinking = false;
+
         RuntimeAnnotationReader ar = getPropertyValue(properties,JAXBRIContext.ANNOTATION_READER,RuntimeAnnotationReader.class);
         
         Collection<TypeReference> tr = getPropertyValue(properties, JAXBRIContext.TYPE_REFERENCES, Collection.class);
@@ -162,6 +170,8 @@ public class ContextFactory {
         builder.setImprovedXsiTypeHandling(improvedXsiTypeHandling);
         builder.setDisableSecurityProcessing(disablesecurityProcessing);
         builder.setBackupWithParentNamespace(backupWithParentNamespace);
+        builder.setParallelModelBuild(parallelModelBuild);
+        builder.setLazyBeanInfoLinking(lazyBeanInfoLinking);
         return builder.build();
     }
 
@@ -119,6 +119,8 @@ enum Messages {
 	XMLGREGORIANCALENDAR_MONTH, // 0 arg
 	XMLGREGORIANCALENDAR_YEAR, // 0 arg
 	XMLGREGORIANCALENDAR_TIMEZONE, // 0 arg
+
+    UNKNOWN_ENUM_CONSTANT, // 2 args
     ;
 
     private static final ResourceBundle rb = ResourceBundle.getBundle(Messages.class.getName());
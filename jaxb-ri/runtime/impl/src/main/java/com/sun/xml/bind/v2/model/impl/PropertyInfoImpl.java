@@ -41,6 +41,7 @@
 package com.sun.xml.bind.v2.model.impl;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.lang.annotation.Annotation;
 
 import javax.activation.MimeType;
@@ -131,7 +132,8 @@ abstract class PropertyInfoImpl<T,C,F,M>
             // check if the adapter is applicable to the individual item in the property
 
             this.isCollection = nav().isSubClassOf(t, nav().ref(Collection.class))
-                             || nav().isArrayButNotByteArray(t);
+                             || nav().isArrayButNotByteArray(t)
+                             || getStreamingBase(t)!=null;
 
             xjta = getApplicableAdapter(getIndividualType());
             if(xjta==null) {
@@ -191,7 +193,10 @@ abstract class PropertyInfoImpl<T,C,F,M>
             if(nav().isArrayButNotByteArray(raw))
                 return nav().getComponentType(raw);
 
-            T bt = nav().getBaseClass(raw, nav().asDecl(Collection.class) );
+            C base = getStreamingBase(raw);
+            if(base==null)
+                base = nav().asDecl(Collection.class);
+            T bt = nav().getBaseClass(raw, base );
             if(nav().isParameterizedType(bt))
                 return nav().getTypeArgument(bt,0);
             else
@@ -199,6 +204,25 @@ abstract class PropertyInfoImpl<T,C,F,M>
         }
     }
 
+    /**
+     * If the given property type is {@link Iterable} or {@link Iterator} itself
+     * (as opposed to a {@link Collection}), returns that declaration. Such
+     * properties are treated as collections whose items are pulled lazily
+     * during marshalling. Otherwise null.
+     */
+    private C getStreamingBase(T t) {
+        C decl = nav().asDecl(t);
+        if(decl==null)
+            return null;
+        C iterable = nav().asDecl(Iterable.class);
+        if(decl.equals(iterable))
+            return iterable;
+        C iterator = nav().asDecl(Iterator.class);
+        if(decl.equals(iterator))
+            return iterator;
+        return null;
+    }
+
     public final String getName() {
         return seed.getName();
     }
@@ -139,6 +139,10 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
         return this;
     }
 
+    public T parse(CharSequence lexical, boolean validating) throws AccessorException, SAXException {
+        return parse(lexical);
+    }
+
     public boolean useNamespace() {
         return false;
     }
@@ -173,6 +177,46 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
         }
     }
 
+    /**
+     * Those built-in types that print as xs:dateTime (or xs:date) through a {@link Calendar}.
+     *
+     * <p>
+     * When marshalling, the lexical form is formatted straight into
+     * the {@link Pcdata} cached by {@link XMLSerializer}, not into a String.
+     */
+    private static abstract class CalendarImpl<T> extends StringImpl<T> {
+        protected CalendarImpl(Class type, QName... typeNames) {
+            super(type,typeNames);
+        }
+
+        protected abstract Calendar toCalendar(T o);
+
+        /**
+         * Returns true if the value is to be printed as xs:date.
+         */
+        protected boolean isDate(XMLSerializer w) {
+            return false;
+        }
+
+        public String print(T o) {
+            Calendar cal = toCalendar(o);
+            if(isDate(XMLSerializer.getInstance()))
+                return DatatypeConverterImpl._printDate(cal);
+            else
+                return DatatypeConverterImpl._printDateTime(cal);
+        }
+
+        @Override
+        public void writeText(XMLSerializer w, T o, String fieldName) throws IOException, SAXException, XMLStreamException, AccessorException {
+            w.text(toCalendar(o),isDate(w),fieldName);
+        }
+
+        @Override
+        public void writeLeafElement(XMLSerializer w, Name tagName, T o, String fieldName) throws IOException, SAXException, XMLStreamException, AccessorException {
+            w.leafElement(tagName,toCalendar(o),isDate(w),fieldName);
+        }
+    }
+
     /**
      * Those built-in types that print to {@link Pcdata}.
      */
@@ -282,39 +326,37 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 }
             });
         secondaryList.add(
-            new StringImpl<Calendar>(Calendar.class, DatatypeConstants.DATETIME) {
+            new CalendarImpl<Calendar>(Calendar.class, DatatypeConstants.DATETIME) {
                 public Calendar parse(CharSequence text) {
-                    return DatatypeConverterImpl._parseDateTime(text.toString());
+                    return DatatypeConverterImpl._parseDateTime(text);
                 }
-                public String print(Calendar v) {
-                    return DatatypeConverterImpl._printDateTime(v);
+                protected Calendar toCalendar(Calendar v) {
+                    return v;
                 }
             });
         secondaryList.add(
-            new StringImpl<GregorianCalendar>(GregorianCalendar.class, DatatypeConstants.DATETIME) {
+            new CalendarImpl<GregorianCalendar>(GregorianCalendar.class, DatatypeConstants.DATETIME) {
                 public GregorianCalendar parse(CharSequence text) {
-                    return DatatypeConverterImpl._parseDateTime(text.toString());
+                    return DatatypeConverterImpl._parseDateTime(text);
                 }
-                public String print(GregorianCalendar v) {
-                    return DatatypeConverterImpl._printDateTime(v);
+                protected Calendar toCalendar(GregorianCalendar v) {
+                    return v;
                 }
             });
         secondaryList.add(
-            new StringImpl<Date>(Date.class, DatatypeConstants.DATETIME) {
+            new CalendarImpl<Date>(Date.class, DatatypeConstants.DATETIME) {
                 public Date parse(CharSequence text) {
-                    return DatatypeConverterImpl._parseDateTime(text.toString()).getTime();
+                    return DatatypeConverterImpl._parseDateTime(text).getTime();
                 }
-                public String print(Date v) {
-                    XMLSerializer xs = XMLSerializer.getInstance();
-                    QName type = xs.getSchemaType();
+                protected Calendar toCalendar(Date v) {
                     GregorianCalendar cal = new GregorianCalendar(0,0,0);
                     cal.setTime(v);
-                    if ((type != null) && (WellKnownNamespace.XML_SCHEMA.equals(type.getNamespaceURI())) &&
-                            DATE.equals(type.getLocalPart())) {
-                        return DatatypeConverterImpl._printDate(cal);
-                    } else {
-                        return DatatypeConverterImpl._printDateTime(cal);
-                    }
+                    return cal;
+                }
+                protected boolean isDate(XMLSerializer xs) {
+                    QName type = xs.getSchemaType();
+                    return (type != null) && (WellKnownNamespace.XML_SCHEMA.equals(type.getNamespaceURI())) &&
+                            DATE.equals(type.getLocalPart());
                 }
             });
         secondaryList.add(
@@ -725,6 +767,16 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Byte v) {
                     return DatatypeConverterImpl._printByte(v);
                 }
+
+                @Override
+                public void writeText(XMLSerializer w, Byte v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.text(v.intValue(),fieldName);
+                }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Byte v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName,v.intValue(),fieldName);
+                }
             });
         primaryList.add(new StringImpl<Short>(Short.class,
                 createXS("short"),
@@ -737,6 +789,16 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Short v) {
                     return DatatypeConverterImpl._printShort(v);
                 }
+
+                @Override
+                public void writeText(XMLSerializer w, Short v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.text(v.intValue(),fieldName);
+                }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Short v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName,v.intValue(),fieldName);
+                }
             });
         primaryList.add(new StringImpl<Integer>(Integer.class,
                 createXS("int"),
@@ -749,6 +811,16 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Integer v) {
                     return DatatypeConverterImpl._printInt(v);
                 }
+
+                @Override
+                public void writeText(XMLSerializer w, Integer v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.text(v.intValue(),fieldName);
+                }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Integer v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName,v.intValue(),fieldName);
+                }
             });
         primaryList.add(
             new StringImpl<Long>(Long.class,
@@ -762,6 +834,16 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Long v) {
                     return DatatypeConverterImpl._printLong(v);
                 }
+
+                @Override
+                public void writeText(XMLSerializer w, Long v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.text(v.longValue(),fieldName);
+                }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Long v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName,v.longValue(),fieldName);
+                }
             });
         primaryList.add(
             new StringImpl<Float>(Float.class,
@@ -774,6 +856,16 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Float v) {
                     return DatatypeConverterImpl._printFloat(v);
                 }
+
+                @Override
+                public void writeText(XMLSerializer w, Float v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.text(v.floatValue(),fieldName);
+                }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Float v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName,v.floatValue(),fieldName);
+                }
             });
         primaryList.add(
             new StringImpl<Double>(Double.class,
@@ -786,6 +878,16 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Double v) {
                     return DatatypeConverterImpl._printDouble(v);
                 }
+
+                @Override
+                public void writeText(XMLSerializer w, Double v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.text(v.doubleValue(),fieldName);
+                }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Double v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName,v.doubleValue(),fieldName);
+                }
             });
         primaryList.add(
             new StringImpl<BigInteger>(BigInteger.class,
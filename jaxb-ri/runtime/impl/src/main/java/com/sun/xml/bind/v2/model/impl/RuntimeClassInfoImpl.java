@@ -399,6 +399,10 @@ class RuntimeClassInfoImpl extends ClassInfoImpl<Type,Class,Field,Method>
             return inst;
         }
 
+        public BeanT parse(CharSequence lexical, boolean validating) throws AccessorException, SAXException {
+            return parse(lexical);
+        }
+
         public void writeText(XMLSerializer w, BeanT o, String fieldName) throws IOException, SAXException, XMLStreamException, AccessorException {
             if(!xacc.hasValue(o))
                 throw new AccessorException(Messages.THERE_MUST_BE_VALUE_IN_XMLVALUE.format(o));
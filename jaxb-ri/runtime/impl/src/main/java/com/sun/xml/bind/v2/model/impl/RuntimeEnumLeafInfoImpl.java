@@ -147,6 +147,10 @@ final class RuntimeEnumLeafInfoImpl<T extends Enum<T>,B> extends EnumLeafInfoImp
     }
 
     public T parse(CharSequence lexical) throws AccessorException, SAXException {
+        return parse(lexical,false);
+    }
+
+    public T parse(CharSequence lexical, boolean validating) throws AccessorException, SAXException {
         // TODO: error handling
 
         B b = baseXducer.parse(lexical);
@@ -155,7 +159,11 @@ final class RuntimeEnumLeafInfoImpl<T extends Enum<T>,B> extends EnumLeafInfoImp
             b = (B) ((String)b).trim();
         }
 
-        return parseMap.get(b);
+        T t = parseMap.get(b);
+        if(t==null && b!=null && validating)
+            // this is treated like any other conversion error
+            throw new IllegalArgumentException(Messages.UNKNOWN_ENUM_CONSTANT.format(b,clazz.getName()));
+        return t;
     }
 
     public void writeText(XMLSerializer w, T t, String fieldName) throws IOException, SAXException, XMLStreamException, AccessorException {
@@ -190,5 +190,10 @@ public class RuntimeModelBuilder extends ModelBuilder<Type,Class,Field,Method> {
             UnmarshallingContext.getInstance().addToIdTable(value);
             return core.parse(value);
         }
+
+        @Override
+        public ValueT parse(CharSequence lexical, boolean validating) throws AccessorException, SAXException {
+            return parse(lexical);
+        }
     }
 }
@@ -87,6 +87,7 @@ final class ArrayBeanInfoImpl  extends JaxBeanInfo {
     private final class ArrayLoader extends Loader implements Receiver {
         public ArrayLoader(JAXBContextImpl owner) {
             super(false);
+            elementOnly = true;
             itemLoader = itemBeanInfo.getLoader(owner,true);
         }
 
@@ -112,6 +113,11 @@ final class ArrayBeanInfoImpl  extends JaxBeanInfo {
             }
         }
 
+        @Override
+        public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
+            elementOnlyText(state,text);
+        }
+
         @Override
         public Collection<QName> getExpectedChildElements() {
             return Collections.singleton(new QName("","item"));
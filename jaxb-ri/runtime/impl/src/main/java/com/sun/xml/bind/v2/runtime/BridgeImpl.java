@@ -58,7 +58,7 @@ import javax.xml.transform.Source;
 import com.sun.istack.NotNull;
 import com.sun.xml.bind.api.Bridge;
 import com.sun.xml.bind.api.TypeReference;
-import com.sun.xml.bind.marshaller.SAX2DOMEx;
+import com.sun.xml.bind.v2.runtime.output.DOMOutput;
 import com.sun.xml.bind.v2.runtime.output.SAXOutput;
 import com.sun.xml.bind.v2.runtime.output.XMLStreamWriterOutput;
 import com.sun.xml.bind.v2.runtime.unmarshaller.UnmarshallerImpl;
@@ -101,12 +101,12 @@ final class BridgeImpl<T> extends InternalBridge<T> {
         if(nsContext!=null)
             pia = new StAXPostInitAction(nsContext,m.serializer);
 
-        m.write(tagName,bi,t,m.createWriter(output),pia);
+        m.write(tagName,bi,t,m.createReusableWriter(output),pia);
     }
 
     public void marshal(Marshaller _m, T t, Node output) throws JAXBException {
         MarshallerImpl m = (MarshallerImpl)_m;
-        m.write(tagName,bi,t,new SAXOutput(new SAX2DOMEx(output)),new DomPostInitAction(output,m.serializer));
+        m.write(tagName,bi,t,new DOMOutput(output),new DomPostInitAction(output,m.serializer));
     }
 
     public void marshal(Marshaller _m, T t, ContentHandler contentHandler) throws JAXBException {
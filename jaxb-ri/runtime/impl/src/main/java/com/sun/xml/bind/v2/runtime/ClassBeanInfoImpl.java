@@ -69,6 +69,7 @@ import com.sun.xml.bind.v2.runtime.property.AttributeProperty;
 import com.sun.xml.bind.v2.runtime.property.Property;
 import com.sun.xml.bind.v2.runtime.property.PropertyFactory;
 import com.sun.xml.bind.v2.runtime.reflect.Accessor;
+import com.sun.xml.bind.v2.runtime.reflect.opt.MethodHandleInstantiator;
 import com.sun.xml.bind.v2.runtime.unmarshaller.Loader;
 import com.sun.xml.bind.v2.runtime.unmarshaller.StructureLoader;
 import com.sun.xml.bind.v2.runtime.unmarshaller.UnmarshallingContext;
@@ -100,14 +101,33 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
      *
      * <p>
      * Set from the link method, but considered final.
+     * With {@link JAXBContextImpl#lazyBeanInfoLinking}, it's set when it's first needed instead.
      */
     private Loader loader;
     private Loader loaderWithTypeSubst;
 
     /**
-     * Set only until the link phase to avoid leaking memory.
+     * True once {@link #loader} and {@link #loaderWithTypeSubst} are completely built,
+     * and the accessors of {@link #properties} optimized, so that they can be used by any thread.
      */
-    private RuntimeClassInfo ci;
+    private volatile boolean linked;
+
+    /**
+     * True once {@link Property#optimizeAccessors()} has been called on {@link #properties}.
+     * Guarded by {@link JAXBContextImpl#linkLock}.
+     */
+    private boolean accessorsOptimized;
+
+    /**
+     * The error that failed {@link #buildLoader()}, if any.
+     * Building the loader again would fail the same way, so this is rethrown to
+     * every thread that needs the loader.
+     * Guarded by {@link JAXBContextImpl#linkLock}.
+     */
+    private Throwable linkFailure;
+
+    private final JAXBContextImpl owner;
+    private final boolean hasSubClasses;
 
     private final Accessor<? super BeanT,Map<QName,String>> inheritedAttWildcard;
     private final Transducer<BeanT> xducer;
@@ -135,11 +155,24 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
     private /*final*/ Property<BeanT>[] uriProperties;
 
     private final Method factoryMethod;
+
+    /**
+     * Creates instances through the default constructor without reflection.
+     * Set up by {@link #getInstantiator()} when the first instance is created.
+     * Null if it couldn't be created, in which case {@link ClassFactory} is used.
+     */
+    private MethodHandleInstantiator<BeanT> instantiator;
+
+    /**
+     * True once {@link #instantiator} is set up.
+     */
+    private volatile boolean instantiatorReady;
     
     /*package*/ ClassBeanInfoImpl(JAXBContextImpl owner, RuntimeClassInfo ci) {
         super(owner,ci,ci.getClazz(),ci.getTypeName(),ci.isElement(),false,true);
 
-        this.ci = ci;
+        this.owner = owner;
+        this.hasSubClasses = ci.hasSubClasses();
         this.inheritedAttWildcard = ci.getAttributeWildcard();
         this.xducer = ci.getTransducer();
         this.factoryMethod = ci.getFactoryMethod();
@@ -225,7 +258,8 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
         if(superClazz!=null)
             superClazz.link(grammar);
 
-        getLoader(grammar,true);    // make sure to build the loader if we haven't done so.
+        if(!grammar.lazyBeanInfoLinking)
+            getLoader(grammar,true);    // make sure to build the loader if we haven't done so.
 
         // propagate values from super class
         if(superClazz!=null) {
@@ -264,9 +298,13 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
 
     @Override
     public void wrapUp() {
-        for (Property p : properties)
-            p.wrapUp();
-        ci = null;
+        if(!owner.lazyBeanInfoLinking) {
+            // with lazy linking, the properties of this class are needed
+            // whenever the loader of this class or of a sub class is built,
+            // so JAXBContextImpl wraps them up once every class is linked.
+            for (Property p : properties)
+                p.wrapUp();
+        }
         super.wrapUp();
     }
 
@@ -278,11 +316,21 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
         return tagName.localName;
     }
 
+    private MethodHandleInstantiator<BeanT> getInstantiator() {
+        if(!instantiatorReady) {
+            // racing threads create equivalent instantiators, so either one can win
+            instantiator = MethodHandleInstantiator.get(jaxbType);
+            instantiatorReady = true;
+        }
+        return instantiator;
+    }
+
     public BeanT createInstance(UnmarshallingContext context) throws IllegalAccessException, InvocationTargetException, InstantiationException, SAXException {
         
         BeanT bean = null;        
         if (factoryMethod == null){
-           bean = ClassFactory.create0(jaxbType);
+           MethodHandleInstantiator<BeanT> mhi = getInstantiator();
+           bean = mhi!=null ? mhi.newInstance() : ClassFactory.create0(jaxbType);
         }else {
             Object o = ClassFactory.create(factoryMethod);
             if( jaxbType.isInstance(o) ){
@@ -303,6 +351,7 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
     }
 
     public boolean reset(BeanT bean, UnmarshallingContext context) throws SAXException {
+        checkLinked();
         try {
             if(superClazz!=null)
                 superClazz.reset(bean,context);
@@ -316,6 +365,7 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
     }
 
     public String getId(BeanT bean, XMLSerializer target) throws SAXException {
+        checkLinked();
         if(idProperty!=null) {
             try {
                 return idProperty.getIdValue(bean);
@@ -347,6 +397,7 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
     }
 
     public void serializeBody(BeanT bean, XMLSerializer target) throws SAXException, IOException, XMLStreamException {
+        checkLinked();
         if (superClazz != null) {
             superClazz.serializeBody(bean, target);
         }
@@ -372,6 +423,7 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
     }
 
     public void serializeAttributes(BeanT bean, XMLSerializer target) throws SAXException, IOException, XMLStreamException {
+        checkLinked();
         for( AttributeProperty<BeanT> p : attributeProperties )
             try {
                 if (retainPropertyInfo) {
@@ -400,6 +452,7 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
     }
 
     public void serializeURIs(BeanT bean, XMLSerializer target) throws SAXException {
+        checkLinked();
         try {
             if (retainPropertyInfo) {
             final Property parentProperty = target.getCurrentProperty();
@@ -423,26 +476,103 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
     }
 
     public Loader getLoader(JAXBContextImpl context, boolean typeSubstitutionCapable) {
-        if(loader==null) {
-            // these variables have to be set before they are initialized,
-            // because the initialization may build other loaders and they may refer to this.
-            StructureLoader sl = new StructureLoader(this);
-            loader = sl;
-            if(ci.hasSubClasses())
-                loaderWithTypeSubst = new XsiTypeLoader(this);
-            else
-                // optimization. we know there can be no @xsi:type
-                loaderWithTypeSubst = loader;
-
-
-            sl.init(context,this,ci.getAttributeWildcard());
-        }
+        checkLinked();
         if(typeSubstitutionCapable)
             return loaderWithTypeSubst;
         else
             return loader;
     }
 
+    /**
+     * Makes sure that this bean info can be used, so that the caller
+     * can access {@link #properties} directly.
+     *
+     * @see JAXBContextImpl#lazyBeanInfoLinking
+     */
+    /*package*/ void checkLinked() {
+        if(!linked)
+            buildLoader();
+    }
+
+    /**
+     * Builds {@link #loader} and {@link #loaderWithTypeSubst}.
+     *
+     * <p>
+     * With {@link JAXBContextImpl#lazyBeanInfoLinking}, this is done when the bean info
+     * is used for the first time, and the accessors of the properties of this class
+     * and its super classes are optimized beforehand, so that the loaders pick up the optimized ones.
+     *
+     * <p>
+     * Building a loader builds the loaders of the classes it refers to,
+     * and those may refer back to this class. So the loaders built along the way
+     * are only marked as linked when the outermost one is done, and until then
+     * only the thread that builds them gets to see them.
+     */
+    private void buildLoader() {
+        synchronized(owner.linkLock) {
+            if(linkFailure!=null)
+                rethrow(linkFailure);
+            if(loader!=null)
+                // built by another thread, or being built further up in our call stack
+                return;
+
+            boolean outermost = owner.linking==null;
+            if(outermost)
+                owner.linking = new FinalArrayList<ClassBeanInfoImpl>();
+            Throwable failure = null;
+            try {
+                owner.linking.add(this);
+
+                if(owner.lazyBeanInfoLinking) {
+                    for( ClassBeanInfoImpl bi=this; bi!=null && !bi.accessorsOptimized; bi=bi.superClazz ) {
+                        for (Property p : bi.properties)
+                            p.optimizeAccessors();
+                        bi.accessorsOptimized = true;
+                    }
+                }
+
+                // these variables have to be set before they are initialized,
+                // because the initialization may build other loaders and they may refer to this.
+                StructureLoader sl = new StructureLoader(this);
+                loader = sl;
+                if(hasSubClasses)
+                    loaderWithTypeSubst = new XsiTypeLoader(this);
+                else
+                    // optimization. we know there can be no @xsi:type
+                    loaderWithTypeSubst = loader;
+
+                sl.init(owner,this,inheritedAttWildcard);
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
+            } catch (Error e) {
+                failure = e;
+                throw e;
+            } finally {
+                if(outermost) {
+                    for (ClassBeanInfoImpl bi : owner.linking) {
+                        if(failure==null) {
+                            bi.linked = true;
+                        } else {
+                            bi.loader = null;
+                            bi.loaderWithTypeSubst = null;
+                            bi.linkFailure = failure;
+                        }
+                    }
+                    if(failure==null)
+                        owner.linked(owner.linking);
+                    owner.linking = null;
+                }
+            }
+        }
+    }
+
+    private static void rethrow(Throwable t) {
+        if(t instanceof Error)
+            throw (Error)t;
+        throw (RuntimeException)t;
+    }
+
     public Transducer<BeanT> getTransducer() {
         return xducer;
     }
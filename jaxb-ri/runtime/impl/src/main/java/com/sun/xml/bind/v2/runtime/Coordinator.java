@@ -136,6 +136,14 @@ public abstract class Coordinator implements ErrorHandler, ValidationEventHandle
         old = null; // avoid memory leak
     }
 
+    /**
+     * Gets the {@link Coordinator} in charge of the current thread.
+     *
+     * <p>
+     * This costs a thread-local lookup, so code that already has the
+     * {@link XMLSerializer} or the {@link UnmarshallingContext} at hand
+     * should use it instead.
+     */
     public static Coordinator _getInstance() {
         return activeTable.get();
     }
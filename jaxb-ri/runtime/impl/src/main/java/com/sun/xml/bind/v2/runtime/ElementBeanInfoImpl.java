@@ -189,10 +189,25 @@ public final class ElementBeanInfoImpl extends JaxBeanInfo<JAXBElement> {
             public void wrapUp() {
             }
 
+            public void optimizeAccessors() {
+            }
+
             public RuntimePropertyInfo getInfo() {
                 return property.getInfo();
             }
 
+            public boolean isRequired() {
+                return property.isRequired();
+            }
+
+            public boolean isRepeated() {
+                return property.isRepeated();
+            }
+
+            public Accessor getReusableAccessor() {
+                return property.getReusableAccessor();
+            }
+
             public boolean isHiddenByOverride() {
                 return false;
             }
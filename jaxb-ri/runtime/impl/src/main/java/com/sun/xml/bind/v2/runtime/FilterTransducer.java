@@ -84,6 +84,10 @@ public abstract class FilterTransducer<T> implements Transducer<T> {
         return core.parse(lexical);
     }
 
+    public T parse(CharSequence lexical, boolean validating) throws AccessorException, SAXException {
+        return core.parse(lexical,validating);
+    }
+
     public void writeText(XMLSerializer w, T o, String fieldName) throws IOException, SAXException, XMLStreamException, AccessorException {
         core.writeText(w, o, fieldName);
     }
@@ -45,6 +45,7 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -55,6 +56,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.TreeSet;
 import javax.xml.bind.Binder;
@@ -91,6 +93,7 @@ import com.sun.xml.bind.api.Bridge;
 import com.sun.xml.bind.api.BridgeContext;
 import com.sun.xml.bind.api.CompositeStructure;
 import com.sun.xml.bind.api.ErrorListener;
+import com.sun.xml.bind.api.InstanceAllocator;
 import com.sun.xml.bind.api.JAXBRIContext;
 import com.sun.xml.bind.api.RawAccessor;
 import com.sun.xml.bind.api.TypeReference;
@@ -112,6 +115,7 @@ import com.sun.xml.bind.v2.model.runtime.RuntimeEnumLeafInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeLeafInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeTypeInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeTypeInfoSet;
+import com.sun.xml.bind.v2.runtime.output.DOMOutput;
 import com.sun.xml.bind.v2.runtime.output.Encoded;
 import com.sun.xml.bind.v2.runtime.property.AttributeProperty;
 import com.sun.xml.bind.v2.runtime.property.Property;
@@ -123,6 +127,7 @@ import com.sun.xml.bind.v2.runtime.unmarshaller.UnmarshallingContext;
 import com.sun.xml.bind.v2.schemagen.XmlSchemaGenerator;
 import com.sun.xml.bind.v2.util.EditDistance;
 import com.sun.xml.bind.v2.util.QNameMap;
+import com.sun.xml.bind.v2.util.WeakClassCache;
 import com.sun.xml.bind.v2.util.XmlFactory;
 import com.sun.xml.txw2.output.ResultFactory;
 
@@ -157,6 +162,17 @@ public final class JAXBContextImpl extends JAXBRIContext {
      */
     private final Map<Class,JaxBeanInfo> beanInfoMap = new LinkedHashMap<Class,JaxBeanInfo>();
 
+    /**
+     * Results of {@link #getBeanInfo(Object)} keyed by the runtime class of the object,
+     * including negative results, so that subclasses and proxies of bound classes
+     * don't walk the class hierarchy on every lookup.
+     */
+    private final WeakClassCache<JaxBeanInfo> resolvedBeanInfos = new WeakClassCache<JaxBeanInfo>() {
+        protected JaxBeanInfo compute(Class<?> clazz) {
+            return findBeanInfo(clazz);
+        }
+    };
+
     /**
      * All created {@link JaxBeanInfo}s.
      * Updated from each {@link JaxBeanInfo}s constructors to avoid infinite recursion
@@ -165,6 +181,8 @@ public final class JAXBContextImpl extends JAXBRIContext {
      * <p>
      * This map is only used while the {@link JAXBContextImpl} is built and set to null
      * to avoid keeping references too long.
+     * With {@link #lazyBeanInfoLinking}, it's kept until every {@link ClassBeanInfoImpl} is linked,
+     * and guarded by {@link #linkLock} after the constructor.
      */
     protected Map<RuntimeTypeInfo,JaxBeanInfo> beanInfos = new LinkedHashMap<RuntimeTypeInfo, JaxBeanInfo>();
 
@@ -239,6 +257,45 @@ public final class JAXBContextImpl extends JAXBRIContext {
      */
     public final boolean disableSecurityProcessing;
 
+    /**
+     * @see JAXBRIContext#PARALLEL_MODEL_BUILD
+     */
+    public final boolean parallelModelBuild;
+
+    /**
+     * @see JAXBRIContext#LAZY_BEAN_INFO_LINKING
+     */
+    public final boolean lazyBeanInfoLinking;
+
+    /**
+     * Guards the {@link ClassBeanInfoImpl}s that build their loaders
+     * after this context has been created.
+     *
+     * @see #lazyBeanInfoLinking
+     */
+    /*package*/ final Object linkLock = new Object();
+
+    /**
+     * {@link ClassBeanInfoImpl}s whose loaders are being built, but are not ready to be used yet.
+     * Guarded by {@link #linkLock}.
+     */
+    /*package*/ List<ClassBeanInfoImpl> linking;
+
+    /**
+     * {@link ClassBeanInfoImpl}s that haven't been linked yet.
+     * When the last one is, the model is released.
+     * Only used with {@link #lazyBeanInfoLinking}, and null while the constructor runs.
+     * Guarded by {@link #linkLock}.
+     */
+    private Set<ClassBeanInfoImpl> unlinked;
+
+    /**
+     * Accessors that {@link ParallelModelBuild} has already optimized,
+     * keyed by the accessors of the {@link RuntimeTypeInfoSet}.
+     * Only available while the constructor runs.
+     */
+    private Map<Accessor,Accessor> optimizedAccessors;
+
     private WeakReference<RuntimeTypeInfoSet> typeInfoSetCache;
 
     private @NotNull RuntimeAnnotationReader annotationReader;
@@ -289,6 +346,8 @@ public final class JAXBContextImpl extends JAXBRIContext {
         this.improvedXsiTypeHandling = builder.improvedXsiTypeHandling;
         this.disableSecurityProcessing = builder.disableSecurityProcessing;
         this.backupWithParentNamespace = builder.backupWithParentNamespace;
+        this.parallelModelBuild = builder.parallelModelBuild;
+        this.lazyBeanInfoLinking = builder.lazyBeanInfoLinking;
 
         Collection<TypeReference> typeRefs = builder.typeRefs;
 
@@ -300,8 +359,14 @@ public final class JAXBContextImpl extends JAXBRIContext {
         }
         this.fastBoot = fastB;
 
+        if(parallelModelBuild)
+            ParallelModelBuild.readAnnotations(classes);
+
         RuntimeTypeInfoSet typeSet = getTypeInfoSet();
 
+        if(parallelModelBuild && !fastBoot && !lazyBeanInfoLinking)
+            optimizedAccessors = ParallelModelBuild.optimizeAccessors(typeSet);
+
         // at least prepare the empty table so that we don't have to check for null later
         elements.put(null,new LinkedHashMap<QName, ElementBeanInfoImpl>());
 
@@ -421,7 +486,61 @@ public final class JAXBContextImpl extends JAXBRIContext {
 
         // no use for them now
         nameBuilder = null;
-        beanInfos = null;        
+        optimizedAccessors = null;
+        if(lazyBeanInfoLinking) {
+            // the loaders that are yet to be built still look up bean infos by their model.
+            synchronized(linkLock) {
+                unlinked = new HashSet<ClassBeanInfoImpl>();
+                for (JaxBeanInfo bi : beanInfos.values())
+                    if(bi instanceof ClassBeanInfoImpl)
+                        unlinked.add((ClassBeanInfoImpl)bi);
+                linked(Collections.<ClassBeanInfoImpl>emptyList());
+            }
+        } else {
+            beanInfos = null;
+        }
+
+        // forget whatever was looked up while beanInfoMap was still being filled
+        resolvedBeanInfos.clear();
+    }
+
+    /**
+     * Called by {@link ClassBeanInfoImpl} with {@link #linkLock} held
+     * when the given bean infos are linked.
+     *
+     * <p>
+     * Once they all are, nothing refers to the model anymore, so release it
+     * the same way the constructor does without {@link #lazyBeanInfoLinking}.
+     */
+    /*package*/ void linked(List<ClassBeanInfoImpl> bis) {
+        if(unlinked==null)
+            return;     // still in the constructor, or already released
+        unlinked.removeAll(bis);
+        if(!unlinked.isEmpty())
+            return;
+
+        for (JaxBeanInfo bi : beanInfos.values()) {
+            if(bi instanceof ClassBeanInfoImpl) {
+                for (Property p : ((ClassBeanInfoImpl<?>)bi).properties)
+                    p.wrapUp();
+            }
+        }
+        beanInfos = null;
+        unlinked = null;
+    }
+
+    /**
+     * Gets the optimized version of the given {@link Accessor} if it has
+     * already been computed while this context is being built.
+     *
+     * @return null
+     *      if it hasn't been computed, in which case the caller optimizes the accessor by itself.
+     * @see Accessor#optimize(JAXBContextImpl)
+     */
+    public <B,V> Accessor<B,V> getOptimizedAccessor(Accessor<B,V> acc) {
+        if(optimizedAccessors==null)
+            return null;
+        return optimizedAccessors.get(acc);
     }
 
     /**
@@ -431,6 +550,64 @@ public final class JAXBContextImpl extends JAXBRIContext {
         return hasSwaRef;
     }
 
+    @Override
+    public void releaseGraph(Object root, InstanceAllocator allocator) throws JAXBException {
+        // the beans in the order they are found, each one before the beans it contains
+        List<Object> beans = new ArrayList<Object>();
+        List<ClassBeanInfoImpl> beanInfos = new ArrayList<ClassBeanInfoImpl>();
+        // objects yet to be walked into, used as a stack
+        List<Object> work = new ArrayList<Object>();
+        work.add(root);
+
+        try {
+            while(!work.isEmpty()) {
+                Object o = work.remove(work.size()-1);
+                if(o instanceof JAXBElement)
+                    o = ((JAXBElement)o).getValue();
+                if(o==null)
+                    continue;
+                JaxBeanInfo bi = getBeanInfo(o);
+                if(!(bi instanceof ClassBeanInfoImpl))
+                    continue;     // not something we can walk into
+                beans.add(o);
+                beanInfos.add((ClassBeanInfoImpl)bi);
+
+                for( ClassBeanInfoImpl<?> c = (ClassBeanInfoImpl)bi; c!=null; c=c.superClazz ) {
+                    c.checkLinked();
+                    for( Property p : c.properties ) {
+                        Accessor acc = p.getReusableAccessor();
+                        if(acc==null)
+                            continue;
+                        Object v = acc.get(o);
+                        if(v instanceof List && v instanceof RandomAccess) {
+                            List<?> l = (List<?>)v;
+                            for( int i=0; i<l.size(); i++ )
+                                work.add(l.get(i));
+                        } else if(v instanceof Collection) {
+                            work.addAll((Collection<?>)v);
+                        } else if(v instanceof Object[]) {
+                            work.addAll(Arrays.asList((Object[])v));
+                        } else {
+                            work.add(v);
+                        }
+                    }
+                }
+            }
+
+            // going backwards releases the contained beans first
+            for( int i=beans.size()-1; i>=0; i-- ) {
+                Object bean = beans.get(i);
+                for( ClassBeanInfoImpl<?> c = beanInfos.get(i); c!=null; c=c.superClazz ) {
+                    for( Property p : c.properties )
+                        p.reset(bean);
+                }
+                allocator.release(bean);
+            }
+        } catch (AccessorException e) {
+            throw new JAXBException(e);
+        }
+    }
+
     public RuntimeTypeInfoSet getRuntimeTypeInfoSet() {
         try {
             return getTypeInfoSet();
@@ -562,14 +739,21 @@ public final class JAXBContextImpl extends JAXBRIContext {
      *      if {@code c} isn't a JAXB-bound class and {@code fatal==false}.
      */
     public final JaxBeanInfo getBeanInfo(Object o) {
+        return resolvedBeanInfos.get(o.getClass());
+    }
+
+    /**
+     * Does the actual work of {@link #getBeanInfo(Object)} for the runtime class of the object.
+     */
+    private JaxBeanInfo findBeanInfo(Class<?> clazz) {
         // don't allow xs:anyType beanInfo to handle all the unbound objects
-        for( Class c=o.getClass(); c!=Object.class; c=c.getSuperclass()) {
+        for( Class c=clazz; c!=Object.class; c=c.getSuperclass()) {
             JaxBeanInfo bi = beanInfoMap.get(c);
             if(bi!=null)    return bi;
         }
-        if(o instanceof Element)
+        if(Element.class.isAssignableFrom(clazz))
             return beanInfoMap.get(Object.class);   // return the BeanInfo for xs:anyType
-        for( Class c : o.getClass().getInterfaces()) {
+        for( Class c : clazz.getInterfaces()) {
             JaxBeanInfo bi = beanInfoMap.get(c);
             if(bi!=null)    return bi;
         }
@@ -706,6 +890,22 @@ public final class JAXBContextImpl extends JAXBRIContext {
         return utf8nameTable;
     }
 
+    /**
+     * Cache of prefixed element and attribute names, used by {@link DOMOutput}.
+     */
+    private String[] domNameTable;
+
+    /**
+     * Gets the table where {@link DOMOutput} keeps the prefixed names it built.
+     * Element names are indexed by {@link Name#qNameIndex}, and attribute names
+     * follow them.
+     */
+    public synchronized String[] getDOMNameTable() {
+        if(domNameTable==null)
+            domNameTable = new String[nameList.numberOfElementNames+nameList.numberOfAttributeNames];
+        return domNameTable;
+    }
+
     public int getNumberOfLocalNames() {
         return nameList.localNames.length;
     }
@@ -938,6 +1138,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
             throw new JAXBException(wrapperBean+" is not a bean");
 
         for( ClassBeanInfoImpl cb = (ClassBeanInfoImpl) bi; cb!=null; cb=cb.superClazz) {
+            cb.checkLinked();
             for (Property p : cb.properties) {
                 final Accessor acc = p.getElementPropertyAccessor(nsUri,localName);
                 if(acc!=null)
@@ -996,6 +1197,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
             return null;
 
         ClassBeanInfoImpl cb = (ClassBeanInfoImpl) bi;
+        cb.checkLinked();
         for (Property p : cb.properties) {
             if (p instanceof AttributeProperty) {
                 AttributeProperty ap = (AttributeProperty) p;
@@ -1051,6 +1253,8 @@ public final class JAXBContextImpl extends JAXBRIContext {
         private boolean improvedXsiTypeHandling = true;
         private boolean disableSecurityProcessing = true;
         private Boolean backupWithParentNamespace = null; // null for System property to be used
+        private boolean parallelModelBuild = false;
+        private boolean lazyBeanInfoLinking = false;
 
         public JAXBContextBuilder() {};
 
@@ -1067,6 +1271,8 @@ public final class JAXBContextImpl extends JAXBRIContext {
             this.allNillable = baseImpl.allNillable;
             this.disableSecurityProcessing = baseImpl.disableSecurityProcessing;
             this.backupWithParentNamespace = baseImpl.backupWithParentNamespace;
+            this.parallelModelBuild = baseImpl.parallelModelBuild;
+            this.lazyBeanInfoLinking = baseImpl.lazyBeanInfoLinking;
         }
 
         public JAXBContextBuilder setRetainPropertyInfo(boolean val) {
@@ -1134,6 +1340,16 @@ public final class JAXBContextImpl extends JAXBRIContext {
             return this;
         }
 
+        public JAXBContextBuilder setParallelModelBuild(boolean val) {
+            this.parallelModelBuild = val;
+            return this;
+        }
+
+        public JAXBContextBuilder setLazyBeanInfoLinking(boolean val) {
+            this.lazyBeanInfoLinking = val;
+            return this;
+        }
+
         public JAXBContextImpl build() throws JAXBException {
 
             // fool-proof
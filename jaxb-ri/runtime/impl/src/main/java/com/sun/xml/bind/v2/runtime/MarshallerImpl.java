@@ -40,7 +40,6 @@
 
 package com.sun.xml.bind.v2.runtime;
 
-import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.FileOutputStream;
 import java.io.Flushable;
@@ -51,6 +50,10 @@ import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.MarshalException;
 import javax.xml.bind.Marshaller;
@@ -73,20 +76,23 @@ import javax.xml.namespace.NamespaceContext;
 
 import com.sun.xml.bind.api.JAXBRIContext;
 import com.sun.xml.bind.marshaller.CharacterEscapeHandler;
-import com.sun.xml.bind.marshaller.DataWriter;
 import com.sun.xml.bind.marshaller.DumbEscapeHandler;
 import com.sun.xml.bind.marshaller.MinimumEscapeHandler;
 import com.sun.xml.bind.marshaller.NamespacePrefixMapper;
 import com.sun.xml.bind.marshaller.NioEscapeHandler;
-import com.sun.xml.bind.marshaller.SAX2DOMEx;
-import com.sun.xml.bind.marshaller.XMLWriter;
+import com.sun.xml.bind.v2.runtime.output.ByteBufferOutputStream;
+import com.sun.xml.bind.v2.runtime.output.ByteBufferSink;
 import com.sun.xml.bind.v2.runtime.output.C14nXmlOutput;
+import com.sun.xml.bind.v2.runtime.output.DOMOutput;
 import com.sun.xml.bind.v2.runtime.output.Encoded;
 import com.sun.xml.bind.v2.runtime.output.ForkXmlOutput;
 import com.sun.xml.bind.v2.runtime.output.IndentingUTF8XmlOutput;
 import com.sun.xml.bind.v2.runtime.output.NamespaceContextImpl;
 import com.sun.xml.bind.v2.runtime.output.SAXOutput;
+import com.sun.xml.bind.v2.runtime.output.SingleByteXmlOutput;
+import com.sun.xml.bind.v2.runtime.output.UTF16XmlOutput;
 import com.sun.xml.bind.v2.runtime.output.UTF8XmlOutput;
+import com.sun.xml.bind.v2.runtime.output.WriterXmlOutput;
 import com.sun.xml.bind.v2.runtime.output.XMLEventWriterOutput;
 import com.sun.xml.bind.v2.runtime.output.XMLStreamWriterOutput;
 import com.sun.xml.bind.v2.runtime.output.XmlOutput;
@@ -143,6 +149,27 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
     /** Configured for c14n? */
     private boolean c14nSupport;
 
+    /**
+     * Direct buffer used by {@link #marshal(Object, WritableByteChannel)}.
+     * Allocated on first use, as direct buffers are expensive to create.
+     */
+    private ByteBuffer channelBuffer;
+
+    private static final int CHANNEL_BUFFER_SIZE = 8192;
+
+    /**
+     * Size of the buffer of {@link UTF8XmlOutput} and {@link WriterXmlOutput}.
+     */
+    private int outputBufferSize = UTF8XmlOutput.DEFAULT_BUFFER_SIZE;
+
+    /**
+     * {@link UTF8XmlOutput} kept across marshal invocations, so that its
+     * buffers are allocated only once. Discarded when a property changes.
+     *
+     * @see #createReusableWriter(OutputStream)
+     */
+    private UTF8XmlOutput reusableOutput;
+
     // while createing XmlOutput those values may be set.
     // if these are non-null they need to be cleaned up
     private Flushable toBeFlushed;
@@ -175,7 +202,7 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
      * @since 2.1.5
      */
     public void marshal(Object obj, OutputStream out, NamespaceContext inscopeNamespace) throws JAXBException {
-        write(obj, createWriter(out), new StAXPostInitAction(inscopeNamespace,serializer));
+        write(obj, createReusableWriter(out), new StAXPostInitAction(inscopeNamespace,serializer));
     }
 
     @Override
@@ -192,6 +219,41 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
         write(obj, output, null );
     }
 
+    /**
+     * Marshals to a blocking {@link WritableByteChannel}.
+     *
+     * <p>
+     * The document is written through a direct {@link ByteBuffer}
+     * that this marshaller keeps across invocations.
+     * The channel is not closed.
+     *
+     * @throws IllegalArgumentException
+     *      if the channel is a {@link SelectableChannel} in non-blocking mode.
+     *      Such a channel can't take the document at once, so use
+     *      {@link #marshal(Object, ByteBufferSink)} and write the buffers
+     *      when the channel is ready instead.
+     */
+    public void marshal(Object obj, WritableByteChannel channel) throws JAXBException {
+        if(channel instanceof SelectableChannel && !((SelectableChannel)channel).isBlocking())
+            throw new IllegalArgumentException(Messages.NON_BLOCKING_CHANNEL.format());
+        if(channelBuffer==null)
+            channelBuffer = ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE);
+        marshal(obj, new ChannelSink(channel,channelBuffer));
+    }
+
+    /**
+     * Marshals into the buffers supplied by the given {@link ByteBufferSink}.
+     */
+    public void marshal(Object obj, ByteBufferSink sink) throws JAXBException {
+        ByteBufferOutputStream os = new ByteBufferOutputStream(sink);
+        write(obj, createReusableWriter(os), null);
+        try {
+            os.flush();
+        } catch (IOException e) {
+            throw new MarshalException(e);
+        }
+    }
+
     /**
      * Creates {@link XmlOutput} from the given {@link Result} object.
      */
@@ -205,9 +267,9 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             if (node == null) {
                 Document doc = JAXBContextImpl.createDom(getContext().disableSecurityProcessing);
                 ((DOMResult) result).setNode(doc);
-                return new SAXOutput(new SAX2DOMEx(doc));
+                return new DOMOutput(doc);
             } else {
-                return new SAXOutput(new SAX2DOMEx(node));
+                return new DOMOutput(node);
             }
         }
         if (result instanceof StreamResult) {
@@ -216,7 +278,7 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             if (sr.getWriter() != null)
                 return createWriter(sr.getWriter());
             else if (sr.getOutputStream() != null)
-                return createWriter(sr.getOutputStream());
+                return createReusableWriter(sr.getOutputStream());
             else if (sr.getSystemId() != null) {
                 String fileURL = sr.getSystemId();
 
@@ -230,7 +292,7 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
                     FileOutputStream fos = new FileOutputStream(fileURL);
                     assert toBeClosed==null;
                     toBeClosed = fos;
-                    return createWriter(fos);
+                    return createReusableWriter(fos);
                 } catch (IOException e) {
                     throw new MarshalException(e);
                 }
@@ -358,6 +420,9 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             }
         toBeFlushed = null;
         toBeClosed = null;
+        if(reusableOutput!=null)
+            // don't keep the user's stream reachable
+            reusableOutput.setOutputStream(null);
     }
 
     // common parts between two write methods.
@@ -422,26 +487,57 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
     }
 
     public XmlOutput createWriter( Writer w, String encoding ) {
-        // XMLWriter doesn't do buffering, so do it here if it looks like a good idea
-        if(!(w instanceof BufferedWriter))
-            w = new BufferedWriter(w);
-
+        // WriterXmlOutput does buffering on its own
         assert toBeFlushed==null;
         toBeFlushed = w;
 
-        CharacterEscapeHandler ceh = createEscapeHandler(encoding);
-        XMLWriter xw;
+        int maxChar = getMaxChar(encoding);
+        CharacterEscapeHandler ceh = null;
+        if(escapeHandler!=null || maxChar==-1) {
+            // we don't know which characters the encoding can represent,
+            // so let the escape handler find out.
+            ceh = createEscapeHandler(encoding);
+            maxChar = Character.MAX_VALUE;
+        }
+
+        WriterXmlOutput out = new WriterXmlOutput(w, encoding, maxChar, ceh, getIndent(), outputBufferSize);
+        out.setHeader(header);
+        return out;
+    }
 
-        if(isFormattedOutput()) {
-            DataWriter d = new DataWriter(w,encoding,ceh);
-            d.setIndentStep(indent);
-            xw=d;
-        } else
-            xw = new XMLWriter(w,encoding,ceh);
+    /**
+     * Gets the highest character that the given encoding can represent,
+     * or -1 if we don't know that.
+     */
+    private int getMaxChar( String encoding ) {
+        if( encoding.startsWith("UTF") )
+            return Character.MAX_VALUE;
+        String name = getCharsetName(encoding);
+        if("ISO-8859-1".equals(name))
+            return 0xFF;
+        if("US-ASCII".equals(name))
+            return 0x7F;
+        return -1;
+    }
 
-        xw.setXmlDecl(!isFragment());
-        xw.setHeader(header);
-        return new SAXOutput(xw);   // TODO: don't we need a better writer?
+    /**
+     * Gets the canonical name of the given encoding, or null if it's not supported.
+     */
+    private String getCharsetName( String encoding ) {
+        try {
+            return Charset.forName(getJavaEncoding(encoding)).name();
+        } catch( UnsupportedEncodingException e ) {
+            return null;
+        } catch( IllegalArgumentException e ) {
+            return null;
+        }
+    }
+
+    /**
+     * The indentation string, or null if the output isn't formatted.
+     */
+    private String getIndent() {
+        return isFormattedOutput() ? indent : null;
     }
 
     public XmlOutput createWriter(Writer w) {
@@ -453,24 +549,59 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
     }
 
     public XmlOutput createWriter( OutputStream os, String encoding ) throws JAXBException {
+        return createWriter(os, encoding, false);
+    }
+
+    /**
+     * Same as {@link #createWriter(OutputStream)}, except that the UTF-8 output
+     * created by the previous invocation is reused. The returned object must not
+     * be used once another writer is created.
+     */
+    final XmlOutput createReusableWriter( OutputStream os ) throws JAXBException {
+        return createWriter(os, getEncoding(), true);
+    }
+
+    private XmlOutput createWriter( OutputStream os, String encoding, boolean reuse ) throws JAXBException {
         // UTF8XmlOutput does buffering on its own, and
         // otherwise createWriter(Writer) inserts a buffering,
         // so no point in doing a buffering here.
 
         if(encoding.equals("UTF-8")) {
+            if(reuse && reusableOutput!=null) {
+                reusableOutput.setOutputStream(os);
+                return reusableOutput;
+            }
+
             Encoded[] table = context.getUTF8NameTable();
             final UTF8XmlOutput out;
             CharacterEscapeHandler ceh = createEscapeHandler(encoding);
             if(isFormattedOutput())
-                out = new IndentingUTF8XmlOutput(os, indent, table, ceh);
+                out = new IndentingUTF8XmlOutput(os, indent, table, ceh, outputBufferSize);
             else {
                 if(c14nSupport)
-                    out = new C14nXmlOutput(os, table, context.c14nSupport, ceh);
+                    out = new C14nXmlOutput(os, table, context.c14nSupport, ceh, outputBufferSize);
                 else
-                    out = new UTF8XmlOutput(os, table, ceh);
+                    out = new UTF8XmlOutput(os, table, ceh, outputBufferSize);
             }
             if(header!=null)
                 out.setHeader(header);
+            if(reuse)
+                reusableOutput = out;
+            return out;
+        }
+
+        String name = getCharsetName(encoding);
+        CharacterEscapeHandler ceh = escapeHandler;
+        if("UTF-16".equals(name) || "UTF-16BE".equals(name) || "UTF-16LE".equals(name)) {
+            UTF16XmlOutput out = new UTF16XmlOutput(os, encoding, !"UTF-16LE".equals(name), "UTF-16".equals(name),
+                ceh, getIndent(), outputBufferSize);
+            out.setHeader(header);
+            return out;
+        }
+        if("ISO-8859-1".equals(name) || "US-ASCII".equals(name)) {
+            SingleByteXmlOutput out = new SingleByteXmlOutput(os, encoding, getMaxChar(encoding),
+                ceh, getIndent(), outputBufferSize);
+            out.setHeader(header);
             return out;
         }
 
@@ -498,6 +629,10 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             return !isFragment();
         if( XML_HEADERS.equals(name) )
             return header;
+        if( OUTPUT_BUFFER_SIZE.equals(name) )
+            return outputBufferSize;
+        if( FLUSH_INTERVAL.equals(name) )
+            return serializer.getFlushInterval();
         if( C14N.equals(name) )
             return c14nSupport;
         if ( OBJECT_IDENTITY_CYCLE_DETECTION.equals(name)) 
@@ -508,6 +643,9 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
 
     @Override
     public void setProperty(String name, Object value) throws PropertyException {
+        // most properties affect how the output is created
+        reusableOutput = null;
+
         if( INDENT_STRING.equals(name) ) {
             checkString(name, value);
             indent = (String)value;
@@ -550,6 +688,32 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             c14nSupport = (Boolean)value;
             return;
         }
+        if( OUTPUT_BUFFER_SIZE.equals(name) ) {
+            if(!(value instanceof Integer))
+                throw new PropertyException(
+                    Messages.MUST_BE_X.format(
+                            name,
+                            Integer.class.getName(),
+                            value.getClass().getName() ) );
+            int size = (Integer)value;
+            if(size<UTF8XmlOutput.MIN_BUFFER_SIZE)
+                throw new PropertyException(Messages.ILLEGAL_PARAMETER.format(name, value));
+            outputBufferSize = size;
+            return;
+        }
+        if( FLUSH_INTERVAL.equals(name) ) {
+            if(!(value instanceof Integer))
+                throw new PropertyException(
+                    Messages.MUST_BE_X.format(
+                            name,
+                            Integer.class.getName(),
+                            value.getClass().getName() ) );
+            int interval = (Integer)value;
+            if(interval<0)
+                throw new PropertyException(Messages.ILLEGAL_PARAMETER.format(name, value));
+            serializer.setFlushInterval(interval);
+            return;
+        }
         if (OBJECT_IDENTITY_CYCLE_DETECTION.equals(name)) {
         	checkBoolean(name,value);
             serializer.setObjectIdentityCycleDetection((Boolean)value);
@@ -639,6 +803,32 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
         externalListener = listener;
     }
 
+    /**
+     * {@link ByteBufferSink} that writes a single, reused buffer to a channel.
+     */
+    private static final class ChannelSink implements ByteBufferSink {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+
+        ChannelSink(WritableByteChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        public ByteBuffer nextBuffer() {
+            buffer.clear();
+            return buffer;
+        }
+
+        public void flush(ByteBuffer buffer) throws IOException {
+            while(buffer.hasRemaining()) {
+                // a blocking channel always makes progress, so don't spin
+                if(channel.write(buffer)==0)
+                    throw new IOException(Messages.CHANNEL_STALLED.format());
+            }
+        }
+    }
+
     // features supported
     protected static final String INDENT_STRING = "com.sun.xml.bind.indentString";
     protected static final String PREFIX_MAPPER = "com.sun.xml.bind.namespacePrefixMapper";
@@ -648,4 +838,6 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
     protected static final String XML_HEADERS = "com.sun.xml.bind.xmlHeaders";
     protected static final String C14N = JAXBRIContext.CANONICALIZATION_SUPPORT;
     protected static final String OBJECT_IDENTITY_CYCLE_DETECTION = "com.sun.xml.bind.objectIdentitityCycleDetection";
+    protected static final String OUTPUT_BUFFER_SIZE = "com.sun.xml.bind.outputBufferSize";
+    protected static final String FLUSH_INTERVAL = "com.sun.xml.bind.streamingFlushInterval";
 }
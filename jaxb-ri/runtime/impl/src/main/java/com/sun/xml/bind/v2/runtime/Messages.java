@@ -73,6 +73,8 @@ enum Messages {
     FAILED_TO_GENERATE_SCHEMA, // 0 args
     ERROR_PROCESSING_SCHEMA, // 0 args
     ILLEGAL_CONTENT, // 2 args
+    NON_BLOCKING_CHANNEL, // 0 args
+    CHANNEL_STALLED, // 0 args
     ;
 
     private static final ResourceBundle rb = ResourceBundle.getBundle(Messages.class.getName());
@@ -0,0 +1,312 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlSeeAlso;
+
+import com.sun.xml.bind.Util;
+import com.sun.xml.bind.v2.model.runtime.RuntimeClassInfo;
+import com.sun.xml.bind.v2.model.runtime.RuntimePropertyInfo;
+import com.sun.xml.bind.v2.model.runtime.RuntimeTypeInfoSet;
+import com.sun.xml.bind.v2.runtime.reflect.Accessor;
+
+/**
+ * Does the expensive, self-contained parts of the {@link JAXBContext} creation
+ * on a fork/join pool when {@link JAXBContextImpl#parallelModelBuild} is on.
+ *
+ * <p>
+ * The model itself is still built by a single thread, since
+ * {@link com.sun.xml.bind.v2.model.impl.RuntimeModelBuilder} and the bean infos
+ * share a lot of state, and the order in which they are created determines
+ * the names and indices of the resulting context. What we do here is
+ * to get the work that doesn't depend on that order out of the way:
+ *
+ * <ol>
+ * <li>{@link #readAnnotations(Class[])} walks the class graph and makes the VM
+ *     parse the declared members and annotations of each class, so that
+ *     the model builder later finds them in the reflection caches.
+ * <li>{@link #optimizeAccessors(RuntimeTypeInfoSet)} generates the optimized
+ *     accessors of all the properties. The results are merged in the order of
+ *     the model, and {@link Accessor#optimize(JAXBContextImpl)} picks them up
+ *     through {@link JAXBContextImpl#getOptimizedAccessor(Accessor)}, so every
+ *     property ends up with the same accessor as in the sequential case.
+ * </ol>
+ *
+ * <p>
+ * The pool threads are shared by all contexts, so each task runs with
+ * the {@link AccessControlContext} and the context class loader of the thread
+ * that creates the context, and not with whatever the pool thread happens to have.
+ */
+final class ParallelModelBuild {
+    private ParallelModelBuild() {} // no instanciation please
+
+    private static final Logger logger = Util.getClassLogger();
+
+    /**
+     * The pool is created on first use, so that contexts built sequentially never start its threads.
+     */
+    private static final class PoolHolder {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    /**
+     * The thread that creates the {@link JAXBContext}, as far as the tasks are concerned.
+     */
+    static final class Caller {
+        private final AccessControlContext acc = AccessController.getContext();
+        private final ClassLoader contextClassLoader = SecureLoader.getContextClassLoader();
+
+        /**
+         * Runs the given action on the current pool thread as if the caller ran it.
+         */
+        <T> T run(PrivilegedAction<T> action) {
+            ClassLoader old = SecureLoader.getContextClassLoader();
+            SecureLoader.setContextClassLoader(contextClassLoader);
+            try {
+                return AccessController.doPrivileged(action, acc);
+            } finally {
+                SecureLoader.setContextClassLoader(old);
+            }
+        }
+    }
+
+    /**
+     * Reads the members and annotations of the given classes and of the classes reachable from them.
+     */
+    static void readAnnotations(Class[] classes) {
+        Caller caller = new Caller();
+        Set<Class> visited = Collections.newSetFromMap(new ConcurrentHashMap<Class,Boolean>());
+        List<AnnotationReader> tasks = new ArrayList<AnnotationReader>();
+        for (Class c : classes) {
+            if (isUserClass(c) && visited.add(c))
+                tasks.add(new AnnotationReader(c,visited,caller));
+        }
+        if (!tasks.isEmpty())
+            PoolHolder.POOL.invoke(new Fork(tasks));
+    }
+
+    /**
+     * Optimizes the accessors of all the properties in the given {@link RuntimeTypeInfoSet}.
+     *
+     * @return
+     *      map from the accessors of the model to their optimized versions.
+     *      Accessors that can't be optimized are not in the map.
+     */
+    static Map<Accessor,Accessor> optimizeAccessors(RuntimeTypeInfoSet typeSet) {
+        Caller caller = new Caller();
+        List<AccessorOptimizer> tasks = new ArrayList<AccessorOptimizer>();
+        for (RuntimeClassInfo ci : typeSet.beans().values())
+            tasks.add(new AccessorOptimizer(ci,caller));
+
+        Map<Accessor,Accessor> r = new IdentityHashMap<Accessor,Accessor>();
+        if (tasks.isEmpty())
+            return r;
+        PoolHolder.POOL.invoke(new Fork(tasks));
+
+        // merge in the order of the model, regardless of which task finished first
+        for (AccessorOptimizer task : tasks) {
+            List<Accessor> result = task.join();
+            for (int i=0; i<result.size(); i+=2)
+                r.put(result.get(i),result.get(i+1));
+        }
+        return r;
+    }
+
+    /**
+     * Classes loaded by the bootstrap class loader never carry JAXB annotations worth reading ahead.
+     */
+    private static boolean isUserClass(Class c) {
+        return c!=null && !c.isPrimitive() && !c.isArray() && c.getClassLoader()!=null;
+    }
+
+    /**
+     * Runs the given tasks and waits for all of them.
+     */
+    private static final class Fork extends RecursiveAction {
+        private final List<? extends ForkJoinTask<?>> tasks;
+
+        Fork(List<? extends ForkJoinTask<?>> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(tasks);
+        }
+    }
+
+    private static final class AnnotationReader extends RecursiveAction {
+        private final Class clazz;
+        private final Set<Class> visited;
+        private final Caller caller;
+
+        AnnotationReader(Class clazz, Set<Class> visited, Caller caller) {
+            this.clazz = clazz;
+            this.visited = visited;
+            this.caller = caller;
+        }
+
+        @Override
+        protected void compute() {
+            List<Type> refs = caller.run(new PrivilegedAction<List<Type>>() {
+                public List<Type> run() {
+                    return read();
+                }
+            });
+
+            List<AnnotationReader> tasks = new ArrayList<AnnotationReader>();
+            for (Type t : refs)
+                collect(t, tasks);
+            invokeAll(tasks);
+        }
+
+        /**
+         * Reads the members and annotations of {@link #clazz}.
+         *
+         * @return the types they refer to.
+         */
+        private List<Type> read() {
+            List<Type> refs = new ArrayList<Type>();
+            try {
+                clazz.getAnnotations();
+                Package pkg = clazz.getPackage();
+                if (pkg != null)
+                    pkg.getAnnotations();
+
+                for (Field f : clazz.getDeclaredFields()) {
+                    f.getAnnotations();
+                    refs.add(f.getGenericType());
+                }
+                for (Method m : clazz.getDeclaredMethods()) {
+                    m.getAnnotations();
+                    refs.add(m.getGenericReturnType());
+                }
+                refs.add(clazz.getSuperclass());
+
+                XmlSeeAlso sa = (XmlSeeAlso)clazz.getAnnotation(XmlSeeAlso.class);
+                if (sa != null)
+                    Collections.addAll(refs, sa.value());
+            } catch (RuntimeException e) {
+                // the model builder runs into the same problem and reports it properly
+                logger.log(Level.FINE, "Unable to read "+clazz+" ahead of time", e);
+            } catch (LinkageError e) {
+                logger.log(Level.FINE, "Unable to read "+clazz+" ahead of time", e);
+            }
+            return refs;
+        }
+
+        private void collect(Type t, List<AnnotationReader> tasks) {
+            if (t instanceof Class) {
+                Class c = (Class) t;
+                if (c.isArray())
+                    collect(c.getComponentType(), tasks);
+                else if (isUserClass(c) && visited.add(c))
+                    tasks.add(new AnnotationReader(c,visited,caller));
+            } else if (t instanceof ParameterizedType) {
+                ParameterizedType pt = (ParameterizedType) t;
+                collect(pt.getRawType(), tasks);
+                for (Type arg : pt.getActualTypeArguments())
+                    collect(arg, tasks);
+            } else if (t instanceof GenericArrayType) {
+                collect(((GenericArrayType) t).getGenericComponentType(), tasks);
+            }
+        }
+    }
+
+    /**
+     * Optimizes the accessors of one class.
+     * The result lists the accessors and their optimized versions in pairs.
+     */
+    private static final class AccessorOptimizer extends RecursiveTask<List<Accessor>> {
+        private final RuntimeClassInfo ci;
+        private final Caller caller;
+
+        AccessorOptimizer(RuntimeClassInfo ci, Caller caller) {
+            this.ci = ci;
+            this.caller = caller;
+        }
+
+        @Override
+        protected List<Accessor> compute() {
+            return caller.run(new PrivilegedAction<List<Accessor>>() {
+                public List<Accessor> run() {
+                    return optimize();
+                }
+            });
+        }
+
+        private List<Accessor> optimize() {
+            List<Accessor> r = new ArrayList<Accessor>();
+            for (RuntimePropertyInfo p : ci.getProperties()) {
+                Accessor acc = p.getAccessor();
+                Accessor opt = acc.optimize(null);
+                if (opt != acc) {
+                    r.add(acc);
+                    r.add(opt);
+                }
+            }
+            return r;
+        }
+    }
+}
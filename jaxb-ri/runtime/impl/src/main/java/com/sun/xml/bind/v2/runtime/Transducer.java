@@ -120,6 +120,18 @@ public interface Transducer<ValueT> {
      */
     ValueT parse(CharSequence lexical) throws AccessorException, SAXException;
 
+    /**
+     * Same as {@link #parse(CharSequence)}, except that when the unmarshaller
+     * validates, a lexical form this transducer would otherwise quietly turn into null,
+     * like an unknown enum constant, is rejected.
+     *
+     * @param validating
+     *      {@link com.sun.xml.bind.v2.runtime.unmarshaller.UnmarshallingContext#isValidating()}.
+     * @throws IllegalArgumentException
+     *      if validating and the lexical form is rejected.
+     */
+    ValueT parse(CharSequence lexical, boolean validating) throws AccessorException, SAXException;
+
     /**
      * Sends the result of the {@link #print(Object)} operation
      * to one of the {@link XMLSerializer#text(String, String)} method,
@@ -90,7 +90,7 @@ final class ValueListBeanInfoImpl extends JaxBeanInfo {
                 CharSequence token = text.subSequence(idx,p);
                 if (!token.equals(""))
                     try {
-                        r.add(xducer.parse(token));
+                        r.add(xducer.parse(token,state.getContext().isValidating()));
                     } catch (AccessorException e) {
                         handleGenericException(e,true);
                         continue;   // move on to next
@@ -42,6 +42,7 @@ package com.sun.xml.bind.v2.runtime;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.Calendar;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -76,10 +77,15 @@ import com.sun.xml.bind.v2.model.runtime.RuntimeBuiltinLeafInfo;
 import com.sun.xml.bind.v2.runtime.output.MTOMXmlOutput;
 import com.sun.xml.bind.v2.runtime.output.NamespaceContextImpl;
 import com.sun.xml.bind.v2.runtime.output.Pcdata;
+import com.sun.xml.bind.v2.runtime.output.UTF8XmlOutput;
+import com.sun.xml.bind.v2.runtime.output.WriterXmlOutput;
 import com.sun.xml.bind.v2.runtime.output.XmlOutput;
 import com.sun.xml.bind.v2.runtime.property.Property;
 import com.sun.xml.bind.v2.runtime.unmarshaller.Base64Data;
+import com.sun.xml.bind.v2.runtime.unmarshaller.CalendarData;
+import com.sun.xml.bind.v2.runtime.unmarshaller.DoubleData;
 import com.sun.xml.bind.v2.runtime.unmarshaller.IntData;
+import com.sun.xml.bind.v2.runtime.unmarshaller.LongData;
 import com.sun.xml.bind.v2.util.CollisionCheckStack;
 
 import org.xml.sax.SAXException;
@@ -186,6 +192,16 @@ public final class XMLSerializer extends Coordinator {
 
     private boolean fragment;
 
+    /**
+     * Number of items of a streaming multi-value property written between
+     * flushes of the output. 0 disables the periodic flush.
+     *
+     * @see com.sun.xml.bind.v2.runtime.reflect.Lister#isStreaming()
+     */
+    private int flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+    public static final int DEFAULT_FLUSH_INTERVAL = 1000;
+
     /**
      * Cached instance of {@link Base64Data}.
      */
@@ -196,6 +212,21 @@ public final class XMLSerializer extends Coordinator {
      */
     private final IntData intData = new IntData();
 
+    /**
+     * Cached instance of {@link LongData}.
+     */
+    private final LongData longData = new LongData();
+
+    /**
+     * Cached instance of {@link DoubleData}.
+     */
+    private final DoubleData doubleData = new DoubleData();
+
+    /**
+     * Cached instance of {@link CalendarData}.
+     */
+    private final CalendarData calendarData = new CalendarData();
+
     public AttachmentMarshaller attachmentMarshaller;
 
     /*package*/ XMLSerializer( MarshallerImpl _owner ) {
@@ -372,6 +403,32 @@ public final class XMLSerializer extends Coordinator {
         leafElement(tagName,intData,fieldName);
     }
 
+    public void leafElement( Name tagName, long data, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        longData.reset(data);
+        leafElement(tagName,longData,fieldName);
+    }
+
+    public void leafElement( Name tagName, double data, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        doubleData.reset(data);
+        leafElement(tagName,doubleData,fieldName);
+    }
+
+    public void leafElement( Name tagName, float data, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        doubleData.reset(data);
+        leafElement(tagName,doubleData,fieldName);
+    }
+
+    /**
+     * Marshals a leaf element whose content is a date.
+     *
+     * @param dateOnly
+     *      true to print the value as xs:date, false to print it as xs:dateTime.
+     */
+    public void leafElement( Name tagName, Calendar data, boolean dateOnly, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        calendarData.reset(data,dateOnly);
+        leafElement(tagName,calendarData,fieldName);
+    }
+
     /**
      * Marshalls text.
      *
@@ -422,6 +479,54 @@ public final class XMLSerializer extends Coordinator {
         textHasAlreadyPrinted = true;
     }
 
+    /**
+     * The {@link #text(String, String)} method that takes an int.
+     */
+    public void text( int data, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        intData.reset(data);
+        text(intData,fieldName);
+    }
+
+    /**
+     * The {@link #text(String, String)} method that takes a long.
+     */
+    public void text( long data, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        longData.reset(data);
+        text(longData,fieldName);
+    }
+
+    /**
+     * The {@link #text(String, String)} method that takes a double.
+     */
+    public void text( double data, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        doubleData.reset(data);
+        text(doubleData,fieldName);
+    }
+
+    /**
+     * The {@link #text(String, String)} method that takes a float.
+     */
+    public void text( float data, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        doubleData.reset(data);
+        text(doubleData,fieldName);
+    }
+
+    /**
+     * The {@link #text(String, String)} method that takes a date.
+     *
+     * @param dateOnly
+     *      true to print the value as xs:date, false to print it as xs:dateTime.
+     */
+    public void text( Calendar data, boolean dateOnly, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        if(data==null) {
+            reportMissingObjectError(fieldName);
+            return;
+        }
+
+        calendarData.reset(data,dateOnly);
+        text(calendarData,fieldName);
+    }
+
     public void attribute(String uri, String local, String value) throws SAXException {
         int prefix;
         if(uri.length()==0) {
@@ -989,6 +1094,25 @@ public final class XMLSerializer extends Coordinator {
         return schemaType;
     }
 
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Pushes what has been written so far to the underlying output,
+     * if the output buffers it.
+     */
+    public void flush() throws IOException {
+        if(out instanceof UTF8XmlOutput)
+            ((UTF8XmlOutput)out).flush();
+        else if(out instanceof WriterXmlOutput)
+            ((WriterXmlOutput)out).flush();
+    }
+
     public void setObjectIdentityCycleDetection(boolean val) {
         cycleDetectionStack.setUseIdentity(val);
     }
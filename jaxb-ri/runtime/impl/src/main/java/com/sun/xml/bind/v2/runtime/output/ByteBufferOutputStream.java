@@ -0,0 +1,107 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link OutputStream} that writes into the buffers of a {@link ByteBufferSink}.
+ *
+ * <p>
+ * {@link #flush()} hands the partially filled buffer (if any) back to the sink,
+ * so it needs to be called once the document is written.
+ */
+public final class ByteBufferOutputStream extends OutputStream {
+    private final ByteBufferSink sink;
+
+    /**
+     * Buffer being filled, or null if we haven't requested one yet.
+     */
+    private ByteBuffer buffer;
+
+    public ByteBufferOutputStream(ByteBufferSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if(buffer==null || !buffer.hasRemaining())
+            nextBuffer();
+        buffer.put((byte)b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while(len>0) {
+            if(buffer==null || !buffer.hasRemaining())
+                nextBuffer();
+            int n = Math.min(len,buffer.remaining());
+            buffer.put(b,off,n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void nextBuffer() throws IOException {
+        flush();
+        ByteBuffer b = sink.nextBuffer();
+        if(!b.hasRemaining())
+            throw new IOException(Messages.FULL_BUFFER.format());
+        buffer = b;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if(buffer!=null) {
+            ByteBuffer b = buffer;
+            buffer = null;
+            b.flip();
+            sink.flush(b);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
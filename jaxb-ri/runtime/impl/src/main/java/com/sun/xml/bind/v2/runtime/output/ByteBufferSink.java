@@ -0,0 +1,85 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.sun.xml.bind.v2.runtime.MarshallerImpl;
+
+/**
+ * Receives the marshalled document as a sequence of {@link ByteBuffer}s.
+ *
+ * <p>
+ * This allows the marshaller to write straight into buffers owned by
+ * the caller (for example pooled direct buffers of a network framework),
+ * instead of going through an {@link java.io.OutputStream}.
+ * The marshaller still encodes into its own small byte array, and copies
+ * that into the sink's buffer in bulk; this is the only copy made, and it
+ * works the same for heap and direct buffers.
+ *
+ * <p>
+ * Every buffer obtained by {@link #nextBuffer()} is eventually handed back
+ * through {@link #flush(ByteBuffer)}, in the same order, before the next one is requested.
+ *
+ * @see ByteBufferOutputStream
+ * @see MarshallerImpl#marshal(Object, ByteBufferSink)
+ */
+public interface ByteBufferSink {
+    /**
+     * Returns a buffer to write the next part of the document into.
+     * The bytes are written from the current position up to the limit.
+     *
+     * @return
+     *      non-null buffer with at least one byte remaining.
+     */
+    ByteBuffer nextBuffer() throws IOException;
+
+    /**
+     * Receives a buffer previously returned from {@link #nextBuffer()}.
+     *
+     * <p>
+     * The buffer is already flipped, so its remaining bytes are the
+     * next part of the document. The marshaller doesn't touch the buffer
+     * after this method is called.
+     */
+    void flush(ByteBuffer buffer) throws IOException;
+}
@@ -45,11 +45,16 @@ import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.Collections;
 
+import javax.xml.stream.XMLStreamException;
+
 import com.sun.xml.bind.api.JAXBRIContext;
 import com.sun.xml.bind.v2.runtime.Name;
+import com.sun.xml.bind.v2.runtime.XMLSerializer;
 import com.sun.istack.FinalArrayList;
 import com.sun.xml.bind.marshaller.CharacterEscapeHandler;
 
+import org.xml.sax.SAXException;
+
 /**
  * {@link XmlOutput} that generates canonical XML.
  *
@@ -57,7 +62,11 @@ import com.sun.xml.bind.marshaller.CharacterEscapeHandler;
  */
 public class C14nXmlOutput extends UTF8XmlOutput {
     public C14nXmlOutput(OutputStream out, Encoded[] localNames, boolean namedAttributesAreOrdered, CharacterEscapeHandler escapeHandler) {
-        super(out, localNames, escapeHandler);
+        this(out, localNames, namedAttributesAreOrdered, escapeHandler, DEFAULT_BUFFER_SIZE);
+    }
+
+    public C14nXmlOutput(OutputStream out, Encoded[] localNames, boolean namedAttributesAreOrdered, CharacterEscapeHandler escapeHandler, int bufferSize) {
+        super(out, localNames, escapeHandler, bufferSize);
         this.namedAttributesAreOrdered = namedAttributesAreOrdered;
 
         for( int i=0; i<staticAttributes.length; i++ )
@@ -165,6 +174,14 @@ public class C14nXmlOutput extends UTF8XmlOutput {
         otherAttributes.add(new DynamicAttribute(prefix,localName,value));
     }
 
+    @Override
+    public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws IOException, SAXException, XMLStreamException {
+        // discard attributes left over from an aborted document
+        len = 0;
+        otherAttributes.clear();
+        super.startDocument(serializer, fragment, nsUriIndex2prefixIndex, nsContext);
+    }
+
     @Override
     public void endStartTag() throws IOException {
         if(otherAttributes.isEmpty()) {
@@ -40,43 +40,217 @@
 
 package com.sun.xml.bind.v2.runtime.output;
 
+import java.io.IOException;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+
+import com.sun.xml.bind.marshaller.Messages;
+import com.sun.xml.bind.util.Which;
 import com.sun.xml.bind.v2.runtime.AssociationMap;
-import com.sun.xml.bind.marshaller.SAX2DOMEx;
+import com.sun.xml.bind.v2.runtime.Name;
+import com.sun.xml.bind.v2.runtime.XMLSerializer;
 
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
 /**
- * {@link XmlOutput} implementation that does associative marshalling to DOM.
+ * {@link XmlOutput} implementation that builds a DOM tree.
  *
  * <p>
- * This is used for binder.
+ * Elements and attributes are created directly from the {@link Name}s
+ * and the prefixes kept in {@link NamespaceContextImpl}, instead of going
+ * through SAX events. Prefixed names are cached per {@link com.sun.xml.bind.v2.runtime.JAXBContextImpl}
+ * so that they aren't concatenated over and over again.
+ *
+ * <p>
+ * When {@link AssociationMap} is given, this also does associative marshalling
+ * for binder.
  *
  * @author Kohsuke Kawaguchi
  */
-public final class DOMOutput extends SAXOutput {
+public final class DOMOutput extends XmlOutputAbstractImpl {
+    private final Node node;
+    private final Document document;
     private final AssociationMap assoc;
 
+    /**
+     * Nodes that are being built. The bottom is the node we were given.
+     */
+    private Node[] nodeStack = new Node[16];
+    private int depth;
+
+    /**
+     * Element that we are currently writing a start tag for.
+     */
+    private Element current;
+
+    /**
+     * Prefixed names of the context, indexed by {@link Name#qNameIndex}.
+     * Attribute names follow the element names.
+     */
+    private String[] qnames;
+    private int attributeBase;
+
+    /**
+     * @param node
+     *      Nodes will be created and added under this node.
+     */
+    public DOMOutput(Node node) {
+        this(node,null);
+    }
+
+    /**
+     * @param node
+     *      Nodes will be created and added under this node.
+     * @param assoc
+     *      If non-null, elements are associated with the objects they are marshalled from.
+     */
     public DOMOutput(Node node, AssociationMap assoc) {
-        super(new SAX2DOMEx(node));
+        this.node = node;
         this.assoc = assoc;
-        assert assoc!=null;
+        if(node instanceof Document)
+            this.document = (Document)node;
+        else
+            this.document = node.getOwnerDocument();
+    }
+
+    @Override
+    public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws IOException, SAXException, XMLStreamException {
+        super.startDocument(serializer, fragment, nsUriIndex2prefixIndex, nsContext);
+        qnames = serializer.grammar.getDOMNameTable();
+        attributeBase = serializer.grammar.getNumberOfElementNames();
+        nodeStack[0] = node;
+        depth = 0;
     }
 
-    private SAX2DOMEx getBuilder() {
-        return (SAX2DOMEx)out;
+    @Override
+    public void endDocument(boolean fragment) throws IOException, SAXException, XMLStreamException {
+        current = null;
+        for( ; depth>0; depth-- )
+            nodeStack[depth] = null;
+        super.endDocument(fragment);
     }
 
     @Override
-    public void endStartTag() throws SAXException {
-        super.endStartTag();
+    public void beginStartTag(Name name) throws IOException, XMLStreamException {
+        startElement(name.nsUri, getQName(name.qNameIndex, nsUriIndex2prefixIndex[name.nsUriIndex], name.localName));
+    }
+
+    public void beginStartTag(int prefix, String localName) {
+        startElement(nsContext.getNamespaceURI(prefix), getQName(prefix, localName));
+    }
+
+    private void startElement(String nsUri, String qname) {
+        Element e = document.createElementNS(nsUri, qname);
+        if(e==null) {
+            // some broken DOM implementation (we confirmed it with SAXON)
+            // return null from this method.
+            throw new AssertionError(
+                Messages.format(Messages.DOM_IMPL_DOESNT_SUPPORT_CREATELEMENTNS,
+                    document.getClass().getName(),
+                    Which.which(document.getClass())));
+        }
+
+        NamespaceContextImpl.Element ns = nsContext.getCurrent();
+        int sz = ns.count();
+        for( int i=0; i<sz; i++ ) {
+            String p = ns.getPrefix(i);
+            String uri = ns.getNsUri(i);
+            if(uri.length()==0 && ns.getBase()==1)
+                continue;   // no point in defining xmlns='' on the root
+            if(p.length()==0)
+                e.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, XMLConstants.XMLNS_ATTRIBUTE, uri);
+            else
+                e.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns:"+p, uri);
+        }
+
+        nodeStack[depth].appendChild(e);
+        if(++depth==nodeStack.length) {
+            Node[] buf = new Node[depth*2];
+            System.arraycopy(nodeStack,0,buf,0,depth);
+            nodeStack = buf;
+        }
+        nodeStack[depth] = e;
+        current = e;
+    }
 
-        Object op = nsContext.getCurrent().getOuterPeer();
-        if(op!=null)
-            assoc.addOuter( getBuilder().getCurrentElement(), op );
+    @Override
+    public void attribute(Name name, String value) throws IOException, XMLStreamException {
+        short idx = name.nsUriIndex;
+        if(idx==-1)
+            current.setAttributeNS("", name.localName, value);
+        else
+            current.setAttributeNS(name.nsUri,
+                getQName(attributeBase+name.qNameIndex, nsUriIndex2prefixIndex[idx], name.localName), value);
+    }
+
+    public void attribute(int prefix, String localName, String value) {
+        if(prefix==-1)
+            current.setAttributeNS("", localName, value);
+        else
+            current.setAttributeNS(nsContext.getNamespaceURI(prefix), getQName(prefix, localName), value);
+    }
+
+    public void endStartTag() {
+        if(assoc!=null) {
+            Object op = nsContext.getCurrent().getOuterPeer();
+            if(op!=null)
+                assoc.addOuter( current, op );
+
+            Object ip = nsContext.getCurrent().getInnerPeer();
+            if(ip!=null)
+                assoc.addInner( current, ip );
+        }
+        current = null;
+    }
+
+    @Override
+    public void endTag(Name name) {
+        nodeStack[depth--] = null;
+    }
+
+    public void endTag(int prefix, String localName) {
+        nodeStack[depth--] = null;
+    }
+
+    public void text(String value, boolean needsSP) {
+        if(needsSP)
+            value = ' '+value;
+        nodeStack[depth].appendChild(document.createTextNode(value));
+    }
+
+    public void text(Pcdata value, boolean needsSP) {
+        text(value.toString(), needsSP);
+    }
+
+    /**
+     * Gets the prefixed name of an indexed {@link Name}, reusing the one
+     * from the last time if the prefix is still the same.
+     */
+    private String getQName(int idx, int prefix, String localName) {
+        String p = nsContext.getPrefix(prefix);
+        int plen = p.length();
+        if(plen==0)
+            // this also covers a "" prefix assigned to a non-"" URI, which is
+            // more likely a bug in the application code (NamespacePrefixMapper implementation)
+            return localName;
+
+        String qname = qnames[idx];
+        if(qname==null || qname.length()!=plen+1+localName.length() || !qname.startsWith(p)) {
+            qname = p+':'+localName;
+            qnames[idx] = qname;
+        }
+        return qname;
+    }
 
-        Object ip = nsContext.getCurrent().getInnerPeer();
-        if(ip!=null)
-            assoc.addInner( getBuilder().getCurrentElement(), ip );
+    private String getQName(int prefix, String localName) {
+        String p = nsContext.getPrefix(prefix);
+        if(p.length()==0)
+            return localName;
+        else
+            return p+':'+localName;
     }
 }
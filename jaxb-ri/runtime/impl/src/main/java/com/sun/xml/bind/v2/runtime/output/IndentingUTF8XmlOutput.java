@@ -47,6 +47,7 @@ import java.io.OutputStream;
 import javax.xml.stream.XMLStreamException;
 
 import com.sun.xml.bind.v2.runtime.Name;
+import com.sun.xml.bind.v2.runtime.XMLSerializer;
 
 import org.xml.sax.SAXException;
 
@@ -85,7 +86,19 @@ public final class IndentingUTF8XmlOutput extends UTF8XmlOutput {
      *      otherwise the string is used for indentation.
      */
     public IndentingUTF8XmlOutput(OutputStream out, String indentStr, Encoded[] localNames, CharacterEscapeHandler escapeHandler) {
-        super(out, localNames, escapeHandler);
+        this(out, indentStr, localNames, escapeHandler, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     *
+     * @param indentStr
+     *      set to null for no indentation and optimal performance.
+     *      otherwise the string is used for indentation.
+     * @param bufferSize
+     *      see {@link UTF8XmlOutput#UTF8XmlOutput(OutputStream, Encoded[], CharacterEscapeHandler, int)}.
+     */
+    public IndentingUTF8XmlOutput(OutputStream out, String indentStr, Encoded[] localNames, CharacterEscapeHandler escapeHandler, int bufferSize) {
+        super(out, localNames, escapeHandler, bufferSize);
 
         if(indentStr!=null) {
             Encoded e = new Encoded(indentStr);
@@ -100,6 +113,13 @@ public final class IndentingUTF8XmlOutput extends UTF8XmlOutput {
         }
     }
 
+    @Override
+    public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws IOException, SAXException, XMLStreamException {
+        depth = 0;
+        seenText = false;
+        super.startDocument(serializer, fragment, nsUriIndex2prefixIndex, nsContext);
+    }
+
     @Override
     public void beginStartTag(int prefix, String localName) throws IOException {
         indentStartTag();
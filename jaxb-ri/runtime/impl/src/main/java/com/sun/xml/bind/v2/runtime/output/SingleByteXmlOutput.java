@@ -0,0 +1,98 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.sun.xml.bind.marshaller.CharacterEscapeHandler;
+
+/**
+ * {@link XmlOutput} implementation specialized for ISO-8859-1 and US-ASCII.
+ *
+ * <p>
+ * Text is escaped so that the buffer only holds characters up to
+ * {@link #maxChar}, each of which maps to one octet.
+ */
+public final class SingleByteXmlOutput extends WriterXmlOutput {
+
+    private final OutputStream os;
+
+    /** Buffer of octets for writing. */
+    private final byte[] octetBuffer;
+
+    /**
+     * @param encoding
+     *      the encoding name to write in the XML declaration.
+     * @param maxChar
+     *      0xFF for ISO-8859-1, 0x7F for US-ASCII.
+     * @param escapeHandler
+     *      null to use the built-in escaping.
+     * @see WriterXmlOutput#WriterXmlOutput(java.io.Writer, String, int, CharacterEscapeHandler, String, int)
+     */
+    public SingleByteXmlOutput(OutputStream os, String encoding, int maxChar,
+                               CharacterEscapeHandler escapeHandler, String indent, int bufferSize) {
+        super(null, encoding, maxChar, escapeHandler, indent, bufferSize);
+        this.os = os;
+        this.octetBuffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        os.flush();
+    }
+
+    @Override
+    protected void flushBuffer() throws IOException {
+        char[] buf = this.buf;
+        byte[] octets = octetBuffer;
+        int len = bufIndex;
+        for( int i=0; i<len; i++ ) {
+            char c = buf[i];
+            // names can't be written as character references,
+            // so do what the JDK encoders do with unmappable characters
+            octets[i] = c<=maxChar ? (byte)c : (byte)'?';
+        }
+        os.write(octets,0,len);
+        bufIndex = 0;
+    }
+}
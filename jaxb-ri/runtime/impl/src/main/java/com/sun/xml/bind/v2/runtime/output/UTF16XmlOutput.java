@@ -0,0 +1,129 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.sun.xml.bind.marshaller.CharacterEscapeHandler;
+import com.sun.xml.bind.v2.runtime.XMLSerializer;
+
+import org.xml.sax.SAXException;
+
+/**
+ * {@link XmlOutput} implementation specialized for UTF-16.
+ *
+ * <p>
+ * Every character of the buffer maps to two octets,
+ * so the encoding is done in one pass when the buffer is flushed.
+ */
+public final class UTF16XmlOutput extends WriterXmlOutput {
+
+    private final OutputStream os;
+
+    private final boolean bigEndian;
+
+    /**
+     * True to start each document with a byte order mark,
+     * as the "UTF-16" encoding does.
+     */
+    private final boolean byteOrderMark;
+
+    /** Buffer of octets for writing. */
+    private final byte[] octetBuffer;
+
+    /**
+     * @param encoding
+     *      the encoding name to write in the XML declaration.
+     * @param escapeHandler
+     *      null to use the built-in escaping.
+     * @see WriterXmlOutput#WriterXmlOutput(java.io.Writer, String, int, CharacterEscapeHandler, String, int)
+     */
+    public UTF16XmlOutput(OutputStream os, String encoding, boolean bigEndian, boolean byteOrderMark,
+                          CharacterEscapeHandler escapeHandler, String indent, int bufferSize) {
+        super(null, encoding, Character.MAX_VALUE, escapeHandler, indent, bufferSize);
+        this.os = os;
+        this.bigEndian = bigEndian;
+        this.byteOrderMark = byteOrderMark;
+        this.octetBuffer = new byte[bufferSize*2];
+    }
+
+    @Override
+    public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws IOException, SAXException, XMLStreamException {
+        if(byteOrderMark)
+            os.write(bigEndian ? BOM_BE : BOM_LE);
+        super.startDocument(serializer, fragment, nsUriIndex2prefixIndex, nsContext);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        os.flush();
+    }
+
+    @Override
+    protected void flushBuffer() throws IOException {
+        char[] buf = this.buf;
+        byte[] octets = octetBuffer;
+        int len = bufIndex;
+        int j = 0;
+        if(bigEndian) {
+            for( int i=0; i<len; i++ ) {
+                char c = buf[i];
+                octets[j++] = (byte)(c>>8);
+                octets[j++] = (byte)c;
+            }
+        } else {
+            for( int i=0; i<len; i++ ) {
+                char c = buf[i];
+                octets[j++] = (byte)c;
+                octets[j++] = (byte)(c>>8);
+            }
+        }
+        os.write(octets,0,j);
+        bufIndex = 0;
+    }
+
+    private static final byte[] BOM_BE = {(byte)0xFE,(byte)0xFF};
+    private static final byte[] BOM_LE = {(byte)0xFF,(byte)0xFE};
+}
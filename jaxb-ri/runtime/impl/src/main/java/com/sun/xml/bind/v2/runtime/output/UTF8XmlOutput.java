@@ -61,7 +61,18 @@ import org.xml.sax.SAXException;
  * @author Paul Sandoz
  */
 public class UTF8XmlOutput extends XmlOutputAbstractImpl {
-    protected final OutputStream out;
+    /**
+     * Default size of {@link #octetBuffer}.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    /**
+     * Smallest size of {@link #octetBuffer} we accept.
+     * Base64 encoding needs room for at least one quantum.
+     */
+    public static final int MIN_BUFFER_SIZE = 64;
+
+    protected OutputStream out;
 
     /** prefixes encoded. */
     private Encoded[] prefixes = new Encoded[8];
@@ -86,8 +97,7 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
     private final Encoded textBuffer = new Encoded();
 
     /** Buffer of octets for writing. */
-    // TODO: Obtain buffer size from property on the JAXB context
-    protected final byte[] octetBuffer = new byte[1024];
+    protected final byte[] octetBuffer;
     
     /** Index in buffer to write to. */
     protected int octetBufferIndex;
@@ -112,7 +122,22 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
      *      local names encoded in UTF-8.
      */
     public UTF8XmlOutput(OutputStream out, Encoded[] localNames, CharacterEscapeHandler escapeHandler) {
+        this(out, localNames, escapeHandler, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     *
+     * @param localNames
+     *      local names encoded in UTF-8.
+     * @param bufferSize
+     *      size of the buffer in which octets are collected before
+     *      they are written to the stream. At least {@link #MIN_BUFFER_SIZE}.
+     */
+    public UTF8XmlOutput(OutputStream out, Encoded[] localNames, CharacterEscapeHandler escapeHandler, int bufferSize) {
+        if(bufferSize<MIN_BUFFER_SIZE)
+            throw new IllegalArgumentException("bufferSize="+bufferSize);
         this.out = out;
+        this.octetBuffer = new byte[bufferSize];
         this.localNames = localNames;
         for( int i=0; i<prefixes.length; i++ )
             prefixes[i] = new Encoded();
@@ -123,11 +148,24 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
         this.header = header;
     }
 
+    /**
+     * Redirects this object to another stream, so that it can be
+     * used for the next document without allocating its buffers again.
+     *
+     * <p>
+     * The rest of the per-document state is reset by {@link #startDocument}.
+     */
+    public void setOutputStream(OutputStream out) {
+        this.out = out;
+    }
+
     @Override
     public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws IOException, SAXException, XMLStreamException {
         super.startDocument(serializer, fragment,nsUriIndex2prefixIndex,nsContext);
 
         octetBufferIndex = 0;
+        prefixCount = 0;
+        closeStartTagPending = false;
         if(!fragment) {
             write(XML_DECL);
         }
@@ -348,6 +386,54 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
         write(buf,idx,11-idx);
     }
 
+    /**
+     * {@link #text(int)} for long.
+     */
+    public final void text(long value) throws IOException {
+        closeStartTag();
+
+        // max is -9223372036854775808 and 20 digits
+        boolean minus = (value<0);
+        textBuffer.ensureSize(20);
+        byte[] buf = textBuffer.buf;
+        int idx = 20;
+
+        do {
+            int r = (int)(value%10);
+            if(r<0) r = -r;
+            buf[--idx] = (byte)('0'|r);
+            value /= 10;
+        } while(value!=0);
+
+        if(minus)   buf[--idx] = (byte)'-';
+
+        write(buf,idx,20-idx);
+    }
+
+    /**
+     * Writes the given characters to the output as they are.
+     *
+     * <p>
+     * The caller guarantees that they are all ASCII and need no escaping,
+     * as is the case for the lexical form of dates, so they can go
+     * straight into the buffer.
+     */
+    public final void text(char[] ascii, int len) throws IOException {
+        closeStartTag();
+
+        if (octetBuffer.length - octetBufferIndex < len) {
+            flushBuffer();
+            if (octetBuffer.length < len) {
+                for (int i = 0; i < len; i++)
+                    write(ascii[i]);
+                return;
+            }
+        }
+
+        for (int i = 0; i < len; i++)
+            octetBuffer[octetBufferIndex++] = (byte)ascii[i];
+    }
+
     /**
      * Writes the given byte[] as base64 encoded binary to the output.
      *
@@ -414,6 +500,15 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
         }
     }
 
+    /**
+     * Writes out the buffered bytes and flushes the underlying stream,
+     * so that a long document becomes visible to the reader as it is produced.
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
     protected final void flushBuffer() throws IOException {
         out.write(octetBuffer, 0, octetBufferIndex);
         octetBufferIndex = 0;
@@ -0,0 +1,453 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.sun.xml.bind.marshaller.CharacterEscapeHandler;
+import com.sun.xml.bind.v2.runtime.MarshallerImpl;
+import com.sun.xml.bind.v2.runtime.XMLSerializer;
+
+import org.xml.sax.SAXException;
+
+/**
+ * {@link XmlOutput} implementation that writes characters to a {@link Writer}.
+ *
+ * <p>
+ * This is the character counterpart of {@link UTF8XmlOutput}: tags and text
+ * are written straight into a {@code char[]} buffer, and the buffer is handed
+ * to {@link #flushBuffer()} when it's full. Subclasses encode the buffer
+ * into bytes for the encodings we know how to handle ourselves.
+ *
+ * <p>
+ * Characters above {@link #maxChar} are written as character references,
+ * unless a {@link CharacterEscapeHandler} is given, in which case that
+ * takes care of escaping text altogether.
+ *
+ * @see UTF16XmlOutput
+ * @see SingleByteXmlOutput
+ */
+public class WriterXmlOutput extends XmlOutputAbstractImpl {
+
+    protected Writer out;
+
+    /** Buffer of characters for writing. */
+    protected final char[] buf;
+
+    /** Index in buffer to write to. */
+    protected int bufIndex;
+
+    /**
+     * Highest character that can be written as is.
+     */
+    protected final int maxChar;
+
+    /**
+     * Encoding name written in the XML declaration.
+     */
+    private final String encoding;
+
+    /**
+     * Null to escape text with the built-in rules.
+     */
+    private final CharacterEscapeHandler escapeHandler;
+
+    /**
+     * Receives the output of {@link #escapeHandler}. Created on demand.
+     */
+    private Writer escapeSink;
+
+    /**
+     * Temporary buffer for the text passed to {@link #escapeHandler}.
+     */
+    private char[] escapeBuf = EMPTY_CHAR_ARRAY;
+
+    /**
+     * Set to true to indicate that we need to write {@code '>'}
+     * to close a start tag. Deferring the write of this char
+     * allows us to write {@code "/>"} for empty elements.
+     */
+    protected boolean closeStartTagPending = false;
+
+    /**
+     * @see MarshallerImpl#header
+     */
+    private String header;
+
+    /**
+     * Null if the output should not be indented.
+     */
+    private final String indent;
+
+    private int depth;
+
+    private boolean seenText;
+
+    /**
+     * @param encoding
+     *      the encoding name to write in the XML declaration.
+     * @param escapeHandler
+     *      null to use the built-in escaping, which writes characters
+     *      above {@code maxChar} as character references.
+     * @param indent
+     *      null for no indentation. Otherwise the string used for one level of indentation.
+     * @param bufferSize
+     *      size of the buffer in which characters are collected before
+     *      they are written out. At least {@link UTF8XmlOutput#MIN_BUFFER_SIZE}.
+     */
+    public WriterXmlOutput(Writer out, String encoding, int maxChar, CharacterEscapeHandler escapeHandler, String indent, int bufferSize) {
+        if(bufferSize<UTF8XmlOutput.MIN_BUFFER_SIZE)
+            throw new IllegalArgumentException("bufferSize="+bufferSize);
+        this.out = out;
+        this.buf = new char[bufferSize];
+        this.encoding = encoding;
+        this.maxChar = maxChar;
+        this.escapeHandler = escapeHandler;
+        this.indent = indent;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    @Override
+    public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws IOException, SAXException, XMLStreamException {
+        super.startDocument(serializer, fragment, nsUriIndex2prefixIndex, nsContext);
+
+        bufIndex = 0;
+        closeStartTagPending = false;
+        depth = 0;
+        seenText = false;
+        if(!fragment) {
+            write("<?xml version=\"1.0\" encoding=\"");
+            write(encoding);
+            write("\" standalone=\"yes\"?>");
+        }
+        if(header!=null)
+            write(header);
+    }
+
+    @Override
+    public void endDocument(boolean fragment) throws IOException, SAXException, XMLStreamException {
+        if(indent!=null)
+            write('\n');
+        flushBuffer();
+        super.endDocument(fragment);
+    }
+
+    /**
+     * Writes {@code '>'} to close the start tag, if necessary.
+     */
+    protected final void closeStartTag() throws IOException {
+        if(closeStartTagPending) {
+            write('>');
+            closeStartTagPending = false;
+        }
+    }
+
+    public void beginStartTag(int prefix, String localName) throws IOException {
+        closeStartTag();
+        if(indent!=null) {
+            if(!seenText)
+                printIndent();
+            depth++;
+            seenText = false;
+        }
+        write('<');
+        writeName(prefix,localName);
+        writeNsDecls();
+    }
+
+    private void writeNsDecls() throws IOException {
+        NamespaceContextImpl.Element ns = nsContext.getCurrent();
+        int size = nsContext.count();
+
+        for( int i=ns.getBase(); i<size; i++ ) {
+            String p = nsContext.getPrefix(i);
+
+            if(p.length()==0) {
+                if(ns.isRootElement() && nsContext.getNamespaceURI(i).length()==0)
+                    continue;   // no point in declaring xmlns="" on the root element
+                write(" xmlns=\"");
+            } else {
+                write(" xmlns:");
+                write(p);
+                write("=\"");
+            }
+            doText(nsContext.getNamespaceURI(i),true);
+            write('\"');
+        }
+    }
+
+    private void writeName(int prefix, String localName) throws IOException {
+        String p = nsContext.getPrefix(prefix);
+        if(p.length()!=0) {
+            write(p);
+            write(':');
+        }
+        write(localName);
+    }
+
+    public void attribute(int prefix, String localName, String value) throws IOException {
+        write(' ');
+        if(prefix==-1)
+            write(localName);
+        else
+            writeName(prefix,localName);
+        write("=\"");
+        doText(value,true);
+        write('\"');
+    }
+
+    public void endStartTag() throws IOException {
+        closeStartTagPending = true;
+    }
+
+    public void endTag(int prefix, String localName) throws IOException {
+        if(indent!=null) {
+            depth--;
+            if(!closeStartTagPending && !seenText)
+                printIndent();
+            seenText = false;
+        }
+        if(closeStartTagPending) {
+            write("/>");
+            closeStartTagPending = false;
+        } else {
+            write("</");
+            writeName(prefix,localName);
+            write('>');
+        }
+    }
+
+    private void printIndent() throws IOException {
+        write('\n');
+        for( int i=0; i<depth; i++ )
+            write(indent);
+    }
+
+    public void text(String value, boolean needSP) throws IOException {
+        closeStartTag();
+        seenText = true;
+        if(needSP)
+            write(' ');
+        doText(value,false);
+    }
+
+    public void text(Pcdata value, boolean needSP) throws IOException {
+        closeStartTag();
+        seenText = true;
+        if(needSP)
+            write(' ');
+
+        // Pcdata never needs escaping
+        int len = value.length();
+        if(len>buf.length-bufIndex) {
+            flushBuffer();
+            if(len>buf.length) {
+                write(value.toString());
+                return;
+            }
+        }
+        value.writeTo(buf,bufIndex);
+        bufIndex += len;
+    }
+
+    private void doText(String value, boolean isAttribute) throws IOException {
+        if(escapeHandler!=null) {
+            int len = value.length();
+            if(escapeBuf.length<len)
+                escapeBuf = new char[Math.max(len,escapeBuf.length*2)];
+            value.getChars(0,len,escapeBuf,0);
+            if(escapeSink==null)
+                escapeSink = new EscapeSink();
+            escapeHandler.escape(escapeBuf,0,len,isAttribute,escapeSink);
+            return;
+        }
+
+        int len = value.length();
+        for( int i=0; i<len; i++ ) {
+            char c = value.charAt(i);
+            switch(c) {
+            case '&':
+                write("&amp;");
+                break;
+            case '<':
+                write("&lt;");
+                break;
+            case '>':
+                write("&gt;");
+                break;
+            case '\r':
+                write("&#13;");
+                break;
+            case '\n':
+                if(isAttribute)
+                    write("&#10;");
+                else
+                    write(c);
+                break;
+            case '\"':
+                if(isAttribute)
+                    write("&quot;");
+                else
+                    write(c);
+                break;
+            default:
+                if(c<=maxChar) {
+                    write(c);
+                } else {
+                    int cp = c;
+                    if(Character.isHighSurrogate(c) && i+1<len && Character.isLowSurrogate(value.charAt(i+1)))
+                        cp = Character.toCodePoint(c,value.charAt(++i));
+                    writeCharRef(cp);
+                }
+            }
+        }
+    }
+
+    private void writeCharRef(int cp) throws IOException {
+        write("&#");
+        // at most 7 digits for a code point
+        if(buf.length-bufIndex<7)
+            flushBuffer();
+        int digits = 1;
+        for( int x=cp; x>=10; x/=10 )
+            digits++;
+        for( int i=bufIndex+digits-1; i>=bufIndex; i-- ) {
+            buf[i] = (char)('0'+cp%10);
+            cp /= 10;
+        }
+        bufIndex += digits;
+        write(';');
+    }
+
+//
+//
+// series of the write method that places characters to the output
+// (by doing some buffering internal to this class)
+//
+
+    protected final void write(char c) throws IOException {
+        if(bufIndex==buf.length)
+            flushBuffer();
+        buf[bufIndex++] = c;
+    }
+
+    protected final void write(String s) throws IOException {
+        int len = s.length();
+        int start = 0;
+        while(len>0) {
+            if(bufIndex==buf.length)
+                flushBuffer();
+            int batch = Math.min(len,buf.length-bufIndex);
+            s.getChars(start,start+batch,buf,bufIndex);
+            bufIndex += batch;
+            start += batch;
+            len -= batch;
+        }
+    }
+
+    protected final void write(char[] c, int start, int len) throws IOException {
+        while(len>0) {
+            if(bufIndex==buf.length)
+                flushBuffer();
+            int batch = Math.min(len,buf.length-bufIndex);
+            System.arraycopy(c,start,buf,bufIndex,batch);
+            bufIndex += batch;
+            start += batch;
+            len -= batch;
+        }
+    }
+
+    /**
+     * Writes out the buffered characters and flushes the underlying output,
+     * so that a long document becomes visible to the reader as it is produced.
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Writes out the buffered characters.
+     */
+    protected void flushBuffer() throws IOException {
+        out.write(buf,0,bufIndex);
+        bufIndex = 0;
+    }
+
+    /**
+     * Puts whatever {@link #escapeHandler} writes into the buffer.
+     */
+    private final class EscapeSink extends Writer {
+        @Override
+        public void write(int c) throws IOException {
+            WriterXmlOutput.this.write((char)c);
+        }
+
+        @Override
+        public void write(String str) throws IOException {
+            WriterXmlOutput.this.write(str);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            WriterXmlOutput.this.write(str.substring(off,off+len));
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            WriterXmlOutput.this.write(cbuf,off,len);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+
+    private static final char[] EMPTY_CHAR_ARRAY = new char[0];
+}
@@ -103,6 +103,7 @@ abstract class ArrayERProperty<BeanT,ListT,ItemT> extends ArrayProperty<BeanT,Li
 
         public ItemsLoader(Accessor acc, Lister lister, QNameMap<ChildLoader> children) {
             super(false);
+            elementOnly = true;
             this.acc = acc;
             this.lister = lister;
             this.children = children;
@@ -133,6 +134,15 @@ abstract class ArrayERProperty<BeanT,ListT,ItemT> extends ArrayProperty<BeanT,Li
             }
             state.setLoader(child.loader);
             state.setReceiver(child.receiver);
+
+            UnmarshallingContext context = state.getContext();
+            if(context.isUpdating())
+                state.setPeer(context.nextPeer(state.getPrev()));
+        }
+
+        @Override
+        public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
+            elementOnlyText(state,text);
         }
 
         @Override
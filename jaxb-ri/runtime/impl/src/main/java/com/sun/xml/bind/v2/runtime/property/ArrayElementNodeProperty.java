@@ -48,6 +48,7 @@ import com.sun.xml.bind.v2.model.runtime.RuntimeElementPropertyInfo;
 import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
 import com.sun.xml.bind.v2.runtime.JaxBeanInfo;
 import com.sun.xml.bind.v2.runtime.XMLSerializer;
+import com.sun.xml.bind.v2.runtime.reflect.Accessor;
 
 import org.xml.sax.SAXException;
 
@@ -62,6 +63,11 @@ final class ArrayElementNodeProperty<BeanT,ListT,ItemT> extends ArrayElementProp
         super(p, prop);
     }
 
+    @Override
+    public Accessor getReusableAccessor() {
+        return acc.isAdapted() ? null : acc;
+    }
+
     public void serializeItem(JaxBeanInfo expected, ItemT item, XMLSerializer w) throws SAXException, IOException, XMLStreamException {
         if(item==null) {
             w.writeXsiNilTrue();
@@ -86,6 +86,12 @@ abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<B
      * Set by the constructor and reset in the {@link #wrapUp()} method.
      */
     private Map<TypeRef<Type,Class>,JaxBeanInfo> refs = new HashMap<TypeRef<Type, Class>, JaxBeanInfo>();
+    /**
+     * Tag names of {@link #refs}, so that the loader can be built after
+     * the {@link JAXBContextImpl#nameBuilder} is gone.
+     * Set by the constructor and reset in the {@link #wrapUp()} method.
+     */
+    private Map<TypeRef<Type,Class>,Name> tagNames = new HashMap<TypeRef<Type, Class>, Name>();
     /**
      * Set by the constructor and reset in the {@link #wrapUp()} method.
      */
@@ -115,6 +121,7 @@ abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<B
                                 beanInfo);
             typeMap.put(type,tt);
             refs.put(typeRef,beanInfo);
+            tagNames.put(typeRef,tt.tagName);
             if(typeRef.isNillable() && n==null)
                 n = tt.tagName;
         }
@@ -126,6 +133,7 @@ abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<B
     public void wrapUp() {
         super.wrapUp();
         refs = null;
+        tagNames = null;
         prop = null;    // avoid keeping model objects live
     }
 
@@ -134,7 +142,13 @@ abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<B
 
         boolean isIdref = itr instanceof Lister.IDREFSIterator; // UGLY
 
+        // items pulled from a streaming source are pushed out as we go
+        int flushInterval = lister.isStreaming() ? w.getFlushInterval() : 0;
+        int count = 0;
+
         while(itr.hasNext()) {
+            if(flushInterval>0 && ++count%flushInterval==0)
+                w.flush();
             try {
                 ItemT item = itr.next();
                 if (item != null) {
@@ -202,7 +216,7 @@ abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<B
 
         for (RuntimeTypeRef typeRef : prop.getTypes()) {
 
-            Name tagName = chain.context.nameBuilder.createElementName(typeRef.getTagName());
+            Name tagName = tagNames.get(typeRef);
             Loader item = createItemUnmarshaller(chain,typeRef);
 
             if(typeRef.isNillable() || chain.context.allNillable)
@@ -234,7 +248,7 @@ abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<B
     private Loader createItemUnmarshaller(UnmarshallerChain chain, RuntimeTypeRef typeRef) {
         if(PropertyFactory.isLeaf(typeRef.getSource())) {
             final Transducer xducer = typeRef.getTransducer();
-            return new TextLoader(xducer);
+            return new TextLoader(xducer,PropertyFactory.isBinary(typeRef),PropertyFactory.isBinaryStream(typeRef));
         } else {
             return refs.get(typeRef).getLoader(chain.context,true);
         }
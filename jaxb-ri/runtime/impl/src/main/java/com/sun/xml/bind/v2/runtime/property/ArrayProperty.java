@@ -55,7 +55,7 @@ import com.sun.xml.bind.v2.runtime.reflect.Lister;
  * @author Kohsuke Kawaguchi (kk@kohsuke.org)
  */
 abstract class ArrayProperty<BeanT,ListT,ItemT> extends PropertyImpl<BeanT> {
-    protected final Accessor<BeanT,ListT> acc;
+    protected /*final*/ Accessor<BeanT,ListT> acc;
     protected final Lister<BeanT,ListT,ItemT,Object> lister;
 
     protected ArrayProperty(JAXBContextImpl context, RuntimePropertyInfo prop) {
@@ -69,6 +69,11 @@ abstract class ArrayProperty<BeanT,ListT,ItemT> extends PropertyImpl<BeanT> {
         assert acc!=null;
     }
 
+    @Override
+    public void optimizeAccessors() {
+        acc = acc.optimize(null);
+    }
+
     public void reset(BeanT o) throws AccessorException {
         lister.reset(o,acc);
     }
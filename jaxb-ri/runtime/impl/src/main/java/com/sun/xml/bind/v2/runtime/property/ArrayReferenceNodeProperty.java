@@ -99,10 +99,21 @@ class ArrayReferenceNodeProperty<BeanT,ListT,ItemT> extends ArrayERProperty<Bean
         }
     }
 
+    @Override
+    public Accessor getReusableAccessor() {
+        return acc.isAdapted() ? null : acc;
+    }
+
     protected final void serializeListBody(BeanT o, XMLSerializer w, ListT list) throws IOException, XMLStreamException, SAXException {
         ListIterator<ItemT> itr = lister.iterator(list, w);
 
+        // items pulled from a streaming source are pushed out as we go
+        int flushInterval = lister.isStreaming() ? w.getFlushInterval() : 0;
+        int count = 0;
+
         while(itr.hasNext()) {
+            if(flushInterval>0 && ++count%flushInterval==0)
+                w.flush();
             try {
                 ItemT item = itr.next();
                 if (item != null) {
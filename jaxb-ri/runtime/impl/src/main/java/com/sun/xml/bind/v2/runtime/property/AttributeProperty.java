@@ -81,7 +81,7 @@ public final class AttributeProperty<BeanT> extends PropertyImpl<BeanT>
     /**
      * Heart of the conversion logic.
      */
-    public final TransducedAccessor<BeanT> xacc;
+    public /*final*/ TransducedAccessor<BeanT> xacc;
 
     private final Accessor acc;
 
@@ -120,6 +120,11 @@ public final class AttributeProperty<BeanT> extends PropertyImpl<BeanT>
         return PropertyKind.ATTRIBUTE;
     }
 
+    @Override
+    public void optimizeAccessors() {
+        xacc = xacc.optimize();
+    }
+
     public void reset(BeanT o) throws AccessorException {
         acc.set(o,null);
     }
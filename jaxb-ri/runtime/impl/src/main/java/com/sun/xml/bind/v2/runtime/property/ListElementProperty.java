@@ -78,7 +78,12 @@ final class ListElementProperty<BeanT,ListT,ItemT> extends ArrayProperty<BeanT,L
     /**
      * Converts all the values to a list and back.
      */
-    private final TransducedAccessor<BeanT> xacc;
+    private /*final*/ TransducedAccessor<BeanT> xacc;
+
+    /**
+     * Transducer for each item.
+     */
+    private final Transducer xducer;
 
     public ListElementProperty(JAXBContextImpl grammar, RuntimeElementPropertyInfo prop) {
         super(grammar, prop);
@@ -90,10 +95,15 @@ final class ListElementProperty<BeanT,ListT,ItemT> extends ArrayProperty<BeanT,L
         tagName = grammar.nameBuilder.createElementName(ref.getTagName());
         defaultValue = ref.getDefaultValue();
         
-        // transducer for each item
-        Transducer xducer = ref.getTransducer();
+        xducer = ref.getTransducer();
         // transduced accessor for the whole thing
-        xacc = new ListTransducedAccessorImpl(xducer,acc,lister);
+        xacc = ListTransducedAccessorImpl.create(xducer,acc,lister);
+    }
+
+    @Override
+    public void optimizeAccessors() {
+        super.optimizeAccessors();
+        xacc = ListTransducedAccessorImpl.create(xducer,acc,lister);
     }
 
     public PropertyKind getKind() {
@@ -51,6 +51,8 @@ import com.sun.xml.bind.v2.model.core.ID;
 import com.sun.xml.bind.v2.model.core.PropertyInfo;
 import com.sun.xml.bind.v2.model.core.PropertyKind;
 import com.sun.xml.bind.v2.model.runtime.RuntimePropertyInfo;
+import com.sun.xml.bind.v2.runtime.ClassBeanInfoImpl;
+import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
 import com.sun.xml.bind.v2.runtime.JaxBeanInfo;
 import com.sun.xml.bind.v2.runtime.XMLSerializer;
 import com.sun.xml.bind.v2.runtime.reflect.Accessor;
@@ -143,6 +145,16 @@ public interface Property<BeanT> extends StructureLoaderBuilder {
      */
     void wrapUp();
 
+    /**
+     * Replaces the accessors of this property by their optimized versions.
+     *
+     * <p>
+     * With {@link JAXBContextImpl#lazyBeanInfoLinking}, the accessors are left as is
+     * when the property is created, and {@link ClassBeanInfoImpl} calls this method once,
+     * before the property is used for the first time.
+     */
+    void optimizeAccessors();
+
     /**
      * Provides more {@link RuntimePropertyInfo} information on the property.
      *
@@ -150,6 +162,33 @@ public interface Property<BeanT> extends StructureLoaderBuilder {
      *      null if RETAIN_REFERENCE_TO_INFO property is not set on the {@link JAXBContext}
      */
     public RuntimePropertyInfo getInfo();
+
+    /**
+     * True if the element or the attribute of this property has to be present,
+     * like {@code minOccurs="1"} or {@code use="required"} in the generated schema.
+     *
+     * Only meaningful for {@link PropertyKind#ELEMENT} and {@link PropertyKind#ATTRIBUTE}.
+     */
+    public boolean isRequired();
+
+    /**
+     * True if the elements of this property can appear more than once.
+     *
+     * Only meaningful for {@link PropertyKind#ELEMENT}.
+     */
+    public boolean isRepeated();
+
+    /**
+     * Gets the {@link Accessor} of an element or a reference property whose values
+     * can be beans, for {@link JAXBContextImpl#releaseGraph} to release them, and
+     * for the in-place update mode to unmarshal into them again. Only the beans of
+     * element properties are unmarshalled into again.
+     * The value is either a single object, or a collection or an array of them.
+     *
+     * @return
+     *      null if the values of this property aren't reused.
+     */
+    public Accessor getReusableAccessor();
     
     public boolean isHiddenByOverride();
     
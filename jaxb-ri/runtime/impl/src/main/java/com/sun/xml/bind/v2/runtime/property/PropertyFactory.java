@@ -44,15 +44,24 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 
+import javax.activation.DataHandler;
+import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+
+import com.sun.xml.bind.v2.WellKnownNamespace;
 import com.sun.xml.bind.v2.model.core.ID;
 import com.sun.xml.bind.v2.model.core.PropertyKind;
 import com.sun.xml.bind.v2.model.runtime.RuntimeAttributePropertyInfo;
+import com.sun.xml.bind.v2.model.runtime.RuntimeBuiltinLeafInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeElementPropertyInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeNonElement;
+import com.sun.xml.bind.v2.model.runtime.RuntimeNonElementRef;
 import com.sun.xml.bind.v2.model.runtime.RuntimePropertyInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeTypeInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeValuePropertyInfo;
 import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
+import com.sun.xml.bind.v2.runtime.unmarshaller.Base64Data;
+import com.sun.xml.bind.v2.runtime.unmarshaller.Loader;
 
 /**
  * Create {@link Property} objects.
@@ -167,4 +176,41 @@ public abstract class PropertyFactory {
 
         return true;
     }
+
+    private static final QName BASE64_BINARY = new QName(WellKnownNamespace.XML_SCHEMA,"base64Binary");
+
+    /**
+     * Look for the leaf whose PCDATA is base64 encoded binary, which is
+     * a built-in type that maps to xs:base64Binary. The transducers of
+     * those take {@link Base64Data}, so the unmarshaller can decode the text
+     * as it arrives. See {@link Loader#expectBinary}.
+     *
+     * <p>
+     * xs:hexBinary isn't streamed. The built-in transducers always read byte[] as
+     * base64, even with {@code @XmlSchemaType(name="hexBinary")}, so hex text only
+     * gets here through an adapter like
+     * {@link javax.xml.bind.annotation.adapters.HexBinaryAdapter}, which needs the whole String.
+     */
+    static boolean isBinary(RuntimeNonElementRef ref) {
+        if(ref.getSource().id()==ID.IDREF)
+            return false;
+        RuntimeNonElement target = ref.getTarget();
+        return target instanceof RuntimeBuiltinLeafInfo && BASE64_BINARY.equals(target.getTypeName());
+    }
+
+    /**
+     * Look for the binary leaf whose value reads the binary as a stream and lets the
+     * application get at the data source behind it, which is {@link DataHandler}
+     * and {@link Source}. See {@link Loader#binaryStream}.
+     *
+     * <p>
+     * An {@link java.awt.Image} is decoded into the heap right away anyway,
+     * so there's no point in moving its bytes to a file.
+     */
+    static boolean isBinaryStream(RuntimeNonElementRef ref) {
+        if(!isBinary(ref))
+            return false;
+        Object type = ref.getTarget().getType();
+        return type==DataHandler.class || type==Source.class;
+    }
 }
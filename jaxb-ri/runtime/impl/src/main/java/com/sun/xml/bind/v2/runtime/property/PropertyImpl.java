@@ -45,6 +45,8 @@ import java.io.IOException;
 import javax.xml.stream.XMLStreamException;
 
 import com.sun.xml.bind.api.AccessorException;
+import com.sun.xml.bind.v2.model.runtime.RuntimeAttributePropertyInfo;
+import com.sun.xml.bind.v2.model.runtime.RuntimeElementPropertyInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimePropertyInfo;
 import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
 import com.sun.xml.bind.v2.runtime.XMLSerializer;
@@ -62,18 +64,50 @@ abstract class PropertyImpl<BeanT> implements Property<BeanT> {
     protected final String fieldName;
     private RuntimePropertyInfo propertyInfo = null;
     private boolean hiddenByOverride = false;
+    private final boolean required;
+    private final boolean repeated;
 
     public PropertyImpl(JAXBContextImpl context, RuntimePropertyInfo prop) {
         fieldName = prop.getName();
         if (context.retainPropertyInfo) {
             propertyInfo = prop;
         }
+
+        // same as the occurrences in the generated schema
+        if (prop instanceof RuntimeAttributePropertyInfo) {
+            required = ((RuntimeAttributePropertyInfo) prop).isRequired();
+            repeated = false;
+        } else if (prop instanceof RuntimeElementPropertyInfo) {
+            RuntimeElementPropertyInfo ep = (RuntimeElementPropertyInfo) prop;
+            if (ep.isCollection() && ep.getXmlName() != null) {
+                // the wrapper element
+                required = ep.isCollectionRequired();
+                repeated = false;
+            } else {
+                required = ep.isRequired();
+                repeated = ep.isCollection() && !ep.isValueList();
+            }
+        } else {
+            required = repeated = false;
+        }
     }
 
     public RuntimePropertyInfo getInfo() {
         return propertyInfo;
     }
 
+    public boolean isRequired() {
+        return required;
+    }
+
+    public boolean isRepeated() {
+        return repeated;
+    }
+
+    public Accessor getReusableAccessor() {
+        return null;
+    }
+
     public void serializeBody(BeanT o, XMLSerializer w, Object outerPeer) throws SAXException, AccessorException, IOException, XMLStreamException {
     }
 
@@ -90,6 +124,8 @@ abstract class PropertyImpl<BeanT> implements Property<BeanT> {
     }
 
     public void wrapUp() {/*noop*/}
+
+    public void optimizeAccessors() {/*noop*/}
     
     public boolean isHiddenByOverride() {
         return hiddenByOverride;
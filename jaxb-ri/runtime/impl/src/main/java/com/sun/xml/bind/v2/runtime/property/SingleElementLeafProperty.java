@@ -76,11 +76,13 @@ final class SingleElementLeafProperty<BeanT> extends PropertyImpl<BeanT> {
 
     private final Name tagName;
     private final boolean nillable;
-    private final Accessor acc;
+    private /*final*/ Accessor acc;
     private final String defaultValue;
-    private final TransducedAccessor<BeanT> xacc;
+    private /*final*/ TransducedAccessor<BeanT> xacc;
     private final boolean improvedXsiTypeHandling;
     private final boolean idRef;
+    private final boolean binary;
+    private final boolean binaryStream;
 
     public SingleElementLeafProperty(JAXBContextImpl context, RuntimeElementPropertyInfo prop) {
         super(context, prop);
@@ -96,6 +98,14 @@ final class SingleElementLeafProperty<BeanT> extends PropertyImpl<BeanT> {
 
         improvedXsiTypeHandling = context.improvedXsiTypeHandling;
         idRef = ref.getSource().id() == ID.IDREF;
+        binary = PropertyFactory.isBinary(ref);
+        binaryStream = PropertyFactory.isBinaryStream(ref);
+    }
+
+    @Override
+    public void optimizeAccessors() {
+        acc = acc.optimize(null);
+        xacc = xacc.optimize();
     }
 
     public void reset(BeanT o) throws AccessorException {
@@ -178,7 +188,7 @@ final class SingleElementLeafProperty<BeanT> extends PropertyImpl<BeanT> {
     }
 
     public void buildChildElementUnmarshallers(UnmarshallerChain chain, QNameMap<ChildLoader> handlers) {
-        Loader l = new LeafPropertyLoader(xacc);
+        Loader l = new LeafPropertyLoader(xacc, binary, binaryStream);
         if (defaultValue != null)
             l = new DefaultValueLoaderDecorator(l, defaultValue);
         if (nillable || chain.context.allNillable)
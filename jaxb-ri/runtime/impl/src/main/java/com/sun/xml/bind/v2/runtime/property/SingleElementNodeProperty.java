@@ -74,7 +74,7 @@ import org.xml.sax.SAXException;
  */
 final class SingleElementNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT> {
 
-    private final Accessor<BeanT,ValueT> acc;
+    private /*final*/ Accessor<BeanT,ValueT> acc;
 
     private final boolean nillable;
 
@@ -120,10 +120,21 @@ final class SingleElementNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT>
         prop = null;
     }
 
+    @Override
+    public void optimizeAccessors() {
+        acc = acc.optimize(null);
+    }
+
     public void reset(BeanT bean) throws AccessorException {
         acc.set(bean,null);
     }
 
+    @Override
+    public Accessor getReusableAccessor() {
+        // with an adapter, the value we get is a new object anyway
+        return acc.isAdapted() ? null : acc;
+    }
+
     public String getIdValue(BeanT beanT) {
         return null;
     }
@@ -77,7 +77,7 @@ import org.xml.sax.SAXException;
  */
 final class SingleMapNodeProperty<BeanT,ValueT extends Map> extends PropertyImpl<BeanT> {
 
-    private final Accessor<BeanT,ValueT> acc;
+    private /*final*/ Accessor<BeanT,ValueT> acc;
     /**
      * The tag name that surrounds the whole property.
      */
@@ -123,6 +123,11 @@ final class SingleMapNodeProperty<BeanT,ValueT extends Map> extends PropertyImpl
         HashMap.class, TreeMap.class, LinkedHashMap.class
     };
 
+    @Override
+    public void optimizeAccessors() {
+        acc = acc.optimize(null);
+    }
+
     public void reset(BeanT bean) throws AccessorException {
         acc.set(bean,null);
     }
@@ -154,6 +159,9 @@ final class SingleMapNodeProperty<BeanT,ValueT extends Map> extends PropertyImpl
      * The target will be set to a {@link Map}.
      */
     private final Loader itemsLoader = new Loader(false) {
+        {
+            elementOnly = true;
+        }
 
         private ThreadLocal<Stack<BeanT>> target = new ThreadLocal<Stack<BeanT>>();
         private ThreadLocal<Stack<ValueT>> map = new ThreadLocal<Stack<ValueT>>();
@@ -198,6 +206,11 @@ final class SingleMapNodeProperty<BeanT,ValueT extends Map> extends PropertyImpl
             }
         }
 
+        @Override
+        public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
+            elementOnlyText(state,text);
+        }
+
         @Override
         public Collection<QName> getExpectedChildElements() {
             return Collections.singleton(entryTag.toQName());
@@ -210,6 +223,9 @@ final class SingleMapNodeProperty<BeanT,ValueT extends Map> extends PropertyImpl
      * The target will be set to a {@link Map}.
      */
     private final Loader entryLoader = new Loader(false) {
+        {
+            elementOnly = true;
+        }
         @Override
         public void startElement(UnmarshallingContext.State state, TagName ea) {
             state.setTarget(new Object[2]);  // this is inefficient
@@ -237,6 +253,11 @@ final class SingleMapNodeProperty<BeanT,ValueT extends Map> extends PropertyImpl
             super.childElement(state,ea);
         }
 
+        @Override
+        public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
+            elementOnlyText(state,text);
+        }
+
         @Override
         public Collection<QName> getExpectedChildElements() {
             return Arrays.asList(keyTag.toQName(),valueTag.toQName());
@@ -70,7 +70,7 @@ import org.xml.sax.SAXException;
  */
 final class SingleReferenceNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT> {
 
-    private final Accessor<BeanT,ValueT> acc;
+    private /*final*/ Accessor<BeanT,ValueT> acc;
 
     private final QNameMap<JaxBeanInfo> expectedElements = new QNameMap<JaxBeanInfo>();
 
@@ -94,10 +94,20 @@ final class SingleReferenceNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT
         }
     }
 
+    @Override
+    public void optimizeAccessors() {
+        acc = acc.optimize(null);
+    }
+
     public void reset(BeanT bean) throws AccessorException {
         acc.set(bean,null);
     }
 
+    @Override
+    public Accessor getReusableAccessor() {
+        return acc.isAdapted() ? null : acc;
+    }
+
     public String getIdValue(BeanT beanT) {
         return null;
     }
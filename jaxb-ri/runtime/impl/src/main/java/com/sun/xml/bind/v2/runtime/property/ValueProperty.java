@@ -72,7 +72,7 @@ public final class ValueProperty<BeanT> extends PropertyImpl<BeanT> {
     /**
      * Heart of the conversion logic.
      */
-    private final TransducedAccessor<BeanT> xacc;
+    private /*final*/ TransducedAccessor<BeanT> xacc;
     private final Accessor<BeanT,?> acc;
 
 
@@ -104,6 +104,11 @@ public final class ValueProperty<BeanT> extends PropertyImpl<BeanT> {
         return PropertyKind.VALUE;
     }
 
+    @Override
+    public void optimizeAccessors() {
+        xacc = xacc.optimize();
+    }
+
     public void reset(BeanT o) throws AccessorException {
         acc.set(o,null);
     }
@@ -282,7 +282,12 @@ public abstract class Accessor<BeanT, ValueT> implements Receiver {
             if (context != null && context.fastBoot)
                 // let's not waste time on doing this for the sake of faster boot.
                 return this;
-            Accessor<BeanT, ValueT> acc = OptimizedAccessorFactory.get(f);
+            if (context != null && context.lazyBeanInfoLinking)
+                // the property swaps in the optimized accessor when it's used for the first time.
+                return this;
+            Accessor<BeanT, ValueT> acc = context != null ? context.getOptimizedAccessor(this) : null;
+            if (acc == null)
+                acc = OptimizedAccessorFactory.get(f);
             if (acc != null)
                 return acc;
             else
@@ -398,8 +403,13 @@ public abstract class Accessor<BeanT, ValueT> implements Receiver {
             if (context != null && context.fastBoot)
                 // let's not waste time on doing this for the sake of faster boot.
                 return this;
+            if (context != null && context.lazyBeanInfoLinking)
+                // the property swaps in the optimized accessor when it's used for the first time.
+                return this;
 
-            Accessor<BeanT, ValueT> acc = OptimizedAccessorFactory.get(getter, setter);
+            Accessor<BeanT, ValueT> acc = context != null ? context.getOptimizedAccessor(this) : null;
+            if (acc == null)
+                acc = OptimizedAccessorFactory.get(getter, setter);
             if (acc != null)
                 return acc;
             else
@@ -72,6 +72,11 @@ final class AdaptedLister<BeanT,PropT,InMemItemT,OnWireItemT,PackT> extends List
         return new ListIteratorImpl( core.iterator(prop,context), context );
     }
 
+    @Override
+    public boolean isStreaming() {
+        return core.isStreaming();
+    }
+
     public PackT startPacking(BeanT bean, Accessor<BeanT, PropT> accessor) throws AccessorException {
         return core.startPacking(bean,accessor);
     }
@@ -110,7 +115,7 @@ final class AdaptedLister<BeanT,PropT,InMemItemT,OnWireItemT,PackT> extends List
         public OnWireItemT next() throws SAXException, JAXBException {
             InMemItemT next = core.next();
             try {
-                return getAdapter().marshal(next);
+                return serializer.getAdapter(adapter).marshal(next);
             } catch (Exception e) {
                 serializer.reportError(null,e);
                 return null; // recover this error by returning null
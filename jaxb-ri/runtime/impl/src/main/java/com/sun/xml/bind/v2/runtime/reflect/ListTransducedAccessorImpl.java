@@ -74,6 +74,19 @@ public final class ListTransducedAccessorImpl<BeanT,ListT,ItemT,PackT> extends D
         this.acc = acc;
     }
 
+    /**
+     * Gets the {@link TransducedAccessor} for a list simple type.
+     *
+     * <p>
+     * This is a {@link ListTransducedAccessorImpl}, unless the list is a primitive array
+     * that {@link PrimitiveArrayTransducedAccessor} can handle without boxing each item.
+     */
+    public static <BeanT> TransducedAccessor<BeanT> create(Transducer xducer, Accessor acc, Lister lister) {
+        TransducedAccessor<BeanT> xa = PrimitiveArrayTransducedAccessor.get(xducer,acc,lister);
+        if(xa!=null)    return xa;
+        return new ListTransducedAccessorImpl(xducer,acc,lister);
+    }
+
     public boolean useNamespace() {
         return xducer.useNamespace();
     }
@@ -124,7 +137,7 @@ public final class ListTransducedAccessorImpl<BeanT,ListT,ItemT,PackT> extends D
         return buf.toString();
     }
 
-    private void processValue(BeanT bean, CharSequence s) throws AccessorException, SAXException {
+    private void processValue(BeanT bean, CharSequence s, boolean validating) throws AccessorException, SAXException {
         PackT pack = lister.startPacking(bean,acc);
 
         int idx = 0;
@@ -137,7 +150,7 @@ public final class ListTransducedAccessorImpl<BeanT,ListT,ItemT,PackT> extends D
 
             CharSequence token = s.subSequence(idx,p);
             if (!token.equals(""))
-                lister.addToPack(pack,xducer.parse(token));
+                lister.addToPack(pack,xducer.parse(token,validating));
 
             if(p==len)      break;  // done
 
@@ -152,7 +165,12 @@ public final class ListTransducedAccessorImpl<BeanT,ListT,ItemT,PackT> extends D
     }
 
     public void parse(BeanT bean, CharSequence lexical) throws AccessorException, SAXException {
-        processValue(bean,lexical);
+        processValue(bean,lexical,false);
+    }
+
+    @Override
+    public void parse(BeanT bean, CharSequence lexical, boolean validating) throws AccessorException, SAXException {
+        processValue(bean,lexical,validating);
     }
 
     public boolean hasValue(BeanT bean) throws AccessorException {
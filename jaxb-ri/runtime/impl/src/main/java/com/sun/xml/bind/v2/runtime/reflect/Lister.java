@@ -62,11 +62,14 @@ import javax.xml.bind.JAXBException;
 
 import com.sun.istack.SAXException2;
 import com.sun.xml.bind.api.AccessorException;
+import com.sun.xml.bind.api.InstanceAllocator;
 import com.sun.xml.bind.v2.ClassFactory;
 import com.sun.xml.bind.v2.TODO;
 import com.sun.xml.bind.v2.model.core.Adapter;
 import com.sun.xml.bind.v2.model.core.ID;
+import com.sun.xml.bind.v2.runtime.Coordinator;
 import com.sun.xml.bind.v2.runtime.XMLSerializer;
+import com.sun.xml.bind.v2.runtime.unmarshaller.DirectIDResolver;
 import com.sun.xml.bind.v2.runtime.unmarshaller.Patcher;
 import com.sun.xml.bind.v2.runtime.unmarshaller.UnmarshallingContext;
 import com.sun.xml.bind.v2.runtime.unmarshaller.LocatorEx;
@@ -115,6 +118,15 @@ public abstract class Lister<BeanT,PropT,ItemT,PackT> {
      */
     public abstract void reset(BeanT o,Accessor<BeanT,PropT> acc) throws AccessorException;
 
+    /**
+     * Returns true if {@link #iterator(Object, XMLSerializer)} pulls the items
+     * lazily from a source that may be too large to hold in memory.
+     * The serializer periodically flushes its output while writing such properties.
+     */
+    public boolean isStreaming() {
+        return false;
+    }
+
 
     /**
      * Gets a reference to the appropriate {@link Lister} object
@@ -145,6 +157,14 @@ public abstract class Lister<BeanT,PropT,ItemT,PackT> {
             else
                 itemType = Object.class;
             l = new CollectionLister(getImplClass(rawType));
+        } else
+        if( rawType==Iterable.class || rawType==Iterator.class ) {
+            Type bt = Utils.REFLECTION_NAVIGATOR.getBaseClass(fieldType,rawType);
+            if(bt instanceof ParameterizedType)
+                itemType = (Class) Utils.REFLECTION_NAVIGATOR.erasure(((ParameterizedType)bt).getActualTypeArguments()[0]);
+            else
+                itemType = Object.class;
+            l = new StreamingLister(rawType==Iterator.class);
         } else
             return null;
 
@@ -292,7 +312,7 @@ public abstract class Lister<BeanT,PropT,ItemT,PackT> {
         public T startPacking(BeanT bean, Accessor<BeanT, T> acc) throws AccessorException {
             T collection = acc.get(bean);
             if(collection==null) {
-                collection = ClassFactory.create(implClass);
+                collection = create();
                 if(!acc.isAdapted())
                     acc.set(bean,collection);
             }
@@ -300,6 +320,22 @@ public abstract class Lister<BeanT,PropT,ItemT,PackT> {
             return collection;
         }
 
+        /**
+         * Creates a new collection, from the {@link InstanceAllocator} if there's one.
+         */
+        private T create() {
+            Coordinator c = Coordinator._getInstance();
+            if(c instanceof UnmarshallingContext) {
+                InstanceAllocator allocator = ((UnmarshallingContext)c).allocator;
+                if(allocator!=null) {
+                    T collection = allocator.allocateCollection(implClass);
+                    if(collection!=null)
+                        return collection;
+                }
+            }
+            return ClassFactory.create(implClass);
+        }
+
         public void addToPack(T collection, Object o) {
             collection.add(o);
         }
@@ -331,6 +367,59 @@ public abstract class Lister<BeanT,PropT,ItemT,PackT> {
         }
     }
 
+    /**
+     * {@link Lister} for a property typed as {@link Iterable} or {@link Iterator}.
+     *
+     * <p>
+     * Items are pulled from the property one at a time while marshalling,
+     * so the property can represent a result set that is never fully
+     * materialized. An {@link Iterator} can only be marshalled once.
+     * When unmarshalling, the items are collected into a {@link List}.
+     */
+    public static final class StreamingLister<BeanT,T> extends Lister<BeanT,T,Object,List<Object>> {
+        /**
+         * True if the property is an {@link Iterator}, false if it's an {@link Iterable}.
+         */
+        private final boolean isIterator;
+
+        public StreamingLister(boolean isIterator) {
+            this.isIterator = isIterator;
+        }
+
+        public ListIterator iterator(T prop, XMLSerializer context) {
+            final Iterator itr = isIterator ? (Iterator)prop : ((Iterable)prop).iterator();
+            return new ListIterator() {
+                public boolean hasNext() {
+                    return itr.hasNext();
+                }
+                public Object next() {
+                    return itr.next();
+                }
+            };
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return true;
+        }
+
+        public List<Object> startPacking(BeanT bean, Accessor<BeanT, T> acc) {
+            return new ArrayList<Object>();
+        }
+
+        public void addToPack(List<Object> list, Object o) {
+            list.add(o);
+        }
+
+        public void endPacking(List<Object> list, BeanT bean, Accessor<BeanT,T> acc) throws AccessorException {
+            acc.set(bean,(T)(isIterator ? list.iterator() : list));
+        }
+
+        public void reset(BeanT bean, Accessor<BeanT, T> acc) throws AccessorException {
+            acc.set(bean,(T)(isIterator ? Collections.emptyIterator() : Collections.emptyList()));
+        }
+    }
+
     /**
      * {@link Lister} for IDREFS.
      */
@@ -352,6 +441,11 @@ public abstract class Lister<BeanT,PropT,ItemT,PackT> {
             return new IDREFSIterator(i, context);
         }
 
+        @Override
+        public boolean isStreaming() {
+            return core.isStreaming();
+        }
+
         public Pack startPacking(BeanT bean, Accessor<BeanT, PropT> acc) {
             return new Pack(bean,acc);
         }
@@ -396,16 +490,20 @@ public abstract class Lister<BeanT,PropT,ItemT,PackT> {
                 try {
                     Object pack = core.startPacking(bean,acc);
 
+                    DirectIDResolver direct = context.getDirectIDResolver();
                     for( String id : idrefs ) {
-                        Callable callable = context.getObjectFromId(id,itemType);
                         Object t;
-
-                        try {
-                            t = (callable!=null) ? callable.call() : null;
-                        } catch (SAXException e) {
-                            throw e;
-                        } catch (Exception e) {
-                            throw new SAXException2(e);
+                        if(direct!=null) {
+                            t = direct.get(id);
+                        } else {
+                            Callable callable = context.getObjectFromId(id,itemType);
+                            try {
+                                t = (callable!=null) ? callable.call() : null;
+                            } catch (SAXException e) {
+                                throw e;
+                            } catch (Exception e) {
+                                throw new SAXException2(e);
+                            }
                         }
 
                         if(t==null) {
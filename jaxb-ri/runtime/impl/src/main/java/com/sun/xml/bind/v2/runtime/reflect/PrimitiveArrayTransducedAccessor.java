@@ -0,0 +1,251 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.reflect;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.sun.xml.bind.DatatypeConverterImpl;
+import com.sun.xml.bind.WhiteSpaceProcessor;
+import com.sun.xml.bind.api.AccessorException;
+import com.sun.xml.bind.v2.runtime.Name;
+import com.sun.xml.bind.v2.runtime.Transducer;
+import com.sun.xml.bind.v2.runtime.XMLSerializer;
+import com.sun.xml.bind.v2.runtime.output.Pcdata;
+import com.sun.xml.bind.v2.runtime.unmarshaller.DoubleArrayData;
+import com.sun.xml.bind.v2.runtime.unmarshaller.IntArrayData;
+import com.sun.xml.bind.v2.runtime.unmarshaller.LongArrayData;
+
+import org.xml.sax.SAXException;
+
+/**
+ * {@link TransducedAccessor} for a list simple type bound to int[], long[] or double[].
+ *
+ * <p>
+ * {@link ListTransducedAccessorImpl} goes through {@link Lister} and {@link Transducer},
+ * which box every item and print it to a {@link String}. This one parses each token
+ * straight into the array, and prints the array as a {@link Pcdata} that writes
+ * the numbers into the output as they are.
+ *
+ * @see ListTransducedAccessorImpl#create(Transducer, Accessor, Lister)
+ */
+abstract class PrimitiveArrayTransducedAccessor<BeanT,ArrayT> extends TransducedAccessor<BeanT> {
+    protected final Accessor<BeanT,ArrayT> acc;
+
+    protected PrimitiveArrayTransducedAccessor(Accessor<BeanT,ArrayT> acc) {
+        this.acc = acc;
+    }
+
+    /**
+     * Gets the {@link PrimitiveArrayTransducedAccessor} for the list, if there is one.
+     *
+     * @return null
+     *      if the list isn't a primitive array of a supported type,
+     *      or the items aren't printed and parsed by the default {@link Transducer}.
+     */
+    static <BeanT> TransducedAccessor<BeanT> get(Transducer xducer, Accessor acc, Lister lister) {
+        if(!xducer.isDefault())
+            return null;
+
+        if(lister==Lister.primitiveArrayListers.get(Integer.TYPE))
+            return new IntArray<BeanT>(acc);
+        if(lister==Lister.primitiveArrayListers.get(Long.TYPE))
+            return new LongArray<BeanT>(acc);
+        if(lister==Lister.primitiveArrayListers.get(Double.TYPE))
+            return new DoubleArray<BeanT>(acc);
+        return null;
+    }
+
+    /**
+     * Wraps the array into a {@link Pcdata}.
+     */
+    protected abstract Pcdata toPcdata(ArrayT array);
+
+    /**
+     * Starts a new array to parse the tokens into.
+     */
+    protected abstract Pack<ArrayT> startPacking();
+
+    /**
+     * Primitive array being built, which grows as tokens are added.
+     */
+    static abstract class Pack<ArrayT> {
+        int size;
+
+        /**
+         * Parses the token between {@code start} and {@code end} and adds it to the array.
+         */
+        abstract void add(CharSequence s, int start, int end);
+
+        abstract ArrayT build();
+    }
+
+    public CharSequence print(BeanT bean) throws AccessorException {
+        ArrayT array = acc.get(bean);
+        if(array==null)
+            return null;
+        return toPcdata(array);
+    }
+
+    public void parse(BeanT bean, CharSequence s) throws AccessorException {
+        Pack<ArrayT> pack = startPacking();
+
+        int len = s.length();
+        int idx = 0;
+        while(true) {
+            while( idx<len && WhiteSpaceProcessor.isWhiteSpace(s.charAt(idx)) )
+                idx++;
+            if(idx==len)    break;  // done
+
+            int p = idx;
+            while( p<len && !WhiteSpaceProcessor.isWhiteSpace(s.charAt(p)) )
+                p++;
+
+            pack.add(s,idx,p);
+            idx = p;
+        }
+
+        acc.set(bean,pack.build());
+    }
+
+    public boolean hasValue(BeanT bean) throws AccessorException {
+        return acc.get(bean)!=null;
+    }
+
+    @Override
+    public void writeLeafElement(XMLSerializer w, Name tagName, BeanT o, String fieldName) throws SAXException, AccessorException, IOException, XMLStreamException {
+        w.leafElement(tagName,toPcdata(acc.get(o)),fieldName);
+    }
+
+    @Override
+    public void writeText(XMLSerializer w, BeanT o, String fieldName) throws AccessorException, SAXException, IOException, XMLStreamException {
+        w.text(toPcdata(acc.get(o)),fieldName);
+    }
+
+    private static final class IntArray<BeanT> extends PrimitiveArrayTransducedAccessor<BeanT,int[]> {
+        IntArray(Accessor<BeanT,int[]> acc) {
+            super(acc);
+        }
+
+        protected Pcdata toPcdata(int[] array) {
+            return new IntArrayData(array,0,array.length);
+        }
+
+        protected Pack<int[]> startPacking() {
+            return new Pack<int[]>() {
+                int[] buf = new int[16];
+
+                void add(CharSequence s, int start, int end) {
+                    if(buf.length==size)
+                        buf = Arrays.copyOf(buf,size*2);
+                    buf[size++] = DatatypeConverterImpl._parseInt(s,start,end);
+                }
+
+                int[] build() {
+                    if(buf.length==size)
+                        // if we are lucky enough
+                        return buf;
+                    return Arrays.copyOf(buf,size);
+                }
+            };
+        }
+    }
+
+    private static final class LongArray<BeanT> extends PrimitiveArrayTransducedAccessor<BeanT,long[]> {
+        LongArray(Accessor<BeanT,long[]> acc) {
+            super(acc);
+        }
+
+        protected Pcdata toPcdata(long[] array) {
+            return new LongArrayData(array,0,array.length);
+        }
+
+        protected Pack<long[]> startPacking() {
+            return new Pack<long[]>() {
+                long[] buf = new long[16];
+
+                void add(CharSequence s, int start, int end) {
+                    if(buf.length==size)
+                        buf = Arrays.copyOf(buf,size*2);
+                    buf[size++] = DatatypeConverterImpl._parseLong(s,start,end);
+                }
+
+                long[] build() {
+                    if(buf.length==size)
+                        // if we are lucky enough
+                        return buf;
+                    return Arrays.copyOf(buf,size);
+                }
+            };
+        }
+    }
+
+    private static final class DoubleArray<BeanT> extends PrimitiveArrayTransducedAccessor<BeanT,double[]> {
+        DoubleArray(Accessor<BeanT,double[]> acc) {
+            super(acc);
+        }
+
+        protected Pcdata toPcdata(double[] array) {
+            return new DoubleArrayData(array,0,array.length);
+        }
+
+        protected Pack<double[]> startPacking() {
+            return new Pack<double[]>() {
+                double[] buf = new double[16];
+
+                void add(CharSequence s, int start, int end) {
+                    if(buf.length==size)
+                        buf = Arrays.copyOf(buf,size*2);
+                    buf[size++] = DatatypeConverterImpl._parseDouble(s,start,end);
+                }
+
+                double[] build() {
+                    if(buf.length==size)
+                        // if we are lucky enough
+                        return buf;
+                    return Arrays.copyOf(buf,size);
+                }
+            };
+        }
+    }
+}
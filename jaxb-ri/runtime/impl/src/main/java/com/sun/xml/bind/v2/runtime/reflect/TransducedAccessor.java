@@ -61,6 +61,7 @@ import com.sun.xml.bind.v2.runtime.Transducer;
 import com.sun.xml.bind.v2.runtime.XMLSerializer;
 import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
 import com.sun.xml.bind.v2.runtime.reflect.opt.OptimizedTransducedAccessorFactory;
+import com.sun.xml.bind.v2.runtime.unmarshaller.DirectIDResolver;
 import com.sun.xml.bind.v2.runtime.unmarshaller.Patcher;
 import com.sun.xml.bind.v2.runtime.unmarshaller.UnmarshallingContext;
 import com.sun.xml.bind.v2.runtime.unmarshaller.LocatorEx;
@@ -130,11 +131,34 @@ public abstract class TransducedAccessor<BeanT> {
      */
     public abstract void parse(BeanT o, CharSequence lexical) throws AccessorException, SAXException;
 
+    /**
+     * Parses the text value the same way {@link #parse(Object, CharSequence)} does,
+     * but lets the {@link Transducer} reject values when the unmarshaller validates.
+     *
+     * @see Transducer#parse(CharSequence, boolean)
+     */
+    public void parse(BeanT o, CharSequence lexical, boolean validating) throws AccessorException, SAXException {
+        parse(o,lexical);
+    }
+
     /**
      * Checks if the field has a value.
      */
     public abstract boolean hasValue(BeanT o) throws AccessorException;
 
+    /**
+     * Returns the same transducer with an optimized {@link Accessor}.
+     *
+     * <p>
+     * With {@link JAXBContextImpl#lazyBeanInfoLinking}, {@link #get(JAXBContextImpl, RuntimeNonElementRef)}
+     * leaves the accessor as is, and the property calls this method when it's used for the first time.
+     *
+     * @return At least the implementation can return {@code this}.
+     */
+    public TransducedAccessor<BeanT> optimize() {
+        return this;
+    }
+
 
 
 
@@ -157,14 +181,14 @@ public abstract class TransducedAccessor<BeanT> {
         RuntimePropertyInfo prop = ref.getSource();
 
         if(prop.isCollection()) {
-            return new ListTransducedAccessorImpl(xducer,prop.getAccessor(),
+            return ListTransducedAccessorImpl.create(xducer,prop.getAccessor(),
                     Lister.create(Utils.REFLECTION_NAVIGATOR.erasure(prop.getRawType()), prop.id(), prop.getAdapter()));
         }
 
         if(prop.id()==ID.IDREF)
             return new IDREFTransducedAccessorImpl(prop.getAccessor());
 
-        if(xducer.isDefault() && context != null && !context.fastBoot) {
+        if(xducer.isDefault() && context != null && !context.fastBoot && !context.lazyBeanInfoLinking) {
             TransducedAccessor xa = OptimizedTransducedAccessorFactory.get(prop);
             if(xa!=null)    return xa;
         }
@@ -203,6 +227,14 @@ public abstract class TransducedAccessor<BeanT> {
             return true;
         }
 
+        @Override
+        public TransducedAccessor<BeanT> optimize() {
+            Accessor<BeanT,ValueT> opt = acc.optimize(null);
+            if(opt==acc)
+                return this;
+            return new CompositeContextDependentTransducedAccessorImpl<BeanT,ValueT>(null,xducer,opt);
+        }
+
         @Override
         public void declareNamespace(BeanT bean, XMLSerializer w) throws AccessorException {
             ValueT o = acc.get(bean);
@@ -245,10 +277,23 @@ public abstract class TransducedAccessor<BeanT> {
             acc.set(bean,xducer.parse(lexical));
         }
 
+        @Override
+        public void parse(BeanT bean, CharSequence lexical, boolean validating) throws AccessorException, SAXException {
+            acc.set(bean,xducer.parse(lexical,validating));
+        }
+
         public boolean hasValue(BeanT bean) throws AccessorException {
             return acc.getUnadapted(bean)!=null;
         }
 
+        @Override
+        public TransducedAccessor<BeanT> optimize() {
+            Accessor<BeanT,ValueT> opt = acc.optimize(null);
+            if(opt==acc)
+                return this;
+            return new CompositeTransducedAccessorImpl<BeanT,ValueT>(null,xducer,opt);
+        }
+
         @Override
         public void writeLeafElement(XMLSerializer w, Name tagName, BeanT o, String fieldName) throws SAXException, AccessorException, IOException, XMLStreamException {
             xducer.writeLeafElement(w,tagName,acc.get(o),fieldName);
@@ -266,7 +311,8 @@ public abstract class TransducedAccessor<BeanT> {
      * BeanT: the type of the bean that contains this the IDREF field.
      * TargetT: the type of the bean pointed by IDREF.
      */
-    private static final class IDREFTransducedAccessorImpl<BeanT,TargetT> extends DefaultTransducedAccessor<BeanT> {
+    private static final class IDREFTransducedAccessorImpl<BeanT,TargetT> extends DefaultTransducedAccessor<BeanT>
+        implements DirectIDResolver.Reference<BeanT> {
         private final Accessor<BeanT,TargetT> acc;
         /**
          * The object that an IDREF resolves to should be
@@ -302,10 +348,20 @@ public abstract class TransducedAccessor<BeanT> {
                 acc.set(bean,t);
         }
 
+        public void set(BeanT bean, Object target, UnmarshallingContext context) throws AccessorException {
+            assign(bean,(TargetT)target,context);
+        }
+
         public void parse(final BeanT bean, CharSequence lexical) throws AccessorException, SAXException {
             final String idref = WhiteSpaceProcessor.trim(lexical).toString();
             final UnmarshallingContext context = UnmarshallingContext.getInstance();
 
+            DirectIDResolver direct = context.getDirectIDResolver();
+            if(direct!=null) {
+                direct.resolve(bean,this,idref,context);
+                return;
+            }
+
             final Callable callable = context.getObjectFromId(idref,acc.valueType);
             if(callable==null) {
                 // the IDResolver decided to abort it now
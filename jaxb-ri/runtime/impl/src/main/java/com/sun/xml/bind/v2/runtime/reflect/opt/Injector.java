@@ -119,6 +119,10 @@ final class Injector {
      *      if it fails.
      */
     private static Injector get(ClassLoader cl) {
+        if (defineClass == null) {
+            // no back-door on this VM
+            return null;
+        }
         Injector injector = null;
         WeakReference<Injector> wr;
         ir.lock();
@@ -211,7 +215,8 @@ final class Injector {
                     }
                 });
             } catch (SecurityException | PrivilegedActionException ex) {
-                Logger.getLogger(Injector.class.getName()).log(Level.SEVERE, null, ex);
+                // MethodHandleAccessorFactory takes over from here
+                logger.log(Level.FINE, "Unable to set up a back-door for the injector", ex);
             }
         }
     }
@@ -0,0 +1,178 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.reflect.opt;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.xml.bind.Util;
+import com.sun.xml.bind.v2.runtime.reflect.Accessor;
+
+/**
+ * Creates {@link MethodHandle}-based {@link Accessor}s.
+ *
+ * <p>
+ * {@link OptimizedAccessorFactory} falls back to this when it can't inject
+ * a bytecode accessor, which is the case for private and final members
+ * and on VMs where the class definition back-door is closed.
+ *
+ * <p>
+ * Setting the {@code com.sun.xml.bind.v2.runtime.reflect.opt.MethodHandleAccessorFactory.noMethodHandle}
+ * system property disables this, and we go back to the reflection-based accessors
+ * in those cases.
+ *
+ * @see MethodHandleAccessor
+ */
+public abstract class MethodHandleAccessorFactory {
+    private MethodHandleAccessorFactory() {} // no instanciation please
+
+    private static final Logger logger = Util.getClassLogger();
+
+    /*package*/ static final boolean noMethodHandle =
+        AccessorInjector.noOptimize ||
+        Util.getSystemProperty(MethodHandleAccessorFactory.class.getName()+".noMethodHandle")!=null;
+
+    /**
+     * Gets the {@link MethodHandle}-based {@link Accessor} that accesses the given field.
+     *
+     * <p>
+     * Non-public fields need to be made accessible by the caller beforehand,
+     * as {@link Accessor.FieldReflection} does.
+     *
+     * @return null
+     *      if for some reason it fails to create one.
+     */
+    public static <B,V> Accessor<B,V> get(Field field) {
+        if(noMethodHandle || Modifier.isStatic(field.getModifiers()))
+            return null;
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Accessor<B,V> acc = create(field.getType(), lookup.unreflectGetter(field), lookup.unreflectSetter(field));
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Using MethodHandle Accessor for {0}", field);
+            }
+            return acc;
+        } catch (IllegalAccessException e) {
+            logger.log(Level.FINE, "Unable to create a MethodHandle Accessor for "+field, e);
+        } catch (SecurityException e) {
+            logger.log(Level.FINE, "Unable to create a MethodHandle Accessor for "+field, e);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the {@link MethodHandle}-based {@link Accessor} that accesses the given getter/setter.
+     *
+     * @return null
+     *      if for some reason it fails to create one.
+     */
+    public static <B,V> Accessor<B,V> get(Method getter, Method setter) {
+        if(noMethodHandle)
+            return null;
+
+        // make sure the method signatures are what we expect
+        if(getter.getParameterTypes().length!=0)
+            return null;
+        Class<?>[] sparams = setter.getParameterTypes();
+        if(sparams.length!=1)
+            return null;
+        if(sparams[0]!=getter.getReturnType())
+            return null;
+        if(setter.getReturnType()!=Void.TYPE)
+            return null;
+        if(Modifier.isStatic(getter.getModifiers()) || Modifier.isStatic(setter.getModifiers()))
+            return null;
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Accessor<B,V> acc = create(sparams[0], lookup.unreflect(getter), lookup.unreflect(setter));
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Using MethodHandle Accessor for {0} and {1}", new Object[]{getter, setter});
+            }
+            return acc;
+        } catch (IllegalAccessException e) {
+            logger.log(Level.FINE, "Unable to create a MethodHandle Accessor for "+getter, e);
+        } catch (SecurityException e) {
+            logger.log(Level.FINE, "Unable to create a MethodHandle Accessor for "+getter, e);
+        } catch (WrongMethodTypeException e) {
+            logger.log(Level.FINE, "Unable to create a MethodHandle Accessor for "+getter, e);
+        }
+        return null;
+    }
+
+    /**
+     * Adapts the handles to the erased signature and picks the type-specific {@link MethodHandleAccessor}.
+     */
+    private static <B,V> Accessor<B,V> create(Class<?> t, MethodHandle getter, MethodHandle setter) {
+        Class<?> erasure = t.isPrimitive() ? t : Object.class;
+        getter = getter.asType(MethodType.methodType(erasure, Object.class));
+        setter = setter.asType(MethodType.methodType(Void.TYPE, Object.class, erasure));
+
+        Accessor acc;
+        if(t==Boolean.TYPE)
+            acc = new MethodHandleAccessor_Boolean(getter,setter);
+        else if(t==Byte.TYPE)
+            acc = new MethodHandleAccessor_Byte(getter,setter);
+        else if(t==Character.TYPE)
+            acc = new MethodHandleAccessor_Character(getter,setter);
+        else if(t==Double.TYPE)
+            acc = new MethodHandleAccessor_Double(getter,setter);
+        else if(t==Float.TYPE)
+            acc = new MethodHandleAccessor_Float(getter,setter);
+        else if(t==Integer.TYPE)
+            acc = new MethodHandleAccessor_Integer(getter,setter);
+        else if(t==Long.TYPE)
+            acc = new MethodHandleAccessor_Long(getter,setter);
+        else if(t==Short.TYPE)
+            acc = new MethodHandleAccessor_Short(getter,setter);
+        else
+            acc = new MethodHandleAccessor_Ref(t,getter,setter);
+        return (Accessor<B,V>)acc;
+    }
+}
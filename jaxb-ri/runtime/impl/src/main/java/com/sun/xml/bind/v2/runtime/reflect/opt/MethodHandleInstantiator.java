@@ -0,0 +1,137 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.reflect.opt;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.xml.bind.Util;
+import com.sun.xml.bind.v2.ClassFactory;
+
+/**
+ * Creates instances of a bean class by invoking its default constructor
+ * through a {@link MethodHandle}, instead of {@link Constructor#newInstance(Object...)}.
+ *
+ * <p>
+ * The bean info of a class keeps one of these, so creating a bean during
+ * unmarshalling neither goes through reflection nor looks up the constructor
+ * in {@link ClassFactory}.
+ *
+ * @see MethodHandleAccessorFactory
+ */
+public final class MethodHandleInstantiator<T> {
+
+    private static final Logger logger = Util.getClassLogger();
+
+    /**
+     * The default constructor, adapted to {@code ()Object}.
+     */
+    private final MethodHandle constructor;
+
+    private MethodHandleInstantiator(MethodHandle constructor) {
+        this.constructor = constructor;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @throws InvocationTargetException
+     *      if the constructor throws an exception, just like
+     *      {@link Constructor#newInstance(Object...)} does.
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance() throws InvocationTargetException {
+        try {
+            return (T)(Object)constructor.invokeExact();
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Gets the {@link MethodHandleInstantiator} for the given class.
+     *
+     * @return null
+     *      if the class can't be instantiated that way, for example because it's abstract
+     *      or it doesn't have a default constructor. {@link ClassFactory} should be used
+     *      then, which also reports the error properly.
+     */
+    public static <T> MethodHandleInstantiator<T> get(final Class<T> clazz) {
+        if(MethodHandleAccessorFactory.noMethodHandle)
+            return null;
+        if(clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers()))
+            return null;
+
+        try {
+            Constructor<T> cons = AccessController.doPrivileged(new PrivilegedExceptionAction<Constructor<T>>() {
+                @Override
+                public Constructor<T> run() throws NoSuchMethodException {
+                    Constructor<T> c = clazz.getDeclaredConstructor();
+                    if(!Modifier.isPublic(clazz.getModifiers()) || !Modifier.isPublic(c.getModifiers()))
+                        c.setAccessible(true);
+                    return c;
+                }
+            });
+            MethodHandle mh = MethodHandles.lookup().unreflectConstructor(cons)
+                .asType(MethodType.methodType(Object.class));
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Using MethodHandle instantiator for {0}", clazz);
+            }
+            return new MethodHandleInstantiator<T>(mh);
+        } catch (PrivilegedActionException e) {
+            // no default constructor. let ClassFactory report it when it's actually needed
+        } catch (IllegalAccessException e) {
+            logger.log(Level.FINE, "Unable to create a MethodHandle instantiator for "+clazz, e);
+        } catch (SecurityException e) {
+            logger.log(Level.FINE, "Unable to create a MethodHandle instantiator for "+clazz, e);
+        }
+        return null;
+    }
+}
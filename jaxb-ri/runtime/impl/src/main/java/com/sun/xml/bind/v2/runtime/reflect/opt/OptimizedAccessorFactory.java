@@ -76,6 +76,10 @@ public abstract class OptimizedAccessorFactory {
     /**
      * Gets the optimized {@link Accessor} that accesses the given getter/setter.
      *
+     * <p>
+     * If an accessor class can't be injected, this falls back to
+     * {@link MethodHandleAccessorFactory}.
+     *
      * @return null
      *      if for some reason it fails to create an optimized version.
      */
@@ -91,10 +95,10 @@ public abstract class OptimizedAccessorFactory {
         if(setter.getReturnType()!=Void.TYPE)
             return null;
         if(getter.getDeclaringClass()!=setter.getDeclaringClass())
-            return null;
+            return MethodHandleAccessorFactory.get(getter,setter);
         if(Modifier.isPrivate(getter.getModifiers()) || Modifier.isPrivate(setter.getModifiers()))
-            // we can't access private fields
-            return null;
+            // we can't access private methods from an injected class
+            return MethodHandleAccessorFactory.get(getter,setter);
 
         Class t = sparams[0];
         String typeName = t.getName().replace('.','_');
@@ -139,7 +143,7 @@ public abstract class OptimizedAccessorFactory {
                 setter.getName());
 
         if(opt==null)
-            return null;
+            return MethodHandleAccessorFactory.get(getter,setter);
 
         Accessor<B,V> acc = instanciate(opt);
         if (acc!=null) {
@@ -154,14 +158,18 @@ public abstract class OptimizedAccessorFactory {
     /**
      * Gets the optimized {@link Accessor} that accesses the given field.
      *
+     * <p>
+     * If an accessor class can't be injected, this falls back to
+     * {@link MethodHandleAccessorFactory}.
+     *
      * @return null
      *      if for some reason it fails to create an optimized version.
      */
     public static final <B,V> Accessor<B,V> get(Field field) {
         int mods = field.getModifiers();
         if(Modifier.isPrivate(mods) || Modifier.isFinal(mods))
-            // we can't access private fields
-            return null;
+            // we can't access private fields from an injected class
+            return MethodHandleAccessorFactory.get(field);
 
         String newClassName = toVMClassName(field.getDeclaringClass())+"$JaxbAccessorF_"+field.getName();
 
@@ -189,7 +197,7 @@ public abstract class OptimizedAccessorFactory {
                 field.getName() );
 
         if(opt==null)
-            return null;
+            return MethodHandleAccessorFactory.get(field);
 
         Accessor<B,V> acc = instanciate(opt);
         if (acc!=null) {
@@ -40,10 +40,19 @@
 
 package com.sun.xml.bind.v2.runtime.reflect.opt;
 
+import java.io.IOException;
+
+import javax.xml.stream.XMLStreamException;
+
 import com.sun.xml.bind.DatatypeConverterImpl;
+import com.sun.xml.bind.api.AccessorException;
+import com.sun.xml.bind.v2.runtime.Name;
+import com.sun.xml.bind.v2.runtime.XMLSerializer;
 import com.sun.xml.bind.v2.runtime.reflect.TransducedAccessor;
 import com.sun.xml.bind.v2.runtime.reflect.DefaultTransducedAccessor;
 
+import org.xml.sax.SAXException;
+
 /**
  * Template {@link TransducedAccessor} for a short field.
  * <p><b>
@@ -68,4 +77,9 @@ public final class TransducedAccessor_field_Short extends DefaultTransducedAcces
     public boolean hasValue(Object o) {
         return true;
     }
+
+    @Override
+    public void writeLeafElement(XMLSerializer w, Name tagName, Object o, String fieldName) throws SAXException, AccessorException, IOException, XMLStreamException {
+        w.leafElement(tagName, ((Bean)o).f_short, fieldName );
+    }
 }
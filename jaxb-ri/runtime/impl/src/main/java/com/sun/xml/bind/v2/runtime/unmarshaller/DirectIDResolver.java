@@ -0,0 +1,330 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+import javax.xml.bind.ValidationEventHandler;
+import javax.xml.bind.ValidationEventLocator;
+
+import com.sun.xml.bind.IDResolver;
+import com.sun.xml.bind.api.AccessorException;
+
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * {@link IDResolver} for documents with a lot of ID/IDREF pairs.
+ *
+ * <p>
+ * IDs are kept in an open-addressing hash table that can be sized up front,
+ * and the unmarshaller looks them up through {@link #get(String)} without going
+ * through a {@link Callable}. IDREFs to objects that haven't been seen yet are
+ * recorded in a compact table and patched together when the document ends,
+ * instead of allocating a {@link Patcher} for each of them.
+ *
+ * <p>
+ * Set an instance as the {@link IDResolver} property of the unmarshaller, or
+ * use {@link UnmarshallerImpl#ID_TABLE_SIZE} to let the unmarshaller create one.
+ * Like other unmarshaller state, an instance can't be shared between threads.
+ *
+ * @see UnmarshallerImpl#ID_TABLE_SIZE
+ */
+public final class DirectIDResolver extends IDResolver implements Patcher {
+
+    /**
+     * Receives the object that an IDREF points to.
+     */
+    public interface Reference<BeanT> {
+        /**
+         * Called once the object that the IDREF points to is known.
+         */
+        void set(BeanT bean, Object target, UnmarshallingContext context) throws AccessorException, SAXException;
+    }
+
+    /**
+     * IDs and the objects they are bound to. The capacity is always a power of 2,
+     * and the table is kept at most half full so that probe sequences stay short.
+     */
+    private String[] keys;
+    private Object[] values;
+    private int size;
+
+    /**
+     * Unresolved IDREFs, in the order they appeared in the document.
+     * {@link #refLines} and {@link #refColumns} are only used to report unresolved IDREFs.
+     */
+    private Object[] refBeans;
+    private Reference[] refTargets;
+    private String[] refIds;
+    private int[] refLines;
+    private int[] refColumns;
+    private int refLen;
+
+    /**
+     * The context that unresolved IDREFs are reported to, and
+     * the URL of the document they are in.
+     */
+    private UnmarshallingContext context;
+    private URL url;
+
+    public DirectIDResolver() {
+        this(64);
+    }
+
+    /**
+     * @param expectedSize
+     *      The number of IDs a document is expected to have.
+     *      The table grows beyond this if necessary.
+     */
+    public DirectIDResolver(int expectedSize) {
+        int capacity = 16;
+        while(capacity < expectedSize*2 && capacity < (1<<30))
+            capacity <<= 1;
+        keys = new String[capacity];
+        values = new Object[capacity];
+    }
+
+    @Override
+    public void startDocument(ValidationEventHandler eventHandler) throws SAXException {
+        clear();
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        // don't hold on to the objects of the last document
+        clear();
+    }
+
+    private void clear() {
+        if(size!=0) {
+            Arrays.fill(keys,null);
+            Arrays.fill(values,null);
+            size = 0;
+        }
+        if(refLen!=0) {
+            Arrays.fill(refBeans,0,refLen,null);
+            Arrays.fill(refTargets,0,refLen,null);
+            Arrays.fill(refIds,0,refLen,null);
+            refLen = 0;
+        }
+        context = null;
+        url = null;
+    }
+
+    @Override
+    public void bind(String id, Object obj) {
+        if(size*2 >= keys.length)
+            rehash();
+
+        int mask = keys.length-1;
+        int i = hash(id)&mask;
+        String k;
+        while((k=keys[i])!=null) {
+            if(k.equals(id)) {
+                // a later declaration of the same ID overrides the earlier one, like DefaultIDResolver
+                values[i] = obj;
+                return;
+            }
+            i = (i+1)&mask;
+        }
+        keys[i] = id;
+        values[i] = obj;
+        size++;
+    }
+
+    /**
+     * Gets the object bound to the given ID so far.
+     *
+     * @return null
+     *      if no object is bound to the ID yet.
+     */
+    public Object get(String id) {
+        int mask = keys.length-1;
+        int i = hash(id)&mask;
+        String k;
+        while((k=keys[i])!=null) {
+            if(k.equals(id))
+                return values[i];
+            i = (i+1)&mask;
+        }
+        return null;
+    }
+
+    @Override
+    public Callable<?> resolve(final String id, Class targetType) {
+        return new Callable<Object>() {
+            public Object call() {
+                return get(id);
+            }
+        };
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode();
+        return h ^ (h>>>16);
+    }
+
+    private void rehash() {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new String[oldKeys.length*2];
+        values = new Object[oldKeys.length*2];
+
+        int mask = keys.length-1;
+        for( int j=0; j<oldKeys.length; j++ ) {
+            String k = oldKeys[j];
+            if(k==null)     continue;
+            int i = hash(k)&mask;
+            while(keys[i]!=null)
+                i = (i+1)&mask;
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+
+    /**
+     * Resolves the IDREF now if the object is already known, or
+     * records it so that it's resolved at the end of the document.
+     */
+    public <BeanT> void resolve(BeanT bean, Reference<BeanT> target, String id, UnmarshallingContext context) throws AccessorException, SAXException {
+        Object t = get(id);
+        if(t!=null) {
+            target.set(bean,t,context);
+            return;
+        }
+
+        if(refLen==0) {
+            // first forward reference in this document
+            this.context = context;
+            this.url = context.getLocator().getLocation().getURL();
+            context.addPatcher(this);
+        }
+        if(refBeans==null || refLen==refBeans.length)
+            growReferences();
+
+        LocatorEx loc = context.getLocator();
+        refBeans[refLen] = bean;
+        refTargets[refLen] = target;
+        refIds[refLen] = id;
+        refLines[refLen] = loc.getLineNumber();
+        refColumns[refLen] = loc.getColumnNumber();
+        refLen++;
+    }
+
+    private void growReferences() {
+        int len = refBeans==null ? 16 : refBeans.length*2;
+        refBeans = refBeans==null ? new Object[len] : Arrays.copyOf(refBeans,len);
+        refTargets = refTargets==null ? new Reference[len] : Arrays.copyOf(refTargets,len);
+        refIds = refIds==null ? new String[len] : Arrays.copyOf(refIds,len);
+        refLines = refLines==null ? new int[len] : Arrays.copyOf(refLines,len);
+        refColumns = refColumns==null ? new int[len] : Arrays.copyOf(refColumns,len);
+    }
+
+    /**
+     * Patches all the forward references of the document in one go.
+     */
+    public void run() throws SAXException {
+        for( int i=0; i<refLen; i++ ) {
+            Object t = get(refIds[i]);
+            try {
+                if(t==null)
+                    context.errorUnresolvedIDREF(refBeans[i],refIds[i],new Location(refLines[i],refColumns[i],url));
+                else
+                    refTargets[i].set(refBeans[i],t,context);
+            } catch (AccessorException e) {
+                context.handleError(e);
+            }
+        }
+    }
+
+    /**
+     * {@link LocatorEx} of an unresolved IDREF, only created when it's reported.
+     */
+    private static final class Location implements LocatorEx, ValidationEventLocator {
+        private final int line,column;
+        private final URL url;
+
+        Location(int line, int column, URL url) {
+            this.line = line;
+            this.column = column;
+            this.url = url;
+        }
+
+        public ValidationEventLocator getLocation() {
+            return this;
+        }
+
+        public URL getURL() {
+            return url;
+        }
+
+        public int getOffset() {
+            return -1;
+        }
+
+        public Object getObject() {
+            return null;
+        }
+
+        public Node getNode() {
+            return null;
+        }
+
+        public String getPublicId() {
+            return null;
+        }
+
+        public String getSystemId() {
+            return url==null ? null : url.toExternalForm();
+        }
+
+        public int getLineNumber() {
+            return line;
+        }
+
+        public int getColumnNumber() {
+            return column;
+        }
+    }
+}
@@ -123,7 +123,7 @@ public final class IntArrayData extends Pcdata {
     }
 
     public String toString() {
-        return literal.toString();
+        return getLiteral().toString();
     }
 
     public void writeTo(UTF8XmlOutput output) throws IOException {
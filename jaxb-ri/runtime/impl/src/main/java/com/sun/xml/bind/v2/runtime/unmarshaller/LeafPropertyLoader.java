@@ -56,13 +56,27 @@ public class LeafPropertyLoader extends Loader {
     private final TransducedAccessor xacc;
 
     public LeafPropertyLoader(TransducedAccessor xacc) {
+        this(xacc,false,false);
+    }
+
+    /**
+     * @param expectBinary
+     *      true if the text is base64 encoded binary that {@code xacc} can
+     *      parse from {@link Base64Data}. See {@link Loader#expectBinary}.
+     * @param binaryStream
+     *      true if {@code xacc} only reads that binary as a stream.
+     *      See {@link Loader#binaryStream}.
+     */
+    public LeafPropertyLoader(TransducedAccessor xacc, boolean expectBinary, boolean binaryStream) {
         super(true);
         this.xacc = xacc;
+        this.expectBinary = expectBinary;
+        this.binaryStream = binaryStream;
     }
 
     public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
         try {
-            xacc.parse(state.getPrev().getTarget(), text);
+            xacc.parse(state.getPrev().getTarget(), text, state.getContext().isValidating());
         } catch (AccessorException e) {
             handleGenericException(e,true);
         } catch (RuntimeException e) {
@@ -48,6 +48,7 @@ import javax.xml.bind.ValidationEvent;
 import javax.xml.bind.helpers.ValidationEventImpl;
 import javax.xml.namespace.QName;
 
+import com.sun.xml.bind.WhiteSpaceProcessor;
 import com.sun.xml.bind.v2.runtime.JaxBeanInfo;
 
 import org.xml.sax.SAXException;
@@ -60,6 +61,36 @@ public abstract class Loader {
     // allow derived classes to change it later
     protected boolean expectText;
 
+    /**
+     * True if the text this loader expects is base64 encoded binary.
+     *
+     * <p>
+     * Connectors then decode the text as it arrives and report it as {@link Base64Data},
+     * instead of buffering the whole text first.
+     *
+     * @see UnmarshallingContext#expectBinary()
+     */
+    protected boolean expectBinary;
+
+    /**
+     * True if the value made out of the binary text only reads it as a stream,
+     * like {@link javax.activation.DataHandler} does, rather than needing a byte[],
+     * and the application can reach the data source behind it.
+     * Such text can be moved to a temporary file when it's large.
+     *
+     * @see UnmarshallerImpl#BINARY_FILE_THRESHOLD
+     */
+    protected boolean binaryStream;
+
+    /**
+     * True if this loader handles element-only content. It then doesn't expect text,
+     * except when {@link UnmarshallingContext#isValidating()}, so that stray text gets reported.
+     *
+     * @see UnmarshallingContext#expectText()
+     * @see #elementOnlyText(UnmarshallingContext.State, CharSequence)
+     */
+    protected boolean elementOnly;
+
     protected Loader(boolean expectText) {
         this.expectText = expectText;
     }
@@ -102,18 +133,23 @@ public abstract class Loader {
      */
     public void childElement(UnmarshallingContext.State state, TagName ea) throws SAXException {
         // notify the error, then recover by ignoring the whole element.
-        reportUnexpectedChildElement(ea, true);
+        // when validating, this is a violation just like those reported by the validator.
+        UnmarshallingContext context = state.getContext();
+        reportUnexpectedChildElement(context, ea, !context.isValidating());
         state.setLoader(Discarder.INSTANCE);
         state.setReceiver(null);
     }
 
-    @SuppressWarnings({"StringEquality"})
     protected final void reportUnexpectedChildElement(TagName ea, boolean canRecover) throws SAXException {
+        reportUnexpectedChildElement(UnmarshallingContext.getInstance(), ea, canRecover);
+    }
+
+    @SuppressWarnings({"StringEquality"})
+    private void reportUnexpectedChildElement(UnmarshallingContext context, TagName ea, boolean canRecover) throws SAXException {
         if (canRecover) {
             // this error happens particurly often (when input documents contain a lot of unexpected elements to be ignored),
             // so don't bother computing all the messages and etc if we know that
             // there's no event handler to receive the error in the end. See #286
-            UnmarshallingContext context = UnmarshallingContext.getInstance();
             if (!context.parent.hasEventHandler() // is somebody listening?
                     || !context.shouldErrorBeReported()) // should we report error?
                 return;
@@ -146,9 +182,23 @@ public abstract class Loader {
      * IOW, you won't see two text event calls in a row.
      */
     public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
+        reportUnexpectedText(state,text);
+    }
+
+    /**
+     * Handles text for a loader of element-only content, which only gets text
+     * when {@link #elementOnly} is set and {@link UnmarshallingContext#isValidating()}.
+     * The text is then reported unless it's whitespace.
+     */
+    protected final void elementOnlyText(UnmarshallingContext.State state, CharSequence text) throws SAXException {
+        if(state.getContext().isValidating() && !WhiteSpaceProcessor.isWhiteSpace(text))
+            reportUnexpectedText(state,text);
+    }
+
+    private void reportUnexpectedText(UnmarshallingContext.State state, CharSequence text) throws SAXException {
         // make str printable
         text = text.toString().replace('\r',' ').replace('\n',' ').replace('\t',' ').trim();
-        reportError(Messages.UNEXPECTED_TEXT.format(text), true );
+        reportError(Messages.UNEXPECTED_TEXT.format(text), !state.getContext().isValidating() );
     }
 
     /**
@@ -272,6 +322,7 @@ public abstract class Loader {
      */
     protected static void handleParseConversionException(UnmarshallingContext.State state, Exception e) throws SAXException {
         // wrap it into a ParseConversionEvent and report it
-        state.getContext().handleError(e);
+        UnmarshallingContext context = state.getContext();
+        context.handleError(e, !context.isValidating());
     }
 }
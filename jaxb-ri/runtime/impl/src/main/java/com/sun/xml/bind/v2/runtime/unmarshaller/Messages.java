@@ -56,6 +56,18 @@ enum Messages {
     UNABLE_TO_CREATE_MAP, // 1 arg
     UNINTERNED_STRINGS, // no args
     ERRORS_LIMIT_EXCEEDED, // no arg
+    UNEXPECTED_EOF, // no arg
+    MALFORMED_MARKUP, // no arg
+    MALFORMED_UTF8, // no arg
+    DOCTYPE_NOT_ALLOWED, // no arg
+    UNSUPPORTED_ENCODING, // 1 arg
+    UNBOUND_PREFIX, // 1 arg
+    UNDECLARED_ENTITY, // 1 arg
+    MISMATCHED_END_TAG, // 2 args
+    MISSING_ELEMENT, // 1 arg
+    REPEATED_ELEMENT, // 2 args
+    MISSING_ATTRIBUTE, // 2 args
+    UNEXPECTED_ATTRIBUTE, // 2 args
     ;
 
     private static final ResourceBundle rb = ResourceBundle.getBundle(Messages.class.getName());
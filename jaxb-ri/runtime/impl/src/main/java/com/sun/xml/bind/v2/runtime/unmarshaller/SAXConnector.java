@@ -40,6 +40,9 @@
 
 package com.sun.xml.bind.v2.runtime.unmarshaller;
 
+import java.io.IOException;
+
+import com.sun.xml.bind.DatatypeConverterImpl;
 import com.sun.xml.bind.Util;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.UnmarshallerHandler;
@@ -70,6 +73,11 @@ public final class SAXConnector implements UnmarshallerHandler {
      */
     private final StringBuilder buffer = new StringBuilder();
 
+    /**
+     * Used in place of {@link #buffer} when the text is base64 encoded binary.
+     */
+    private final DatatypeConverterImpl.Base64Decoder decoder;
+
     private final XmlVisitor next;
     private final UnmarshallingContext context;
     private final XmlVisitor.TextPredictor predictor;
@@ -94,6 +102,7 @@ public final class SAXConnector implements UnmarshallerHandler {
         this.next = next;
         this.context = next.getContext();
         this.predictor = next.getPredictor();
+        this.decoder = context.getBase64Decoder();
         this.loc = externalLocator;
     }
 
@@ -182,16 +191,24 @@ public final class SAXConnector implements UnmarshallerHandler {
 
 
     @Override
-    public final void characters( char[] buf, int start, int len ) {
+    public final void characters( char[] buf, int start, int len ) throws SAXException {
         if (logger.isLoggable(Level.FINEST)) {
             logger.log(Level.FINEST, "SAXConnector.characters: {0}", buf);
         }
-        if( predictor.expectText() )
-            buffer.append(buf,start,len);
+        if( predictor.expectText() ) {
+            if( context.expectBinary() ) {
+                try {
+                    decoder.decode(buf,start,len);
+                } catch (IOException e) {
+                    throw new SAXException(e);
+                }
+            } else
+                buffer.append(buf,start,len);
+        }
     }
 
     @Override
-    public final void ignorableWhitespace( char[] buf, int start, int len ) {
+    public final void ignorableWhitespace( char[] buf, int start, int len ) throws SAXException {
         if (logger.isLoggable(Level.FINEST)) {
             logger.log(Level.FINEST, "SAXConnector.characters{0}", buf);
         }
@@ -209,6 +226,11 @@ public final class SAXConnector implements UnmarshallerHandler {
     }
 
     private void processText( boolean ignorable ) throws SAXException {
+        if (predictor.expectText() && context.expectBinary()) {
+            if (!ignorable || decoder.getDataLen()>0)
+                next.text(context.createBinaryText());
+            decoder.reset();
+        } else
         if (predictor.expectText() && (!ignorable || !WhiteSpaceProcessor.isWhiteSpace(buffer)))
             next.text(buffer);
         buffer.setLength(0);
@@ -40,6 +40,8 @@
 
 package com.sun.xml.bind.v2.runtime.unmarshaller;
 
+import java.io.IOException;
+
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -79,6 +81,13 @@ final class StAXExConnector extends StAXStreamConnector {
                 // not adjacent to other text. So it's OK to fire it off right now.
                 visitor.text(binary);
                 textReported = true;
+            } else
+            if(context.expectBinary()) {
+                try {
+                    decoder.decode(pcdata);
+                } catch (IOException e) {
+                    throw new SAXException(e);
+                }
             } else {
                 buffer.append(pcdata);
             }
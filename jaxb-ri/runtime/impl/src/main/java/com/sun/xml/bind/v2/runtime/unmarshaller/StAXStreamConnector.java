@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.runtime.unmarshaller;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 
 import javax.xml.stream.Location;
@@ -47,6 +48,7 @@ import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
+import com.sun.xml.bind.DatatypeConverterImpl;
 import com.sun.xml.bind.WhiteSpaceProcessor;
 
 import org.xml.sax.Attributes;
@@ -139,6 +141,11 @@ class StAXStreamConnector extends StAXConnector {
      */
     protected final StringBuilder buffer = new StringBuilder();
 
+    /**
+     * Used in place of {@link #buffer} when the text is base64 encoded binary.
+     */
+    protected final DatatypeConverterImpl.Base64Decoder decoder = context.getBase64Decoder();
+
     /**
      * Set to true if the text() event is reported, and therefore
      * the following text() event should be suppressed.
@@ -323,14 +330,34 @@ class StAXStreamConnector extends StAXConnector {
     };
 
     protected void handleCharacters() throws XMLStreamException, SAXException {
-        if( predictor.expectText() )
-            buffer.append(
-                staxStreamReader.getTextCharacters(),
-                staxStreamReader.getTextStart(),
-                staxStreamReader.getTextLength() );
+        if( predictor.expectText() ) {
+            if( context.expectBinary() ) {
+                try {
+                    decoder.decode(
+                        staxStreamReader.getTextCharacters(),
+                        staxStreamReader.getTextStart(),
+                        staxStreamReader.getTextLength() );
+                } catch (IOException e) {
+                    throw new SAXException(e);
+                }
+            } else
+                buffer.append(
+                    staxStreamReader.getTextCharacters(),
+                    staxStreamReader.getTextStart(),
+                    staxStreamReader.getTextLength() );
+        }
     }
 
     private void processText( boolean ignorable ) throws SAXException {
+        if( predictor.expectText() && context.expectBinary() ) {
+            if(textReported) {
+                textReported = false;
+            } else
+            if(!ignorable || decoder.getDataLen()>0) {
+                visitor.text(context.createBinaryText());
+            }
+            decoder.reset();
+        } else
         if( predictor.expectText() && (!ignorable || !WhiteSpaceProcessor.isWhiteSpace(buffer) || context.getCurrentState().isMixed())) {
             if(textReported) {
                 textReported = false;
@@ -40,10 +40,14 @@
 
 package com.sun.xml.bind.v2.runtime.unmarshaller;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 
+import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
 
 import com.sun.xml.bind.Util;
@@ -53,6 +57,7 @@ import com.sun.xml.bind.v2.WellKnownNamespace;
 import com.sun.xml.bind.v2.runtime.ClassBeanInfoImpl;
 import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
 import com.sun.xml.bind.v2.runtime.JaxBeanInfo;
+import com.sun.xml.bind.v2.runtime.Name;
 import com.sun.xml.bind.v2.runtime.property.AttributeProperty;
 import com.sun.xml.bind.v2.runtime.property.Property;
 import com.sun.xml.bind.v2.runtime.property.StructureLoaderBuilder;
@@ -113,6 +118,75 @@ public final class StructureLoader extends Loader {
      */
     private /*final*/ int frameSize;
 
+    /**
+     * The element properties, one slot each.
+     */
+    private /*final*/ Property[] elementSlots;
+
+    /**
+     * Lookup tables of the slots, built by {@link #getSlots()} the first time
+     * {@link UnmarshallingContext#isValidating()} or {@link UnmarshallingContext#isUpdating()}
+     * needs them, so that the other unmarshallers don't pay for them.
+     */
+    private volatile Slots slots;
+
+    private static final class Slots {
+        /**
+         * Slots of the element properties, keyed by the child element names.
+         * All the names of one property share one slot.
+         */
+        final QNameMap<Integer> childSlots = new QNameMap<Integer>();
+
+        /**
+         * Whether the element properties of each slot are required, or
+         * can occur more than once, and their names for the error messages.
+         */
+        final boolean[] required, repeatable;
+        final String[] names;
+
+        Slots(Property[] props, Collection<QName> childNames) {
+            required = new boolean[props.length];
+            repeatable = new boolean[props.length];
+            StringBuilder[] n = new StringBuilder[props.length];
+            for( int i=0; i<props.length; i++ ) {
+                required[i] = props[i].isRequired();
+                repeatable[i] = props[i].isRepeated();
+                n[i] = new StringBuilder();
+            }
+            for( QName name : childNames ) {
+                // when a name is used twice, the property of the base class wins, just like in childUnmarshallers
+                for( int i=props.length-1; i>=0; i-- ) {
+                    if(props[i].getElementPropertyAccessor(name.getNamespaceURI(),name.getLocalPart())!=null) {
+                        childSlots.put(name,i);
+                        if(n[i].length()!=0)   n[i].append(',');
+                        n[i].append("<{").append(name.getNamespaceURI()).append('}').append(name.getLocalPart()).append('>');
+                        break;
+                    }
+                }
+            }
+            names = new String[props.length];
+            for( int i=0; i<props.length; i++ )
+                names[i] = n[i].toString();
+        }
+    }
+
+    /**
+     * Attributes that have to be present, or null if none.
+     */
+    private /*final*/ Name[] requiredAttributes;
+
+    /**
+     * For each slot, the {@link Accessor} of the beans that the in-place update mode
+     * reuses, or null. Null if no slot has reusable beans.
+     */
+    private /*final*/ Accessor[] reusableSlots;
+
+    /**
+     * Whether the reusable slots are collections, and whether
+     * the items of those collections are inside a wrapper element.
+     */
+    private /*final*/ boolean[] listSlots, wrappedSlots;
+
     // this class is potentially useful for general audience, not just for ClassBeanInfoImpl,
     // but since right now that is the only user, we make the construction code very specific
     // to ClassBeanInfoImpl. See rev.1.5 of this file for the original general purpose definition.
@@ -130,6 +204,8 @@ public final class StructureLoader extends Loader {
      */
     public void init( JAXBContextImpl context, ClassBeanInfoImpl beanInfo, Accessor<?,Map<QName,String>> attWildcard) {
         UnmarshallerChain chain = new UnmarshallerChain(context);
+        List<Name> requiredAtts = new ArrayList<Name>();
+        List<Property> slots = new ArrayList<Property>();
         for (ClassBeanInfoImpl bi = beanInfo; bi != null; bi = bi.superClazz) {
             for (int i = bi.properties.length - 1; i >= 0; i--) {
                 Property p = bi.properties[i];
@@ -140,8 +216,13 @@ public final class StructureLoader extends Loader {
                         attUnmarshallers = new QNameMap<TransducedAccessor>();
                     AttributeProperty ap = (AttributeProperty) p;
                     attUnmarshallers.put(ap.attName.toQName(),ap.xacc);
+                    if(ap.isRequired())
+                        requiredAtts.add(ap.attName);
                     break;
                 case ELEMENT:
+                    slots.add(p);
+                    p.buildChildElementUnmarshallers(chain,childUnmarshallers);
+                    break;
                 case REFERENCE:
                 case MAP:
                 case VALUE:
@@ -153,6 +234,24 @@ public final class StructureLoader extends Loader {
 
         this.frameSize = chain.getScopeSize();
 
+        elementSlots = slots.toArray(new Property[slots.size()]);
+        for( int i=0; i<elementSlots.length; i++ ) {
+            Accessor acc = elementSlots[i].getReusableAccessor();
+            if(acc!=null) {
+                if(reusableSlots==null) {
+                    reusableSlots = new Accessor[elementSlots.length];
+                    listSlots = new boolean[elementSlots.length];
+                    wrappedSlots = new boolean[elementSlots.length];
+                }
+                Class t = acc.getValueType();
+                reusableSlots[i] = acc;
+                listSlots[i] = t.isArray() || Collection.class.isAssignableFrom(t);
+                wrappedSlots[i] = listSlots[i] && !elementSlots[i].isRepeated();
+            }
+        }
+        if(!requiredAtts.isEmpty())
+            requiredAttributes = requiredAtts.toArray(new Name[requiredAtts.size()]);
+
         textHandler = childUnmarshallers.get(StructureLoaderBuilder.TEXT_HANDLER);
         catchAll = childUnmarshallers.get(StructureLoaderBuilder.CATCH_ALL);
 
@@ -181,6 +280,13 @@ public final class StructureLoader extends Loader {
         if(child != null && beanInfo.jaxbType!=child.getClass()) 
             child = null;   // unexpected type.
 
+        if(context.isUpdating()) {
+            // remember the child objects before reset() throws them away
+            context.startReuse(elementSlots.length);
+            if(child != null && reusableSlots != null)
+                collectReusables(context,child);
+        }
+
         if(child != null) 
             beanInfo.reset(child,context);
 
@@ -196,6 +302,11 @@ public final class StructureLoader extends Loader {
 
         context.startScope(frameSize);
 
+        if(context.isValidating()) {
+            context.startOccurrences(elementSlots.length);
+            validateAttributes(ea.atts);
+        }
+
         if(attUnmarshallers!=null) {
             Attributes atts = ea.atts;
             for (int i = 0; i < atts.getLength(); i ++){
@@ -209,7 +320,7 @@ public final class StructureLoader extends Loader {
                 TransducedAccessor xacc = attUnmarshallers.get(auri, alocal);
                 try {
                     if(xacc!=null) {
-                        xacc.parse(child,avalue);
+                        xacc.parse(child,avalue,context.isValidating());
                     } else if (attCatchAll!=null) {
                         String qname = atts.getQName(i);
                         if(atts.getURI(i).equals(WellKnownNamespace.XML_SCHEMA_INSTANCE))
@@ -271,10 +382,115 @@ public final class StructureLoader extends Loader {
             }                    
         }
 
+        if(state.getContext().isValidating())
+            countOccurrence(state.getContext(),arg);
+        if(state.getContext().isUpdating())
+            offerReusable(state,arg);
+
         state.setLoader(child.loader);
         state.setReceiver(child.receiver);
     }
 
+    /**
+     * Adds the beans that the properties of the given bean point to,
+     * so that the child elements can be unmarshalled into them.
+     */
+    private void collectReusables(UnmarshallingContext context, Object bean) throws SAXException {
+        for( int i=0; i<reusableSlots.length; i++ ) {
+            Accessor acc = reusableSlots[i];
+            if(acc==null)
+                continue;
+            try {
+                Object v = acc.get(bean);
+                if(v==null)
+                    continue;
+                if(!listSlots[i]) {
+                    context.addReusable(i,v);
+                } else if(v instanceof List && v instanceof RandomAccess) {
+                    // avoid creating an iterator
+                    List<?> l = (List<?>)v;
+                    for( int j=0; j<l.size(); j++ )
+                        addReusable(context,i,l.get(j));
+                } else if(v instanceof Collection) {
+                    for( Object o : (Collection<?>)v )
+                        addReusable(context,i,o);
+                } else if(v instanceof Object[]) {
+                    for( Object o : (Object[])v )
+                        addReusable(context,i,o);
+                }
+            } catch (AccessorException e) {
+                handleGenericException(e,true);
+            }
+        }
+    }
+
+    private static void addReusable(UnmarshallingContext context, int slot, Object o) {
+        if(o!=null)
+            context.addReusable(slot,o);
+    }
+
+    /**
+     * Lets the child element reuse the next bean of its property, if any.
+     */
+    private void offerReusable(UnmarshallingContext.State state, TagName arg) {
+        if(reusableSlots==null)
+            return;
+        Integer slot = getSlots().childSlots.get(arg.uri,arg.local);
+        if(slot==null || reusableSlots[slot]==null)
+            return;
+        if(wrappedSlots[slot])
+            state.setReuseSlot(slot);  // the items inside the wrapper will pick them up
+        else
+            state.setPeer(state.getContext().nextReusable(slot));
+    }
+
+    private Slots getSlots() {
+        Slots s = slots;
+        if(s==null)
+            // racing threads compute the same tables, so either one can win
+            slots = s = new Slots(elementSlots,childUnmarshallers.keySet());
+        return s;
+    }
+
+    /**
+     * Checks the attributes against the properties of the bean.
+     */
+    private void validateAttributes(Attributes atts) throws SAXException {
+        if(requiredAttributes!=null) {
+            for( Name n : requiredAttributes ) {
+                if(atts.getIndex(n.nsUri,n.localName)<0)
+                    reportError(Messages.MISSING_ATTRIBUTE.format(n.nsUri,n.localName),false);
+            }
+        }
+
+        if(attCatchAll!=null)
+            return;     // anything goes
+        for( int i=0; i<atts.getLength(); i++ ) {
+            String auri = atts.getURI(i);
+            if(auri.equals(WellKnownNamespace.XML_SCHEMA_INSTANCE) || auri.equals(XMLConstants.XMLNS_ATTRIBUTE_NS_URI))
+                continue;   // xsi:* attributes are processed by us, and xmlns are namespace declarations
+            String alocal = atts.getLocalName(i);
+            if ("".equals(alocal)) {
+                alocal = atts.getQName(i);
+            }
+            if(attUnmarshallers==null || attUnmarshallers.get(auri,alocal)==null)
+                reportError(Messages.UNEXPECTED_ATTRIBUTE.format(auri,alocal),false);
+        }
+    }
+
+    /**
+     * Counts a child element, and reports if the property it belongs to
+     * can't have it more than once.
+     */
+    private void countOccurrence(UnmarshallingContext context, TagName arg) throws SAXException {
+        Slots s = getSlots();
+        Integer slot = s.childSlots.get(arg.uri,arg.local);
+        if(slot==null)
+            return;     // not an element property, so there's nothing to check
+        if(context.addOccurrence(elementSlots.length,slot)>1 && !s.repeatable[slot])
+            reportError(Messages.REPEATED_ELEMENT.format(arg.uri,arg.local),false);
+    }
+
     @Override
     public Collection<QName> getExpectedChildElements() {
         return childUnmarshallers.keySet();
@@ -289,11 +505,24 @@ public final class StructureLoader extends Loader {
     public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
         if(textHandler!=null)
             textHandler.loader.text(state,text);
+        else
+            elementOnlyText(state,text);
     }
 
     @Override
     public void leaveElement(UnmarshallingContext.State state, TagName ea) throws SAXException {
-        state.getContext().endScope(frameSize);
+        UnmarshallingContext context = state.getContext();
+        if(context.isValidating()) {
+            Slots s = getSlots();
+            for( int i=0; i<elementSlots.length; i++ ) {
+                if(s.required[i] && context.getOccurrences(elementSlots.length,i)==0)
+                    reportError(Messages.MISSING_ELEMENT.format(s.names[i]),false);
+            }
+            context.endOccurrences(elementSlots.length);
+        }
+        if(context.isUpdating())
+            context.endReuse();
+        context.endScope(frameSize);
         fireAfterUnmarshal(beanInfo, state.getTarget(), state.getPrev());
     }
 
@@ -60,13 +60,27 @@ public class TextLoader extends Loader {
     private final Transducer xducer;
 
     public TextLoader(Transducer xducer) {
+        this(xducer,false,false);
+    }
+
+    /**
+     * @param expectBinary
+     *      true if the text is base64 encoded binary that {@code xducer} can
+     *      parse from {@link Base64Data}. See {@link Loader#expectBinary}.
+     * @param binaryStream
+     *      true if {@code xducer} only reads that binary as a stream.
+     *      See {@link Loader#binaryStream}.
+     */
+    public TextLoader(Transducer xducer, boolean expectBinary, boolean binaryStream) {
         super(true);
         this.xducer = xducer;
+        this.expectBinary = expectBinary;
+        this.binaryStream = binaryStream;
     }
 
     public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
         try {
-            state.setTarget(xducer.parse(text));
+            state.setTarget(xducer.parse(text,state.getContext().isValidating()));
         } catch (AccessorException e) {
             handleGenericException(e,true);
         } catch (RuntimeException e) {
@@ -0,0 +1,1165 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.ValidationEventLocator;
+import javax.xml.bind.helpers.ValidationEventLocatorImpl;
+
+import com.sun.xml.bind.DatatypeConverterImpl;
+import com.sun.xml.bind.WhiteSpaceProcessor;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Parses UTF-8 encoded XML straight from bytes and
+ * feeds events to {@link XmlVisitor}.
+ *
+ * <p>
+ * This is a much simpler parser than a SAX or StAX one. Element and attribute
+ * names are mapped to interned strings by {@link UTF8SymbolTable}, so known names
+ * don't create any {@link String}. Attribute values are only decoded when asked for,
+ * and text is decoded into a reused buffer that is reported as a {@link CharSequence}.
+ *
+ * <p>
+ * It is only meant for trusted input. DTDs are rejected (and so are entities
+ * other than the predefined ones), only UTF-8 and US-ASCII are accepted,
+ * and well-formedness is checked only as far as the unmarshaller needs it.
+ * Parsing stops at the end of the root element.
+ *
+ * <p>
+ * An instance is kept by {@link UnmarshallerImpl} and reused for
+ * every document, along with its buffers.
+ *
+ * @see UnmarshallerImpl#UTF8_SCANNER
+ */
+final class UTF8Connector implements LocatorEx {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final byte[] XML_DECL = toBytes("<?xml");
+    private static final byte[] ENCODING = toBytes("encoding");
+    private static final byte[] COMMENT = toBytes("<!--");
+    private static final byte[] CDATA = toBytes("<![CDATA[");
+    private static final byte[] DOCTYPE = toBytes("<!DOCTYPE");
+
+    private final UTF8SymbolTable symbols;
+
+    // event sink, set for each document
+    private XmlVisitor visitor;
+    private UnmarshallingContext context;
+    private XmlVisitor.TextPredictor predictor;
+
+    private InputStream in;
+    private String systemId;
+    private String publicId;
+
+    /**
+     * Input buffer. Grows when a single tag doesn't fit.
+     */
+    private byte[] buf = new byte[8192];
+    /**
+     * Next byte to be read.
+     */
+    private int pos;
+    /**
+     * End of the valid data in {@link #buf}.
+     */
+    private int limit;
+    /**
+     * Bytes from this index onward are kept when the buffer is refilled.
+     */
+    private int mark;
+    /**
+     * Offset of {@code buf[0]} in the document.
+     */
+    private long base;
+
+    private int line;
+    /**
+     * Offset of the first byte of the current line in the document.
+     */
+    private long lineStart;
+
+    /**
+     * Text collected for the next {@link XmlVisitor#text(CharSequence)} event.
+     */
+    private char[] text = new char[256];
+    private int textLength;
+
+    /**
+     * Takes over what has been collected in {@link #text}
+     * when the text is base64 encoded binary, so that it doesn't grow.
+     */
+    private DatatypeConverterImpl.Base64Decoder decoder;
+
+    /**
+     * Attributes of the current start tag, excluding namespace declarations.
+     * Values are decoded from {@code buf[attValueStart,attValueEnd)} on demand,
+     * except for those that need more than plain UTF-8 decoding.
+     */
+    private int attCount;
+    private String[] attPrefix = new String[8];
+    private String[] attLocal = new String[8];
+    private String[] attUri = new String[8];
+    private String[] attValue = new String[8];
+    private int[] attValueStart = new int[8];
+    private int[] attValueEnd = new int[8];
+    /**
+     * True if the value needs more than plain UTF-8 decoding,
+     * because of references or whitespace normalization.
+     */
+    private boolean[] attComplex = new boolean[8];
+
+    /**
+     * In-scope namespace bindings.
+     */
+    private String[] nsPrefix = new String[16];
+    private String[] nsUri = new String[16];
+    private int nsCount;
+
+    /**
+     * Open elements, and for each, where its namespace bindings start.
+     */
+    private int depth;
+    private String[] elementPrefix = new String[16];
+    private String[] elementLocal = new String[16];
+    private String[] elementUri = new String[16];
+    private int[] elementNsStart = new int[16];
+
+    /**
+     * Set by {@link #scanName(int, int)} to the position of the colon in the name, or -1.
+     */
+    private int colon;
+
+    private final TagName tagName = new TagName() {
+        public String getQname() {
+            return getQName(elementPrefix[depth-1],elementLocal[depth-1]);
+        }
+    };
+
+    private final CharSequence textSequence = new CharSequence() {
+        public int length() {
+            return textLength;
+        }
+
+        public char charAt(int index) {
+            return text[index];
+        }
+
+        public CharSequence subSequence(int start, int end) {
+            return new String(text,start,end-start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(text,0,textLength);
+        }
+    };
+
+    UTF8Connector(UTF8SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Checks if the encoding set on an {@link InputSource} can be handled by this class.
+     */
+    static boolean isSupported(String encoding) {
+        return encoding==null
+            || encoding.equalsIgnoreCase("UTF-8")
+            || encoding.equalsIgnoreCase("UTF8")
+            || encoding.equalsIgnoreCase("US-ASCII")
+            || encoding.equalsIgnoreCase("ASCII");
+    }
+
+    /**
+     * Parses the byte stream of the given {@link InputSource}.
+     */
+    public void parse(XmlVisitor visitor, InputSource source) throws SAXException, IOException {
+        this.visitor = visitor;
+        context = visitor.getContext();
+        predictor = visitor.getPredictor();
+        in = source.getByteStream();
+        systemId = source.getSystemId();
+        publicId = source.getPublicId();
+
+        pos = limit = mark = 0;
+        base = 0;
+        line = 1;
+        lineStart = 0;
+        textLength = 0;
+        decoder = context.getBase64Decoder();
+        nsCount = 0;
+        depth = 0;
+
+        try {
+            visitor.startDocument(this,null);
+            parseProlog();
+            parseStartTag();
+            while(depth>0) {
+                scanText();
+                if(buf[pos+1]=='/')
+                    parseEndTag();
+                else
+                    parseStartTag();
+            }
+            visitor.endDocument();
+        } finally {
+            this.visitor = null;
+            context = null;
+            predictor = null;
+            decoder = null;
+            in = null;
+        }
+    }
+
+//
+//
+// buffer management
+//
+//
+
+    /**
+     * Reads more bytes into the buffer, discarding those before {@link #mark}.
+     *
+     * @return false at the end of the stream.
+     */
+    private boolean fill() throws IOException {
+        if(mark>0) {
+            System.arraycopy(buf,mark,buf,0,limit-mark);
+            pos -= mark;
+            limit -= mark;
+            base += mark;
+            mark = 0;
+        }
+        if(limit==buf.length)
+            buf = Arrays.copyOf(buf,buf.length*2);
+
+        int n;
+        do {
+            n = in.read(buf,limit,buf.length-limit);
+        } while(n==0);
+        if(n<0)
+            return false;
+        limit += n;
+        return true;
+    }
+
+    /**
+     * Makes sure that at least {@code n} bytes are available from {@link #pos}.
+     *
+     * @return false if the stream ends first.
+     */
+    private boolean request(int n) throws IOException {
+        while(limit-pos<n)
+            if(!fill())
+                return false;
+        return true;
+    }
+
+    private boolean startsWith(byte[] s) throws IOException {
+        if(!request(s.length))
+            return false;
+        for( int i=0; i<s.length; i++ )
+            if(buf[pos+i]!=s[i])
+                return false;
+        return true;
+    }
+
+    private void newline(int p) {
+        line++;
+        lineStart = base+p+1;
+    }
+
+//
+//
+// markup
+//
+//
+
+    private void parseProlog() throws SAXException, IOException {
+        // byte order mark
+        if(request(3) && buf[0]==(byte)0xEF && buf[1]==(byte)0xBB && buf[2]==(byte)0xBF)
+            pos = mark = 3;
+
+        if(startsWith(XML_DECL) && request(6) && isWhitespace(buf[pos+5]))
+            parseXmlDecl();
+
+        while(true) {
+            mark = pos;
+            if(pos==limit && !fill())
+                throw eof();
+            byte b = buf[pos];
+            if(isWhitespace(b)) {
+                if(b=='\n')
+                    newline(pos);
+                pos++;
+            } else
+            if(b!='<' || !request(2))
+                throw malformed();
+            else
+            if(startsWith(COMMENT))
+                skipComment();
+            else
+            if(buf[pos+1]=='?')
+                skipPI();
+            else
+            if(startsWith(DOCTYPE))
+                throw error(Messages.DOCTYPE_NOT_ALLOWED.format());
+            else
+                return;     // the root element
+        }
+    }
+
+    private void parseXmlDecl() throws SAXException, IOException {
+        mark = pos;
+        int end = findEnd();
+        if(buf[end-1]!='?')
+            throw malformed();
+
+        // the only thing we care about is the encoding
+        for( int p=pos; p<end-ENCODING.length; p++ ) {
+            int i=0;
+            while(i<ENCODING.length && buf[p+i]==ENCODING[i])
+                i++;
+            if(i<ENCODING.length)
+                continue;
+
+            p = skipWhitespace(p+i,end);
+            if(buf[p]!='=')
+                throw malformed();
+            p = skipWhitespace(p+1,end);
+            byte quote = buf[p];
+            int start = ++p;
+            while(p<end && buf[p]!=quote)
+                p++;
+            String encoding = new String(buf,start,p-start,UTF8);
+            if(!isSupported(encoding))
+                throw error(Messages.UNSUPPORTED_ENCODING.format(encoding));
+            break;
+        }
+        pos = end+1;
+    }
+
+    /**
+     * Parses the start tag at {@link #pos} and reports it.
+     */
+    private void parseStartTag() throws SAXException, IOException {
+        mark = pos;
+        final int end = findEnd();
+
+        int p = pos+1;
+        int nameStart = p;
+        p = scanName(p,end);
+        if(p==nameStart)
+            throw malformed();
+        String prefix = colon<0 ? "" : symbols.get(buf,nameStart,colon);
+        String local = symbols.get(buf,colon<0 ? nameStart : colon+1,p);
+
+        boolean empty = false;
+        attCount = 0;
+        while(true) {
+            p = skipWhitespace(p,end);
+            if(p==end)
+                break;
+            if(buf[p]=='/' && p+1==end) {
+                empty = true;
+                break;
+            }
+
+            int an = p;
+            p = scanName(p,end);
+            if(p==an)
+                throw malformed();
+            String ap = colon<0 ? "" : symbols.get(buf,an,colon);
+            String al = symbols.get(buf,colon<0 ? an : colon+1,p);
+
+            p = skipWhitespace(p,end);
+            if(buf[p]!='=')
+                throw malformed();
+            p = skipWhitespace(p+1,end);
+            byte quote = buf[p];
+            if(quote!='"' && quote!='\'')
+                throw malformed();
+
+            int vs = ++p;
+            boolean complex = false;
+            for( byte b; (b=buf[p])!=quote; p++ )
+                if(b=='&' || (b>=0 && b<0x20))
+                    complex = true;
+
+            addAttribute(ap,al,vs,p,complex);
+            p++;
+        }
+
+        processText(true);
+
+        // namespace declarations are reported before the element
+        int nsStart = nsCount;
+        int n = 0;
+        for( int i=0; i<attCount; i++ ) {
+            String ap = attPrefix[i];
+            String al = attLocal[i];
+            if(ap==XMLConstants.XMLNS_ATTRIBUTE)
+                declarePrefix(al,i);
+            else
+            if(ap=="" && al==XMLConstants.XMLNS_ATTRIBUTE)
+                declarePrefix("",i);
+            else {
+                if(n!=i) {
+                    attPrefix[n] = ap;
+                    attLocal[n] = al;
+                    attValueStart[n] = attValueStart[i];
+                    attValueEnd[n] = attValueEnd[i];
+                    attComplex[n] = attComplex[i];
+                }
+                n++;
+            }
+        }
+        attCount = n;
+        for( int i=0; i<n; i++ ) {
+            String au = attPrefix[i]=="" ? "" : resolve(attPrefix[i]);
+            // two prefixes bound to the same URI can still make the same name
+            for( int j=0; j<i; j++ )
+                if(attLocal[j]==attLocal[i] && attUri[j]==au)
+                    throw malformed();
+            attUri[i] = au;
+            // decode the rare complex values now, so that errors are reported properly
+            attValue[i] = attComplex[i] ? decodeValue(attValueStart[i],attValueEnd[i]) : null;
+        }
+
+        if(depth==elementLocal.length) {
+            elementPrefix = Arrays.copyOf(elementPrefix,depth*2);
+            elementLocal = Arrays.copyOf(elementLocal,depth*2);
+            elementUri = Arrays.copyOf(elementUri,depth*2);
+            elementNsStart = Arrays.copyOf(elementNsStart,depth*2);
+        }
+        String uri = resolve(prefix);
+        elementPrefix[depth] = prefix;
+        elementLocal[depth] = local;
+        elementUri[depth] = uri;
+        elementNsStart[depth] = nsStart;
+        depth++;
+
+        tagName.uri = uri;
+        tagName.local = local;
+        tagName.atts = attributes;
+        visitor.startElement(tagName);
+
+        pos = end+1;
+        if(empty)
+            endElement();
+    }
+
+    /**
+     * Parses the end tag at {@link #pos} and reports it.
+     */
+    private void parseEndTag() throws SAXException, IOException {
+        mark = pos;
+        int end = findEnd();
+
+        int nameStart = pos+2;
+        int p = scanName(nameStart,end);
+        String prefix = colon<0 ? "" : symbols.get(buf,nameStart,colon);
+        String local = symbols.get(buf,colon<0 ? nameStart : colon+1,p);
+        if(skipWhitespace(p,end)!=end)
+            throw malformed();
+
+        int d = depth-1;
+        if(elementPrefix[d]!=prefix || elementLocal[d]!=local)
+            throw error(Messages.MISMATCHED_END_TAG.format(
+                getQName(prefix,local), getQName(elementPrefix[d],elementLocal[d])));
+
+        pos = end+1;
+        endElement();
+    }
+
+    private void endElement() throws SAXException {
+        processText(false);
+
+        int d = depth-1;
+        tagName.uri = elementUri[d];
+        tagName.local = elementLocal[d];
+        tagName.atts = null;
+        visitor.endElement(tagName);
+        depth = d;
+
+        int nsStart = elementNsStart[d];
+        for( int i=nsCount-1; i>=nsStart; i-- )
+            visitor.endPrefixMapping(nsPrefix[i]);
+        nsCount = nsStart;
+    }
+
+    private void addAttribute(String prefix, String local, int valueStart, int valueEnd, boolean complex) throws SAXException {
+        // names are interned
+        for( int i=0; i<attCount; i++ )
+            if(attLocal[i]==local && attPrefix[i]==prefix)
+                throw malformed();
+
+        if(attCount==attLocal.length) {
+            int n = attCount*2;
+            attPrefix = Arrays.copyOf(attPrefix,n);
+            attLocal = Arrays.copyOf(attLocal,n);
+            attUri = Arrays.copyOf(attUri,n);
+            attValue = Arrays.copyOf(attValue,n);
+            attValueStart = Arrays.copyOf(attValueStart,n);
+            attValueEnd = Arrays.copyOf(attValueEnd,n);
+            attComplex = Arrays.copyOf(attComplex,n);
+        }
+        attPrefix[attCount] = prefix;
+        attLocal[attCount] = local;
+        attValueStart[attCount] = valueStart;
+        attValueEnd[attCount] = valueEnd;
+        attComplex[attCount] = complex;
+        attCount++;
+    }
+
+    /**
+     * Declares a prefix with the namespace URI in the i-th attribute.
+     */
+    private void declarePrefix(String prefix, int i) throws SAXException {
+        String uri;
+        if(attComplex[i])
+            uri = decodeValue(attValueStart[i],attValueEnd[i]).intern();
+        else
+            uri = symbols.get(buf,attValueStart[i],attValueEnd[i]);
+
+        if(nsCount==nsPrefix.length) {
+            nsPrefix = Arrays.copyOf(nsPrefix,nsCount*2);
+            nsUri = Arrays.copyOf(nsUri,nsCount*2);
+        }
+        nsPrefix[nsCount] = prefix;
+        nsUri[nsCount] = uri;
+        nsCount++;
+        visitor.startPrefixMapping(prefix,uri);
+    }
+
+    private String resolve(String prefix) throws SAXException {
+        for( int i=nsCount-1; i>=0; i-- )
+            if(nsPrefix[i]==prefix)
+                return nsUri[i];
+        if(prefix=="")
+            return "";
+        if(prefix==XMLConstants.XML_NS_PREFIX)
+            return XMLConstants.XML_NS_URI;
+        throw error(Messages.UNBOUND_PREFIX.format(prefix));
+    }
+
+    /**
+     * Finds the {@code '>'} that ends the markup at {@link #pos},
+     * skipping over quoted attribute values, which must not have {@code '<'}.
+     *
+     * <p>
+     * The whole markup is in the buffer when this method returns,
+     * and stays there until {@link #pos} moves past it.
+     */
+    private int findEnd() throws SAXException, IOException {
+        int p = pos+1;
+        byte quote = 0;
+        while(true) {
+            if(p==limit) {
+                int offset = p-pos;
+                if(!fill())
+                    throw eof();
+                p = pos+offset;
+            }
+            byte b = buf[p];
+            if(quote!=0) {
+                if(b==quote)
+                    quote = 0;
+                else
+                if(b=='<')
+                    throw malformed();
+            } else
+            if(b=='>')
+                return p;
+            else
+            if(b=='"' || b=='\'')
+                quote = b;
+            if(b=='\n')
+                newline(p);
+            p++;
+        }
+    }
+
+    /**
+     * Scans a name in the markup that ends at {@code end}.
+     * Sets {@link #colon}.
+     *
+     * @return the index after the name.
+     */
+    private int scanName(int p, int end) {
+        colon = -1;
+        for( ; p<end; p++ ) {
+            byte b = buf[p];
+            if(b==':') {
+                if(colon<0)
+                    colon = p;
+            } else
+            if(isWhitespace(b) || b=='/' || b=='=' || b=='>' || b=='"' || b=='\'')
+                break;
+        }
+        return p;
+    }
+
+    private int skipWhitespace(int p, int end) {
+        while(p<end && isWhitespace(buf[p]))
+            p++;
+        return p;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b==' ' || b=='\n' || b=='\t' || b=='\r';
+    }
+
+    private void skipComment() throws SAXException, IOException {
+        pos += COMMENT.length;
+        int dashes = 0;
+        while(true) {
+            mark = pos;
+            if(pos==limit && !fill())
+                throw eof();
+            byte b = buf[pos++];
+            if(b=='-')
+                dashes++;
+            else {
+                if(b=='>' && dashes>=2)
+                    return;
+                if(b=='\n')
+                    newline(pos-1);
+                dashes = 0;
+            }
+        }
+    }
+
+    private void skipPI() throws SAXException, IOException {
+        pos += 2;
+        boolean question = false;
+        while(true) {
+            mark = pos;
+            if(pos==limit && !fill())
+                throw eof();
+            byte b = buf[pos++];
+            if(b=='>' && question)
+                return;
+            if(b=='\n')
+                newline(pos-1);
+            question = b=='?';
+        }
+    }
+
+//
+//
+// text
+//
+//
+
+    /**
+     * Reads text up to the next start or end tag, skipping comments and PIs.
+     * Returns with {@link #pos} at the {@code '<'} of the tag, with the
+     * following byte in the buffer.
+     */
+    private void scanText() throws SAXException, IOException {
+        boolean collect = predictor.expectText();
+        while(true) {
+            mark = pos;
+            if(pos==limit && !fill())
+                throw eof();
+
+            if(buf[pos]=='<') {
+                if(!request(2))
+                    throw eof();
+                byte b = buf[pos+1];
+                if(b=='!') {
+                    if(startsWith(COMMENT))
+                        skipComment();
+                    else
+                    if(startsWith(CDATA))
+                        scanCData(collect);
+                    else
+                        throw malformed();
+                } else
+                if(b=='?')
+                    skipPI();
+                else
+                    return;
+            } else
+            if(collect) {
+                scanCharacters();
+            } else {
+                // nobody wants it, so just look for the next tag
+                int p = pos;
+                for( byte b; p<limit && (b=buf[p])!='<'; p++ )
+                    if(b=='\n')
+                        newline(p);
+                pos = p;
+            }
+        }
+    }
+
+    /**
+     * Decodes characters into {@link #text} until the next {@code '<'}
+     * or the end of the buffer.
+     */
+    private void scanCharacters() throws SAXException, IOException {
+        while(pos<limit) {
+            // every byte makes at most one char, except that
+            // a reference or a sequence after a refill can make two.
+            if(text.length-textLength < limit-pos+2) {
+                if(textLength>0 && context.expectBinary()) {
+                    decoder.decode(this.text,0,textLength);
+                    textLength = 0;
+                }
+                if(text.length-textLength < limit-pos+2)
+                    growText(limit-pos+2);
+            }
+
+            // fast path for plain ASCII
+            final byte[] buf = this.buf;
+            final char[] text = this.text;
+            int p = pos;
+            int n = textLength;
+            for( int b; p<limit && (b=buf[p])>=0x20 && b!='<' && b!='&'; p++ )
+                text[n++] = (char)b;
+            pos = p;
+            textLength = n;
+            if(p==limit)
+                return;
+
+            byte b = buf[p];
+            mark = p;
+            if(b=='<')
+                return;
+            else
+            if(b=='&')
+                appendReference();
+            else
+            if(b=='\n' || b=='\t') {
+                if(b=='\n')
+                    newline(p);
+                text[textLength++] = (char)b;
+                pos++;
+            } else
+            if(b=='\r')
+                appendCarriageReturn();
+            else
+            if(b<0)
+                appendMultiByte();
+            else
+                throw malformed();
+        }
+    }
+
+    private void scanCData(boolean collect) throws SAXException, IOException {
+        pos += CDATA.length;
+        int brackets = 0;
+        while(true) {
+            mark = pos;
+            if(pos==limit && !fill())
+                throw eof();
+            if(text.length-textLength < 2)
+                growText(2);
+
+            byte b = buf[pos];
+            if(b=='>' && brackets>=2) {
+                pos++;
+                if(collect)
+                    textLength -= 2;    // the "]]" we appended
+                return;
+            }
+            brackets = b==']' ? brackets+1 : 0;
+
+            if(b=='\n')
+                newline(pos);
+            if(!collect)
+                pos++;
+            else
+            if(b=='\r')
+                appendCarriageReturn();
+            else
+            if(b<0)
+                appendMultiByte();
+            else {
+                text[textLength++] = (char)b;
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * Normalizes CR and CRLF to LF.
+     */
+    private void appendCarriageReturn() throws IOException {
+        pos++;
+        if(request(1) && buf[pos]=='\n') {
+            newline(pos);
+            pos++;
+        }
+        text[textLength++] = '\n';
+    }
+
+    private void appendMultiByte() throws SAXException, IOException {
+        int n = sequenceLength(buf[pos]);
+        if(!request(n))
+            throw eof();
+        appendCodePoint(decode(pos,n));
+        pos += n;
+    }
+
+    private void appendReference() throws SAXException, IOException {
+        int p = pos+1;
+        while(true) {
+            if(p==limit) {
+                int offset = p-pos;
+                if(!fill())
+                    throw eof();
+                p = pos+offset;
+            }
+            if(buf[p]==';')
+                break;
+            if(p-pos>12)
+                throw malformed();
+            p++;
+        }
+        appendCodePoint(decodeReference(pos+1,p));
+        pos = p+1;
+    }
+
+    private void appendCodePoint(int c) {
+        if(c<Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            text[textLength++] = (char)c;
+        } else {
+            text[textLength++] = Character.highSurrogate(c);
+            text[textLength++] = Character.lowSurrogate(c);
+        }
+    }
+
+    private void growText(int n) {
+        text = Arrays.copyOf(text,Math.max(text.length*2,textLength+n));
+    }
+
+    /**
+     * Reports the collected text, if the unmarshaller wants it.
+     *
+     * @param ignorable
+     *      true if whitespace-only text can be dropped, unless the element is mixed.
+     */
+    private void processText(boolean ignorable) throws SAXException {
+        if(predictor.expectText() && context.expectBinary()) {
+            try {
+                decoder.decode(text,0,textLength);
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+            if(!ignorable || decoder.getDataLen()>0)
+                visitor.text(context.createBinaryText());
+            decoder.reset();
+        } else
+        if(predictor.expectText()
+        && (!ignorable || !WhiteSpaceProcessor.isWhiteSpace(textSequence) || context.getCurrentState().isMixed()))
+            visitor.text(textSequence);
+        textLength = 0;
+    }
+
+//
+//
+// decoding
+//
+//
+
+    private int sequenceLength(byte lead) throws SAXException {
+        int b = lead&0xFF;
+        if(b>=0xF8 || b<0xC0)
+            throw error(Messages.MALFORMED_UTF8.format());
+        if(b>=0xF0)     return 4;
+        if(b>=0xE0)     return 3;
+        return 2;
+    }
+
+    /**
+     * Decodes the n-byte UTF-8 sequence at {@code buf[p]}.
+     */
+    private int decode(int p, int n) throws SAXException {
+        int c = buf[p] & (0x7F>>n);
+        for( int i=1; i<n; i++ ) {
+            int b = buf[p+i];
+            if((b&0xC0)!=0x80)
+                throw error(Messages.MALFORMED_UTF8.format());
+            c = (c<<6) | (b&0x3F);
+        }
+        return c;
+    }
+
+    /**
+     * Decodes the character reference or predefined entity
+     * whose name is {@code buf[start,end)}.
+     */
+    private int decodeReference(int start, int end) throws SAXException {
+        int len = end-start;
+        if(len>1 && buf[start]=='#') {
+            int c = 0;
+            if(buf[start+1]=='x') {
+                if(len==2)
+                    throw malformed();
+                for( int p=start+2; p<end; p++ ) {
+                    int d = Character.digit(buf[p],16);
+                    if(d<0 || c>Character.MAX_CODE_POINT)
+                        throw malformed();
+                    c = c*16+d;
+                }
+            } else {
+                for( int p=start+1; p<end; p++ ) {
+                    int d = Character.digit(buf[p],10);
+                    if(d<0 || c>Character.MAX_CODE_POINT)
+                        throw malformed();
+                    c = c*10+d;
+                }
+            }
+            if(!isXmlChar(c))
+                throw malformed();
+            return c;
+        }
+
+        switch(len) {
+        case 2:
+            if(buf[start+1]=='t') {
+                if(buf[start]=='l')     return '<';
+                if(buf[start]=='g')     return '>';
+            }
+            break;
+        case 3:
+            if(buf[start]=='a' && buf[start+1]=='m' && buf[start+2]=='p')
+                return '&';
+            break;
+        case 4:
+            if(buf[start]=='a' && buf[start+1]=='p' && buf[start+2]=='o' && buf[start+3]=='s')
+                return '\'';
+            if(buf[start]=='q' && buf[start+1]=='u' && buf[start+2]=='o' && buf[start+3]=='t')
+                return '"';
+            break;
+        }
+        throw error(Messages.UNDECLARED_ENTITY.format(new String(buf,start,len,UTF8)));
+    }
+
+    /**
+     * Checks the production [2] Char of XML 1.0.
+     */
+    private static boolean isXmlChar(int c) {
+        if(c<0x20)
+            return c=='\t' || c=='\n' || c=='\r';
+        if(c<0xD800)
+            return true;
+        if(c<0xE000)
+            return false;   // surrogates
+        if(c<0x10000)
+            return c<0xFFFE;
+        return c<=Character.MAX_CODE_POINT;
+    }
+
+    /**
+     * Decodes an attribute value that has references or whitespace to normalize.
+     */
+    private String decodeValue(int start, int end) throws SAXException {
+        StringBuilder sb = new StringBuilder(end-start);
+        for( int p=start; p<end; ) {
+            byte b = buf[p];
+            if(b=='&') {
+                int semicolon = p+1;
+                while(semicolon<end && buf[semicolon]!=';')
+                    semicolon++;
+                if(semicolon==end)
+                    throw malformed();
+                sb.appendCodePoint(decodeReference(p+1,semicolon));
+                p = semicolon+1;
+            } else
+            if(b=='\r') {
+                // CRLF is a single space
+                sb.append(' ');
+                p++;
+                if(p<end && buf[p]=='\n')
+                    p++;
+            } else
+            if(b=='\n' || b=='\t') {
+                sb.append(' ');
+                p++;
+            } else
+            if(b<0) {
+                int n = sequenceLength(b);
+                if(p+n>end)
+                    throw error(Messages.MALFORMED_UTF8.format());
+                sb.appendCodePoint(decode(p,n));
+                p += n;
+            } else {
+                sb.append((char)b);
+                p++;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String getQName(String prefix, String local) {
+        if(prefix.length()==0)
+            return local;
+        else
+            return prefix+':'+local;
+    }
+
+    private static byte[] toBytes(String s) {
+        return s.getBytes(UTF8);
+    }
+
+//
+//
+// errors and location
+//
+//
+
+    private SAXException error(String message) throws SAXException {
+        SAXParseException e = new SAXParseException(message,this);
+        context.fatalError(e);
+        return e;
+    }
+
+    private SAXException eof() throws SAXException {
+        return error(Messages.UNEXPECTED_EOF.format());
+    }
+
+    private SAXException malformed() throws SAXException {
+        return error(Messages.MALFORMED_MARKUP.format());
+    }
+
+    public ValidationEventLocator getLocation() {
+        return new ValidationEventLocatorImpl(this);
+    }
+
+    public int getLineNumber() {
+        return line;
+    }
+
+    public int getColumnNumber() {
+        return (int)(base+pos-lineStart)+1;
+    }
+
+    public String getSystemId() {
+        return systemId;
+    }
+
+    public String getPublicId() {
+        return publicId;
+    }
+
+    /**
+     * Attributes of the current start tag.
+     */
+    private final Attributes attributes = new Attributes() {
+        public int getLength() {
+            return attCount;
+        }
+
+        public String getURI(int index) {
+            return attUri[index];
+        }
+
+        public String getLocalName(int index) {
+            return attLocal[index];
+        }
+
+        public String getQName(int index) {
+            return UTF8Connector.getQName(attPrefix[index],attLocal[index]);
+        }
+
+        public String getType(int index) {
+            return "CDATA";
+        }
+
+        public String getValue(int index) {
+            String v = attValue[index];
+            if(v==null) {
+                int start = attValueStart[index];
+                v = new String(buf,start,attValueEnd[index]-start,UTF8);
+                attValue[index] = v;
+            }
+            return v;
+        }
+
+        public int getIndex(String uri, String localName) {
+            for( int i=attCount-1; i>=0; i-- )
+                if( localName.equals(attLocal[i]) && uri.equals(attUri[i]))
+                    return i;
+            return -1;
+        }
+
+        public int getIndex(String qName) {
+            for( int i=attCount-1; i>=0; i-- )
+                if(qName.equals(getQName(i)))
+                    return i;
+            return -1;
+        }
+
+        public String getType(String uri, String localName) {
+            return getIndex(uri,localName)<0 ? null : "CDATA";
+        }
+
+        public String getType(String qName) {
+            return getIndex(qName)<0 ? null : "CDATA";
+        }
+
+        public String getValue(String uri, String localName) {
+            int index = getIndex(uri,localName);
+            if(index<0)     return null;
+            return getValue(index);
+        }
+
+        public String getValue(String qName) {
+            int index = getIndex(qName);
+            if(index<0)     return null;
+            return getValue(index);
+        }
+    };
+}
@@ -0,0 +1,160 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import javax.xml.XMLConstants;
+
+import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
+import com.sun.xml.bind.v2.runtime.NameList;
+
+/**
+ * Maps UTF-8 encoded names to interned {@link String}s.
+ *
+ * <p>
+ * Used by {@link UTF8Connector} to turn the names in the input into the
+ * interned strings the loaders expect, without decoding them every time.
+ * The table is pre-filled with the names known to the {@link JAXBContextImpl}.
+ * Other names are decoded, interned and added on first use, up to a limit,
+ * so that documents with many distinct names don't grow the table forever.
+ *
+ * <p>
+ * Not thread-safe. Each {@link UnmarshallerImpl} has its own table.
+ */
+final class UTF8SymbolTable {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Maximum number of entries.
+     */
+    private static final int MAX_SIZE = 1<<14;
+
+    private byte[][] keys = new byte[64][];
+    private int[] hashes = new int[64];
+    private String[] values = new String[64];
+    private int size;
+
+    UTF8SymbolTable(NameList names) {
+        add(XMLConstants.XML_NS_PREFIX);
+        add(XMLConstants.XMLNS_ATTRIBUTE);
+        add(XMLConstants.XML_NS_URI);
+        add(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI);
+        add("type");
+        add("nil");
+        for (String uri : names.namespaceURIs)
+            add(uri);
+        for (String local : names.localNames)
+            add(local);
+    }
+
+    private void add(String s) {
+        byte[] b = s.getBytes(UTF8);
+        get(b, 0, b.length);
+    }
+
+    /**
+     * Gets the interned string for the UTF-8 bytes {@code buf[start,end)}.
+     */
+    String get(byte[] buf, int start, int end) {
+        int h = 0;
+        for( int i=start; i<end; i++ )
+            h = 31*h+buf[i];
+        h ^= h>>>16;
+
+        int mask = keys.length-1;
+        int len = end-start;
+        for( int i=h&mask; ; i=(i+1)&mask ) {
+            byte[] k = keys[i];
+            if(k==null)
+                break;
+            if(hashes[i]==h && k.length==len && equals(k,buf,start))
+                return values[i];
+        }
+
+        String s = new String(buf,start,len,UTF8).intern();
+        if(size<MAX_SIZE)
+            put(Arrays.copyOfRange(buf,start,end),h,s);
+        return s;
+    }
+
+    private static boolean equals(byte[] k, byte[] buf, int start) {
+        for( int i=0; i<k.length; i++ )
+            if(k[i]!=buf[start+i])
+                return false;
+        return true;
+    }
+
+    private void put(byte[] key, int h, String value) {
+        if(++size*2>keys.length)
+            rehash();
+        int mask = keys.length-1;
+        int i = h&mask;
+        while(keys[i]!=null)
+            i = (i+1)&mask;
+        keys[i] = key;
+        hashes[i] = h;
+        values[i] = value;
+    }
+
+    private void rehash() {
+        byte[][] oldKeys = keys;
+        int[] oldHashes = hashes;
+        String[] oldValues = values;
+
+        int n = oldKeys.length*2;
+        keys = new byte[n][];
+        hashes = new int[n];
+        values = new String[n];
+
+        int mask = n-1;
+        for( int j=0; j<oldKeys.length; j++ ) {
+            if(oldKeys[j]==null)    continue;
+            int i = oldHashes[j]&mask;
+            while(keys[i]!=null)
+                i = (i+1)&mask;
+            keys[i] = oldKeys[j];
+            hashes[i] = oldHashes[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
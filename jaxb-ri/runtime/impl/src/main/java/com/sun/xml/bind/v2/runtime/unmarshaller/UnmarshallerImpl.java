@@ -42,7 +42,9 @@ package com.sun.xml.bind.v2.runtime.unmarshaller;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
 
+import javax.xml.bind.DataBindingException;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
@@ -55,6 +57,7 @@ import javax.xml.bind.ValidationEventHandler;
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 import javax.xml.bind.attachment.AttachmentUnmarshaller;
 import javax.xml.bind.helpers.AbstractUnmarshallerImpl;
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
@@ -68,6 +71,7 @@ import javax.xml.validation.Schema;
 
 import com.sun.xml.bind.IDResolver;
 import com.sun.xml.bind.api.ClassResolver;
+import com.sun.xml.bind.api.InstanceAllocator;
 import com.sun.xml.bind.unmarshaller.DOMScanner;
 import com.sun.xml.bind.unmarshaller.InfosetScanner;
 import com.sun.xml.bind.unmarshaller.Messages;
@@ -119,6 +123,31 @@ import org.xml.sax.helpers.DefaultHandler;
     private AttachmentUnmarshaller attachmentUnmarshaller;
     private IDResolver idResolver = new DefaultIDResolver();
 
+    /**
+     * @see #UTF8_SCANNER
+     */
+    private boolean useUTF8Scanner;
+
+    /**
+     * @see #STRUCTURAL_VALIDATION
+     */
+    private boolean structuralValidation;
+
+    /**
+     * @see #ID_TABLE_SIZE
+     */
+    private Integer idTableSize;
+
+    /**
+     * @see #BINARY_FILE_THRESHOLD
+     */
+    private Number binaryFileThreshold;
+
+    /**
+     * Created on first use, and reused afterward.
+     */
+    private UTF8Connector utf8Connector;
+
     public UnmarshallerImpl( JAXBContextImpl context, AssociationMap assoc ) {
         this.context = context;
         this.coordinator = new UnmarshallingContext( this, assoc );
@@ -189,7 +218,7 @@ import org.xml.sax.helpers.DefaultHandler;
      */
     public final XmlVisitor createUnmarshallerHandler(InfosetScanner scanner, boolean inplace, JaxBeanInfo expectedType ) {
 
-        coordinator.reset(scanner,inplace,expectedType,idResolver);
+        coordinator.reset(scanner,inplace,expectedType,idResolver,structuralValidation);
         XmlVisitor unmarshaller = coordinator;
 
         // delegate to JAXP 1.3 for validation if the client provided a schema
@@ -238,6 +267,11 @@ import org.xml.sax.helpers.DefaultHandler;
 
     private Object unmarshal0( XMLReader reader, InputSource source, JaxBeanInfo expectedType ) throws JAXBException {
 
+        if(useUTF8Scanner && reader==this.reader && source.getCharacterStream()==null
+        && source.getByteStream()!=null && UTF8Connector.isSupported(source.getEncoding())) {
+            return unmarshalUTF8(source,expectedType);
+        }
+
         SAXConnector connector = getUnmarshallerHandler(needsInterning(reader),expectedType);
 
         reader.setContentHandler(connector);
@@ -275,6 +309,28 @@ import org.xml.sax.helpers.DefaultHandler;
         return result;
     }
 
+    /**
+     * Parses the byte stream with {@link UTF8Connector} instead of the SAX parser.
+     */
+    private Object unmarshalUTF8( InputSource source, JaxBeanInfo expectedType ) throws JAXBException {
+        if(utf8Connector==null) {
+            utf8Connector = new UTF8Connector(new UTF8SymbolTable(context.nameList));
+        }
+
+        XmlVisitor h = createUnmarshallerHandler(null,false,expectedType);
+        try {
+            utf8Connector.parse(h,source);
+        } catch( IOException e ) {
+            coordinator.clearStates();
+            throw new UnmarshalException(e);
+        } catch( SAXException e ) {
+            coordinator.clearStates();
+            throw createUnmarshalException(e);
+        }
+
+        return h.getContext().getResult();
+    }
+
     @Override
     public <T> JAXBElement<T> unmarshal( Source source, Class<T> expectedType ) throws JAXBException {
         if (source instanceof SAXSource) {
@@ -377,6 +433,7 @@ import org.xml.sax.helpers.DefaultHandler;
             handler.getContext().clearResult();
             return retVal;
         } catch( SAXException e ) {
+            coordinator.clearStates();
             throw createUnmarshalException(e);
         }
     }
@@ -414,6 +471,7 @@ import org.xml.sax.helpers.DefaultHandler;
         try {
             connector.bridge();
         } catch (XMLStreamException e) {
+            coordinator.clearStates();
             throw handleStreamException(e);
         }
 
@@ -422,6 +480,88 @@ import org.xml.sax.helpers.DefaultHandler;
         return retVal;
     }
 
+    /**
+     * Unmarshals a document into existing objects, instead of creating new ones.
+     *
+     * <p>
+     * The root element is unmarshalled into {@code target}, and each child element is
+     * unmarshalled into the bean that the corresponding property of its parent already had,
+     * or for collections, into the existing items in the order they appear.
+     * Collections are cleared and refilled rather than replaced. Properties that
+     * are missing from the document are reset, and new objects are only created when
+     * there's nothing to reuse, or when the existing object is of a different class.
+     *
+     * <p>
+     * This is meant for unmarshalling a lot of similar documents into the same objects.
+     * Only the beans of element properties are reused. Values of simple types, and
+     * beans behind an {@link XmlAdapter}, are created as usual.
+     *
+     * @return
+     *      the unmarshalled object, which is {@code target} unless the root element
+     *      is bound to another class or to a {@link JAXBElement}.
+     */
+    public Object unmarshalInto(Source source, Object target) throws JAXBException {
+        if (target == null) {
+            throw new IllegalArgumentException();
+        }
+        coordinator.setUpdateTarget(target);
+        try {
+            return unmarshal(source);
+        } finally {
+            coordinator.setUpdateTarget(null);
+        }
+    }
+
+    /**
+     * Unmarshals a document from StAX into existing objects.
+     *
+     * @see #unmarshalInto(Source, Object)
+     */
+    public Object unmarshalInto(XMLStreamReader reader, Object target) throws JAXBException {
+        if (target == null) {
+            throw new IllegalArgumentException();
+        }
+        coordinator.setUpdateTarget(target);
+        try {
+            return unmarshal0(reader,null);
+        } finally {
+            coordinator.setUpdateTarget(null);
+        }
+    }
+
+    /**
+     * Unmarshals the elements of the given name lazily, one per {@link Iterator#next()} call.
+     *
+     * <p>
+     * This is meant for large documents made of many similar elements, like
+     * {@code <records><record>...</record><record>...</record>...</records>}.
+     * Elements are searched in document order from the current position of the reader,
+     * skipping everything else, and each element is bound to the declared type the
+     * same way as {@link #unmarshal(XMLStreamReader, Class)} does.
+     * The unmarshalling pipeline is set up only once and reused for all the elements.
+     *
+     * <p>
+     * Unmarshalling errors are thrown from the iterator as {@link DataBindingException}.
+     * This unmarshaller must not be used for anything else until the iteration is over.
+     *
+     * @param name
+     *      name of the elements to unmarshal.
+     * @param declaredType
+     *      type to bind each element to.
+     */
+    public <T> Iterator<T> unmarshalElements(XMLStreamReader reader, QName name, Class<T> declaredType) throws JAXBException {
+        if (reader == null) {
+            throw new IllegalArgumentException(
+                Messages.format(Messages.NULL_READER));
+        }
+        if (name == null || declaredType == null) {
+            throw new IllegalArgumentException();
+        }
+
+        XmlVisitor h = createUnmarshallerHandler(null,false,getBeanInfo(declaredType));
+        return new UnmarshallingIterator<T>(reader,name,h);
+    }
+
     @Override
     public <T> JAXBElement<T> unmarshal(XMLEventReader reader, Class<T> expectedType) throws JAXBException {
         if(expectedType==null) {
@@ -460,6 +600,7 @@ import org.xml.sax.helpers.DefaultHandler;
             new StAXEventConnector(reader,h).bridge();
             return h.getContext().getResult();
         } catch (XMLStreamException e) {
+            coordinator.clearStates();
             throw handleStreamException(e);
         }
     }
@@ -468,7 +609,7 @@ import org.xml.sax.helpers.DefaultHandler;
         return unmarshal0(getXMLReader(),new InputSource(input),expectedType);
     }
 
-    private static JAXBException handleStreamException(XMLStreamException e) {
+    static JAXBException handleStreamException(XMLStreamException e) {
         // StAXStreamConnector wraps SAXException to XMLStreamException.
         // XMLStreamException doesn't print its nested stack trace when it prints
         // its stack trace, so if we wrap XMLStreamException in JAXBException,
@@ -490,6 +631,21 @@ import org.xml.sax.helpers.DefaultHandler;
         if(name.equals(IDResolver.class.getName())) {
             return idResolver;
         }
+        if(name.equals(InstanceAllocator.class.getName())) {
+            return coordinator.allocator;
+        }
+        if(name.equals(UTF8_SCANNER)) {
+            return useUTF8Scanner;
+        }
+        if(name.equals(STRUCTURAL_VALIDATION)) {
+            return structuralValidation;
+        }
+        if(name.equals(ID_TABLE_SIZE)) {
+            return idTableSize;
+        }
+        if(name.equals(BINARY_FILE_THRESHOLD)) {
+            return binaryFileThreshold;
+        }
         return super.getProperty(name);
     }
 
@@ -511,11 +667,87 @@ import org.xml.sax.helpers.DefaultHandler;
             coordinator.classLoader = (ClassLoader)value;
             return;
         }
+        if(name.equals(InstanceAllocator.class.getName())) {
+            coordinator.allocator = (InstanceAllocator)value;
+            return;
+        }
+        if(name.equals(UTF8_SCANNER)) {
+            useUTF8Scanner = (Boolean)value;
+            return;
+        }
+        if(name.equals(STRUCTURAL_VALIDATION)) {
+            structuralValidation = (Boolean)value;
+            return;
+        }
+        if(name.equals(ID_TABLE_SIZE)) {
+            idTableSize = (Integer)value;
+            idResolver = new DirectIDResolver(idTableSize);
+            return;
+        }
+        if(name.equals(BINARY_FILE_THRESHOLD)) {
+            binaryFileThreshold = (Number)value;
+            coordinator.getBase64Decoder().setThreshold(value==null ? Long.MAX_VALUE : binaryFileThreshold.longValue());
+            return;
+        }
         super.setProperty(name, value);
     }
 
     public static final String FACTORY = "com.sun.xml.bind.ObjectFactory";
 
+    /**
+     * Set to {@link Boolean#TRUE} to parse UTF-8 byte streams with a built-in scanner
+     * instead of the SAX parser. It doesn't create strings for the element and attribute
+     * names the context knows about, and it is considerably faster.
+     *
+     * <p>
+     * Only meant for trusted input. The scanner doesn't support DTDs,
+     * and it doesn't check every well-formedness constraint.
+     * Input from a character stream, or from an {@link XMLReader}
+     * given by the application, is still parsed by SAX.
+     */
+    public static final String UTF8_SCANNER = "com.sun.xml.bind.utf8Scanner";
+
+    /**
+     * Set to {@link Boolean#TRUE} to check the document against the structure of
+     * the beans while it's unmarshalled, without a {@link Schema}.
+     *
+     * <p>
+     * Missing required elements and attributes, elements repeated in a property
+     * that isn't a collection, unexpected elements, attributes and text, and values that
+     * can't be converted to the property type are reported as fatal errors, just like
+     * the errors reported by a {@link Schema}. The order of the elements and the
+     * facets of the schema aren't checked. Use {@link #setSchema(Schema)} for a
+     * complete validation.
+     */
+    public static final String STRUCTURAL_VALIDATION = "com.sun.xml.bind.structuralValidation";
+
+    /**
+     * Set to an {@link Integer} to use a {@link DirectIDResolver} sized for
+     * that many IDs per document.
+     *
+     * <p>
+     * It resolves IDREFs without allocating anything for each of them,
+     * which matters for documents with a lot of ID/IDREF pairs.
+     * This replaces the {@link IDResolver} that was set before.
+     */
+    public static final String ID_TABLE_SIZE = "com.sun.xml.bind.idTableSize";
+
+    /**
+     * Set to a number of bytes above which the inline base64 content of
+     * {@link javax.activation.DataHandler} and {@link Source}
+     * properties is decoded into a temporary file rather than the heap.
+     * The value then reads from a {@link javax.activation.FileDataSource} over that file.
+     *
+     * <p>
+     * The application owns the file and has to delete it once it is done with the value.
+     * It is the {@link javax.activation.FileDataSource#getFile() file} of the
+     * {@link javax.activation.DataHandler#getDataSource() data source}, or of
+     * {@link com.sun.xml.bind.v2.util.DataSourceSource#getDataSource()} for a {@link Source}.
+     * Other binary properties, such as byte[] and {@link java.awt.Image},
+     * are always kept in the heap.
+     */
+    public static final String BINARY_FILE_THRESHOLD = "com.sun.xml.bind.binaryFileThreshold";
+
     @Override
     public void setSchema(Schema schema) {
         this.schema = schema;
@@ -40,9 +40,14 @@
 
 package com.sun.xml.bind.v2.runtime.unmarshaller;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -53,6 +58,8 @@ import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.activation.DataHandler;
+import javax.activation.FileDataSource;
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.UnmarshalException;
@@ -67,10 +74,12 @@ import javax.xml.namespace.QName;
 import com.sun.istack.NotNull;
 import com.sun.istack.Nullable;
 import com.sun.istack.SAXParseException2;
+import com.sun.xml.bind.DatatypeConverterImpl;
 import com.sun.xml.bind.IDResolver;
 import com.sun.xml.bind.Util;
 import com.sun.xml.bind.api.AccessorException;
 import com.sun.xml.bind.api.ClassResolver;
+import com.sun.xml.bind.api.InstanceAllocator;
 import com.sun.xml.bind.unmarshaller.InfosetScanner;
 import com.sun.xml.bind.v2.ClassFactory;
 import com.sun.xml.bind.v2.runtime.AssociationMap;
@@ -141,6 +150,11 @@ public final class UnmarshallingContext extends Coordinator
      */
     private IDResolver idResolver;
 
+    /**
+     * {@link #idResolver} if it's a {@link DirectIDResolver}, or null.
+     */
+    private DirectIDResolver directIDResolver;
+
     /**
      * This flag is set to true at the startDocument event
      * and false at the endDocument event.
@@ -173,6 +187,27 @@ public final class UnmarshallingContext extends Coordinator
      */
     private boolean isInplaceMode;
 
+    /**
+     * True if the document is checked against the structure of the beans
+     * while it's unmarshalled.
+     *
+     * @see UnmarshallerImpl#STRUCTURAL_VALIDATION
+     */
+    private boolean validating;
+
+    /**
+     * The object that the root element is unmarshalled into in the in-place update mode,
+     * or null if we are not updating existing objects.
+     *
+     * @see UnmarshallerImpl#unmarshalInto(javax.xml.transform.Source, Object)
+     */
+    private Object updateTarget;
+
+    /**
+     * {@link #updateTarget} until the root bean picks it up.
+     */
+    private Object rootPeer;
+
     /**
      * This object is consulted to get the element object for
      * the current element event.
@@ -199,6 +234,18 @@ public final class UnmarshallingContext extends Coordinator
      */
     public @Nullable ClassLoader classLoader;
 
+    /**
+     * User-supplied source of the objects to unmarshal into, or null to create them.
+     */
+    public @Nullable InstanceAllocator allocator;
+
+    /**
+     * Decodes the text of binary leaves for the connectors.
+     *
+     * @see #expectBinary()
+     */
+    private final BinaryDecoder decoder = new BinaryDecoder();
+
     /**
      * The variable introduced to avoid reporting n^10 similar errors.
      * After error is reported counter is decremented. When it became 0 - errors should not be reported any more.
@@ -228,6 +275,18 @@ public final class UnmarshallingContext extends Coordinator
          */
         private Object target;
 
+        /**
+         * In the in-place update mode, the existing object this element is unmarshalled into, if any.
+         * Set by the parent {@link Loader} when {@link Loader#childElement(State, TagName)} is called.
+         */
+        private Object peer;
+
+        /**
+         * In the in-place update mode, the slot of the enclosing bean
+         * that the items inside this wrapper element are reused from, or -1.
+         */
+        private int reuseSlot = -1;
+
         /**
          * Hack for making JAXBElement unmarshalling work.
          *
@@ -331,6 +390,8 @@ public final class UnmarshallingContext extends Coordinator
             intercepter = null;
             elementDefaultValue = null;
             target = null;
+            peer = null;
+            reuseSlot = -1;
             current = prev;
             next = null;
         }
@@ -369,6 +430,14 @@ public final class UnmarshallingContext extends Coordinator
             this.target = target;
         }
 
+        public void setPeer(Object peer) {
+            this.peer = peer;
+        }
+
+        /*package*/ void setReuseSlot(int slot) {
+            this.reuseSlot = slot;
+        }
+
         public Object getBackup() {
             return backup;
         }
@@ -433,10 +502,26 @@ public final class UnmarshallingContext extends Coordinator
     }
 
     public void reset(InfosetScanner scanner,boolean isInplaceMode, JaxBeanInfo expectedType, IDResolver idResolver) {
+        reset(scanner,isInplaceMode,expectedType,idResolver,false);
+    }
+
+    public void reset(InfosetScanner scanner,boolean isInplaceMode, JaxBeanInfo expectedType, IDResolver idResolver, boolean validating) {
         this.scanner = scanner;
         this.isInplaceMode = isInplaceMode;
         this.expectedType = expectedType;
         this.idResolver = idResolver;
+        this.directIDResolver = idResolver instanceof DirectIDResolver ? (DirectIDResolver)idResolver : null;
+        this.validating = validating;
+    }
+
+    /**
+     * True if violations of the structure defined by the beans,
+     * like a missing required element, are reported as errors.
+     *
+     * @see UnmarshallerImpl#STRUCTURAL_VALIDATION
+     */
+    public boolean isValidating() {
+        return validating;
     }
 
     public JAXBContextImpl getJAXBContext() {
@@ -491,6 +576,9 @@ public final class UnmarshallingContext extends Coordinator
             last.next = null;
         }
         current = last;
+
+        // close and delete the file of the binary text we were in the middle of, if any
+        decoder.reset();
     }
 
     /**
@@ -537,6 +625,14 @@ public final class UnmarshallingContext extends Coordinator
         current = root;
 
         patchersLen=0;
+        occurrenceTop=0;
+        if(reusableTop!=0) {
+            Arrays.fill(reusables,0,reusableTop,null);
+            reusableTop=0;
+        }
+        reuseRangeTop=0;
+        rootPeer = updateTarget;
+        decoder.reset();
         aborted = false;
         isUnmarshalInProgress = true;
         nsLen=0;
@@ -627,6 +723,7 @@ public final class UnmarshallingContext extends Coordinator
         currentElement = null;
         locator = DUMMY_INSTANCE;
         environmentNamespaceContext = null;
+        decoder.reset();
 
         // at the successful completion, scope must be all closed
         assert root==current;
@@ -638,7 +735,87 @@ public final class UnmarshallingContext extends Coordinator
     @Deprecated
     @Override
     public boolean expectText() {
-        return current.loader.expectText;
+        Loader l = current.loader;
+        return l.expectText || (validating && l.elementOnly);
+    }
+
+    /**
+     * Returns true if the current loader expects base64 encoded binary as its text.
+     *
+     * <p>
+     * Connectors can then feed the text to {@link #getBase64Decoder()}
+     * as it arrives and report it by {@link #createBinaryText()}, instead of buffering it.
+     */
+    public boolean expectBinary() {
+        return current.loader.expectBinary;
+    }
+
+    /**
+     * Gets the decoder for the text of binary leaves.
+     *
+     * @see #expectBinary()
+     */
+    public DatatypeConverterImpl.Base64Decoder getBase64Decoder() {
+        return decoder;
+    }
+
+    /**
+     * Takes what {@link #getBase64Decoder()} has decoded as the text of the current binary leaf,
+     * and resets the decoder for the next one.
+     */
+    public Base64Data createBinaryText() throws SAXException {
+        Base64Data binary = new Base64Data();
+        final String mimeType = getXMIMEContentType();
+        try {
+            if(decoder.finish()) {
+                binary.set(new DataHandler(new FileDataSource(decoder.file) {
+                    @Override
+                    public String getContentType() {
+                        return mimeType!=null ? mimeType : "application/octet-stream";
+                    }
+                }));
+                decoder.file = null;    // the file is the application's now
+            } else {
+                binary.set(decoder.getData(),decoder.getDataLen(),mimeType);
+            }
+        } catch (IOException e) {
+            handleError(e);
+            // recover by assuming length-0 data
+            binary.set(new byte[0],mimeType);
+        }
+        decoder.reset();
+        return binary;
+    }
+
+    /**
+     * Moves the bytes of a large binary to a temporary file,
+     * when the current loader only needs them as a stream.
+     *
+     * @see UnmarshallerImpl#BINARY_FILE_THRESHOLD
+     */
+    private final class BinaryDecoder extends DatatypeConverterImpl.Base64Decoder {
+        /**
+         * The file that {@link #overflow()} created for the current text.
+         */
+        File file;
+
+        @Override
+        protected OutputStream overflow() throws IOException {
+            if(!current.loader.binaryStream)
+                return null;
+            file = File.createTempFile("jaxb",".bin");
+            return new FileOutputStream(file);
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            if(file!=null) {
+                // the text was abandoned halfway
+                file.delete();
+                file = null;
+            }
+        }
     }
 
     /**
@@ -685,6 +862,11 @@ public final class UnmarshallingContext extends Coordinator
             if(factory!=null)
                 return factory.createInstance();
         }
+        if(allocator!=null) {
+            Object o = allocator.allocate(clazz);
+            if(o!=null)
+                return o;
+        }
         return ClassFactory.create(clazz);
     }
 
@@ -698,6 +880,11 @@ public final class UnmarshallingContext extends Coordinator
             if(factory!=null)
                 return factory.createInstance();
         }
+        if(allocator!=null) {
+            Object o = allocator.allocate(beanInfo.jaxbType);
+            if(o!=null)
+                return o;
+        }
         try {
             return beanInfo.createInstance(this);
         } catch (IllegalAccessException e) {
@@ -889,6 +1076,17 @@ public final class UnmarshallingContext extends Coordinator
         return idResolver.resolve(id,targetType);
     }
 
+    /**
+     * Gets the {@link IDResolver} in use if it's a {@link DirectIDResolver},
+     * which lets IDREFs be resolved without {@link #getObjectFromId(String, Class)}.
+     *
+     * @return null
+     *      if another {@link IDResolver} is in use.
+     */
+    public DirectIDResolver getDirectIDResolver() {
+        return directIDResolver;
+    }
+
 //
 //
 // namespace binding maintainance
@@ -1029,6 +1227,63 @@ public final class UnmarshallingContext extends Coordinator
         return resolveNamespacePrefix(prefix);
     }
 
+    /**
+     * @xsi:type values seen so far, resolved by {@link #getXsiType(String)}.
+     */
+    private final Map<String,XsiType> xsiTypes = new HashMap<String,XsiType>();
+
+    /**
+     * @xsi:type value resolved to a type name and the {@link JaxBeanInfo} registered for it.
+     */
+    /*package*/ static final class XsiType {
+        /**
+         * Prefix in the attribute value, and the namespace URI
+         * it was bound to when the value was resolved.
+         */
+        private final String prefix,nsUri;
+        /*package*/ final QName name;
+        /**
+         * Null if the type name isn't known to the {@link JAXBContextImpl}.
+         */
+        /*package*/ final JaxBeanInfo beanInfo;
+
+        private XsiType(QName name, JaxBeanInfo beanInfo) {
+            this.prefix = name.getPrefix();
+            this.nsUri = name.getNamespaceURI();
+            this.name = name;
+            this.beanInfo = beanInfo;
+        }
+    }
+
+    /**
+     * Resolves the value of @xsi:type against the in-scope namespace bindings.
+     *
+     * <p>
+     * Documents that use xsi:type tend to repeat the same few values on many elements,
+     * so the answer is remembered for each value. Later occurrences only check that its
+     * prefix is still bound to the same namespace URI, without parsing the value or
+     * looking up the type again.
+     *
+     * @return null
+     *      if the value is not a QName.
+     */
+    /*package*/ XsiType getXsiType(String value) {
+        XsiType t = xsiTypes.get(value);
+        if(t!=null && t.nsUri.equals(getNamespaceURI(t.prefix)))
+            return t;
+
+        QName name = DatatypeConverterImpl._parseQName(value,this);
+        if(name==null)
+            return null;
+
+        if(xsiTypes.size()>=256)
+            // the document keeps coming up with new values. don't let the cache grow without bound
+            xsiTypes.clear();
+        t = new XsiType(name,parent.context.getGlobalType(name));
+        xsiTypes.put(value,t);
+        return t;
+    }
+
 //
 //
 //
@@ -1112,6 +1367,126 @@ public final class UnmarshallingContext extends Coordinator
         return scopes[scopeTop-offset];
     }
 
+//
+//
+// occurrence counting
+//
+//
+    /**
+     * Number of times the child elements of the elements being unmarshalled
+     * have been seen. Only used when {@link #validating}.
+     */
+    private int[] occurrences = new int[16];
+    /**
+     * Points to the end of the last frame in {@link #occurrences}.
+     */
+    private int occurrenceTop=0;
+
+    /**
+     * Starts a new frame of counters for {@link StructureLoader},
+     * all set to zero. It masks the current frame until
+     * {@link #endOccurrences(int)} is invoked.
+     */
+    /*package*/ void startOccurrences(int frameSize) {
+        int top = occurrenceTop+frameSize;
+        if(top>occurrences.length) {
+            int[] buf = new int[Math.max(top,occurrences.length*2)];
+            System.arraycopy(occurrences,0,buf,0,occurrenceTop);
+            occurrences = buf;
+        } else {
+            Arrays.fill(occurrences,occurrenceTop,top,0);
+        }
+        occurrenceTop = top;
+    }
+
+    /*package*/ void endOccurrences(int frameSize) {
+        occurrenceTop -= frameSize;
+    }
+
+    /**
+     * Counts one more occurrence in the current frame.
+     *
+     * @return
+     *      the number of occurrences including this one.
+     */
+    /*package*/ int addOccurrence(int frameSize, int slot) {
+        return ++occurrences[occurrenceTop-frameSize+slot];
+    }
+
+    /*package*/ int getOccurrences(int frameSize, int slot) {
+        return occurrences[occurrenceTop-frameSize+slot];
+    }
+
+//
+//
+// reusable objects for the in-place update mode
+//
+//
+    /**
+     * Child objects of the beans being updated, which are reused
+     * for the child elements. Only used when {@link #isUpdating()}.
+     */
+    private Object[] reusables = new Object[16];
+    private int reusableTop=0;
+
+    /**
+     * For each slot of the beans being updated, the range of {@link #reusables}
+     * that hasn't been reused yet. A frame of n slots consists of n pairs of
+     * start and end, followed by the start of the frame in {@link #reusables} and n.
+     */
+    private int[] reuseRanges = new int[16];
+    private int reuseRangeTop=0;
+
+    /**
+     * Starts a new frame of empty slots for {@link StructureLoader}.
+     * It masks the current frame until {@link #endReuse()} is invoked.
+     */
+    /*package*/ void startReuse(int frameSize) {
+        int top = reuseRangeTop+frameSize*2+2;
+        if(top>reuseRanges.length)
+            reuseRanges = Arrays.copyOf(reuseRanges,Math.max(top,reuseRanges.length*2));
+        Arrays.fill(reuseRanges,reuseRangeTop,top-1,reusableTop);
+        reuseRanges[top-1] = frameSize;
+        reuseRangeTop = top;
+    }
+
+    /**
+     * Adds an object to a slot of the current frame.
+     * All the objects of a slot have to be added before moving on to the next slot.
+     */
+    /*package*/ void addReusable(int slot, Object o) {
+        if(reusableTop==reusables.length)
+            reusables = Arrays.copyOf(reusables,reusables.length*2);
+        int r = reuseRangeTop-2-reuseRanges[reuseRangeTop-1]*2+slot*2;
+        if(reuseRanges[r]==reuseRanges[r+1])
+            reuseRanges[r] = reusableTop;    // first one in this slot
+        reusables[reusableTop++] = o;
+        reuseRanges[r+1] = reusableTop;
+    }
+
+    /**
+     * Takes the next object of a slot of the current frame.
+     *
+     * @return
+     *      null if the slot has no more objects.
+     */
+    /*package*/ Object nextReusable(int slot) {
+        int r = reuseRangeTop-2-reuseRanges[reuseRangeTop-1]*2+slot*2;
+        int i = reuseRanges[r];
+        if(i==reuseRanges[r+1])
+            return null;
+        reuseRanges[r] = i+1;
+        return reusables[i];
+    }
+
+    /*package*/ void endReuse() {
+        int frameSize = reuseRanges[reuseRangeTop-1];
+        int start = reuseRanges[reuseRangeTop-2];
+        Arrays.fill(reusables,start,reusableTop,null);    // don't keep the objects alive
+        reusableTop = start;
+        reuseRangeTop -= frameSize*2+2;
+    }
+
 //
 //
 //
@@ -1231,8 +1606,46 @@ public final class UnmarshallingContext extends Coordinator
     public Object getInnerPeer() {
         if(assoc!=null && isInplaceMode)
             return assoc.getInnerPeer(currentElement);
-        else
+        if(updateTarget!=null) {
+            Object o = rootPeer;
+            if(o!=null) {
+                rootPeer = null;
+                return o;
+            }
+            return current.peer;
+        }
+        return null;
+    }
+
+    /**
+     * Sets the object that the root element is unmarshalled into,
+     * which turns on the in-place update mode, or null to turn it off.
+     */
+    /*package*/ void setUpdateTarget(Object target) {
+        this.updateTarget = target;
+        this.rootPeer = null;
+    }
+
+    /**
+     * True if existing objects are reused instead of creating new ones.
+     *
+     * @see UnmarshallerImpl#unmarshalInto(javax.xml.transform.Source, Object)
+     */
+    public boolean isUpdating() {
+        return updateTarget!=null;
+    }
+
+    /**
+     * In the in-place update mode, gets the next existing item of the collection
+     * that the items inside the given wrapper element are unmarshalled into.
+     *
+     * @return
+     *      null if there are no more items to reuse.
+     */
+    public Object nextPeer(State wrapper) {
+        if(wrapper.reuseSlot<0)
             return null;
+        return nextReusable(wrapper.reuseSlot);
     }
 
     /**
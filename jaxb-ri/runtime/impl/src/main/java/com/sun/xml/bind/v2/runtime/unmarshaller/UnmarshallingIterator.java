@@ -0,0 +1,128 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.xml.bind.DataBindingException;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Unmarshals the elements of the given name in a document, one at a time.
+ *
+ * <p>
+ * The same {@link StAXConnector} and {@link XmlVisitor} chain is used for
+ * every element, so the per-element cost is only that of the unmarshalling itself,
+ * and memory use doesn't depend on the number of elements.
+ *
+ * @see UnmarshallerImpl#unmarshalElements(XMLStreamReader, QName, Class)
+ */
+final class UnmarshallingIterator<T> implements Iterator<T> {
+    private final XMLStreamReader reader;
+    private final String nsUri;
+    private final String localName;
+
+    private final XmlVisitor visitor;
+    private final StAXConnector connector;
+
+    /**
+     * True if the reader is at the start of an element we haven't returned yet.
+     */
+    private boolean found;
+
+    UnmarshallingIterator(XMLStreamReader reader, QName name, XmlVisitor visitor) {
+        this.reader = reader;
+        this.nsUri = name.getNamespaceURI();
+        this.localName = name.getLocalPart();
+        this.visitor = visitor;
+        this.connector = StAXStreamConnector.create(reader,visitor);
+    }
+
+    public boolean hasNext() {
+        if(found)
+            return true;
+        try {
+            while(true) {
+                int event = reader.getEventType();
+                if(event==XMLStreamConstants.START_ELEMENT
+                && localName.equals(reader.getLocalName())
+                && nsUri.equals(StAXConnector.fixNull(reader.getNamespaceURI()))) {
+                    return found = true;
+                }
+                if(event==XMLStreamConstants.END_DOCUMENT || !reader.hasNext())
+                    return false;
+                reader.next();
+            }
+        } catch (XMLStreamException e) {
+            throw new DataBindingException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if(!hasNext())
+            throw new NoSuchElementException();
+        found = false;
+
+        try {
+            connector.bridge();
+            UnmarshallingContext context = visitor.getContext();
+            Object result = context.getResult();
+            context.clearResult();
+            return ((JAXBElement<T>)result).getValue();
+        } catch (XMLStreamException e) {
+            visitor.getContext().clearStates();
+            throw new DataBindingException(UnmarshallerImpl.handleStreamException(e));
+        } catch (JAXBException e) {
+            throw new DataBindingException(e);
+        }
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
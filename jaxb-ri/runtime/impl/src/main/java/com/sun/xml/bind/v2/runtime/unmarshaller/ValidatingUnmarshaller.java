@@ -44,6 +44,7 @@ import javax.xml.namespace.NamespaceContext;
 import javax.xml.validation.Schema;
 import javax.xml.validation.ValidatorHandler;
 
+import com.sun.xml.bind.v2.runtime.output.Pcdata;
 import com.sun.xml.bind.v2.util.FatalAdapter;
 
 import org.xml.sax.SAXException;
@@ -93,8 +94,8 @@ final class ValidatingUnmarshaller implements XmlVisitor, XmlVisitor.TextPredict
 
     public void startElement(TagName tagName) throws SAXException {
         if(nsContext != null) {
-            String tagNamePrefix = tagName.getPrefix().intern();
-            if(tagNamePrefix != "") {
+            String tagNamePrefix = tagName.getPrefix();
+            if(tagNamePrefix.length() != 0) {
                 validator.startPrefixMapping(tagNamePrefix, nsContext.getNamespaceURI(tagNamePrefix));
             }
         }
@@ -120,10 +121,18 @@ final class ValidatingUnmarshaller implements XmlVisitor, XmlVisitor.TextPredict
     public void text( CharSequence pcdata ) throws SAXException {
         int len = pcdata.length();
         if(buf.length<len) {
-            buf = new char[len];
+            buf = new char[Math.max(len,buf.length*2)];
         }
-        for( int i=0;i<len; i++ )
-            buf[i] = pcdata.charAt(i);  // isn't this kinda slow?
+        // copy the text in bulk for the kinds of CharSequence that the connectors send
+        if(pcdata instanceof String)
+            ((String)pcdata).getChars(0,len,buf,0);
+        else if(pcdata instanceof StringBuilder)
+            ((StringBuilder)pcdata).getChars(0,len,buf,0);
+        else if(pcdata instanceof Pcdata)
+            ((Pcdata)pcdata).writeTo(buf,0);
+        else
+            for( int i=0;i<len; i++ )
+                buf[i] = pcdata.charAt(i);
 
         validator.characters(buf,0,len);
         if(predictor.expectText())
@@ -64,7 +64,7 @@ public class ValuePropertyLoader extends Loader {
 
     public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
         try {
-            xacc.parse(state.getTarget(),text);
+            xacc.parse(state.getTarget(),text,state.getContext().isValidating());
         } catch (AccessorException e) {
             handleGenericException(e,true);
         } catch (RuntimeException e) {
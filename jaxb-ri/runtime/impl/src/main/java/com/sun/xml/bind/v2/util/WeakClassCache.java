@@ -0,0 +1,180 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.util;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Associates a lazily computed value with each {@link Class}, much like {@code ClassValue},
+ * but the association is owned by this object instead of the class, and the classes
+ * can still be unloaded.
+ *
+ * <p>
+ * Lookups neither lock nor allocate. Updates are serialized, and the table is only
+ * copied when it needs to grow, which is when entries of unloaded classes get purged.
+ * This is meant for a small, mostly stable set of classes, such as the runtime
+ * classes of objects a {@code JAXBContext} marshals.
+ *
+ * <p>
+ * {@code null} is a valid value and is cached like any other.
+ *
+ * @param <V>
+ *      the type of the computed value.
+ */
+public abstract class WeakClassCache<V> {
+
+    private static final class Entry<V> extends WeakReference<Class<?>> {
+        final V value;
+
+        Entry(Class<?> clazz, V value) {
+            super(clazz);
+            this.value = value;
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Open-addressing table with linear probing. Its length is always a power of 2.
+     *
+     * <p>
+     * Entries are immutable, so a reader either sees a complete entry or nothing,
+     * in which case it just computes the value again.
+     */
+    private volatile Entry<V>[] table = newTable(INITIAL_CAPACITY);
+
+    /**
+     * Number of non-null slots in {@link #table}, including the ones whose class has been collected.
+     * Guarded by {@code this}.
+     */
+    private int used;
+
+    /**
+     * Computes the value for a class that's not in the cache yet.
+     * This may be called more than once for the same class when threads race.
+     */
+    protected abstract V compute(Class<?> clazz);
+
+    /**
+     * Gets the value associated with the given class, computing it if necessary.
+     */
+    public final V get(Class<?> clazz) {
+        Entry<V>[] t = table;
+        int mask = t.length-1;
+        for( int i=hash(clazz)&mask; ; i=(i+1)&mask ) {
+            Entry<V> e = t[i];
+            if(e==null)
+                break;
+            if(e.get()==clazz)
+                return e.value;
+        }
+
+        V value = compute(clazz);
+        put(clazz,value);
+        return value;
+    }
+
+    /**
+     * Discards all the cached values.
+     */
+    public final synchronized void clear() {
+        table = newTable(INITIAL_CAPACITY);
+        used = 0;
+    }
+
+    private synchronized void put(Class<?> clazz, V value) {
+        Entry<V>[] t = table;
+        if((used+1)*2 > t.length) {
+            t = rehash(t);
+            table = t;
+        }
+
+        int mask = t.length-1;
+        int i = hash(clazz)&mask;
+        for( ; t[i]!=null; i=(i+1)&mask ) {
+            if(t[i].get()==clazz)
+                return;     // somebody else beat us to it
+        }
+        t[i] = new Entry<V>(clazz,value);
+        used++;
+    }
+
+    /**
+     * Copies live entries into a new table, growing it if that alone doesn't bring
+     * the load factor below 1/2.
+     */
+    private Entry<V>[] rehash(Entry<V>[] old) {
+        int live = 0;
+        for (Entry<V> e : old) {
+            if(e!=null && e.get()!=null)
+                live++;
+        }
+
+        int capacity = old.length;
+        while((live+1)*2 > capacity)
+            capacity *= 2;
+
+        Entry<V>[] t = newTable(capacity);
+        int mask = capacity-1;
+        for (Entry<V> e : old) {
+            Class<?> c;
+            if(e==null || (c=e.get())==null)
+                continue;
+            int i = hash(c)&mask;
+            while(t[i]!=null)
+                i = (i+1)&mask;
+            t[i] = e;
+        }
+        used = live;
+        return t;
+    }
+
+    private static int hash(Class<?> clazz) {
+        int h = System.identityHashCode(clazz);
+        // mix the upper bits in, as the table is indexed by the lower ones
+        return h ^ (h>>>16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V>[] newTable(int capacity) {
+        return new Entry[capacity];
+    }
+}
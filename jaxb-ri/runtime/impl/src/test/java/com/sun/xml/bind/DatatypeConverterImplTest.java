@@ -0,0 +1,311 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSchemaType;
+
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+public class DatatypeConverterImplTest extends TestCase {
+
+    @XmlRootElement
+    public static class Dates {
+        public Calendar cal;
+        public Date date;
+        @XmlSchemaType(name="date")
+        public Date day;
+    }
+
+    @XmlRootElement
+    public static class Numbers {
+        @XmlAttribute
+        public long id;
+        public byte b;
+        public short s;
+        public long l;
+        private double d;
+        public Float f;
+        public Long boxed;
+
+        public double getD() { return d; }
+        public void setD(double d) { this.d = d; }
+    }
+
+    private static GregorianCalendar viaFactory(String lexical) {
+        return DatatypeConverterImpl.getDatatypeFactory().newXMLGregorianCalendar(lexical).toGregorianCalendar();
+    }
+
+    public void testParseMatchesDatatypeFactory() {
+        String[] values = {
+            "2017-03-04T05:06:07",
+            "2017-03-04T05:06:07Z",
+            "2017-03-04T05:06:07.5+05:30",
+            "2017-03-04T05:06:07.123-08:00",
+            "2017-03-04T23:59:59.1234567+14:00",
+            "2000-02-29T00:00:00-00:00",
+            "0001-01-01T00:00:00Z",
+            "2017-03-04",
+            "2017-03-04Z",
+            "2017-03-04-03:00",
+            "05:06:07",
+            "05:06:07.010Z",
+            // these go the slow way
+            "12345-03-04T05:06:07Z",
+            "-0044-03-15T12:00:00Z",
+            "2017-03-04T24:00:00Z",
+            "2017",
+            "--03-04",
+        };
+        for (String v : values) {
+            GregorianCalendar expected = viaFactory(v);
+            GregorianCalendar actual = DatatypeConverterImpl._parseDateTime(v);
+            assertEquals(v, expected, actual);
+            assertEquals(v, expected.getTimeInMillis(), actual.getTimeInMillis());
+            assertEquals(v, expected.getTimeZone().getID(), actual.getTimeZone().getID());
+        }
+        assertEquals(viaFactory("2017-03-04T05:06:07Z"), DatatypeConverterImpl._parseDateTime("  2017-03-04T05:06:07Z\n"));
+    }
+
+    public void testParseErrors() {
+        String[] values = {
+            "2017-02-29T00:00:00",
+            "2017-13-01",
+            "2017-03-04T25:00:00",
+            "2017-03-04T05:06",
+            "2017-03-04T05:06:07.",
+            "2017-03-04T05:06:07+15:00",
+            "2017-03-04T05:06:07+05",
+            "2017-03-04x",
+            "",
+        };
+        for (String v : values) {
+            try {
+                DatatypeConverterImpl._parseDateTime(v);
+                fail(v);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    public void testPrint() {
+        GregorianCalendar cal = new GregorianCalendar(TimeZone.getTimeZone("GMT+05:30"));
+        cal.clear();
+        cal.set(2017, Calendar.MARCH, 4, 5, 6, 7);
+        assertEquals("2017-03-04T05:06:07+05:30", DatatypeConverterImpl._printDateTime(cal));
+        assertEquals("2017-03-04+05:30", DatatypeConverterImpl._printDate(cal));
+        assertEquals("05:06:07+05:30", new DatatypeConverterImpl().printTime(cal));
+
+        cal.set(Calendar.MILLISECOND, 7);
+        cal.setTimeZone(TimeZone.getTimeZone("GMT-08:00"));
+        cal.set(Calendar.YEAR, 12);
+        assertEquals("0012-03-04T05:06:07.007-08:00", DatatypeConverterImpl._printDateTime(cal));
+
+        cal.setTimeZone(TimeZone.getTimeZone("UTC"));
+        cal.set(Calendar.YEAR, 123456);
+        assertEquals("123456-03-04T05:06:07.007Z", DatatypeConverterImpl._printDateTime(cal));
+
+        char[] buf = new char[DatatypeConverterImpl.CALENDAR_BUFFER_SIZE];
+        cal.set(Calendar.YEAR, cal.getActualMaximum(Calendar.YEAR));
+        cal.setTimeZone(TimeZone.getTimeZone("GMT-11:45"));
+        int len = DatatypeConverterImpl._printDateTime(cal, buf);
+        assertEquals(DatatypeConverterImpl._printDateTime(cal), new String(buf, 0, len));
+    }
+
+    public void testRoundTrip() {
+        for (String v : new String[]{"2017-03-04T05:06:07Z", "1999-12-31T23:59:59.999+01:00", "2017-03-04T05:06:07.001-09:30"}) {
+            assertEquals(v, DatatypeConverterImpl._printDateTime(DatatypeConverterImpl._parseDateTime(v)));
+        }
+    }
+
+    public void testMarshal() throws Exception {
+        JAXBContext context = ContextFactory.createContext(new Class[]{Dates.class}, Collections.<String,Object>emptyMap());
+        Dates d = new Dates();
+        d.cal = DatatypeConverterImpl._parseDateTime("2017-03-04T05:06:07.250+02:00");
+        d.date = d.cal.getTime();
+        d.day = d.date;
+
+        GregorianCalendar local = new GregorianCalendar();
+        local.setTime(d.date);
+        String date = DatatypeConverterImpl._printDateTime(local);
+        String day = DatatypeConverterImpl._printDate(local);
+        String expected = "<cal>2017-03-04T05:06:07.250+02:00</cal><date>" + date + "</date><day>" + day + "</day>";
+
+        Marshaller m = context.createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        m.marshal(d, os);
+        assertEquals("<dates>" + expected + "</dates>", os.toString("UTF-8"));
+
+        StringWriter w = new StringWriter();
+        m.marshal(d, w);
+        assertEquals("<dates>" + expected + "</dates>", w.toString());
+
+        Dates r = (Dates) context.createUnmarshaller().unmarshal(new ByteArrayInputStream(os.toByteArray()));
+        assertEquals(d.cal.getTimeInMillis(), r.cal.getTimeInMillis());
+        assertEquals(d.date, r.date);
+    }
+
+    public void testParseNumberTokens() {
+        String s = "x -12 +7 9223372036854775807 -9223372036854775808 x";
+        assertEquals(-12, DatatypeConverterImpl._parseInt(s, 2, 5));
+        assertEquals(7, DatatypeConverterImpl._parseLong(s, 6, 8));
+        assertEquals(Long.MAX_VALUE, DatatypeConverterImpl._parseLong(s, 9, 28));
+        assertEquals(Long.MIN_VALUE, DatatypeConverterImpl._parseLong(s, 29, 49));
+        for (String v : new String[]{"", "-", "1a", "9223372036854775808", "--1"}) {
+            try {
+                DatatypeConverterImpl._parseLong(v, 0, v.length());
+                fail(v);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+
+        for (String v : new String[]{"0", "-0", "1.5", ".5", "5.", "+3.25", "-1e3", "1E-5", "123456789012345",
+                "1234567890123456789", "0.000000000000000000000000001", "1e300", "4.9e-324", "NaN", "INF", "-INF"}) {
+            String t = " " + v + " ";
+            assertEquals(v, Double.doubleToLongBits(Double.parseDouble(v.replace("INF", "Infinity"))),
+                Double.doubleToLongBits(DatatypeConverterImpl._parseDouble(t, 1, t.length() - 1)));
+        }
+        for (String v : new String[]{"", "e5", "1e", "1e+", "1.2.3", "abc"}) {
+            try {
+                DatatypeConverterImpl._parseDouble(v, 0, v.length());
+                fail(v);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+
+        Random r = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            String v = Double.toString(r.nextDouble() * Math.pow(10, r.nextInt(20) - 10));
+            assertEquals(v, Double.parseDouble(v), DatatypeConverterImpl._parseDouble(v, 0, v.length()));
+        }
+    }
+
+    private static String printDouble(double v) {
+        char[] buf = new char[DatatypeConverterImpl.DOUBLE_BUFFER_SIZE];
+        return new String(buf, 0, DatatypeConverterImpl._printDouble(v, buf));
+    }
+
+    public void testPrintDouble() {
+        assertEquals("3.0", printDouble(3));
+        assertEquals("0.1", printDouble(0.1));
+        assertEquals("-1234.5", printDouble(-1234.5));
+        assertEquals("0.001", printDouble(0.001));
+        assertEquals("9999999.999", printDouble(9999999.999));
+        assertEquals("1.0E7", printDouble(1e7));
+        assertEquals("0.0", printDouble(0));
+        assertEquals("NaN", printDouble(Double.NaN));
+        assertEquals("-INF", printDouble(Double.NEGATIVE_INFINITY));
+        assertEquals("-2.2250738585072014E-308", printDouble(-Double.MIN_NORMAL));
+
+        Random r = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            double v = (r.nextDouble() - 0.5) * Math.pow(10, r.nextInt(20) - 6);
+            assertEquals(v, Double.parseDouble(printDouble(v)));
+        }
+    }
+
+    public void testPrintLongAndFloat() {
+        char[] buf = new char[DatatypeConverterImpl.LONG_BUFFER_SIZE];
+        for (long v : new long[]{0, 7, -7, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(Long.toString(v), new String(buf, 0, DatatypeConverterImpl._printLong(v, buf)));
+        }
+
+        buf = new char[DatatypeConverterImpl.DOUBLE_BUFFER_SIZE];
+        assertEquals("0.1", new String(buf, 0, DatatypeConverterImpl._printFloat(0.1f, buf)));
+        assertEquals("-3.0", new String(buf, 0, DatatypeConverterImpl._printFloat(-3f, buf)));
+        assertEquals("INF", new String(buf, 0, DatatypeConverterImpl._printFloat(Float.POSITIVE_INFINITY, buf)));
+        assertEquals("-1.17549435E-38", new String(buf, 0, DatatypeConverterImpl._printFloat(-Float.MIN_NORMAL, buf)));
+
+        Random r = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            float v = (float) ((r.nextDouble() - 0.5) * Math.pow(10, r.nextInt(20) - 6));
+            assertEquals(v, Float.parseFloat(new String(buf, 0, DatatypeConverterImpl._printFloat(v, buf))));
+        }
+    }
+
+    public void testMarshalNumbers() throws Exception {
+        JAXBContext context = ContextFactory.createContext(new Class[]{Numbers.class}, Collections.<String,Object>emptyMap());
+        Numbers n = new Numbers();
+        n.id = Long.MIN_VALUE;
+        n.b = -8;
+        n.s = 300;
+        n.l = 1234567890123L;
+        n.d = 0.1;
+        n.f = 2.5f;
+        n.boxed = -1L;
+        String expected = "<numbers id=\"-9223372036854775808\"><b>-8</b><s>300</s><l>1234567890123</l>"
+            + "<f>2.5</f><boxed>-1</boxed><d>0.1</d></numbers>";
+
+        Marshaller m = context.createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        m.marshal(n, os);
+        assertEquals(expected, os.toString("UTF-8"));
+
+        StringWriter w = new StringWriter();
+        m.marshal(n, w);
+        assertEquals(expected, w.toString());
+
+        Numbers r = (Numbers) context.createUnmarshaller().unmarshal(new ByteArrayInputStream(os.toByteArray()));
+        assertEquals(n.id, r.id);
+        assertEquals(n.l, r.l);
+        assertEquals(n.d, r.d);
+        assertEquals(n.f, r.f);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElements;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSeeAlso;
+
+import com.sun.xml.bind.api.JAXBRIContext;
+import com.sun.xml.bind.v2.ContextFactory;
+import com.sun.xml.bind.v2.runtime.property.Property;
+import com.sun.xml.bind.v2.runtime.reflect.Accessor;
+import junit.framework.TestCase;
+
+public class LazyBeanInfoLinkingTest extends TestCase {
+
+    @XmlRootElement
+    @XmlSeeAlso(Leaf.class)
+    public static class Node {
+        @XmlAttribute
+        public String name;
+        @XmlElement(name="child")
+        public List<Node> children = new ArrayList<Node>();
+        @XmlElements({
+            @XmlElement(name="text", type=String.class),
+            @XmlElement(name="number", type=Integer.class)
+        })
+        public List<Object> values = new ArrayList<Object>();
+    }
+
+    public static class Leaf extends Node {
+        public double weight;
+    }
+
+    @XmlRootElement
+    public static class Unused {
+        public String never;
+    }
+
+    private static JAXBContextImpl create(boolean lazy) throws Exception {
+        Map<String,Object> props = new HashMap<String,Object>();
+        props.put(JAXBRIContext.LAZY_BEAN_INFO_LINKING, lazy);
+        return (JAXBContextImpl) ContextFactory.createContext(new Class[]{Node.class, Unused.class}, props);
+    }
+
+    private static Node tree() {
+        Node root = new Node();
+        root.name = "root";
+        root.values.add("a");
+        root.values.add(1);
+        Leaf leaf = new Leaf();
+        leaf.name = "leaf";
+        leaf.weight = 2.5;
+        leaf.values.add(2);
+        root.children.add(leaf);
+        Node inner = new Node();
+        inner.name = "inner";
+        inner.children.add(new Node());
+        root.children.add(inner);
+        return root;
+    }
+
+    private static String marshal(JAXBContextImpl context, Object o) throws Exception {
+        StringWriter w = new StringWriter();
+        context.createMarshaller().marshal(o, w);
+        return w.toString();
+    }
+
+    public void testSameAsEager() throws Exception {
+        JAXBContextImpl eager = create(false);
+        JAXBContextImpl lazy = create(true);
+        assertTrue(lazy.lazyBeanInfoLinking);
+
+        String xml = marshal(eager, tree());
+        assertEquals(xml, marshal(lazy, tree()));
+
+        Node n = (Node) lazy.createUnmarshaller().unmarshal(new StringReader(xml));
+        assertEquals(xml, marshal(eager, n));
+        assertTrue(n.children.get(0) instanceof Leaf);
+        assertEquals(2.5, ((Leaf) n.children.get(0)).weight);
+    }
+
+    private static Accessor weightAccessor(JAXBContextImpl context) throws Exception {
+        ClassBeanInfoImpl bi = (ClassBeanInfoImpl) context.getBeanInfo(Leaf.class, true);
+        for (Property p : bi.properties) {
+            Accessor acc = p.getElementPropertyAccessor("", "weight");
+            if (acc != null)
+                return acc;
+        }
+        throw new AssertionError();
+    }
+
+    public void testAccessorsOptimizedOnFirstUse() throws Exception {
+        JAXBContextImpl eager = create(false);
+        JAXBContextImpl lazy = create(true);
+
+        assertTrue(weightAccessor(lazy) instanceof Accessor.FieldReflection);
+        marshal(lazy, tree());
+        assertSame(weightAccessor(eager).getClass(), weightAccessor(lazy).getClass());
+    }
+
+    public void testModelReleased() throws Exception {
+        JAXBContextImpl lazy = create(true);
+        assertNotNull(lazy.beanInfos);
+
+        marshal(lazy, tree());
+        // Unused hasn't been linked yet
+        assertNotNull(lazy.beanInfos);
+
+        marshal(lazy, new Unused());
+        assertNull(lazy.beanInfos);
+
+        // everything still works without the model
+        String xml = marshal(create(false), tree());
+        assertEquals(xml, marshal(lazy, lazy.createUnmarshaller().unmarshal(new StringReader(xml))));
+    }
+
+    public void testConcurrentFirstUse() throws Exception {
+        final String xml = marshal(create(false), tree());
+        final JAXBContextImpl lazy = create(true);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService es = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(es.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        start.await();
+                        Object o = lazy.createUnmarshaller().unmarshal(new StringReader(xml));
+                        return marshal(lazy, o);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<String> f : results)
+                assertEquals(xml, f.get());
+        } finally {
+            es.shutdown();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.MarshalException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.PropertyException;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.sun.xml.bind.v2.ContextFactory;
+import com.sun.xml.bind.v2.runtime.output.UTF8XmlOutput;
+import junit.framework.TestCase;
+
+public class MarshallerImplTest extends TestCase {
+
+    @XmlRootElement
+    public static class Doc {
+        public String name;
+        public String text;
+
+        public Doc() {}
+
+        Doc(String name, int length) {
+            this.name = name;
+            StringBuilder sb = new StringBuilder();
+            for( int i=0; i<length; i++ )
+                sb.append((char)('a'+i%26)).append(i%10==0 ? "é<&" : "");
+            text = sb.toString();
+        }
+    }
+
+    private JAXBContext context;
+
+    @Override
+    protected void setUp() throws Exception {
+        context = ContextFactory.createContext(new Class[]{Doc.class}, Collections.<String,Object>emptyMap());
+    }
+
+    private static byte[] marshal(Marshaller m, Object o) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        m.marshal(o, baos);
+        return baos.toByteArray();
+    }
+
+    public void testOutputBufferSize() throws Exception {
+        Doc doc = new Doc("n", 5000);
+        byte[] expected = marshal(context.createMarshaller(), doc);
+
+        Marshaller m = context.createMarshaller();
+        assertEquals(UTF8XmlOutput.DEFAULT_BUFFER_SIZE, m.getProperty(MarshallerImpl.OUTPUT_BUFFER_SIZE));
+
+        m.setProperty(MarshallerImpl.OUTPUT_BUFFER_SIZE, UTF8XmlOutput.MIN_BUFFER_SIZE);
+        assertEquals(UTF8XmlOutput.MIN_BUFFER_SIZE, m.getProperty(MarshallerImpl.OUTPUT_BUFFER_SIZE));
+        assertTrue(Arrays.equals(expected, marshal(m, doc)));
+
+        for( Object value : new Object[]{UTF8XmlOutput.MIN_BUFFER_SIZE-1, 0, -1, "4096", 4096L} ) {
+            try {
+                m.setProperty(MarshallerImpl.OUTPUT_BUFFER_SIZE, value);
+                fail(String.valueOf(value));
+            } catch (PropertyException e) {
+                // expected
+            }
+            assertEquals(UTF8XmlOutput.MIN_BUFFER_SIZE, m.getProperty(MarshallerImpl.OUTPUT_BUFFER_SIZE));
+        }
+
+        m.setProperty(MarshallerImpl.OUTPUT_BUFFER_SIZE, 65536);
+        assertTrue(Arrays.equals(expected, marshal(m, doc)));
+    }
+
+    public void testReuse() throws Exception {
+        Doc first = new Doc("first", 3000);
+        Doc second = new Doc("second", 10);
+
+        Marshaller m = context.createMarshaller();
+        ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+        ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+        m.marshal(first, out1);
+        byte[] firstBytes = out1.toByteArray();
+        m.marshal(second, out2);
+
+        // nothing of the second document goes to the first stream
+        assertTrue(Arrays.equals(firstBytes, out1.toByteArray()));
+        assertTrue(Arrays.equals(marshal(context.createMarshaller(), first), firstBytes));
+        assertTrue(Arrays.equals(marshal(context.createMarshaller(), second), out2.toByteArray()));
+
+        // a property change is picked up by the next marshal
+        m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        Marshaller f = context.createMarshaller();
+        f.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        f.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        assertTrue(Arrays.equals(marshal(f, second), marshal(m, second)));
+        assertTrue(Arrays.equals(marshal(f, first), marshal(m, first)));
+    }
+
+    public void testChannel() throws Exception {
+        Doc doc = new Doc("n", 20000);
+        byte[] expected = marshal(context.createMarshaller(), doc);
+
+        MarshallerImpl m = (MarshallerImpl)context.createMarshaller();
+        // twice, to reuse the channel buffer
+        for( int i=0; i<2; i++ ) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            m.marshal(doc, Channels.newChannel(baos));
+            assertTrue(Arrays.equals(expected, baos.toByteArray()));
+        }
+    }
+
+    public void testPipe() throws Exception {
+        Doc doc = new Doc("n", 20000);
+        byte[] expected = marshal(context.createMarshaller(), doc);
+
+        final Pipe pipe = Pipe.open();
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Thread reader = new Thread() {
+            @Override
+            public void run() {
+                ByteBuffer b = ByteBuffer.allocate(100);
+                try {
+                    while(pipe.source().read(b)>=0) {
+                        baos.write(b.array(), 0, b.position());
+                        b.clear();
+                    }
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        };
+        reader.start();
+        ((MarshallerImpl)context.createMarshaller()).marshal(doc, pipe.sink());
+        pipe.sink().close();
+        reader.join();
+        pipe.source().close();
+        assertTrue(Arrays.equals(expected, baos.toByteArray()));
+    }
+
+    public void testNonBlockingChannel() throws Exception {
+        Pipe pipe = Pipe.open();
+        try {
+            pipe.sink().configureBlocking(false);
+            ((MarshallerImpl)context.createMarshaller()).marshal(new Doc("n", 10), pipe.sink());
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+
+    public void testChannelWithoutProgress() throws Exception {
+        WritableByteChannel stuck = new WritableByteChannel() {
+            public int write(ByteBuffer src) {
+                return 0;
+            }
+
+            public boolean isOpen() {
+                return true;
+            }
+
+            public void close() {
+            }
+        };
+        try {
+            ((MarshallerImpl)context.createMarshaller()).marshal(new Doc("n", 10), stuck);
+            fail();
+        } catch (MarshalException e) {
+            // expected
+        }
+    }
+}
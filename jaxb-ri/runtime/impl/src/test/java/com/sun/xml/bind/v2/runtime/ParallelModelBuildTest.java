@@ -0,0 +1,188 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.io.StringWriter;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSeeAlso;
+
+import com.sun.xml.bind.api.JAXBRIContext;
+import com.sun.xml.bind.v2.ContextFactory;
+import com.sun.xml.bind.v2.model.runtime.RuntimeClassInfo;
+import com.sun.xml.bind.v2.model.runtime.RuntimePropertyInfo;
+import com.sun.xml.bind.v2.runtime.reflect.Accessor;
+import junit.framework.TestCase;
+
+public class ParallelModelBuildTest extends TestCase {
+
+    @XmlRootElement
+    @XmlSeeAlso(Special.class)
+    public static class Order {
+        @XmlAttribute
+        public String id;
+        public int quantity;
+        @XmlElement(name="line")
+        public List<Line> lines = new ArrayList<Line>();
+        private Customer customer;
+
+        public Customer getCustomer() { return customer; }
+        public void setCustomer(Customer customer) { this.customer = customer; }
+    }
+
+    @XmlRootElement
+    public static class Special extends Order {
+        public boolean urgent;
+    }
+
+    public static class Line {
+        public String product;
+        public double price;
+    }
+
+    public static class Customer {
+        @XmlAttribute
+        public long number;
+        public String name;
+    }
+
+    private static JAXBContextImpl create(boolean parallel) throws Exception {
+        Map<String,Object> props = new HashMap<String,Object>();
+        props.put(JAXBRIContext.PARALLEL_MODEL_BUILD, parallel);
+        return (JAXBContextImpl) ContextFactory.createContext(new Class[]{Order.class}, props);
+    }
+
+    private static String marshal(JAXBContextImpl context, Object o) throws Exception {
+        StringWriter w = new StringWriter();
+        context.createMarshaller().marshal(o, w);
+        return w.toString();
+    }
+
+    public void testSameContext() throws Exception {
+        JAXBContextImpl sequential = create(false);
+        JAXBContextImpl parallel = create(true);
+        assertFalse(sequential.parallelModelBuild);
+        assertTrue(parallel.parallelModelBuild);
+
+        assertTrue(Arrays.equals(sequential.nameList.namespaceURIs, parallel.nameList.namespaceURIs));
+        assertTrue(Arrays.equals(sequential.nameList.localNames, parallel.nameList.localNames));
+        assertEquals(sequential.nameList.numberOfElementNames, parallel.nameList.numberOfElementNames);
+        assertEquals(sequential.nameList.numberOfAttributeNames, parallel.nameList.numberOfAttributeNames);
+        assertEquals(sequential.getKnownNamespaceURIs(), parallel.getKnownNamespaceURIs());
+
+        Special o = new Special();
+        o.id = "o1";
+        o.quantity = 2;
+        o.urgent = true;
+        Line l = new Line();
+        l.product = "p";
+        l.price = 1.5;
+        o.lines.add(l);
+        Customer c = new Customer();
+        c.number = 42;
+        c.name = "n";
+        o.setCustomer(c);
+        assertEquals(marshal(sequential, o), marshal(parallel, o));
+    }
+
+    public void testOptimizedAccessorsMatch() throws Exception {
+        JAXBContextImpl context = create(true);
+        // only available while the context is being built
+        assertNull(context.getOptimizedAccessor(new Accessor.FieldReflection<Object,Object>(Line.class.getField("price"))));
+
+        Map<Accessor,Accessor> optimized = ParallelModelBuild.optimizeAccessors(context.getTypeInfoSet());
+        for (RuntimeClassInfo ci : context.getTypeInfoSet().beans().values()) {
+            for (RuntimePropertyInfo p : ci.getProperties()) {
+                Accessor acc = p.getAccessor();
+                Accessor expected = acc.optimize(null);
+                Accessor actual = optimized.get(acc);
+                if (expected == acc)
+                    assertNull(actual);
+                else
+                    assertSame(expected.getClass(), actual.getClass());
+            }
+        }
+    }
+
+    public void testTasksRunAsTheCaller() throws Exception {
+        final ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {};
+        final ClassLoader[] seen = new ClassLoader[2];
+
+        Thread t = Thread.currentThread();
+        ClassLoader old = t.getContextClassLoader();
+        final ParallelModelBuild.Caller caller;
+        t.setContextClassLoader(loader);
+        try {
+            caller = new ParallelModelBuild.Caller();
+        } finally {
+            t.setContextClassLoader(old);
+        }
+
+        Thread worker = new Thread() {
+            @Override
+            public void run() {
+                seen[0] = caller.run(new PrivilegedAction<ClassLoader>() {
+                    public ClassLoader run() {
+                        return Thread.currentThread().getContextClassLoader();
+                    }
+                });
+                seen[1] = Thread.currentThread().getContextClassLoader();
+            }
+        };
+        worker.start();
+        worker.join();
+
+        assertSame(loader, seen[0]);
+        assertNotSame(loader, seen[1]);
+    }
+
+    public void testReadAnnotationsToleratesCycles() {
+        ParallelModelBuild.readAnnotations(new Class[]{Order.class, Special.class, int.class, String.class, null});
+    }
+}
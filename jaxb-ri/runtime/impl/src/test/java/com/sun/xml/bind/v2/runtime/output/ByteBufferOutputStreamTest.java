@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+public class ByteBufferOutputStreamTest extends TestCase {
+
+    /**
+     * Collects everything into a byte array, handing out small buffers.
+     */
+    private static final class CollectingSink implements ByteBufferSink {
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final int size;
+        int outstanding;
+        int buffers;
+
+        CollectingSink(int size) {
+            this.size = size;
+        }
+
+        public ByteBuffer nextBuffer() {
+            assertEquals(0, outstanding);
+            outstanding++;
+            buffers++;
+            return ByteBuffer.allocateDirect(size);
+        }
+
+        public void flush(ByteBuffer buffer) {
+            outstanding--;
+            while(buffer.hasRemaining())
+                data.write(buffer.get());
+        }
+    }
+
+    public void testSpansBuffers() throws IOException {
+        byte[] data = new byte[100];
+        for( int i=0; i<data.length; i++ )
+            data[i] = (byte)i;
+
+        CollectingSink sink = new CollectingSink(7);
+        ByteBufferOutputStream os = new ByteBufferOutputStream(sink);
+        os.write(data, 0, 50);
+        for( int i=50; i<60; i++ )
+            os.write(data[i]);
+        os.write(data, 60, 40);
+        os.flush();
+
+        assertEquals(0, sink.outstanding);
+        assertEquals(15, sink.buffers);
+        assertTrue(Arrays.equals(data, sink.data.toByteArray()));
+    }
+
+    public void testNothingWritten() throws IOException {
+        CollectingSink sink = new CollectingSink(7);
+        new ByteBufferOutputStream(sink).flush();
+        assertEquals(0, sink.buffers);
+    }
+
+    public void testFullBufferRejected() {
+        ByteBufferOutputStream os = new ByteBufferOutputStream(new CollectingSink(0));
+        try {
+            os.write(1);
+            fail();
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
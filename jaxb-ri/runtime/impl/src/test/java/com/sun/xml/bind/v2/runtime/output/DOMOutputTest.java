@@ -0,0 +1,198 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.Binder;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.dom.DOMResult;
+
+import com.sun.xml.bind.marshaller.NamespacePrefixMapper;
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+public class DOMOutputTest extends TestCase {
+
+    @XmlRootElement(namespace="urn:test")
+    public static class Doc {
+        @XmlAttribute
+        public String title;
+        @XmlAttribute(namespace="urn:other")
+        public String lang;
+        @XmlElement(namespace="urn:other")
+        public List<String> line = new ArrayList<String>();
+        public int count;
+        public Doc child;
+    }
+
+    private JAXBContext context;
+
+    @Override
+    protected void setUp() throws Exception {
+        context = ContextFactory.createContext(new Class[]{Doc.class}, Collections.<String,Object>emptyMap());
+    }
+
+    private Doc doc() {
+        Doc d = new Doc();
+        d.title = "<a & b>";
+        d.lang = "en";
+        d.line.add("one");
+        d.line.add("two");
+        d.count = 3;
+        d.child = new Doc();
+        d.child.title = "inner";
+        return d;
+    }
+
+    private static List<Element> children(Node parent) {
+        List<Element> r = new ArrayList<Element>();
+        for( Node n=parent.getFirstChild(); n!=null; n=n.getNextSibling() )
+            if(n.getNodeType()==Node.ELEMENT_NODE)
+                r.add((Element)n);
+        return r;
+    }
+
+    private static void assertName(String nsUri, String localName, Node n) {
+        assertEquals(nsUri, n.getNamespaceURI()==null ? "" : n.getNamespaceURI());
+        assertEquals(localName, n.getLocalName());
+    }
+
+    private static void assertDoc(Element root) {
+        assertName("urn:test", "doc", root);
+        assertEquals("<a & b>", root.getAttributeNS(null, "title"));
+        assertEquals("en", root.getAttributeNS("urn:other", "lang"));
+
+        List<Element> c = children(root);
+        assertEquals(4, c.size());
+        assertName("urn:other", "line", c.get(0));
+        assertEquals("one", c.get(0).getTextContent());
+        assertEquals("two", c.get(1).getTextContent());
+        assertName("", "count", c.get(2));
+        assertEquals("3", c.get(2).getTextContent());
+        assertName("", "child", c.get(3));
+        assertEquals("inner", c.get(3).getAttributeNS(null, "title"));
+        assertEquals(1, children(c.get(3)).size());
+    }
+
+    public void testNewDocument() throws Exception {
+        DOMResult r = new DOMResult();
+        context.createMarshaller().marshal(doc(), r);
+        Document d = (Document) r.getNode();
+        Element root = d.getDocumentElement();
+        assertDoc(root);
+
+        // prefixes have to be declared so that the tree can be serialized again
+        String p = root.getAttributeNodeNS("urn:other", "lang").getPrefix();
+        assertNotNull(p);
+        assertEquals("urn:other", root.getAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, p));
+        assertEquals("urn:other", root.lookupNamespaceURI(p));
+    }
+
+    public void testUnderExistingElement() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        Document d = dbf.newDocumentBuilder().newDocument();
+        Element wrapper = d.createElementNS("urn:test", "t:wrapper");
+        wrapper.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns:t", "urn:test");
+        d.appendChild(wrapper);
+        wrapper.appendChild(d.createTextNode("before"));
+
+        context.createMarshaller().marshal(doc(), new DOMResult(wrapper));
+        context.createMarshaller().marshal(doc(), new DOMResult(wrapper));
+
+        List<Element> c = children(wrapper);
+        assertEquals(2, c.size());
+        assertDoc(c.get(0));
+        assertDoc(c.get(1));
+        // the binding in scope is reused
+        assertEquals("t", c.get(0).getPrefix());
+        assertEquals("before", wrapper.getFirstChild().getNodeValue());
+    }
+
+    public void testPrefixChangesBetweenInvocations() throws Exception {
+        for( final String prefix : new String[]{"a", "bb", "a", "c"} ) {
+            Marshaller m = context.createMarshaller();
+            m.setProperty("com.sun.xml.bind.namespacePrefixMapper", new NamespacePrefixMapper() {
+                public String getPreferredPrefix(String namespaceUri, String suggestion, boolean requirePrefix) {
+                    if(namespaceUri.equals("urn:test"))
+                        return prefix;
+                    if(namespaceUri.equals("urn:other"))
+                        return prefix+'o';
+                    return suggestion;
+                }
+            });
+            DOMResult r = new DOMResult();
+            m.marshal(doc(), r);
+            Element root = ((Document) r.getNode()).getDocumentElement();
+            assertDoc(root);
+            assertEquals(prefix+":doc", root.getTagName());
+            assertEquals(prefix+"o:line", children(root).get(0).getTagName());
+            assertEquals(prefix+"o:lang", root.getAttributeNodeNS("urn:other", "lang").getName());
+        }
+    }
+
+    public void testBinder() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        Document d = dbf.newDocumentBuilder().newDocument();
+
+        Doc doc = doc();
+        Binder<Node> binder = context.createBinder();
+        binder.marshal(doc, d);
+        assertDoc(d.getDocumentElement());
+        Element child = children(d.getDocumentElement()).get(3);
+        assertSame(child, binder.getXMLNode(doc.child));
+        assertSame(doc.child, binder.getJAXBNode(child));
+    }
+}
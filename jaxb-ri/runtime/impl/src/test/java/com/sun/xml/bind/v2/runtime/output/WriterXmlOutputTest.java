@@ -0,0 +1,163 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+public class WriterXmlOutputTest extends TestCase {
+
+    @XmlRootElement(namespace="urn:test")
+    public static class Doc {
+        @XmlAttribute
+        public String title;
+        @XmlElement(namespace="urn:other")
+        public List<String> line = new ArrayList<String>();
+        public byte[] data;
+        public int count;
+        public Doc empty;
+    }
+
+    private static final String TEXT = "café € <&> \"q\"\r\n 😀";
+
+    private JAXBContext context;
+
+    @Override
+    protected void setUp() throws Exception {
+        context = ContextFactory.createContext(new Class[]{Doc.class}, Collections.<String,Object>emptyMap());
+    }
+
+    private Doc doc() {
+        Doc d = new Doc();
+        d.title = TEXT;
+        d.line.add(TEXT);
+        d.line.add("plain");
+        d.data = new byte[300];
+        for( int i=0; i<d.data.length; i++ )
+            d.data[i] = (byte)i;
+        d.count = -42;
+        d.empty = new Doc();
+        return d;
+    }
+
+    private byte[] marshal(String encoding, boolean formatted) throws Exception {
+        Marshaller m = context.createMarshaller();
+        m.setProperty(Marshaller.JAXB_ENCODING, encoding);
+        m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formatted);
+        m.setProperty("com.sun.xml.bind.outputBufferSize", 64);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        m.marshal(doc(), os);
+        return os.toByteArray();
+    }
+
+    private String marshalToWriter(String encoding, boolean formatted) throws Exception {
+        Marshaller m = context.createMarshaller();
+        m.setProperty(Marshaller.JAXB_ENCODING, encoding);
+        m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formatted);
+        StringWriter w = new StringWriter();
+        m.marshal(doc(), w);
+        return w.toString();
+    }
+
+    private void assertRoundTrip(byte[] xml) throws Exception {
+        Doc d = (Doc) context.createUnmarshaller().unmarshal(new ByteArrayInputStream(xml));
+        // \r\n in an element is normalized by the parser, the one in the attribute is escaped
+        assertEquals(TEXT, d.title);
+        assertEquals(TEXT, d.line.get(0));
+        assertEquals(doc().data.length, d.data.length);
+        assertEquals(-42, d.count);
+        assertNotNull(d.empty);
+    }
+
+    public void testWriterMatchesUTF8() throws Exception {
+        assertEquals(new String(marshal("UTF-8", false), "UTF-8"), marshalToWriter("UTF-8", false));
+        assertEquals(new String(marshal("UTF-8", true), "UTF-8"), marshalToWriter("UTF-8", true));
+    }
+
+    public void testUTF16() throws Exception {
+        String utf8 = new String(marshal("UTF-8", false), "UTF-8");
+        for (String enc : new String[]{"UTF-16", "UTF-16BE", "UTF-16LE"}) {
+            byte[] xml = marshal(enc, false);
+            assertEquals(enc, utf8.replace("encoding=\"UTF-8\"", "encoding=\""+enc+"\""), new String(xml, enc));
+            assertRoundTrip(xml);
+        }
+        byte[] bom = marshal("UTF-16", false);
+        assertEquals((byte)0xFE, bom[0]);
+        assertEquals((byte)0xFF, bom[1]);
+        assertEquals('<', marshal("UTF-16LE", false)[0]);
+    }
+
+    public void testSingleByte() throws Exception {
+        byte[] latin1 = marshal("ISO-8859-1", false);
+        String s = new String(latin1, "ISO-8859-1");
+        assertTrue(s, s.startsWith("<?xml version=\"1.0\" encoding=\"ISO-8859-1\" standalone=\"yes\"?>"));
+        assertTrue(s, s.contains("café &#8364; &lt;&amp;&gt;"));
+        assertTrue(s, s.contains("&#128512;"));
+        assertRoundTrip(latin1);
+
+        byte[] ascii = marshal("US-ASCII", true);
+        s = new String(ascii, "US-ASCII");
+        assertTrue(s, s.contains("caf&#233; &#8364;"));
+        for (byte b : ascii)
+            assertTrue(b >= 0);
+        assertRoundTrip(ascii);
+    }
+
+    public void testOtherEncoding() throws Exception {
+        // goes through an OutputStreamWriter and the NIO escape handler
+        String s = new String(marshal("windows-1252", false), "windows-1252");
+        assertTrue(s, s.startsWith("<?xml version=\"1.0\" encoding=\"windows-1252\" standalone=\"yes\"?>"));
+        assertTrue(s, s.contains("café € &lt;&amp;&gt;"));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.reflect;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlList;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+/**
+ * Round-trips xs:list properties bound to primitive arrays.
+ */
+public class PrimitiveArrayTransducedAccessorTest extends TestCase {
+
+    @XmlRootElement
+    public static class Series {
+        @XmlAttribute @XmlList
+        public int[] codes;
+        @XmlList
+        public int[] ints;
+        @XmlList
+        public long[] longs;
+        @XmlList
+        public double[] doubles;
+        @XmlList
+        public short[] shorts;
+    }
+
+    private static final String XML = "<series codes=\"1 -2\">"
+        + "<ints>0 -2147483648 2147483647</ints>"
+        + "<longs>-9223372036854775808 42</longs>"
+        + "<doubles>3.0 -0.1 1.0E-5 NaN</doubles>"
+        + "<shorts>1 2</shorts>"
+        + "</series>";
+
+    private JAXBContext context;
+
+    @Override
+    protected void setUp() throws Exception {
+        context = ContextFactory.createContext(new Class[]{Series.class}, Collections.<String,Object>emptyMap());
+    }
+
+    private static Series create() {
+        Series s = new Series();
+        s.codes = new int[]{1,-2};
+        s.ints = new int[]{0,Integer.MIN_VALUE,Integer.MAX_VALUE};
+        s.longs = new long[]{Long.MIN_VALUE,42};
+        s.doubles = new double[]{3,-0.1,1e-5,Double.NaN};
+        s.shorts = new short[]{1,2};
+        return s;
+    }
+
+    public void testMarshal() throws Exception {
+        Marshaller m = context.createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        m.marshal(create(), os);
+        assertEquals(XML, os.toString("UTF-8"));
+
+        StringWriter w = new StringWriter();
+        m.marshal(create(), w);
+        assertEquals(XML, w.toString());
+    }
+
+    public void testUnmarshal() throws Exception {
+        String xml = XML.replace("<ints>", "<ints>\n\t ").replace("<longs>-", "<longs>  -").replace("NaN", "NaN  ");
+        Series s = (Series) context.createUnmarshaller().unmarshal(new StringReader(xml));
+        Series e = create();
+        assertTrue(Arrays.equals(e.codes, s.codes));
+        assertTrue(Arrays.equals(e.ints, s.ints));
+        assertTrue(Arrays.equals(e.longs, s.longs));
+        assertTrue(Arrays.equals(e.doubles, s.doubles));
+        assertTrue(Arrays.equals(e.shorts, s.shorts));
+
+        s = (Series) context.createUnmarshaller().unmarshal(new ByteArrayInputStream(
+            "<series><ints/><doubles> </doubles></series>".getBytes("UTF-8")));
+        assertNull(s.codes);
+        assertEquals(0, s.ints.length);
+        assertEquals(0, s.doubles.length);
+    }
+
+    public void testLargeList() throws Exception {
+        Series s = new Series();
+        s.doubles = new double[10000];
+        for (int i = 0; i < s.doubles.length; i++)
+            s.doubles[i] = i / 7.0;
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        context.createMarshaller().marshal(s, os);
+        Series r = (Series) context.createUnmarshaller().unmarshal(new ByteArrayInputStream(os.toByteArray()));
+        assertTrue(Arrays.equals(s.doubles, r.doubles));
+    }
+}
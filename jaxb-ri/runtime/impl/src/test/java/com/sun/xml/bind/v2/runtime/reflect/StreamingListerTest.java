@@ -0,0 +1,94 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.reflect;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.sun.xml.bind.api.JAXBRIContext;
+
+import junit.framework.TestCase;
+
+/**
+ * Round-trips properties typed as {@link Iterable} and {@link Iterator}.
+ */
+public class StreamingListerTest extends TestCase {
+
+    @XmlRootElement
+    public static class Export {
+        @XmlElement(name="row")
+        public Iterable<Integer> rows;
+
+        @XmlElementWrapper(name="tags")
+        @XmlElement(name="tag")
+        public Iterator<String> tags;
+    }
+
+    public void testRoundTrip() throws Exception {
+        JAXBContext context = JAXBRIContext.newInstance(new Class[]{Export.class}, null, "", false);
+
+        Export e = new Export();
+        e.rows = Arrays.asList(1, 2, 3);
+        e.tags = Arrays.asList("a", "b").iterator();
+
+        StringWriter sw = new StringWriter();
+        context.createMarshaller().marshal(e, sw);
+        assertTrue(sw.toString().endsWith(
+            "<export><row>1</row><row>2</row><row>3</row><tags><tag>a</tag><tag>b</tag></tags></export>"));
+        assertFalse(e.tags.hasNext());
+
+        Export r = (Export) context.createUnmarshaller().unmarshal(new StringReader(sw.toString()));
+        int sum = 0;
+        for (Integer i : r.rows)
+            sum += i;
+        assertEquals(6, sum);
+        assertEquals("a", r.tags.next());
+        assertEquals("b", r.tags.next());
+        assertFalse(r.tags.hasNext());
+    }
+}
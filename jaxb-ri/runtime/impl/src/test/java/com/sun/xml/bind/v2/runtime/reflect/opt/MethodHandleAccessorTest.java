@@ -0,0 +1,151 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.reflect.opt;
+
+import junit.framework.TestCase;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import com.sun.xml.bind.api.AccessorException;
+import com.sun.xml.bind.v2.runtime.reflect.Accessor;
+
+public class MethodHandleAccessorTest extends TestCase {
+
+    @SuppressWarnings("unused")
+    private static class Pojo {
+        private int i;
+        private long l;
+        private boolean b;
+        private char c;
+        private double d;
+        private final String s = "initial";
+        private String text;
+
+        private String getText() { return text; }
+        private void setText(String text) { this.text = text; }
+
+        public short getShort() { throw new IllegalStateException("boom"); }
+        public void setShort(short s) { }
+    }
+
+    private static Field field(String name) throws NoSuchFieldException {
+        Field f = Pojo.class.getDeclaredField(name);
+        f.setAccessible(true);
+        return f;
+    }
+
+    private static Method method(String name, Class<?>... params) throws NoSuchMethodException {
+        Method m = Pojo.class.getDeclaredMethod(name, params);
+        m.setAccessible(true);
+        return m;
+    }
+
+    public void testPrivateFields() throws Exception {
+        Pojo bean = new Pojo();
+
+        Accessor<Pojo,Object> i = MethodHandleAccessorFactory.get(field("i"));
+        assertTrue(i instanceof MethodHandleAccessor_Integer);
+        assertEquals(Integer.class, i.getValueType());
+        i.set(bean, 5);
+        assertEquals(5, bean.i);
+        assertEquals(5, i.get(bean));
+        i.set(bean, null);
+        assertEquals(0, bean.i);
+
+        Accessor<Pojo,Object> l = MethodHandleAccessorFactory.get(field("l"));
+        l.set(bean, Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, l.get(bean));
+
+        Accessor<Pojo,Object> b = MethodHandleAccessorFactory.get(field("b"));
+        b.set(bean, true);
+        assertEquals(Boolean.TRUE, b.get(bean));
+
+        Accessor<Pojo,Object> c = MethodHandleAccessorFactory.get(field("c"));
+        c.set(bean, 'x');
+        assertEquals('x', bean.c);
+
+        Accessor<Pojo,Object> d = MethodHandleAccessorFactory.get(field("d"));
+        d.set(bean, 1.5d);
+        assertEquals(1.5d, d.get(bean));
+
+        Accessor<Pojo,Object> text = MethodHandleAccessorFactory.get(field("text"));
+        assertEquals(String.class, text.getValueType());
+        text.set(bean, "abc");
+        assertEquals("abc", text.get(bean));
+    }
+
+    public void testFinalField() throws Exception {
+        Accessor<Pojo,Object> s = MethodHandleAccessorFactory.get(field("s"));
+        if (s == null)
+            return;     // the VM doesn't let us write to final fields; the caller falls back to reflection
+        Pojo bean = new Pojo();
+        s.set(bean, "updated");
+        assertEquals("updated", s.get(bean));
+    }
+
+    public void testPrivateGetterSetter() throws Exception {
+        Accessor<Pojo,Object> acc = MethodHandleAccessorFactory.get(method("getText"), method("setText", String.class));
+        Pojo bean = new Pojo();
+        acc.set(bean, "abc");
+        assertEquals("abc", bean.text);
+        assertEquals("abc", acc.get(bean));
+    }
+
+    public void testExceptionFromUserCode() throws Exception {
+        Accessor<Pojo,Object> acc = MethodHandleAccessorFactory.get(method("getShort"), method("setShort", short.class));
+        assertTrue(acc instanceof MethodHandleAccessor_Short);
+        try {
+            acc.get(new Pojo());
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        } catch (AccessorException e) {
+            fail();
+        }
+    }
+
+    public void testOptimizedFactoryFallsBack() throws Exception {
+        // injection never works for private fields, so this has to come from MethodHandleAccessorFactory
+        Accessor<Pojo,Object> acc = OptimizedAccessorFactory.get(field("i"));
+        assertTrue(acc instanceof MethodHandleAccessor);
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import javax.activation.DataHandler;
+import javax.activation.DataSource;
+import javax.activation.FileDataSource;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.UnmarshalException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.Source;
+
+import com.sun.xml.bind.DatatypeConverterImpl;
+import com.sun.xml.bind.v2.ContextFactory;
+import com.sun.xml.bind.v2.util.DataSourceSource;
+import junit.framework.TestCase;
+
+import org.xml.sax.InputSource;
+
+public class Base64StreamingTest extends TestCase {
+
+    @XmlRootElement
+    public static class Doc {
+        public String name;
+        public byte[] data;
+        @XmlElement(name="item")
+        public List<byte[]> items = new ArrayList<byte[]>();
+        public DataHandler handler;
+        public Source source;
+        public byte[] empty;
+    }
+
+    private JAXBContext context;
+
+    private final byte[] data = new byte[100000];
+    private final byte[] item = new byte[]{1,2,3,4,5};
+    private final byte[] handler = new byte[1000];
+
+    @Override
+    protected void setUp() throws Exception {
+        context = ContextFactory.createContext(new Class[]{Doc.class}, Collections.<String,Object>emptyMap());
+        Random r = new Random(1);
+        r.nextBytes(data);
+        r.nextBytes(handler);
+    }
+
+    /**
+     * Encodes the way mail agents do, with a line break every 76 characters.
+     */
+    private static String encode(byte[] b) {
+        String s = DatatypeConverterImpl._printBase64Binary(b);
+        StringBuilder sb = new StringBuilder();
+        for( int i=0; i<s.length(); i+=76 )
+            sb.append(s, i, Math.min(s.length(), i+76)).append("\r\n");
+        return sb.toString();
+    }
+
+    private String xml() {
+        return "<doc><name>n</name>"
+            + "<data>" + encode(data) + "</data>"
+            + "<item>" + encode(item) + "</item><item>"+DatatypeConverterImpl._printBase64Binary(item).substring(0,4)+"<![CDATA["+DatatypeConverterImpl._printBase64Binary(item).substring(4)+"]]></item>"
+            + "<handler>" + encode(handler) + "</handler>"
+            + "<source>" + encode(handler) + "</source>"
+            + "<empty/></doc>";
+    }
+
+    private void check(Doc d) throws Exception {
+        assertEquals("n", d.name);
+        assertTrue(Arrays.equals(data, d.data));
+        assertEquals(2, d.items.size());
+        assertTrue(Arrays.equals(item, d.items.get(0)));
+        assertTrue(Arrays.equals(item, d.items.get(1)));
+        assertNotNull(d.handler);
+        assertNotNull(d.source);
+        assertEquals(0, d.empty.length);
+    }
+
+    public void testDecoder() throws Exception {
+        String text = encode(data) + "  ";
+        DatatypeConverterImpl.Base64Decoder decoder = new DatatypeConverterImpl.Base64Decoder();
+        for( int chunk : new int[]{1,3,7,1000,text.length()} ) {
+            char[] ch = text.toCharArray();
+            for( int i=0; i<ch.length; i+=chunk )
+                decoder.decode(ch, i, Math.min(chunk, ch.length-i));
+            assertEquals(data.length, decoder.getDataLen());
+            assertTrue(Arrays.equals(data, Arrays.copyOf(decoder.getData(), decoder.getDataLen())));
+            decoder.reset();
+        }
+
+        decoder.decode("AQIDéBA==");
+        assertTrue(Arrays.equals(new byte[]{1,2,3,4}, Arrays.copyOf(decoder.getData(), decoder.getDataLen())));
+        decoder.reset();
+        assertEquals(0, decoder.getDataLen());
+        assertEquals(0, decoder.getData().length);
+    }
+
+    public void testSAX() throws Exception {
+        check((Doc) context.createUnmarshaller().unmarshal(new InputSource(new StringReader(xml()))));
+    }
+
+    public void testStAX() throws Exception {
+        check((Doc) context.createUnmarshaller().unmarshal(
+            XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml()))));
+    }
+
+    public void testUTF8Scanner() throws Exception {
+        Unmarshaller u = context.createUnmarshaller();
+        u.setProperty(UnmarshallerImpl.UTF8_SCANNER, true);
+        check((Doc) u.unmarshal(new ByteArrayInputStream(xml().getBytes("UTF-8"))));
+        // reuse the scanner
+        check((Doc) u.unmarshal(new ByteArrayInputStream(xml().getBytes("UTF-8"))));
+    }
+
+    public void testOverflow() throws Exception {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DatatypeConverterImpl.Base64Decoder decoder = new DatatypeConverterImpl.Base64Decoder() {
+            @Override
+            protected OutputStream overflow() {
+                return baos;
+            }
+        };
+        decoder.setThreshold(1000);
+        char[] ch = encode(data).toCharArray();
+        for( int i=0; i<ch.length; i+=500 )
+            decoder.decode(ch, i, Math.min(500, ch.length-i));
+        assertTrue(decoder.finish());
+        assertTrue(Arrays.equals(data, baos.toByteArray()));
+        decoder.reset();
+
+        // below the threshold nothing is written out
+        baos.reset();
+        decoder.decode(DatatypeConverterImpl._printBase64Binary(item));
+        assertFalse(decoder.finish());
+        assertEquals(0, baos.size());
+        assertTrue(Arrays.equals(item, Arrays.copyOf(decoder.getData(), decoder.getDataLen())));
+    }
+
+    private static Set<File> tempFiles() {
+        File[] files = new File(System.getProperty("java.io.tmpdir")).listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.startsWith("jaxb") && name.endsWith(".bin");
+            }
+        });
+        return new HashSet<File>(Arrays.asList(files));
+    }
+
+    private static byte[] read(File f) throws Exception {
+        byte[] b = new byte[(int)f.length()];
+        RandomAccessFile raf = new RandomAccessFile(f, "r");
+        try {
+            raf.readFully(b);
+        } finally {
+            raf.close();
+        }
+        return b;
+    }
+
+    public void testFileThreshold() throws Exception {
+        Unmarshaller u = context.createUnmarshaller();
+        assertNull(u.getProperty(UnmarshallerImpl.BINARY_FILE_THRESHOLD));
+        u.setProperty(UnmarshallerImpl.BINARY_FILE_THRESHOLD, 100);
+        assertEquals(100, u.getProperty(UnmarshallerImpl.BINARY_FILE_THRESHOLD));
+
+        Set<File> before = tempFiles();
+        Doc d = (Doc) u.unmarshal(new InputSource(new StringReader(xml())));
+        check(d);
+        Set<File> after = tempFiles();
+        after.removeAll(before);
+
+        // byte[] is kept in the heap no matter how large it is,
+        // so only the DataHandler and the Source are written out
+        DataSource ds = d.handler.getDataSource();
+        assertTrue(ds instanceof FileDataSource);
+        DataSource ss = ((DataSourceSource)d.source).getDataSource();
+        assertTrue(ss instanceof FileDataSource);
+        File hf = ((FileDataSource)ds).getFile();
+        File sf = ((FileDataSource)ss).getFile();
+        assertEquals(new HashSet<File>(Arrays.asList(hf, sf)), after);
+        try {
+            assertTrue(Arrays.equals(handler, read(hf)));
+            assertTrue(Arrays.equals(handler, read(sf)));
+        } finally {
+            // the application owns the files
+            hf.delete();
+            sf.delete();
+        }
+
+        u.setProperty(UnmarshallerImpl.BINARY_FILE_THRESHOLD, null);
+        before = tempFiles();
+        check((Doc) u.unmarshal(new InputSource(new StringReader(xml()))));
+        assertEquals(before, tempFiles());
+    }
+
+    public void testFileDeletedOnError() throws Exception {
+        Unmarshaller u = context.createUnmarshaller();
+        u.setProperty(UnmarshallerImpl.BINARY_FILE_THRESHOLD, 100);
+
+        // the document breaks off in the middle of a binary that's being written out
+        String xml = "<doc><handler>" + encode(handler) + "&undefined;</handler></doc>";
+
+        Set<File> before = tempFiles();
+        try {
+            u.unmarshal(new InputSource(new StringReader(xml)));
+            fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+        assertEquals(before, tempFiles());
+
+        try {
+            u.unmarshal(XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml)));
+            fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+        assertEquals(before, tempFiles());
+
+        u.setProperty(UnmarshallerImpl.UTF8_SCANNER, true);
+        try {
+            u.unmarshal(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+            fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+        assertEquals(before, tempFiles());
+
+        // the same unmarshaller still works afterwards
+        u.setProperty(UnmarshallerImpl.BINARY_FILE_THRESHOLD, null);
+        check((Doc) u.unmarshal(new ByteArrayInputStream(xml().getBytes("UTF-8"))));
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.ValidationEvent;
+import javax.xml.bind.ValidationEventHandler;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlID;
+import javax.xml.bind.annotation.XmlIDREF;
+import javax.xml.bind.annotation.XmlList;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.sun.xml.bind.IDResolver;
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+public class DirectIDResolverTest extends TestCase {
+
+    @XmlRootElement
+    public static class Graph {
+        public List<Node> node = new ArrayList<Node>();
+    }
+
+    public static class Node {
+        @XmlID @XmlAttribute
+        public String id;
+        @XmlIDREF @XmlAttribute
+        public Node ref;
+        @XmlIDREF @XmlList @XmlAttribute
+        public List<Node> links;
+    }
+
+    private static class Events implements ValidationEventHandler {
+        final List<ValidationEvent> events = new ArrayList<ValidationEvent>();
+
+        public boolean handleEvent(ValidationEvent event) {
+            events.add(event);
+            return true;
+        }
+    }
+
+    private JAXBContext context;
+
+    @Override
+    protected void setUp() throws Exception {
+        context = ContextFactory.createContext(new Class[]{Graph.class}, Collections.<String,Object>emptyMap());
+    }
+
+    private Unmarshaller unmarshaller(int size) throws Exception {
+        Unmarshaller u = context.createUnmarshaller();
+        u.setProperty(UnmarshallerImpl.ID_TABLE_SIZE, size);
+        assertTrue(u.getProperty(IDResolver.class.getName()) instanceof DirectIDResolver);
+        assertEquals(size, u.getProperty(UnmarshallerImpl.ID_TABLE_SIZE));
+        return u;
+    }
+
+    private static Graph unmarshal(Unmarshaller u, String xml) throws Exception {
+        return (Graph)u.unmarshal(new StringReader(xml));
+    }
+
+    public void testBackwardAndForward() throws Exception {
+        Graph g = unmarshal(unmarshaller(4),
+            "<graph><node id='a' ref='c'/><node id='b' ref='a'/><node id='c' ref='b' links='a b c'/></graph>");
+        Node a = g.node.get(0), b = g.node.get(1), c = g.node.get(2);
+        assertSame(c, a.ref);
+        assertSame(a, b.ref);
+        assertSame(b, c.ref);
+        assertEquals(3, c.links.size());
+        assertSame(a, c.links.get(0));
+        assertSame(b, c.links.get(1));
+        assertSame(c, c.links.get(2));
+    }
+
+    public void testGrowth() throws Exception {
+        // every node points to the next one, so all of them are forward references
+        StringBuilder xml = new StringBuilder("<graph>");
+        for( int i=0; i<1000; i++ )
+            xml.append("<node id='n").append(i).append("' ref='n").append((i+1)%1000).append("'/>");
+        xml.append("</graph>");
+
+        Graph g = unmarshal(unmarshaller(1), xml.toString());
+        assertEquals(1000, g.node.size());
+        for( int i=0; i<1000; i++ )
+            assertSame(g.node.get((i+1)%1000), g.node.get(i).ref);
+    }
+
+    public void testUnresolved() throws Exception {
+        Unmarshaller u = unmarshaller(16);
+        Events events = new Events();
+        u.setEventHandler(events);
+
+        Graph g = unmarshal(u, "<graph>\n<node id='a' ref='x'/>\n<node id='b' ref='a'/></graph>");
+        assertNull(g.node.get(0).ref);
+        assertSame(g.node.get(0), g.node.get(1).ref);
+
+        assertEquals(1, events.events.size());
+        ValidationEvent e = events.events.get(0);
+        assertTrue(e.getMessage().contains("x"));
+        assertEquals(2, e.getLocator().getLineNumber());
+    }
+
+    public void testReuse() throws Exception {
+        Unmarshaller u = unmarshaller(16);
+        Events events = new Events();
+        u.setEventHandler(events);
+
+        unmarshal(u, "<graph><node id='a'/></graph>");
+        Graph g = unmarshal(u, "<graph><node id='b' ref='a'/></graph>");
+        // IDs don't leak from one document into the next
+        assertNull(g.node.get(0).ref);
+        assertEquals(1, events.events.size());
+    }
+
+    public void testTable() throws Exception {
+        DirectIDResolver r = new DirectIDResolver(2);
+        r.startDocument(null);
+        for( int i=0; i<100; i++ )
+            r.bind("id"+i, i);
+        r.bind("id5", "again");
+        for( int i=0; i<100; i++ )
+            assertEquals(i==5 ? "again" : (Object)i, r.get("id"+i));
+        assertNull(r.get("missing"));
+        assertEquals(7, r.resolve("id7", Object.class).call());
+
+        r.endDocument();
+        assertNull(r.get("id7"));
+    }
+}
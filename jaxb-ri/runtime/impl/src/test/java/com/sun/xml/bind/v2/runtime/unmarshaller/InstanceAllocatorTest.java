@@ -0,0 +1,203 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElementRef;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.sun.xml.bind.api.InstanceAllocator;
+import com.sun.xml.bind.api.JAXBRIContext;
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+public class InstanceAllocatorTest extends TestCase {
+
+    @XmlRootElement
+    public static class Order {
+        @XmlAttribute
+        public String id;
+        public Line header;
+        public List<Line> line;
+        @XmlElementRef
+        public Note note;
+    }
+
+    @XmlRootElement
+    public static class Note {
+        public String text;
+        public Note next;
+    }
+
+    public static class Line {
+        @XmlAttribute
+        public int qty;
+        public String product;
+    }
+
+    private static class Pool extends InstanceAllocator {
+        final Map<Class,ArrayDeque<Object>> free = new HashMap<Class,ArrayDeque<Object>>();
+        final List<Object> released = new ArrayList<Object>();
+        int allocations, collections;
+
+        @Override
+        public <T> T allocate(Class<T> type) {
+            allocations++;
+            ArrayDeque<Object> q = free.get(type);
+            return q==null ? null : type.cast(q.poll());
+        }
+
+        @Override
+        public <T extends Collection> T allocateCollection(Class<T> type) {
+            collections++;
+            return type.cast(new ArrayList());
+        }
+
+        @Override
+        public void release(Object bean) {
+            released.add(bean);
+            ArrayDeque<Object> q = free.get(bean.getClass());
+            if(q==null)
+                free.put(bean.getClass(), q = new ArrayDeque<Object>());
+            q.add(bean);
+        }
+    }
+
+    private static final String DOC =
+        "<order id='o1'><header qty='0'/><line qty='1'><product>a</product></line><line qty='2'/></order>";
+
+    private JAXBRIContext context;
+    private Pool pool;
+    private Unmarshaller unmarshaller;
+
+    @Override
+    protected void setUp() throws Exception {
+        context = (JAXBRIContext)ContextFactory.createContext(new Class[]{Order.class}, Collections.<String,Object>emptyMap());
+        pool = new Pool();
+        unmarshaller = context.createUnmarshaller();
+        unmarshaller.setProperty(InstanceAllocator.class.getName(), pool);
+        assertSame(pool, unmarshaller.getProperty(InstanceAllocator.class.getName()));
+    }
+
+    private Order unmarshal() throws Exception {
+        return (Order)unmarshaller.unmarshal(new StringReader(DOC));
+    }
+
+    public void testAllocate() throws Exception {
+        Order o = unmarshal();
+        assertEquals(4, pool.allocations);
+        assertEquals(1, pool.collections);
+        assertEquals("o1", o.id);
+        assertEquals(2, o.line.size());
+        assertEquals("a", o.line.get(0).product);
+    }
+
+    public void testReleaseGraph() throws Exception {
+        Order o = unmarshal();
+        Line header = o.header, l0 = o.line.get(0), l1 = o.line.get(1);
+        List<Line> list = o.line;
+
+        context.releaseGraph(o, pool);
+        // children first
+        assertEquals(4, pool.released.size());
+        assertSame(o, pool.released.get(3));
+        assertTrue(pool.released.contains(header));
+        assertTrue(pool.released.contains(l0));
+        assertTrue(pool.released.contains(l1));
+
+        // everything is reset
+        assertNull(o.id);
+        assertNull(o.header);
+        assertSame(list, o.line);
+        assertTrue(list.isEmpty());
+        assertNull(l0.product);
+        assertEquals(0, l1.qty);
+
+        // and comes back the next time
+        Order o2 = unmarshal();
+        assertSame(o, o2);
+        assertSame(list, o2.line);
+        assertEquals(1, pool.collections);
+        assertTrue(o2.header==header || o2.header==l0 || o2.header==l1);
+        assertEquals("a", o2.line.get(0).product);
+        assertEquals(2, o2.line.get(1).qty);
+    }
+
+    public void testReferences() throws Exception {
+        Order o = (Order)unmarshaller.unmarshal(new StringReader(DOC.replace("</order>", "<note><text>t</text></note></order>")));
+        Note note = o.note;
+        assertEquals("t", note.text);
+
+        context.releaseGraph(o, pool);
+        assertEquals(5, pool.released.size());
+        assertTrue(pool.released.contains(note));
+        assertNull(o.note);
+        assertNull(note.text);
+    }
+
+    public void testDeepGraph() throws Exception {
+        Note root = new Note();
+        Note last = root;
+        for( int i=1; i<100000; i++ )
+            last = last.next = new Note();
+
+        context.releaseGraph(root, pool);
+        assertEquals(100000, pool.released.size());
+        assertSame(last, pool.released.get(0));
+        assertSame(root, pool.released.get(99999));
+        assertNull(root.next);
+    }
+
+    public void testUnknownObjects() throws Exception {
+        context.releaseGraph("not a bean", pool);
+        assertTrue(pool.released.isEmpty());
+    }
+}
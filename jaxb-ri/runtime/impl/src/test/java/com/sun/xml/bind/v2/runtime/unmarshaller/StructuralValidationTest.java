@@ -0,0 +1,222 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.UnmarshalException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlEnum;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+public class StructuralValidationTest extends TestCase {
+
+    @XmlEnum
+    public enum Color { RED, GREEN }
+
+    @XmlRootElement
+    public static class Order {
+        @XmlAttribute(required=true)
+        public String id;
+        @XmlAttribute
+        public String note;
+        @XmlElement(required=true)
+        public String customer;
+        public int quantity;
+        public Color color;
+        public List<String> item = new ArrayList<String>();
+        @XmlElementWrapper(name="tags", required=true)
+        public List<String> tag = new ArrayList<String>();
+        public Order sub;
+        public Map<String,String> props = new HashMap<String,String>();
+    }
+
+    private static final String VALID =
+        "<order id='1' note='n'>" +
+            "<customer>c</customer>" +
+            "<quantity>3</quantity>" +
+            "<color>GREEN</color>" +
+            "<item>a</item><item>b</item>" +
+            "<tags><tag>x</tag></tags>" +
+        "</order>";
+
+    private JAXBContext context;
+
+    @Override
+    protected void setUp() throws Exception {
+        context = ContextFactory.createContext(new Class[]{Order.class}, Collections.<String,Object>emptyMap());
+    }
+
+    private Unmarshaller validating() throws Exception {
+        Unmarshaller u = context.createUnmarshaller();
+        u.setProperty(UnmarshallerImpl.STRUCTURAL_VALIDATION, true);
+        return u;
+    }
+
+    private static Object unmarshal(Unmarshaller u, String xml) throws Exception {
+        return u.unmarshal(new StringReader(xml));
+    }
+
+    private void assertInvalid(String xml) throws Exception {
+        // without validation, the document is unmarshalled anyway
+        assertNotNull(unmarshal(context.createUnmarshaller(), xml));
+        try {
+            unmarshal(validating(), xml);
+            fail(xml);
+        } catch (UnmarshalException e) {
+            // expected
+        }
+    }
+
+    public void testValid() throws Exception {
+        Order o = (Order) unmarshal(validating(), VALID);
+        assertEquals("1", o.id);
+        assertEquals(3, o.quantity);
+        assertEquals(Color.GREEN, o.color);
+        assertEquals(2, o.item.size());
+        assertEquals(Collections.singletonList("x"), o.tag);
+
+        // the unmarshaller can be used again after an error
+        Unmarshaller u = validating();
+        try {
+            unmarshal(u, VALID.replace("<customer>c</customer>", ""));
+            fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+        assertNotNull(unmarshal(u, VALID));
+        assertEquals(Boolean.TRUE, u.getProperty(UnmarshallerImpl.STRUCTURAL_VALIDATION));
+    }
+
+    public void testNested() throws Exception {
+        String sub = "<sub id='2'><customer>d</customer><quantity>1</quantity><tags/></sub>";
+        Order o = (Order) unmarshal(validating(), VALID.replace("</order>", sub+"</order>"));
+        assertEquals("d", o.sub.customer);
+        // the required elements of the nested bean are checked on their own
+        // (quantity is required, as it can't be nil)
+        assertInvalid(VALID.replace("</order>", "<sub id='2'><quantity>1</quantity><tags/></sub></order>"));
+    }
+
+    public void testMissingElement() throws Exception {
+        assertInvalid(VALID.replace("<customer>c</customer>", ""));
+        assertInvalid(VALID.replace("<tags><tag>x</tag></tags>", ""));
+    }
+
+    public void testRepeatedElement() throws Exception {
+        assertInvalid(VALID.replace("<quantity>3</quantity>", "<quantity>3</quantity><quantity>4</quantity>"));
+    }
+
+    public void testAttributes() throws Exception {
+        assertInvalid(VALID.replace(" id='1'", ""));
+        assertInvalid(VALID.replace(" note='n'", " other='o'"));
+        // xsi attributes and namespace declarations are fine
+        assertNotNull(unmarshal(validating(), VALID.replace(" note='n'",
+            " xmlns:xsi='"+XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI+"' xsi:noNamespaceSchemaLocation='order.xsd'")));
+    }
+
+    public void testUnexpectedContent() throws Exception {
+        assertInvalid(VALID.replace("<quantity>", "<unknown/><quantity>"));
+        assertInvalid(VALID.replace("<quantity>", "text<quantity>"));
+        assertInvalid(VALID.replace("<customer>c</customer>", "<customer>c<b/></customer>"));
+        // the content of wrappers and maps is element-only, too
+        assertInvalid(VALID.replace("<tags>", "<tags>junk"));
+        assertInvalid(VALID.replace("</tags>", "junk</tags>"));
+        assertInvalid(VALID.replace("</order>", "<props>junk<entry><key>k</key><value>v</value></entry></props></order>"));
+        assertInvalid(VALID.replace("</order>", "<props><entry><key>k</key>junk<value>v</value></entry></props></order>"));
+
+        // but whitespace is fine anywhere
+        Order o = (Order) unmarshal(validating(), VALID
+            .replace("<tags>", "<tags>\n  ").replace("</tags>", "\n</tags>\n")
+            .replace("</order>", "<props> <entry> <key>k</key>\t<value>v</value> </entry> </props></order>"));
+        assertEquals(Collections.singletonList("x"), o.tag);
+        assertEquals("v", o.props.get("k"));
+    }
+
+    public void testValues() throws Exception {
+        assertInvalid(VALID.replace("<quantity>3</quantity>", "<quantity>three</quantity>"));
+        assertInvalid(VALID.replace("<color>GREEN</color>", "<color>BLUE</color>"));
+        // without validation, an unknown enum constant is just null
+        Order o = (Order) unmarshal(context.createUnmarshaller(), VALID.replace("<color>GREEN</color>", "<color>BLUE</color>"));
+        assertNull(o.color);
+    }
+
+    public void testSchemaValidation() throws Exception {
+        String xsd =
+            "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>" +
+              "<xs:element name='order'><xs:complexType><xs:sequence>" +
+                "<xs:element name='customer' type='xs:string' maxOccurs='unbounded'/>" +
+              "</xs:sequence><xs:attribute name='id'/></xs:complexType></xs:element>" +
+            "</xs:schema>";
+        Schema schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+            .newSchema(new StreamSource(new StringReader(xsd)));
+
+        StringBuilder text = new StringBuilder();
+        for( int i=0; i<300; i++ )
+            text.append("text&amp;").append(i);
+        Unmarshaller u = context.createUnmarshaller();
+        u.setSchema(schema);
+        Order o = (Order) unmarshal(u, "<order id='1'><customer>"+text+"</customer></order>");
+        assertEquals(text.toString().replace("&amp;", "&"), o.customer);
+
+        try {
+            unmarshal(u, "<order id='1'><customer>a</customer><quantity>1</quantity></order>");
+            fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.UnmarshalException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAnyElement;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementRef;
+import javax.xml.bind.annotation.XmlMixed;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+/**
+ * Checks that {@link UTF8Connector} produces the same result as the SAX parser.
+ */
+public class UTF8ConnectorTest extends TestCase {
+
+    @XmlRootElement(namespace="urn:a")
+    public static class Doc {
+        @XmlAttribute
+        public String id;
+        @XmlAttribute(namespace="urn:b")
+        public String ref;
+        @XmlElement(name="value", namespace="urn:a")
+        public List<String> values = new ArrayList<String>();
+        @XmlElement(namespace="urn:a")
+        public Doc child;
+        @XmlElement(namespace="urn:a")
+        public Any any;
+    }
+
+    public static class Any {
+        @XmlMixed
+        @XmlAnyElement
+        @XmlElementRef(type=Doc.class)
+        public List<Object> content = new ArrayList<Object>();
+    }
+
+    private JAXBContext context;
+
+    @Override
+    protected void setUp() throws Exception {
+        context = ContextFactory.createContext(new Class[]{Doc.class}, Collections.<String,Object>emptyMap());
+    }
+
+    /**
+     * Hands out a few bytes at a time, so that the scanner has to refill its buffer a lot.
+     */
+    private static InputStream trickle(byte[] b) {
+        return new ByteArrayInputStream(b) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+    }
+
+    private Object unmarshal(byte[] xml, boolean scanner) throws Exception {
+        Unmarshaller u = context.createUnmarshaller();
+        u.setProperty(UnmarshallerImpl.UTF8_SCANNER, scanner);
+        return u.unmarshal(scanner ? trickle(xml) : new ByteArrayInputStream(xml));
+    }
+
+    private String marshal(Object o) throws Exception {
+        StringWriter w = new StringWriter();
+        Marshaller m = context.createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        m.marshal(o, w);
+        return w.toString();
+    }
+
+    /**
+     * Unmarshals with both parsers and compares what comes out when marshalled again.
+     */
+    private String check(String xml) throws Exception {
+        byte[] b = xml.getBytes("UTF-8");
+        String expected = marshal(unmarshal(b, false));
+        assertEquals(expected, marshal(unmarshal(b, true)));
+        return expected;
+    }
+
+    private void checkMalformed(String xml) throws Exception {
+        try {
+            unmarshal(xml.getBytes("UTF-8"), true);
+            fail(xml);
+        } catch (UnmarshalException e) {
+            // expected
+        }
+    }
+
+    public void testProlog() throws Exception {
+        check("﻿<?xml version='1.0' encoding='UTF-8'?>\r\n"
+            + "<!-- comment -->\n<?pi data?>\n"
+            + "<d:doc xmlns:d='urn:a' id='1'/>");
+        check("<?xml version=\"1.0\"?><doc xmlns='urn:a'/>");
+        check("<doc xmlns='urn:a'/>");
+    }
+
+    public void testCommentsAndCData() throws Exception {
+        String s = check("<doc xmlns='urn:a'>"
+            + "<value>a<!-- - - -->b<?pi ?>c</value>"
+            + "<value><![CDATA[<&>]]]]><![CDATA[>]] ]>]]>x</value>"
+            + "<!-- <value>skipped</value> -->"
+            + "<any>t<![CDATA[<not-an-element/>]]><x><!--c-->y</x></any>"
+            + "</doc>");
+        assertTrue(s, s.contains(">abc</"));
+        assertTrue(s, s.contains("&lt;&amp;&gt;]]&gt;]] ]&gt;x"));
+        assertFalse(s, s.contains("skipped"));
+    }
+
+    public void testReferences() throws Exception {
+        String s = check("<doc xmlns='urn:a' id='&lt;&amp;&gt;&apos;&quot;&#65;&#x42;&#x1F600;'>"
+            + "<value>&lt;&amp;&gt;&apos;&quot;&#65;&#x42;&#x1F600;&#9;&#xD;</value>"
+            + "<value>\ta\r\nb\rc\n</value>"
+            + "</doc>");
+        assertTrue(s, s.contains("AB😀"));
+        check("<doc xmlns='urn:a' id=' a\tb\r\nc\nd&#10;'/>");
+    }
+
+    public void testMultiByte() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for( int i=0; i<3000; i++ )
+            sb.append("é中😀x");
+        String text = sb.toString();
+        String s = check("<doc xmlns='urn:a' id='é中😀'>"
+            + "<value>" + text + "</value>"
+            + "<any>" + text + "<élément 中='中'>" + text + "</élément></any>"
+            + "</doc>");
+        assertTrue(s.contains(text));
+    }
+
+    public void testLargeMarkup() throws Exception {
+        // a start tag that doesn't fit in the initial buffer
+        StringBuilder sb = new StringBuilder();
+        for( int i=0; i<2000; i++ )
+            sb.append("abcde");
+        check("<doc xmlns='urn:a' id='" + sb + "'><value>" + sb + "</value>"
+            + "<any><x a1='1' a2='2' a3='3' a4='4' a5='5' a6='6' a7='7' a8='8' a9='9' a10='10'/></any></doc>");
+    }
+
+    public void testNamespaceScoping() throws Exception {
+        check("<p:doc xmlns:p='urn:a' xmlns:q='urn:b' q:ref='r'>"
+            + "<p:child xmlns:p='urn:x' xmlns:r='urn:a' xmlns:q='urn:a' q:ref='nope'>"
+                + "<r:value>1</r:value><p:value>ignored</p:value>"
+            + "</p:child>"
+            + "<value xmlns='urn:a'>2</value>"
+            + "<p:any xmlns:q='urn:c'>"
+                + "<q:x><y xmlns='urn:d'><z xmlns=''/></y></q:x>"
+                + "<p:doc><p:value>3</p:value></p:doc>"
+            + "</p:any>"
+            + "</p:doc>");
+    }
+
+    public void testMalformed() throws Exception {
+        checkMalformed("<doc xmlns='urn:a' id='1' id='2'/>");
+        checkMalformed("<doc xmlns='urn:a' xmlns:p='urn:b' xmlns:q='urn:b' p:ref='1' q:ref='2'/>");
+        checkMalformed("<doc xmlns='urn:a' id='<'/>");
+        checkMalformed("<doc xmlns='urn:a' id='&#0;'/>");
+        checkMalformed("<doc xmlns='urn:a'><value>&#0;</value></doc>");
+        checkMalformed("<doc xmlns='urn:a'><value>&#1;</value></doc>");
+        checkMalformed("<doc xmlns='urn:a'><value>&#xD800;</value></doc>");
+        checkMalformed("<doc xmlns='urn:a'><value>&#xFFFE;</value></doc>");
+        checkMalformed("<doc xmlns='urn:a'><value>&#x110000;</value></doc>");
+        checkMalformed("<doc xmlns='urn:a' id='&#99999999999999999999;'/>");
+        checkMalformed("<doc xmlns='urn:a'><value>&foo;</value></doc>");
+        checkMalformed("<doc xmlns='urn:a'><value>x</valu></doc>");
+        checkMalformed("<doc xmlns='urn:a'><value>x</value>");
+        checkMalformed("<!DOCTYPE doc><doc xmlns='urn:a'/>");
+        checkMalformed("<doc xmlns='urn:a'><p:value/></doc>");
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.nio.charset.Charset;
+
+import com.sun.xml.bind.v2.runtime.NameList;
+
+import junit.framework.TestCase;
+
+public class UTF8SymbolTableTest extends TestCase {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final UTF8SymbolTable table = new UTF8SymbolTable(new NameList(
+        new String[]{"", "urn:test"}, new boolean[2], new String[]{"foo", "bar"}, 2, 0));
+
+    private String get(String s) {
+        // surround the name with other bytes, like it is in the input buffer
+        byte[] b = ("<"+s+">").getBytes(UTF8);
+        return table.get(b,1,b.length-1);
+    }
+
+    public void testKnownNames() {
+        assertSame("foo", get("foo"));
+        assertSame("urn:test", get("urn:test"));
+        assertSame("", get(""));
+    }
+
+    public void testUnknownNamesAreInterned() {
+        String s = get("zot\u00e9\u4e2d");
+        assertEquals("zot\u00e9\u4e2d", s);
+        assertSame(s.intern(), s);
+        assertSame(s, get("zot\u00e9\u4e2d"));
+    }
+
+    public void testManyNames() {
+        for( int i=0; i<1000; i++ )
+            assertSame(("n"+i).intern(), get("n"+i));
+        for( int i=0; i<1000; i++ )
+            assertSame(("n"+i).intern(), get("n"+i));
+        assertSame("bar", get("bar"));
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+public class UnmarshalIntoTest extends TestCase {
+
+    @XmlRootElement
+    public static class Quote {
+        @XmlAttribute
+        public String symbol;
+        public Price bid;
+        public Price ask;
+        public List<Price> level = new ArrayList<Price>();
+        @XmlElementWrapper(name="trades") @XmlElement(name="trade")
+        public List<Price> trades = new ArrayList<Price>();
+        public Price[] history;
+    }
+
+    public static class Price {
+        @XmlAttribute
+        public double px;
+        @XmlAttribute
+        public long qty;
+    }
+
+    @XmlRootElement
+    public static class Other {
+    }
+
+    private static final String DOC1 =
+        "<quote symbol='ABC'>" +
+            "<bid px='1.5' qty='10'/><ask px='1.6' qty='20'/>" +
+            "<level px='1' qty='1'/><level px='2' qty='2'/>" +
+            "<trades><trade px='3' qty='3'/></trades>" +
+            "<history px='4' qty='4'/><history px='5' qty='5'/>" +
+        "</quote>";
+
+    private static final String DOC2 =
+        "<quote symbol='XYZ'>" +
+            "<bid px='2.5' qty='11'/>" +
+            "<level px='7' qty='7'/><level px='8' qty='8'/><level px='9' qty='9'/>" +
+            "<trades><trade px='6' qty='6'/></trades>" +
+            "<history px='10' qty='10'/>" +
+        "</quote>";
+
+    private UnmarshallerImpl unmarshaller;
+
+    @Override
+    protected void setUp() throws Exception {
+        JAXBContext context = ContextFactory.createContext(new Class[]{Quote.class,Other.class}, Collections.<String,Object>emptyMap());
+        unmarshaller = (UnmarshallerImpl)context.createUnmarshaller();
+    }
+
+    private static StreamSource source(String xml) {
+        return new StreamSource(new StringReader(xml));
+    }
+
+    public void testReuse() throws Exception {
+        Quote q = (Quote)unmarshaller.unmarshal(source(DOC1));
+        Price bid = q.bid;
+        List<Price> level = q.level;
+        Price level0 = q.level.get(0), level1 = q.level.get(1);
+        List<Price> trades = q.trades;
+        Price trade0 = q.trades.get(0);
+        Price history0 = q.history[0];
+
+        assertSame(q, unmarshaller.unmarshalInto(source(DOC2), q));
+
+        assertEquals("XYZ", q.symbol);
+        assertSame(bid, q.bid);
+        assertEquals(2.5, bid.px);
+        assertEquals(11, bid.qty);
+        // missing from the document
+        assertNull(q.ask);
+
+        assertSame(level, q.level);
+        assertEquals(3, level.size());
+        assertSame(level0, level.get(0));
+        assertSame(level1, level.get(1));
+        assertEquals(7.0, level0.px);
+        assertEquals(9.0, level.get(2).px);
+
+        assertSame(trades, q.trades);
+        assertEquals(1, trades.size());
+        assertSame(trade0, trades.get(0));
+        assertEquals(6L, trade0.qty);
+
+        assertEquals(1, q.history.length);
+        assertSame(history0, q.history[0]);
+        assertEquals(10.0, history0.px);
+    }
+
+    public void testShrinkAndGrow() throws Exception {
+        Quote q = new Quote();
+        unmarshaller.unmarshalInto(source(DOC2), q);
+        Price level2 = q.level.get(2);
+        assertEquals(3, q.level.size());
+
+        unmarshaller.unmarshalInto(source(DOC1), q);
+        assertEquals(2, q.level.size());
+        assertNotNull(q.ask);
+        assertEquals(2, q.history.length);
+
+        // items that were dropped don't come back
+        unmarshaller.unmarshalInto(source(DOC2), q);
+        assertNotSame(level2, q.level.get(2));
+        assertEquals(9.0, q.level.get(2).px);
+    }
+
+    public void testStAX() throws Exception {
+        Quote q = new Quote();
+        Price first = new Price();
+        q.bid = first;
+        Object r = unmarshaller.unmarshalInto(XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(DOC1)), q);
+        assertSame(q, r);
+        assertSame(first, q.bid);
+        assertEquals(1.5, first.px);
+    }
+
+    public void testOtherRoot() throws Exception {
+        Quote q = new Quote();
+        q.symbol = "ABC";
+        Object r = unmarshaller.unmarshalInto(source("<other/>"), q);
+        assertTrue(r instanceof Other);
+        assertEquals("ABC", q.symbol);
+    }
+
+    public void testPlainUnmarshalAfterwards() throws Exception {
+        Quote q = (Quote)unmarshaller.unmarshal(source(DOC1));
+        unmarshaller.unmarshalInto(source(DOC2), q);
+        Quote fresh = (Quote)unmarshaller.unmarshal(source(DOC2));
+        assertNotSame(q, fresh);
+        assertNotSame(q.bid, fresh.bid);
+        assertNotSame(q.level.get(0), fresh.level.get(0));
+    }
+}
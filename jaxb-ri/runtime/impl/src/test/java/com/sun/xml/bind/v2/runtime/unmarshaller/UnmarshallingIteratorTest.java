@@ -0,0 +1,161 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.xml.bind.DataBindingException;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+public class UnmarshallingIteratorTest extends TestCase {
+
+    public static class Record {
+        @XmlAttribute
+        public String id;
+        public String value;
+    }
+
+    private static final QName RECORD = new QName("urn:r", "record");
+
+    private JAXBContext context;
+
+    @Override
+    protected void setUp() throws Exception {
+        context = ContextFactory.createContext(new Class[]{Record.class}, Collections.<String,Object>emptyMap());
+    }
+
+    private Iterator<Record> iterate(String xml) throws Exception {
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+        return ((UnmarshallerImpl)context.createUnmarshaller()).unmarshalElements(reader, RECORD, Record.class);
+    }
+
+    private static void assertRecord(String id, String value, Record r) {
+        assertEquals(id, r.id);
+        assertEquals(value, r.value);
+    }
+
+    public void testIteration() throws Exception {
+        Iterator<Record> itr = iterate("<r:records xmlns:r='urn:r'>"
+            + "<r:record id='1'><value>a</value></r:record>"
+            + "<r:record id='2'><value>b</value></r:record>"
+            + "<r:record id='3'/>"
+            + "</r:records>");
+
+        assertTrue(itr.hasNext());
+        assertTrue(itr.hasNext());
+        assertRecord("1", "a", itr.next());
+        // next() without hasNext()
+        assertRecord("2", "b", itr.next());
+        assertTrue(itr.hasNext());
+        assertTrue(itr.hasNext());
+        assertRecord("3", null, itr.next());
+
+        assertFalse(itr.hasNext());
+        assertFalse(itr.hasNext());
+        try {
+            itr.next();
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    public void testEmpty() throws Exception {
+        Iterator<Record> itr = iterate("<r:records xmlns:r='urn:r'/>");
+        assertFalse(itr.hasNext());
+        try {
+            itr.next();
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    public void testSkipsOtherElements() throws Exception {
+        Iterator<Record> itr = iterate("<r:records xmlns:r='urn:r'>"
+            + "<header><value>h</value></header>"
+            + "<r:record id='1'><value>a</value></r:record>"
+            + "<x:record xmlns:x='urn:other' id='no'/>"
+            + "<!-- comment -->text"
+            + "<group><r:record id='2'><value>b</value></r:record></group>"
+            + "<footer/>"
+            + "</r:records>");
+
+        assertRecord("1", "a", itr.next());
+        assertRecord("2", "b", itr.next());
+        assertFalse(itr.hasNext());
+    }
+
+    public void testMalformed() throws Exception {
+        Iterator<Record> itr = iterate("<r:records xmlns:r='urn:r'>"
+            + "<r:record id='1'><value>a</value></r:record>"
+            + "<r:record id='2'><value>b</r:record>"
+            + "</r:records>");
+        assertRecord("1", "a", itr.next());
+        try {
+            itr.next();
+            fail();
+        } catch (DataBindingException e) {
+            // expected
+        }
+
+        // broken between two elements
+        itr = iterate("<r:records xmlns:r='urn:r'>"
+            + "<r:record id='1'/><junk></r:records>");
+        assertRecord("1", null, itr.next());
+        try {
+            itr.hasNext();
+            fail();
+        } catch (DataBindingException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2017 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.ValidationEvent;
+import javax.xml.bind.ValidationEventHandler;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSeeAlso;
+import javax.xml.bind.annotation.XmlType;
+
+import com.sun.xml.bind.v2.ContextFactory;
+import junit.framework.TestCase;
+
+public class XsiTypeLoaderTest extends TestCase {
+
+    @XmlSeeAlso({Dog.class,Cat.class})
+    public static class Animal {
+    }
+
+    @XmlType(namespace="urn:t")
+    public static class Dog extends Animal {
+    }
+
+    @XmlType(namespace="urn:t")
+    public static class Cat extends Animal {
+    }
+
+    @XmlRootElement
+    public static class Zoo {
+        @XmlElement(name="animal")
+        public List<Animal> animals = new ArrayList<Animal>();
+    }
+
+    private static final String XML = "<zoo xmlns:xsi='http://www.w3.org/2001/XMLSchema-instance' xmlns:p='urn:t'>"
+        + "<animal xsi:type='p:dog'/>"
+        + "<animal xsi:type='p:cat'/>"
+        + "<animal xsi:type='p:dog'/>"
+        + "<animal xsi:type='p:dog' xmlns:p='urn:other'/>"
+        + "<animal xsi:type='q:cat' xmlns:q='urn:t'/>"
+        + "<animal xmlns:p='urn:t'><p:x xsi:type='p:dog'/></animal>"
+        + "<animal xsi:type=' p:cat '/>"
+        + "</zoo>";
+
+    public void testXsiType() throws Exception {
+        JAXBContext context = ContextFactory.createContext(new Class[]{Zoo.class}, Collections.<String,Object>emptyMap());
+        Unmarshaller u = context.createUnmarshaller();
+        final List<ValidationEvent> events = new ArrayList<ValidationEvent>();
+        u.setEventHandler(new ValidationEventHandler() {
+            public boolean handleEvent(ValidationEvent event) {
+                events.add(event);
+                return true;
+            }
+        });
+
+        // the second round runs entirely off the cache
+        for (int i = 0; i < 2; i++) {
+            events.clear();
+            Zoo z = (Zoo) u.unmarshal(new StringReader(XML));
+            assertEquals(7, z.animals.size());
+            assertEquals(Dog.class, z.animals.get(0).getClass());
+            assertEquals(Cat.class, z.animals.get(1).getClass());
+            assertEquals(Dog.class, z.animals.get(2).getClass());
+            // p is bound to another namespace here, so the type is unknown
+            assertEquals(Animal.class, z.animals.get(3).getClass());
+            assertEquals(Cat.class, z.animals.get(4).getClass());
+            assertEquals(Animal.class, z.animals.get(5).getClass());
+            assertEquals(Cat.class, z.animals.get(6).getClass());
+            assertTrue(events.size() > 0);
+        }
+    }
+}